@@ -1,4 +1,5 @@
 import com.google.protobuf.gradle.id
+import groovy.json.JsonSlurper
 
 plugins {
     java
@@ -7,6 +8,7 @@ plugins {
     id("io.spring.dependency-management") version "1.1.7"
     id("com.google.protobuf") version "0.9.4"
     id("com.google.cloud.tools.jib") version "3.4.5"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.shishir.ticketmetrics"
@@ -32,7 +34,10 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-cache")
     implementation("org.mybatis.spring.boot:mybatis-spring-boot-starter:${property("mybatisSpringBootVersion")}")
     implementation("org.xerial:sqlite-jdbc:3.50.2.0")
+    implementation("org.flywaydb:flyway-core")
     implementation("com.github.ben-manes.caffeine:caffeine")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("io.micrometer:micrometer-registry-prometheus")
 
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.mybatis.spring.boot:mybatis-spring-boot-starter-test:${property("mybatisSpringBootVersion")}")
@@ -129,6 +134,81 @@ tasks.check {
     dependsOn(tasks.jacocoTestCoverageVerification)
 }
 
+jmh {
+    // Run a subset with e.g. -PjmhIncludes=ScoreCalculatorBenchmark
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes.add(it) }
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+}
+
+val jmhResults = layout.buildDirectory.file("results/jmh/results.json")
+val jmhBaseline = layout.projectDirectory.file("src/jmh/baseline/results.json")
+
+tasks.register("jmhCompare") {
+    group = "benchmark"
+    description = "Compares the latest JMH results with the checked-in baseline and fails on regressions or missing benchmarks."
+    val threshold = providers.gradleProperty("jmhRegressionThreshold").map { it.toDouble() }.orElse(0.10)
+    val includes = providers.gradleProperty("jmhIncludes")
+    inputs.file(jmhResults)
+    inputs.file(jmhBaseline)
+
+    doLast {
+        @Suppress("UNCHECKED_CAST")
+        fun load(file: File): Map<String, Map<String, Any?>> =
+            (JsonSlurper().parse(file) as List<Map<String, Any?>>).associateBy { result ->
+                val params = (result["params"] as Map<String, Any?>?)?.toSortedMap() ?: emptyMap<String, Any?>()
+                "${result["benchmark"]}$params"
+            }
+
+        val baseline = load(jmhBaseline.asFile)
+        if (baseline.isEmpty()) {
+            throw GradleException("JMH baseline ${jmhBaseline.asFile} is empty, record one with ./gradlew jmh jmhUpdateBaseline")
+        }
+        val results = load(jmhResults.get().asFile)
+        // A subset run (-PjmhIncludes) only has to cover the baseline benchmarks it selects
+        val selected = includes.map { Regex(it) }.orNull
+        val missing = baseline.filter { (key, base) ->
+            key !in results && (selected == null || selected.containsMatchIn(base["benchmark"] as String))
+        }.keys
+        if (missing.isNotEmpty()) {
+            throw GradleException("JMH baseline benchmarks missing from the results: $missing")
+        }
+
+        val regressions = mutableListOf<String>()
+        results.forEach { (key, result) ->
+            @Suppress("UNCHECKED_CAST")
+            val score = ((result["primaryMetric"] as Map<String, Any?>)["score"] as Number).toDouble()
+            val base = baseline[key]
+            if (base == null) {
+                logger.lifecycle("NEW        $key: %.3f".format(score))
+                return@forEach
+            }
+            @Suppress("UNCHECKED_CAST")
+            val baseScore = ((base["primaryMetric"] as Map<String, Any?>)["score"] as Number).toDouble()
+            // Throughput: higher is better, every other mode measures time: lower is better
+            val change = if (result["mode"] == "thrpt") (baseScore - score) / baseScore else (score - baseScore) / baseScore
+            val status = if (change > threshold.get()) "REGRESSION" else "OK        "
+            logger.lifecycle("$status $key: %.3f -> %.3f (%+.1f%%)".format(baseScore, score, change * 100))
+            if (change > threshold.get()) {
+                regressions.add(key)
+            }
+        }
+        if (regressions.isNotEmpty()) {
+            throw GradleException("JMH regressions over ${threshold.get() * 100}%: $regressions")
+        }
+    }
+}
+
+tasks.register<Copy>("jmhUpdateBaseline") {
+    group = "benchmark"
+    description = "Replaces the checked-in JMH baseline with the latest results."
+    from(jmhResults)
+    into(jmhBaseline.asFile.parentFile)
+}
+
 jib {
     from {
         image = "eclipse-temurin:21-jdk-alpine"
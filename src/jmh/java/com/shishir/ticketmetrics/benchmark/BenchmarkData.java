@@ -0,0 +1,131 @@
+package com.shishir.ticketmetrics.benchmark;
+
+import com.shishir.ticketmetrics.Application;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generated SQLite fixture plus a running application context on top of it.
+ *
+ * <p>
+ * The schema is created by the Flyway migrations on startup, then {@value #TICKETS_PER_DAY}
+ * tickets per day are inserted, each rated in a random subset of the categories.
+ * Data is generated from a fixed seed so runs are comparable.
+ */
+final class BenchmarkData implements Closeable {
+  static final List<Integer> CATEGORY_IDS = List.of(1, 2, 3, 4);
+  
+  private static final int TICKETS_PER_DAY = 200;
+  private static final LocalDate END_DATE = LocalDate.parse("2025-06-30");
+  
+  private final Path databaseFile;
+  private final ConfigurableApplicationContext context;
+  private final LocalDate startDate;
+  
+  private BenchmarkData(Path databaseFile, ConfigurableApplicationContext context, LocalDate startDate) {
+    this.databaseFile = databaseFile;
+    this.context = context;
+    this.startDate = startDate;
+  }
+  
+  static BenchmarkData start(int days, String... properties) throws IOException, SQLException {
+    var databaseFile = Files.createTempFile("ticket-metrics-benchmark", ".db");
+    var context = new SpringApplicationBuilder(Application.class)
+        .properties(
+            "spring.datasource.url=jdbc:sqlite:" + databaseFile,
+            "spring.grpc.server.port=0",
+            // Data is inserted after startup, the benchmarks control cache state themselves
+            "ticket-metrics.warm-up.enabled=false",
+            "ticket-metrics.metrics.prometheus.enabled=false",
+            "logging.level.com.shishir.ticketmetrics=WARN"
+        )
+        .properties(properties)
+        .run();
+    var startDate = END_DATE.minusDays(days - 1);
+    insert(context.getBean(DataSource.class), startDate, days);
+    return new BenchmarkData(databaseFile, context, startDate);
+  }
+  
+  <T> T bean(Class<T> type) {
+    return context.getBean(type);
+  }
+  
+  int grpcPort() {
+    return context.getEnvironment().getRequiredProperty("local.grpc.port", Integer.class);
+  }
+  
+  LocalDate startDate() {
+    return startDate;
+  }
+  
+  LocalDate endDate() {
+    return END_DATE;
+  }
+  
+  /**
+   * @return number of tickets, with ids from 1 up to it
+   */
+  int ticketCount() {
+    return (int) (END_DATE.toEpochDay() - startDate.toEpochDay() + 1) * TICKETS_PER_DAY;
+  }
+  
+  @Override
+  public void close() throws IOException {
+    context.close();
+    Files.deleteIfExists(databaseFile);
+    Files.deleteIfExists(Path.of(databaseFile + "-wal"));
+    Files.deleteIfExists(Path.of(databaseFile + "-shm"));
+  }
+  
+  private static void insert(DataSource dataSource, LocalDate startDate, int days) throws SQLException {
+    var random = new Random(42);
+    try (var connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      try (var statement = connection.createStatement()) {
+        statement.executeUpdate("INSERT INTO rating_categories (id, name, weight) VALUES (1, 'Spelling', 1), (2, 'Grammar', 0.7), (3, 'GDPR', 1.2), (4, 'Randomness', 1)");
+        statement.executeUpdate("INSERT INTO users (id, name) VALUES (1, 'Reviewer'), (2, 'Reviewee')");
+      }
+      
+      try (var tickets = connection.prepareStatement("INSERT INTO tickets (id, subject, created_at) VALUES (?, ?, ?)");
+           var ratings = connection.prepareStatement("INSERT INTO ratings (rating, ticket_id, rating_category_id, reviewer_id, reviewee_id, created_at) VALUES (?, ?, ?, 1, 2, ?)")) {
+        var ticketId = 0;
+        for (int day = 0; day < days; day++) {
+          var date = startDate.plusDays(day);
+          for (int i = 0; i < TICKETS_PER_DAY; i++) {
+            ticketId++;
+            var createdAt = date.atStartOfDay().plusSeconds(random.nextInt(86_400));
+            tickets.setInt(1, ticketId);
+            tickets.setString(2, "Ticket " + ticketId);
+            tickets.setString(3, createdAt.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            tickets.addBatch();
+            
+            for (var categoryId : CATEGORY_IDS) {
+              if (random.nextInt(4) == 0) {
+                continue;
+              }
+              ratings.setInt(1, random.nextInt(6));
+              ratings.setInt(2, ticketId);
+              ratings.setInt(3, categoryId);
+              ratings.setString(4, createdAt.plusMinutes(random.nextInt(120)).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+              ratings.addBatch();
+            }
+          }
+          tickets.executeBatch();
+          ratings.executeBatch();
+        }
+      }
+      connection.commit();
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package com.shishir.ticketmetrics.benchmark;
+
+import com.shishir.ticketmetrics.persistence.dao.RatingStatsDao;
+import com.shishir.ticketmetrics.persistence.dto.CategoryRatingStatsByRatingDate;
+import com.shishir.ticketmetrics.persistence.dto.TicketCategoryRatingStats;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Uncached mapper reads from 1 to 8 threads. With the WAL-mode reader pool, throughput should grow with the
+ * thread count up to the number of cores instead of staying flat on one connection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConcurrentReadBenchmark {
+  private static final int WINDOW_DAYS = 7;
+  private static final int TICKETS = 100;
+  
+  private BenchmarkData data;
+  private RatingStatsDao ratingStatsDao;
+  private LocalDate startDate;
+  private int days;
+  private int ticketCount;
+  
+  @Setup(Level.Trial)
+  public void start() throws IOException, SQLException {
+    data = BenchmarkData.start(90);
+    ratingStatsDao = data.bean(RatingStatsDao.class);
+    startDate = data.startDate();
+    days = (int) (data.endDate().toEpochDay() - startDate.toEpochDay()) + 1;
+    ticketCount = data.ticketCount();
+  }
+  
+  @TearDown(Level.Trial)
+  public void stop() throws IOException {
+    data.close();
+  }
+  
+  @Benchmark
+  @Threads(1)
+  public List<CategoryRatingStatsByRatingDate> dateRange1Thread() {
+    return dateRange();
+  }
+  
+  @Benchmark
+  @Threads(2)
+  public List<CategoryRatingStatsByRatingDate> dateRange2Threads() {
+    return dateRange();
+  }
+  
+  @Benchmark
+  @Threads(4)
+  public List<CategoryRatingStatsByRatingDate> dateRange4Threads() {
+    return dateRange();
+  }
+  
+  @Benchmark
+  @Threads(8)
+  public List<CategoryRatingStatsByRatingDate> dateRange8Threads() {
+    return dateRange();
+  }
+  
+  @Benchmark
+  @Threads(1)
+  public List<TicketCategoryRatingStats> tickets1Thread() {
+    return tickets();
+  }
+  
+  @Benchmark
+  @Threads(4)
+  public List<TicketCategoryRatingStats> tickets4Threads() {
+    return tickets();
+  }
+  
+  @Benchmark
+  @Threads(8)
+  public List<TicketCategoryRatingStats> tickets8Threads() {
+    return tickets();
+  }
+  
+  // A random week, so the threads do not all read the same pages
+  private List<CategoryRatingStatsByRatingDate> dateRange() {
+    var from = startDate.plusDays(ThreadLocalRandom.current().nextInt(days - WINDOW_DAYS + 1));
+    return ratingStatsDao.fetchCategoryStatsByRatingDateRange(from, from.plusDays(WINDOW_DAYS - 1));
+  }
+  
+  private List<TicketCategoryRatingStats> tickets() {
+    var first = 1 + ThreadLocalRandom.current().nextInt(ticketCount - TICKETS + 1);
+    var ticketIds = IntStream.range(first, first + TICKETS).boxed().toList();
+    return ratingStatsDao.fetchTicketCategoryStatsByTicketIds(ticketIds);
+  }
+}
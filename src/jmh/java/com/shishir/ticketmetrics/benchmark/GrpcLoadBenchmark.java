@@ -0,0 +1,54 @@
+package com.shishir.ticketmetrics.benchmark;
+
+import com.shishir.ticketmetrics.generated.grpc.GetTicketScoreRequest;
+import com.shishir.ticketmetrics.generated.grpc.GetTicketScoreResponse;
+import com.shishir.ticketmetrics.generated.grpc.TicketMetricsServiceGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test over gRPC: 64 concurrent clients ask for ticket scores, mostly cache misses that block on SQLite,
+ * with handlers on the default gRPC executor or on virtual threads. Throughput shows the request capacity,
+ * the sample-time percentiles (p0.99) the tail latency at that load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(64)
+public class GrpcLoadBenchmark {
+  
+  @Param({"false", "true"})
+  String virtualThreads;
+  
+  private BenchmarkData data;
+  private ManagedChannel channel;
+  private TicketMetricsServiceGrpc.TicketMetricsServiceBlockingStub stub;
+  private int ticketCount;
+  
+  @Setup(Level.Trial)
+  public void start() throws IOException, SQLException {
+    data = BenchmarkData.start(90, "ticket-metrics.virtual-threads.enabled=" + virtualThreads);
+    channel = ManagedChannelBuilder.forAddress("localhost", data.grpcPort()).usePlaintext().build();
+    stub = TicketMetricsServiceGrpc.newBlockingStub(channel);
+    ticketCount = data.ticketCount();
+  }
+  
+  @TearDown(Level.Trial)
+  public void stop() throws IOException, InterruptedException {
+    channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    data.close();
+  }
+  
+  // The ticket caches hold 1000 entries, so random tickets out of all of them mostly miss
+  @Benchmark
+  public GetTicketScoreResponse ticketScore() {
+    var ticketId = 1 + ThreadLocalRandom.current().nextInt(ticketCount);
+    return stub.getTicketScore(GetTicketScoreRequest.newBuilder().setTicketId(ticketId).build());
+  }
+}
@@ -0,0 +1,101 @@
+package com.shishir.ticketmetrics.benchmark;
+
+import com.shishir.ticketmetrics.generated.grpc.CategoryTimelineResponse;
+import com.shishir.ticketmetrics.generated.grpc.TicketCategoryMatrixResponse;
+import com.shishir.ticketmetrics.grpc.support.GrpcResponseMapper;
+import com.shishir.ticketmetrics.model.CategoryScoreByTicket;
+import com.shishir.ticketmetrics.model.CategoryScoreSummary;
+import com.shishir.ticketmetrics.model.TicketXCategoryScores;
+import com.shishir.ticketmetrics.model.TimelineGranularity;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Protobuf response building as done by {@code GrpcRequestHandler}, without the service calls.
+ * The {@code ...Bytes} benchmarks include the serialization, in the rows and the compact format; the serialized
+ * sizes of both formats are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseBuildingBenchmark {
+  
+  @Param({"1000", "10000"})
+  int tickets;
+  
+  private List<TicketXCategoryScores> matrix;
+  private List<CategoryScoreSummary> timeline;
+  private LocalDate startDate;
+  private LocalDate endDate;
+  
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    matrix = IntStream.rangeClosed(1, tickets)
+        .mapToObj(ticketId -> TicketXCategoryScores.of(
+            ticketId,
+            BenchmarkData.CATEGORY_IDS.stream()
+                .map(categoryId -> CategoryScoreByTicket.of(categoryId, randomScore(random)))
+                .toList()
+        ))
+        .toList();
+    
+    startDate = LocalDate.parse("2025-01-01");
+    endDate = startDate.plusDays(364);
+    timeline = BenchmarkData.CATEGORY_IDS.stream()
+        .map(categoryId -> CategoryScoreSummary.of(
+            categoryId,
+            (long) tickets,
+            randomScore(random),
+            startDate.datesUntil(startDate.plusDays(365))
+                .map(date -> CategoryScoreSummary.Timeline.of(date, randomScore(random)))
+                .toList()
+        ))
+        .toList();
+    
+    System.out.printf("%nSerialized bytes: matrix rows=%d, compact=%d; daily timeline rows=%d, compact=%d%n",
+        ticketCategoryMatrixBytes().length, compactTicketCategoryMatrixBytes().length,
+        categoryTimelineBytes().length, compactCategoryTimelineBytes().length);
+  }
+  
+  @Benchmark
+  public TicketCategoryMatrixResponse ticketCategoryMatrixResponse() {
+    return GrpcResponseMapper.toTicketCategoryMatrixResponse(matrix);
+  }
+  
+  @Benchmark
+  public CategoryTimelineResponse categoryTimelineResponse() {
+    return GrpcResponseMapper.toCategoryTimelineResponse(timeline);
+  }
+  
+  @Benchmark
+  public byte[] ticketCategoryMatrixBytes() {
+    return GrpcResponseMapper.toTicketCategoryMatrixResponse(matrix).toByteArray();
+  }
+  
+  @Benchmark
+  public byte[] compactTicketCategoryMatrixBytes() {
+    return GrpcResponseMapper.toCompactTicketCategoryMatrixResponse(matrix).toByteArray();
+  }
+  
+  @Benchmark
+  public byte[] categoryTimelineBytes() {
+    return GrpcResponseMapper.toCategoryTimelineResponse(timeline).toByteArray();
+  }
+  
+  @Benchmark
+  public byte[] compactCategoryTimelineBytes() {
+    return GrpcResponseMapper.toCompactCategoryTimelineResponse(timeline, TimelineGranularity.DAY, startDate, endDate).toByteArray();
+  }
+  
+  private static BigDecimal randomScore(Random random) {
+    return BigDecimal.valueOf(random.nextInt(10_000), 2).setScale(6, RoundingMode.HALF_EVEN);
+  }
+}
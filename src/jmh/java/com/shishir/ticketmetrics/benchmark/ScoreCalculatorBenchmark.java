@@ -0,0 +1,59 @@
+package com.shishir.ticketmetrics.benchmark;
+
+import com.shishir.ticketmetrics.calculator.FixedPointScoreCalculator;
+import com.shishir.ticketmetrics.calculator.ScoreCalculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScoreCalculatorBenchmark {
+  
+  private final Map<Integer, BigDecimal> weightMap = Map.of(
+      1, BigDecimal.valueOf(1.0),
+      2, BigDecimal.valueOf(0.7),
+      3, BigDecimal.valueOf(1.2),
+      4, BigDecimal.valueOf(1.0)
+  );
+  
+  // Daily averages as SQLite returns them
+  private final Map<Integer, BigDecimal> ratingMap = Map.of(
+      1, BigDecimal.valueOf(3.5),
+      2, BigDecimal.valueOf(10d / 3d),
+      3, BigDecimal.valueOf(4.0),
+      4, BigDecimal.valueOf(2.25)
+  );
+  private final long[] ratingSums = {0, 7, 10, 4, 9};
+  private final long[] ratingCounts = {0, 2, 3, 1, 4};
+  
+  private FixedPointScoreCalculator.Weights weights;
+  
+  @Setup
+  public void setup() {
+    weights = FixedPointScoreCalculator.Weights.of(weightMap).orElseThrow();
+  }
+  
+  @Benchmark
+  public BigDecimal bigDecimalAllCategories() {
+    return ScoreCalculator.calculateScore(ratingMap, weightMap);
+  }
+  
+  @Benchmark
+  public long fixedPointAllCategories() {
+    return FixedPointScoreCalculator.calculateScoreCents(ratingSums, ratingCounts, weights);
+  }
+  
+  @Benchmark
+  public BigDecimal bigDecimalSingleCategory() {
+    return ScoreCalculator.calculateScore(Map.of(2, ratingMap.get(2)), weightMap);
+  }
+  
+  @Benchmark
+  public long fixedPointSingleCategory() {
+    return FixedPointScoreCalculator.calculateCategoryScoreCents(2, ratingSums[2], ratingCounts[2], weights);
+  }
+}
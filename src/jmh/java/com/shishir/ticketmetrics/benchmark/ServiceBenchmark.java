@@ -0,0 +1,84 @@
+package com.shishir.ticketmetrics.benchmark;
+
+import com.shishir.ticketmetrics.model.CategoryScoreSummary;
+import com.shishir.ticketmetrics.model.TicketXCategoryScores;
+import com.shishir.ticketmetrics.model.TimelineGranularity;
+import com.shishir.ticketmetrics.service.GetCategoryTimelineScoreService;
+import com.shishir.ticketmetrics.service.OverallScoreService;
+import com.shishir.ticketmetrics.service.TicketCategoryMatrixService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.CacheManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end service calls against a generated SQLite database, with warm or cold caches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ServiceBenchmark {
+  
+  @Param({"30", "90", "180"})
+  int days;
+  
+  @Param({"warm", "cold"})
+  String cache;
+  
+  private BenchmarkData data;
+  private CacheManager cacheManager;
+  private OverallScoreService overallScoreService;
+  private GetCategoryTimelineScoreService getCategoryTimelineScoreService;
+  private TicketCategoryMatrixService ticketCategoryMatrixService;
+  private LocalDate startDate;
+  private LocalDate endDate;
+  
+  @Setup(Level.Trial)
+  public void start() throws IOException, SQLException {
+    data = BenchmarkData.start(days);
+    cacheManager = data.bean(CacheManager.class);
+    overallScoreService = data.bean(OverallScoreService.class);
+    getCategoryTimelineScoreService = data.bean(GetCategoryTimelineScoreService.class);
+    ticketCategoryMatrixService = data.bean(TicketCategoryMatrixService.class);
+    startDate = data.startDate();
+    endDate = data.endDate();
+  }
+  
+  @Setup(Level.Invocation)
+  public void prepareCache() {
+    // Service calls take milliseconds, so per-invocation setup does not distort the measurement
+    if ("cold".equals(cache)) {
+      cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+  }
+  
+  @TearDown(Level.Trial)
+  public void stop() throws IOException {
+    data.close();
+  }
+  
+  @Benchmark
+  public BigDecimal overallScore() {
+    return overallScoreService.getOverallScore(startDate, endDate);
+  }
+  
+  @Benchmark
+  public List<CategoryScoreSummary> weeklyTimeline() {
+    return getCategoryTimelineScoreService.getCategoryTimelineScores(startDate, endDate, TimelineGranularity.WEEK, 0);
+  }
+  
+  @Benchmark
+  public List<CategoryScoreSummary> monthlyTimeline() {
+    return getCategoryTimelineScoreService.getCategoryTimelineScores(startDate, endDate, TimelineGranularity.MONTH, 0);
+  }
+  
+  @Benchmark
+  public List<TicketXCategoryScores> ticketCategoryScores() {
+    return ticketCategoryMatrixService.getTicketCategoryScores(startDate, endDate);
+  }
+}
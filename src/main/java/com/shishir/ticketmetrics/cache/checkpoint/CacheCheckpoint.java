@@ -0,0 +1,213 @@
+package com.shishir.ticketmetrics.cache.checkpoint;
+
+import com.shishir.ticketmetrics.cache.store.CategoryScoreByRatingDateCacheStore;
+import com.shishir.ticketmetrics.cache.store.CategoryScoreRollupCacheStore;
+import com.shishir.ticketmetrics.cache.store.OverallDailyScoreCacheStore;
+import com.shishir.ticketmetrics.cache.store.RatingWriteVersion;
+import com.shishir.ticketmetrics.cache.store.TicketCategoryMatrixCacheStore;
+import com.shishir.ticketmetrics.cache.store.TicketScoreCacheStore;
+import com.shishir.ticketmetrics.model.TimelinePeriod;
+import com.shishir.ticketmetrics.persistence.dao.RatingDao;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkpoints the date-keyed, period-keyed and ticket-keyed caches to a file and restores them at startup,
+ * so a restarted instance does not have to recompute them.
+ *
+ * <p>
+ * A checkpoint records the {@code ratings} high-water mark its values are current for. It is restored only
+ * when the high-water mark is unchanged, i.e. no rating was recorded since, and entries cached in the meantime
+ * are kept. Checkpoints and restores overlapping a {@code RecordRatings} call are discarded, see
+ * {@link RatingWriteVersion}. Ratings changed without a new id are not detected.
+ * </p>
+ * <p>
+ * Runs before the other application runners, so the startup warm-up finds the restored entries and
+ * a rating stats backfill clears them again.
+ * </p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CacheCheckpoint implements ApplicationRunner {
+  private static final Logger LOG = LoggerFactory.getLogger(CacheCheckpoint.class);
+  
+  private final CacheCheckpointProperties properties;
+  private final RatingDao ratingDao;
+  private final RatingWriteVersion ratingWriteVersion;
+  private final OverallDailyScoreCacheStore overallDailyScoreCacheStore;
+  private final CategoryScoreByRatingDateCacheStore categoryScoreCacheStore;
+  private final TicketScoreCacheStore ticketScoreCacheStore;
+  private final TicketCategoryMatrixCacheStore ticketCategoryMatrixCacheStore;
+  private final CategoryScoreRollupCacheStore categoryScoreRollupCacheStore;
+  
+  private ScheduledExecutorService scheduler;
+  
+  public CacheCheckpoint(
+      CacheCheckpointProperties properties,
+      RatingDao ratingDao,
+      RatingWriteVersion ratingWriteVersion,
+      OverallDailyScoreCacheStore overallDailyScoreCacheStore,
+      CategoryScoreByRatingDateCacheStore categoryScoreCacheStore,
+      TicketScoreCacheStore ticketScoreCacheStore,
+      TicketCategoryMatrixCacheStore ticketCategoryMatrixCacheStore,
+      CategoryScoreRollupCacheStore categoryScoreRollupCacheStore
+  ) {
+    this.properties = properties;
+    this.ratingDao = ratingDao;
+    this.ratingWriteVersion = ratingWriteVersion;
+    this.overallDailyScoreCacheStore = overallDailyScoreCacheStore;
+    this.categoryScoreCacheStore = categoryScoreCacheStore;
+    this.ticketScoreCacheStore = ticketScoreCacheStore;
+    this.ticketCategoryMatrixCacheStore = ticketCategoryMatrixCacheStore;
+    this.categoryScoreRollupCacheStore = categoryScoreRollupCacheStore;
+  }
+  
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!properties.enabled()) {
+      return;
+    }
+    restore();
+    var interval = properties.interval().toMillis();
+    scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("cache-checkpoint").daemon().factory());
+    scheduler.scheduleWithFixedDelay(this::checkpointQuietly, interval, interval, TimeUnit.MILLISECONDS);
+  }
+  
+  /**
+   * Writes a last checkpoint on graceful shutdown, while the caches and the database are still available.
+   */
+  @PreDestroy
+  public void shutdown() {
+    if (scheduler == null) {
+      return;
+    }
+    scheduler.shutdownNow();
+    checkpointQuietly();
+  }
+  
+  /**
+   * Writes the cached values to the checkpoint file.
+   *
+   * @return false when ratings were recorded meanwhile and the checkpoint was skipped
+   */
+  public synchronized boolean checkpoint() throws IOException {
+    var startedAt = System.nanoTime();
+    var version = ratingWriteVersion.current();
+    var highWaterMark = Objects.requireNonNullElse(ratingDao.fetchRatingsHighWaterMark(), 0L);
+    var contents = new CacheCheckpointFile.Contents(highWaterMark, new HashMap<>(), new HashMap<>(), new HashMap<>(), new HashMap<>(), new HashMap<>());
+    overallDailyScoreCacheStore.forEachStored(contents.overallDailyScores()::put);
+    categoryScoreCacheStore.forEachStored(contents.categoryScores()::put);
+    ticketScoreCacheStore.forEachStored(contents.ticketScores()::put);
+    ticketCategoryMatrixCacheStore.forEachStored(contents.ticketCategoryScores()::put);
+    categoryScoreRollupCacheStore.forEachStored(contents.categoryRollups()::put);
+    if (ratingWriteVersion.current() != version) {
+      LOG.info("Skipped cache checkpoint, ratings were recorded while it was taken");
+      return false;
+    }
+    
+    CacheCheckpointFile.write(properties.file(), contents);
+    LOG.info("Wrote cache checkpoint: entries={}, highWaterMark={}, file={}, tookMs={}",
+        contents.size(), highWaterMark, properties.file(), (System.nanoTime() - startedAt) / 1_000_000);
+    return true;
+  }
+  
+  /**
+   * Restores the cached values from the checkpoint file, if it is current.
+   *
+   * @return number of restored entries
+   */
+  public int restore() {
+    var file = properties.file();
+    if (!Files.exists(file)) {
+      LOG.info("No cache checkpoint to restore: file={}", file);
+      return 0;
+    }
+    
+    var startedAt = System.nanoTime();
+    var version = ratingWriteVersion.current();
+    CacheCheckpointFile.Contents contents;
+    try {
+      contents = CacheCheckpointFile.read(file);
+    } catch (IOException e) {
+      LOG.warn("Ignoring unreadable cache checkpoint: file={}", file, e);
+      return 0;
+    }
+    var highWaterMark = Objects.requireNonNullElse(ratingDao.fetchRatingsHighWaterMark(), 0L);
+    if (contents.highWaterMark() != highWaterMark) {
+      LOG.info("Ignoring outdated cache checkpoint: checkpointHighWaterMark={}, highWaterMark={}", contents.highWaterMark(), highWaterMark);
+      return 0;
+    }
+    
+    var restoredDates = new ArrayList<LocalDate>();
+    var restoredTickets = new ArrayList<Integer>();
+    var restoredPeriods = new ArrayList<TimelinePeriod>();
+    contents.overallDailyScores().forEach((date, score) -> {
+      if (overallDailyScoreCacheStore.restore(date, score)) {
+        restoredDates.add(date);
+      }
+    });
+    contents.categoryScores().forEach((date, scores) -> {
+      if (categoryScoreCacheStore.restore(date, scores)) {
+        restoredDates.add(date);
+      }
+    });
+    contents.ticketScores().forEach((ticketId, score) -> {
+      if (ticketScoreCacheStore.restore(ticketId, score)) {
+        restoredTickets.add(ticketId);
+      }
+    });
+    contents.ticketCategoryScores().forEach((ticketId, scores) -> {
+      if (ticketCategoryMatrixCacheStore.restore(ticketId, scores)) {
+        restoredTickets.add(ticketId);
+      }
+    });
+    contents.categoryRollups().forEach((period, rollups) -> {
+      if (categoryScoreRollupCacheStore.restore(period, rollups)) {
+        restoredPeriods.add(period);
+      }
+    });
+    
+    if (ratingWriteVersion.current() != version) {
+      // Restored values may predate the recorded ratings; evicting a key another caller cached meanwhile only costs a reload
+      restoredDates.forEach(date -> {
+        overallDailyScoreCacheStore.evict(date);
+        categoryScoreCacheStore.evict(date);
+      });
+      restoredTickets.forEach(ticketId -> {
+        ticketScoreCacheStore.evict(ticketId);
+        ticketCategoryMatrixCacheStore.evict(ticketId);
+      });
+      restoredPeriods.forEach(categoryScoreRollupCacheStore::evict);
+      LOG.info("Dropped restored cache checkpoint, ratings were recorded while it was restored");
+      return 0;
+    }
+    var restored = restoredDates.size() + restoredTickets.size() + restoredPeriods.size();
+    LOG.info("Restored cache checkpoint: entries={}, highWaterMark={}, file={}, tookMs={}",
+        restored, highWaterMark, file, (System.nanoTime() - startedAt) / 1_000_000);
+    return restored;
+  }
+  
+  private void checkpointQuietly() {
+    try {
+      checkpoint();
+    } catch (IOException | RuntimeException e) {
+      LOG.warn("Failed to write cache checkpoint: file={}", properties.file(), e);
+    }
+  }
+}
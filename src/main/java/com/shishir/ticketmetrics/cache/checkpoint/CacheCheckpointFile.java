@@ -0,0 +1,248 @@
+package com.shishir.ticketmetrics.cache.checkpoint;
+
+import com.shishir.ticketmetrics.model.CategoryScoreByTicket;
+import com.shishir.ticketmetrics.model.CategoryScoreRollup;
+import com.shishir.ticketmetrics.model.CategoryScoreStatsByRatingDate;
+import com.shishir.ticketmetrics.model.TicketXCategoryScores;
+import com.shishir.ticketmetrics.model.TimelineGranularity;
+import com.shishir.ticketmetrics.model.TimelinePeriod;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary format of the cache checkpoint.
+ *
+ * <p>
+ * A header (magic, format version, {@code ratings} high-water mark) is followed by one section per cache, each
+ * an entry count and the entries. Dates are epoch days, decimals their unscaled bytes and scale, where a
+ * length of 0 stands for null. A day without ratings has a category count of -1, a period is its granularity
+ * ordinal and start day.
+ * </p>
+ * <p>
+ * The file is written to a temporary file and moved into place, so a crash never leaves a partial checkpoint.
+ * It is read through a read-only memory mapping.
+ * </p>
+ */
+public final class CacheCheckpointFile {
+  private static final int MAGIC = 0x544D4350;
+  private static final int FORMAT_VERSION = 2;
+  
+  private CacheCheckpointFile() {
+  }
+  
+  /**
+   * Cached values at the time of a checkpoint.
+   *
+   * @param highWaterMark  {@code MAX(ratings.id)} the values are current for, 0 without ratings
+   * @param categoryScores date → category scores, null for days without ratings
+   * @param categoryRollups week or month → category rollups, empty for periods without ratings
+   */
+  public record Contents(
+      long highWaterMark,
+      Map<LocalDate, BigDecimal> overallDailyScores,
+      Map<LocalDate, List<CategoryScoreStatsByRatingDate>> categoryScores,
+      Map<Integer, BigDecimal> ticketScores,
+      Map<Integer, TicketXCategoryScores> ticketCategoryScores,
+      Map<TimelinePeriod, List<CategoryScoreRollup>> categoryRollups
+  ) {
+    public int size() {
+      return overallDailyScores.size() + categoryScores.size() + ticketScores.size() + ticketCategoryScores.size() + categoryRollups.size();
+    }
+  }
+  
+  public static void write(Path file, Contents contents) throws IOException {
+    var directory = file.toAbsolutePath().getParent();
+    if (directory != null) {
+      Files.createDirectories(directory);
+    }
+    var temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+    try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeLong(contents.highWaterMark());
+      
+      out.writeInt(contents.overallDailyScores().size());
+      for (var entry : contents.overallDailyScores().entrySet()) {
+        out.writeLong(entry.getKey().toEpochDay());
+        writeDecimal(out, entry.getValue());
+      }
+      
+      out.writeInt(contents.categoryScores().size());
+      for (var entry : contents.categoryScores().entrySet()) {
+        out.writeLong(entry.getKey().toEpochDay());
+        var scores = entry.getValue();
+        out.writeInt(scores == null ? -1 : scores.size());
+        if (scores != null) {
+          for (var score : scores) {
+            out.writeInt(score.categoryId());
+            out.writeLong(score.ratingCount());
+            writeDecimal(out, score.ratingSum());
+            writeDecimal(out, score.ratingAverage());
+            writeDecimal(out, score.categoryWeight());
+            writeDecimal(out, score.scoreAverage());
+          }
+        }
+      }
+      
+      out.writeInt(contents.ticketScores().size());
+      for (var entry : contents.ticketScores().entrySet()) {
+        out.writeInt(entry.getKey());
+        writeDecimal(out, entry.getValue());
+      }
+      
+      out.writeInt(contents.ticketCategoryScores().size());
+      for (var entry : contents.ticketCategoryScores().entrySet()) {
+        out.writeInt(entry.getKey());
+        var scores = entry.getValue().categoryScoreByTickets();
+        out.writeInt(scores.size());
+        for (var score : scores) {
+          out.writeInt(score.categoryId());
+          writeDecimal(out, score.score());
+        }
+      }
+      
+      out.writeInt(contents.categoryRollups().size());
+      for (var entry : contents.categoryRollups().entrySet()) {
+        out.writeByte(entry.getKey().granularity().ordinal());
+        out.writeLong(entry.getKey().start().toEpochDay());
+        out.writeInt(entry.getValue().size());
+        for (var rollup : entry.getValue()) {
+          out.writeInt(rollup.categoryId());
+          out.writeLong(rollup.ratingCount());
+          writeDecimal(out, rollup.ratingSum());
+          out.writeLong(rollup.ratedDays());
+          writeDecimal(out, rollup.dailyScoreSum());
+          writeDecimal(out, rollup.score());
+        }
+      }
+    }
+    Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+  
+  /**
+   * @throws IOException when the file cannot be read, is not a checkpoint of this format version or is truncated
+   */
+  public static Contents read(Path file) throws IOException {
+    try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (buffer.remaining() < 16 || buffer.getInt() != MAGIC) {
+        throw new IOException("Not a cache checkpoint: " + file);
+      }
+      var formatVersion = buffer.getInt();
+      if (formatVersion != FORMAT_VERSION) {
+        throw new IOException("Unsupported cache checkpoint format version %d in %s".formatted(formatVersion, file));
+      }
+      return read(buffer);
+    } catch (RuntimeException e) {
+      // BufferUnderflowException and friends of a truncated or corrupt file
+      throw new IOException("Corrupt cache checkpoint: " + file, e);
+    }
+  }
+  
+  private static Contents read(ByteBuffer buffer) {
+    var highWaterMark = buffer.getLong();
+    
+    var overallDailyScores = new HashMap<LocalDate, BigDecimal>();
+    for (int i = buffer.getInt(); i > 0; i--) {
+      overallDailyScores.put(LocalDate.ofEpochDay(buffer.getLong()), readDecimal(buffer));
+    }
+    
+    var categoryScores = new HashMap<LocalDate, List<CategoryScoreStatsByRatingDate>>();
+    for (int i = buffer.getInt(); i > 0; i--) {
+      var date = LocalDate.ofEpochDay(buffer.getLong());
+      var count = buffer.getInt();
+      List<CategoryScoreStatsByRatingDate> scores = null;
+      if (count >= 0) {
+        var dayScores = new ArrayList<CategoryScoreStatsByRatingDate>(count);
+        for (int j = 0; j < count; j++) {
+          dayScores.add(CategoryScoreStatsByRatingDate.of(
+              buffer.getInt(),
+              date,
+              buffer.getLong(),
+              readDecimal(buffer),
+              readDecimal(buffer),
+              readDecimal(buffer),
+              readDecimal(buffer)
+          ));
+        }
+        scores = List.copyOf(dayScores);
+      }
+      categoryScores.put(date, scores);
+    }
+    
+    var ticketScores = new HashMap<Integer, BigDecimal>();
+    for (int i = buffer.getInt(); i > 0; i--) {
+      ticketScores.put(buffer.getInt(), readDecimal(buffer));
+    }
+    
+    var ticketCategoryScores = new HashMap<Integer, TicketXCategoryScores>();
+    for (int i = buffer.getInt(); i > 0; i--) {
+      var ticketId = buffer.getInt();
+      var count = buffer.getInt();
+      var scores = new ArrayList<CategoryScoreByTicket>(count);
+      for (int j = 0; j < count; j++) {
+        scores.add(CategoryScoreByTicket.of(buffer.getInt(), readDecimal(buffer)));
+      }
+      ticketCategoryScores.put(ticketId, TicketXCategoryScores.of(ticketId, List.copyOf(scores)));
+    }
+    
+    var categoryRollups = new HashMap<TimelinePeriod, List<CategoryScoreRollup>>();
+    for (int i = buffer.getInt(); i > 0; i--) {
+      var period = new TimelinePeriod(TimelineGranularity.values()[buffer.get()], LocalDate.ofEpochDay(buffer.getLong()));
+      var count = buffer.getInt();
+      var rollups = new ArrayList<CategoryScoreRollup>(count);
+      for (int j = 0; j < count; j++) {
+        rollups.add(CategoryScoreRollup.of(
+            buffer.getInt(),
+            period.start(),
+            buffer.getLong(),
+            readDecimal(buffer),
+            buffer.getLong(),
+            readDecimal(buffer),
+            readDecimal(buffer)
+        ));
+      }
+      categoryRollups.put(period, List.copyOf(rollups));
+    }
+    return new Contents(highWaterMark, overallDailyScores, categoryScores, ticketScores, ticketCategoryScores, categoryRollups);
+  }
+  
+  private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+    if (value == null) {
+      out.writeByte(0);
+      return;
+    }
+    var unscaled = value.unscaledValue().toByteArray();
+    if (unscaled.length > 255) {
+      throw new IllegalArgumentException("Decimal too large for a cache checkpoint: " + value);
+    }
+    out.writeByte(unscaled.length);
+    out.write(unscaled);
+    out.writeInt(value.scale());
+  }
+  
+  private static BigDecimal readDecimal(ByteBuffer buffer) {
+    var length = Byte.toUnsignedInt(buffer.get());
+    if (length == 0) {
+      return null;
+    }
+    var unscaled = new byte[length];
+    buffer.get(unscaled);
+    return new BigDecimal(new BigInteger(unscaled), buffer.getInt());
+  }
+}
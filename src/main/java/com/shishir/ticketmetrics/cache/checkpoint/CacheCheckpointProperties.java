@@ -0,0 +1,20 @@
+package com.shishir.ticketmetrics.cache.checkpoint;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * @param enabled  restore the caches from the checkpoint file at startup, write it periodically and on shutdown
+ * @param file     checkpoint file, written through a temporary file next to it
+ * @param interval time between two checkpoints
+ */
+@ConfigurationProperties(prefix = "ticket-metrics.cache-checkpoint")
+public record CacheCheckpointProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("cache-checkpoint.bin") Path file,
+    @DefaultValue("5m") Duration interval
+) {
+}
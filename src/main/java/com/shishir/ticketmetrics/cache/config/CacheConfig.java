@@ -1,29 +1,62 @@
 package com.shishir.ticketmetrics.cache.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shishir.ticketmetrics.cache.index.DailyScoreIndex;
+import com.shishir.ticketmetrics.cache.store.CategoryScoreByRatingDateCacheStore;
+import com.shishir.ticketmetrics.cache.store.CategoryScoreRollupCacheStore;
+import com.shishir.ticketmetrics.cache.store.OverallDailyScoreCacheStore;
+import com.shishir.ticketmetrics.cache.store.TicketCategoryMatrixCacheStore;
+import com.shishir.ticketmetrics.cache.store.TicketScoreCacheStore;
+import com.shishir.ticketmetrics.grpc.support.ResponseCache;
+import com.shishir.ticketmetrics.grpc.support.ResponseCacheProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Clock;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
+  private static final long MAXIMUM_SIZE = 1000;
   
   @Bean
-  public Caffeine caffeineConfig() {
+  public Caffeine caffeineConfig(ScoreCacheProperties properties) {
     return Caffeine.newBuilder()
-        .expireAfterWrite(15, TimeUnit.MINUTES)
-        .maximumSize(1000);
+        .expireAfterWrite(properties.expireAfterWrite())
+        .maximumSize(MAXIMUM_SIZE)
+        .recordStats();
   }
   
   @Bean
-  public CacheManager cacheManager(Caffeine caffeine) {
+  public CacheManager cacheManager(Caffeine caffeine, DailyScoreIndex dailyScoreIndex, ScoreCacheProperties properties, ResponseCacheProperties responseCacheProperties) {
     var cacheManager = new CaffeineCacheManager();
     cacheManager.setCaffeine(caffeine);
+    // Registered up front rather than on first use, so every store cache is bound to the cache metrics at startup
+    cacheManager.registerCustomCache(TicketScoreCacheStore.CACHE_NAME, caffeine.build());
+    cacheManager.registerCustomCache(TicketCategoryMatrixCacheStore.CACHE_NAME, caffeine.build());
+    cacheManager.registerCustomCache(CategoryScoreByRatingDateCacheStore.CACHE_NAME, dateKeyedCaffeine(properties, MAXIMUM_SIZE).build());
+    cacheManager.registerCustomCache(CategoryScoreRollupCacheStore.CACHE_NAME, dateKeyedCaffeine(properties, MAXIMUM_SIZE).build());
+    // Daily overall scores are mirrored by the prefix-sum index, so removals have to reach it:
+    // size/expiry evictions atomically, explicit evictions and clears right after on the calling thread.
+    // Sized on its own, as a range is only answered from the index when the cache holds every day of it.
+    cacheManager.registerCustomCache(OverallDailyScoreCacheStore.CACHE_NAME, dateKeyedCaffeine(properties, properties.maxOverallDays())
+        .evictionListener(dailyScoreIndex::onRemoval)
+        .removalListener(dailyScoreIndex::onRemoval)
+        .executor(Runnable::run)
+        .build());
+    if (responseCacheProperties.enabled()) {
+      cacheManager.registerCustomCache(ResponseCache.CACHE_NAME, ResponseCache.caffeine(responseCacheProperties).buildAsync());
+    }
     return cacheManager;
   }
+  
+  private static Caffeine<Object, Object> dateKeyedCaffeine(ScoreCacheProperties properties, long maximumSize) {
+    var builder = Caffeine.newBuilder().maximumSize(maximumSize).recordStats();
+    return properties.retainHistoricalDates()
+        ? builder.expireAfter(new HistoricalDateExpiry(properties.expireAfterWrite(), properties.historicalExpireAfterWrite(), Clock.systemUTC()))
+        : builder.expireAfterWrite(properties.expireAfterWrite());
+  }
 }
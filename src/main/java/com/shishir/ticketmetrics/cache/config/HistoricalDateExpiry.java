@@ -0,0 +1,43 @@
+package com.shishir.ticketmetrics.cache.config;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.shishir.ticketmetrics.model.TimelinePeriod;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Expires entries keyed by a past {@link LocalDate} or a {@link TimelinePeriod} that ended in the past after a long
+ * historical time to live, and all other entries after the regular one.
+ * Whether a date is in the past is decided when the entry is written, so today's entries keep their time to live.
+ * Past days are kept current by {@code RecordRatings}; the historical time to live bounds how long ratings written
+ * to SQLite some other way stay unseen.
+ */
+public class HistoricalDateExpiry implements Expiry<Object, Object> {
+  private final long timeToLiveNanos;
+  private final long historicalTimeToLiveNanos;
+  private final Clock clock;
+  
+  public HistoricalDateExpiry(Duration timeToLive, Duration historicalTimeToLive, Clock clock) {
+    this.timeToLiveNanos = timeToLive.toNanos();
+    this.historicalTimeToLiveNanos = historicalTimeToLive.toNanos();
+    this.clock = clock;
+  }
+  
+  @Override
+  public long expireAfterCreate(Object key, Object value, long currentTime) {
+    var lastDate = key instanceof TimelinePeriod period ? period.end() : key;
+    return lastDate instanceof LocalDate date && date.isBefore(LocalDate.now(clock)) ? historicalTimeToLiveNanos : timeToLiveNanos;
+  }
+  
+  @Override
+  public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+    return expireAfterCreate(key, value, currentTime);
+  }
+  
+  @Override
+  public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+    return currentDuration;
+  }
+}
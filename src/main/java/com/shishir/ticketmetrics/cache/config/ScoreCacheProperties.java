@@ -0,0 +1,24 @@
+package com.shishir.ticketmetrics.cache.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param expireAfterWrite           time to live of cached scores
+ * @param retainHistoricalDates      keep date-keyed scores of past days for {@code historicalExpireAfterWrite} instead,
+ *                                   they are kept current by {@code RecordRatings}
+ * @param historicalExpireAfterWrite time to live of retained scores of past days, the longest a rating written to
+ *                                   SQLite directly (migration, backfill, manual fix) stays unseen for a past day
+ * @param maxOverallDays             daily overall scores kept by their cache and its prefix-sum index, the longest
+ *                                   range answered from the index without loading days
+ */
+@ConfigurationProperties(prefix = "ticket-metrics.cache")
+public record ScoreCacheProperties(
+    @DefaultValue("15m") Duration expireAfterWrite,
+    @DefaultValue("true") boolean retainHistoricalDates,
+    @DefaultValue("24h") Duration historicalExpireAfterWrite,
+    @DefaultValue("36600") int maxOverallDays
+) {
+}
@@ -0,0 +1,214 @@
+package com.shishir.ticketmetrics.cache.index;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Prefix-sum index over the cached daily overall scores, keyed by epoch day.
+ *
+ * <p>
+ * Two Fenwick (binary indexed) trees hold, per day, the score in micros (scale 6) and whether the day is
+ * loaded. A range is answered with two prefix queries per tree, so averaging
+ * a multi-year range costs O(log n) instead of one cache lookup per day. A point update costs O(log n).
+ * </p>
+ * <p>
+ * The index mirrors the {@code overallDailyScoreByDate} cache: values are recorded when the cache store
+ * writes them and removed by the cache's eviction and removal listeners. A range is only answered from
+ * the index when every day in it is loaded.
+ * </p>
+ */
+@Component
+public class DailyScoreIndex {
+  private static final Logger LOG = LoggerFactory.getLogger(DailyScoreIndex.class);
+  private static final int SCORE_SCALE = 6;
+  private static final int INITIAL_CAPACITY = 1024;
+  // About 2800 years of days
+  private static final int MAX_CAPACITY = 1 << 20;
+  
+  private long origin;
+  private int capacity;
+  // Point values, 0-based by (epochDay - origin)
+  private long[] scoreMicros;
+  private boolean[] loaded;
+  // Fenwick trees, 1-based
+  private long[] scoreMicrosTree;
+  private int[] loadedTree;
+  
+  public DailyScoreIndex() {
+    reset(0, 0);
+  }
+  
+  /**
+   * Records the score of a day. Scores that cannot be held exactly in micros are not indexed.
+   */
+  public synchronized void record(LocalDate date, BigDecimal score) {
+    long micros;
+    try {
+      micros = score.movePointRight(SCORE_SCALE).longValueExact();
+    } catch (ArithmeticException e) {
+      LOG.debug("Not indexing score={} of date={}", score, date);
+      remove(date);
+      return;
+    }
+    if (!ensureCovered(date.toEpochDay())) {
+      return;
+    }
+    var position = position(date);
+    if (loaded[position] && scoreMicros[position] == micros) {
+      return;
+    }
+    update(position, micros);
+  }
+  
+  public synchronized void remove(LocalDate date) {
+    var epochDay = date.toEpochDay();
+    if (capacity == 0 || epochDay < origin || epochDay >= origin + capacity) {
+      return;
+    }
+    var position = position(date);
+    if (loaded[position]) {
+      update(position, null);
+    }
+  }
+  
+  public synchronized void clear() {
+    reset(0, 0);
+  }
+  
+  /**
+   * Sums the indexed days of a range.
+   *
+   * @param startDate first day (inclusive)
+   * @param endDate   last day (inclusive)
+   */
+  public synchronized RangeSum sum(LocalDate startDate, LocalDate endDate) {
+    if (capacity == 0) {
+      return new RangeSum(0, 0);
+    }
+    var from = Math.max(startDate.toEpochDay() - origin, 0);
+    var to = Math.min(endDate.toEpochDay() - origin, capacity - 1L);
+    if (from > to) {
+      return new RangeSum(0, 0);
+    }
+    return new RangeSum(
+        prefix(scoreMicrosTree, (int) to + 1) - prefix(scoreMicrosTree, (int) from),
+        prefix(loadedTree, (int) to + 1) - prefix(loadedTree, (int) from)
+    );
+  }
+  
+  /**
+   * Removal listener for the backing cache. Automatic removals (size, expiry) are delivered by the
+   * eviction listener inside the eviction itself; explicit ones (evict, clear) after the fact.
+   * Replacements are ignored, the new value is recorded by the writer.
+   */
+  public void onRemoval(Object key, Object value, RemovalCause cause) {
+    if (cause != RemovalCause.REPLACED && key instanceof LocalDate date) {
+      remove(date);
+    }
+  }
+  
+  private void update(int position, Long micros) {
+    var scoreDelta = (micros == null ? 0 : micros) - (loaded[position] ? scoreMicros[position] : 0);
+    var loadedDelta = (micros == null ? 0 : 1) - (loaded[position] ? 1 : 0);
+    
+    scoreMicros[position] = micros == null ? 0 : micros;
+    loaded[position] = micros != null;
+    for (int i = position + 1; i <= capacity; i += i & -i) {
+      scoreMicrosTree[i] += scoreDelta;
+      loadedTree[i] += loadedDelta;
+    }
+  }
+  
+  private static long prefix(long[] tree, int count) {
+    long sum = 0;
+    for (int i = count; i > 0; i -= i & -i) {
+      sum += tree[i];
+    }
+    return sum;
+  }
+  
+  private static int prefix(int[] tree, int count) {
+    int sum = 0;
+    for (int i = count; i > 0; i -= i & -i) {
+      sum += tree[i];
+    }
+    return sum;
+  }
+  
+  private int position(LocalDate date) {
+    return (int) (date.toEpochDay() - origin);
+  }
+  
+  /**
+   * Grows the index, doubling its capacity, until it covers the given day.
+   *
+   * @return false if the day is too far from the indexed days
+   */
+  private boolean ensureCovered(long epochDay) {
+    if (capacity == 0) {
+      reset(epochDay - INITIAL_CAPACITY / 2, INITIAL_CAPACITY);
+      return true;
+    }
+    var newOrigin = origin;
+    var newCapacity = (long) capacity;
+    while (epochDay < newOrigin || epochDay >= newOrigin + newCapacity) {
+      if (newCapacity >= MAX_CAPACITY) {
+        LOG.debug("Not indexing epochDay={}, outside of origin={} capacity={}", epochDay, origin, capacity);
+        return false;
+      }
+      // Grow towards the uncovered side
+      if (epochDay < newOrigin) {
+        newOrigin -= newCapacity;
+      }
+      newCapacity *= 2;
+    }
+    if (newCapacity != capacity) {
+      rebuild(newOrigin, (int) newCapacity);
+    }
+    return true;
+  }
+  
+  private void rebuild(long newOrigin, int newCapacity) {
+    var oldOrigin = origin;
+    var oldScoreMicros = scoreMicros;
+    var oldLoaded = loaded;
+    reset(newOrigin, newCapacity);
+    for (int i = 0; i < oldLoaded.length; i++) {
+      if (oldLoaded[i]) {
+        update((int) (oldOrigin + i - newOrigin), oldScoreMicros[i]);
+      }
+    }
+  }
+  
+  private void reset(long newOrigin, int newCapacity) {
+    origin = newOrigin;
+    capacity = newCapacity;
+    scoreMicros = new long[newCapacity];
+    loaded = new boolean[newCapacity];
+    scoreMicrosTree = new long[newCapacity + 1];
+    loadedTree = new int[newCapacity + 1];
+  }
+  
+  /**
+   * @param scoreMicros sum of the indexed daily scores, in millionths
+   * @param loadedDays  number of indexed days
+   */
+  public record RangeSum(
+      long scoreMicros,
+      long loadedDays
+  ) {
+    public boolean covers(LocalDate startDate, LocalDate endDate) {
+      return loadedDays == ChronoUnit.DAYS.between(startDate, endDate) + 1;
+    }
+    
+    public BigDecimal scoreSum() {
+      return BigDecimal.valueOf(scoreMicros, SCORE_SCALE);
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.shishir.ticketmetrics.cache.store;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes the {@link SingleFlightLoader} counts of the store caches: keys computed on a miss (days for the
+ * date-keyed caches, tickets for the ticket-keyed ones), loader calls, and misses coalesced into another load.
+ * Hits and sizes come from the Caffeine statistics bound by Spring Boot ({@code cache.gets}, {@code cache.size}).
+ */
+@Component
+public class CacheLoadMetrics implements MeterBinder {
+  static final List<String> CACHE_NAMES = List.of(
+      OverallDailyScoreCacheStore.CACHE_NAME,
+      CategoryScoreByRatingDateCacheStore.CACHE_NAME,
+      CategoryScoreRollupCacheStore.CACHE_NAME,
+      TicketScoreCacheStore.CACHE_NAME,
+      TicketCategoryMatrixCacheStore.CACHE_NAME
+  );
+  
+  private final SingleFlightLoader singleFlightLoader;
+  
+  public CacheLoadMetrics(SingleFlightLoader singleFlightLoader) {
+    this.singleFlightLoader = singleFlightLoader;
+  }
+  
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    for (var cacheName : CACHE_NAMES) {
+      FunctionCounter.builder("ticketmetrics.cache.computed", singleFlightLoader,
+              loader -> loader.stats(cacheName).misses() - loader.stats(cacheName).coalescedLoads())
+          .description("Keys computed on a cache miss")
+          .tag("cache", cacheName)
+          .register(registry);
+      FunctionCounter.builder("ticketmetrics.cache.loads", singleFlightLoader, loader -> loader.stats(cacheName).loads())
+          .description("Loader calls on cache misses, a bulk load counts once")
+          .tag("cache", cacheName)
+          .register(registry);
+      FunctionCounter.builder("ticketmetrics.cache.coalesced", singleFlightLoader, loader -> loader.stats(cacheName).coalescedLoads())
+          .description("Cache misses served by another caller's load")
+          .tag("cache", cacheName)
+          .register(registry);
+    }
+  }
+}
@@ -2,17 +2,148 @@ package com.shishir.ticketmetrics.cache.store;
 
 import com.shishir.ticketmetrics.cache.fn.CategoryScoreByRatingDateCalculator;
 import com.shishir.ticketmetrics.model.CategoryScoreStatsByRatingDate;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
+/**
+ * Category scores per rating date, {@code null} for days without ratings.
+ *
+ * <p>
+ * Misses are loaded once per key by the {@link SingleFlightLoader}, under the key's lock, so an eviction
+ * after a rating write waits for a running load instead of being overtaken by it. Bulk-loaded values are
+ * dropped again when a rating write committed while they were computed, see {@link RatingWriteVersion}.
+ * </p>
+ */
 @Component
 public class CategoryScoreByRatingDateCacheStore {
+  public static final String CACHE_NAME = "categoryScoreByRatingDate";
+  
+  private final Cache cache;
+  private final com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache;
+  private final Map<Object, Object> entries;
+  private final RatingWriteVersion writeVersion;
+  private final SingleFlightLoader singleFlightLoader;
+  
+  @SuppressWarnings("unchecked")
+  public CategoryScoreByRatingDateCacheStore(CacheManager cacheManager, RatingWriteVersion writeVersion, SingleFlightLoader singleFlightLoader) {
+    this.cache = cacheManager.getCache(CACHE_NAME);
+    this.nativeCache = (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache();
+    this.entries = nativeCache.asMap();
+    this.writeVersion = writeVersion;
+    this.singleFlightLoader = singleFlightLoader;
+  }
   
-  @Cacheable(value = "categoryScoreByRatingDate", key = "#date")
   public List<CategoryScoreStatsByRatingDate> getOrCalculate(LocalDate date, CategoryScoreByRatingDateCalculator calculator) {
-    return calculator.calculate(date);
+    return singleFlightLoader.get(cache, date, () -> calculator.calculate(date));
+  }
+  
+  /**
+   * Looks up all dates in one pass over the cache and loads the missing ones with one call to {@code bulkLoader}.
+   * A single missing date is loaded like {@link #getOrCalculate}; several go through {@link SingleFlightLoader#getAll},
+   * so either way dates another call is loading are waited for instead of being loaded twice.
+   *
+   * @param bulkLoader missing dates → category scores, absent dates are cached as null
+   * @return date → category scores, null for days without ratings, ordered by date
+   */
+  public Map<LocalDate, List<CategoryScoreStatsByRatingDate>> getAll(Collection<LocalDate> dates, Function<SortedSet<LocalDate>, Map<LocalDate, List<CategoryScoreStatsByRatingDate>>> bulkLoader) {
+    var values = new TreeMap<LocalDate, List<CategoryScoreStatsByRatingDate>>();
+    var missingDates = new TreeSet<LocalDate>();
+    var stored = nativeCache.getAllPresent(dates);
+    for (var date : dates) {
+      if (stored.containsKey(date)) {
+        values.put(date, scoresOrNull(stored.get(date)));
+      } else {
+        missingDates.add(date);
+      }
+    }
+    
+    if (missingDates.size() == 1) {
+      var date = missingDates.first();
+      values.put(date, getOrCalculate(date, missingDate -> bulkLoader.apply(missingDates).get(missingDate)));
+    } else if (!missingDates.isEmpty()) {
+      values.putAll(singleFlightLoader.getAll(cache, missingDates, datesToLoad -> load(datesToLoad, bulkLoader)));
+    }
+    return values;
+  }
+  
+  private Map<LocalDate, List<CategoryScoreStatsByRatingDate>> load(SortedSet<LocalDate> dates, Function<SortedSet<LocalDate>, Map<LocalDate, List<CategoryScoreStatsByRatingDate>>> bulkLoader) {
+    var loadedAtVersion = writeVersion.current();
+    var loaded = bulkLoader.apply(dates);
+    var values = new HashMap<LocalDate, List<CategoryScoreStatsByRatingDate>>();
+    for (var date : dates) {
+      var value = loaded.get(date);
+      put(date, value, loadedAtVersion);
+      values.put(date, value);
+    }
+    return values;
+  }
+  
+  /**
+   * @param loadedAtVersion {@link RatingWriteVersion} taken before the scores were computed
+   */
+  private void put(LocalDate date, List<CategoryScoreStatsByRatingDate> scores, long loadedAtVersion) {
+    cache.put(date, scores);
+    if (writeVersion.current() != loadedAtVersion) {
+      cache.evict(date);
+    }
+  }
+  
+  /**
+   * @return the value as stored by the cache for {@link #replace}, or {@code null} when the date is not cached
+   */
+  public Object getStored(LocalDate date) {
+    return entries.get(date);
+  }
+  
+  /**
+   * @return the scores of a value returned by {@link #getStored}, empty for days without ratings
+   */
+  @SuppressWarnings("unchecked")
+  public static List<CategoryScoreStatsByRatingDate> scoresOf(Object stored) {
+    return stored instanceof List<?> scores ? (List<CategoryScoreStatsByRatingDate>) scores : List.of();
+  }
+  
+  private static List<CategoryScoreStatsByRatingDate> scoresOrNull(Object stored) {
+    return stored instanceof List<?> ? scoresOf(stored) : null;
+  }
+  
+  /**
+   * Replaces the cached scores of a date only if they are still the value returned by {@link #getStored}.
+   */
+  public boolean replace(LocalDate date, Object stored, List<CategoryScoreStatsByRatingDate> scores) {
+    return entries.replace(date, stored, scores);
+  }
+  
+  public void evict(LocalDate date) {
+    cache.evict(date);
+  }
+  
+  /**
+   * Visits every cached date with its scores, null for days without ratings, e.g. to write a checkpoint.
+   */
+  public void forEachStored(BiConsumer<LocalDate, List<CategoryScoreStatsByRatingDate>> action) {
+    entries.forEach((date, stored) -> action.accept((LocalDate) date, scoresOrNull(stored)));
+  }
+  
+  /**
+   * Caches scores restored from a checkpoint, unless the date has been cached in the meantime.
+   *
+   * @param scores category scores, null for a day without ratings
+   * @return true when the scores were cached
+   */
+  public boolean restore(LocalDate date, List<CategoryScoreStatsByRatingDate> scores) {
+    return cache.putIfAbsent(date, scores) == null;
   }
 }
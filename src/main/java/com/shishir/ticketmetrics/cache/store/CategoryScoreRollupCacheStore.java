@@ -0,0 +1,128 @@
+package com.shishir.ticketmetrics.cache.store;
+
+import com.shishir.ticketmetrics.model.CategoryScoreRollup;
+import com.shishir.ticketmetrics.model.TimelineGranularity;
+import com.shishir.ticketmetrics.model.TimelinePeriod;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Category rollups per week and month, empty for periods without ratings.
+ *
+ * <p>
+ * Loaded like {@link CategoryScoreByRatingDateCacheStore}: once per key by the {@link SingleFlightLoader},
+ * bulk loads guarded by {@link RatingWriteVersion}. Rollups are not merged with recorded ratings but evicted.
+ * </p>
+ */
+@Component
+public class CategoryScoreRollupCacheStore {
+  public static final String CACHE_NAME = "categoryScoreRollupByPeriod";
+  
+  private final Cache cache;
+  private final com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache;
+  private final RatingWriteVersion writeVersion;
+  private final SingleFlightLoader singleFlightLoader;
+  
+  @SuppressWarnings("unchecked")
+  public CategoryScoreRollupCacheStore(CacheManager cacheManager, RatingWriteVersion writeVersion, SingleFlightLoader singleFlightLoader) {
+    this.cache = cacheManager.getCache(CACHE_NAME);
+    this.nativeCache = (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache();
+    this.writeVersion = writeVersion;
+    this.singleFlightLoader = singleFlightLoader;
+  }
+  
+  /**
+   * Looks up all periods in one pass over the cache and loads the missing ones with one call to {@code bulkLoader}.
+   *
+   * @param bulkLoader missing periods → rollups
+   * @return period → rollups, ordered by period start
+   */
+  @SuppressWarnings("unchecked")
+  public Map<TimelinePeriod, List<CategoryScoreRollup>> getAll(Collection<TimelinePeriod> periods, Function<SortedSet<TimelinePeriod>, Map<TimelinePeriod, List<CategoryScoreRollup>>> bulkLoader) {
+    var values = new TreeMap<TimelinePeriod, List<CategoryScoreRollup>>();
+    var missingPeriods = new TreeSet<TimelinePeriod>();
+    var stored = nativeCache.getAllPresent(periods);
+    for (var period : periods) {
+      if (stored.containsKey(period)) {
+        values.put(period, (List<CategoryScoreRollup>) stored.get(period));
+      } else {
+        missingPeriods.add(period);
+      }
+    }
+    
+    if (missingPeriods.size() == 1) {
+      var period = missingPeriods.first();
+      values.put(period, singleFlightLoader.get(cache, period, () -> rollupsOf(bulkLoader.apply(missingPeriods), period)));
+    } else if (!missingPeriods.isEmpty()) {
+      values.putAll(singleFlightLoader.getAll(cache, missingPeriods, periodsToLoad -> load(periodsToLoad, bulkLoader)));
+    }
+    return values;
+  }
+  
+  private Map<TimelinePeriod, List<CategoryScoreRollup>> load(SortedSet<TimelinePeriod> periods, Function<SortedSet<TimelinePeriod>, Map<TimelinePeriod, List<CategoryScoreRollup>>> bulkLoader) {
+    var loadedAtVersion = writeVersion.current();
+    var loaded = bulkLoader.apply(periods);
+    var values = new HashMap<TimelinePeriod, List<CategoryScoreRollup>>();
+    for (var period : periods) {
+      var rollups = rollupsOf(loaded, period);
+      put(period, rollups, loadedAtVersion);
+      values.put(period, rollups);
+    }
+    return values;
+  }
+  
+  private static List<CategoryScoreRollup> rollupsOf(Map<TimelinePeriod, List<CategoryScoreRollup>> loaded, TimelinePeriod period) {
+    return loaded.getOrDefault(period, List.of());
+  }
+  
+  /**
+   * @param loadedAtVersion {@link RatingWriteVersion} taken before the rollups were computed
+   */
+  private void put(TimelinePeriod period, List<CategoryScoreRollup> rollups, long loadedAtVersion) {
+    cache.put(period, rollups);
+    if (writeVersion.current() != loadedAtVersion) {
+      cache.evict(period);
+    }
+  }
+  
+  /**
+   * Evicts the week and month containing the date.
+   */
+  public void evict(LocalDate date) {
+    cache.evict(TimelinePeriod.of(TimelineGranularity.WEEK, date));
+    cache.evict(TimelinePeriod.of(TimelineGranularity.MONTH, date));
+  }
+  
+  public void evict(TimelinePeriod period) {
+    cache.evict(period);
+  }
+  
+  /**
+   * Visits every cached period with its rollups, e.g. to write a checkpoint.
+   */
+  @SuppressWarnings("unchecked")
+  public void forEachStored(BiConsumer<TimelinePeriod, List<CategoryScoreRollup>> action) {
+    nativeCache.asMap().forEach((period, rollups) -> action.accept((TimelinePeriod) period, (List<CategoryScoreRollup>) rollups));
+  }
+  
+  /**
+   * Caches rollups restored from a checkpoint, unless the period has been cached in the meantime.
+   *
+   * @return true when the rollups were cached
+   */
+  public boolean restore(TimelinePeriod period, List<CategoryScoreRollup> rollups) {
+    return cache.putIfAbsent(period, rollups) == null;
+  }
+}
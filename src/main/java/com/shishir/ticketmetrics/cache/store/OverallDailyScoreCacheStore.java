@@ -1,17 +1,162 @@
 package com.shishir.ticketmetrics.cache.store;
 
 import com.shishir.ticketmetrics.cache.fn.OverallDailyScoreCalculator;
-import org.springframework.cache.annotation.Cacheable;
+import com.shishir.ticketmetrics.cache.index.DailyScoreIndex;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.Objects;
 
+/**
+ * Daily overall scores, mirrored into the {@link DailyScoreIndex} for range sums.
+ * Values are written through this store rather than {@code @Cacheable} so every write reaches the index.
+ * Loads and writes follow {@link CategoryScoreByRatingDateCacheStore}.
+ */
 @Component
 public class OverallDailyScoreCacheStore {
+  public static final String CACHE_NAME = "overallDailyScoreByDate";
+  
+  private final Cache cache;
+  private final com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache;
+  private final Map<Object, Object> entries;
+  private final DailyScoreIndex dailyScoreIndex;
+  private final RatingWriteVersion writeVersion;
+  private final SingleFlightLoader singleFlightLoader;
+  
+  @SuppressWarnings("unchecked")
+  public OverallDailyScoreCacheStore(CacheManager cacheManager, DailyScoreIndex dailyScoreIndex, RatingWriteVersion writeVersion, SingleFlightLoader singleFlightLoader) {
+    this.cache = cacheManager.getCache(CACHE_NAME);
+    this.nativeCache = (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache();
+    this.entries = nativeCache.asMap();
+    this.dailyScoreIndex = dailyScoreIndex;
+    this.writeVersion = writeVersion;
+    this.singleFlightLoader = singleFlightLoader;
+  }
   
-  @Cacheable(value = "overallDailyScoreByDate", key = "#date")
   public BigDecimal getOrCalculate(LocalDate date, OverallDailyScoreCalculator calculator) {
-    return calculator.calculate(date);
+    var score = singleFlightLoader.get(cache, date, () -> calculator.calculate(date));
+    index(date, score);
+    return score;
+  }
+  
+  /**
+   * Looks up all dates in one pass over the cache and loads the missing ones with one call to {@code bulkLoader}.
+   * A single missing date is loaded like {@link #getOrCalculate}, once per key.
+   *
+   * @param bulkLoader missing dates → daily score, absent dates are cached as zero
+   * @return date → score, ordered by date
+   */
+  public Map<LocalDate, BigDecimal> getAll(Collection<LocalDate> dates, Function<SortedSet<LocalDate>, Map<LocalDate, BigDecimal>> bulkLoader) {
+    var values = new TreeMap<LocalDate, BigDecimal>();
+    var missingDates = new TreeSet<LocalDate>();
+    var stored = nativeCache.getAllPresent(dates);
+    for (var date : dates) {
+      if (stored.containsKey(date)) {
+        values.put(date, (BigDecimal) stored.get(date));
+      } else {
+        missingDates.add(date);
+      }
+    }
+    
+    if (missingDates.size() == 1) {
+      var date = missingDates.first();
+      values.put(date, getOrCalculate(date, missingDate -> bulkLoader.apply(missingDates).get(missingDate)));
+    } else if (!missingDates.isEmpty()) {
+      values.putAll(singleFlightLoader.getAll(cache, missingDates, datesToLoad -> load(datesToLoad, bulkLoader)));
+    }
+    return values;
+  }
+  
+  private Map<LocalDate, BigDecimal> load(SortedSet<LocalDate> dates, Function<SortedSet<LocalDate>, Map<LocalDate, BigDecimal>> bulkLoader) {
+    var loadedAtVersion = writeVersion.current();
+    var loaded = bulkLoader.apply(dates);
+    var values = new HashMap<LocalDate, BigDecimal>();
+    for (var date : dates) {
+      var value = loaded.getOrDefault(date, BigDecimal.ZERO);
+      put(date, value, loadedAtVersion);
+      values.put(date, value);
+    }
+    return values;
+  }
+  
+  /**
+   * @param loadedAtVersion {@link RatingWriteVersion} taken before the score was computed
+   */
+  private void put(LocalDate date, BigDecimal score, long loadedAtVersion) {
+    cache.put(date, score);
+    if (writeVersion.current() != loadedAtVersion) {
+      cache.evict(date);
+      return;
+    }
+    index(date, score);
+  }
+  
+  /**
+   * @return the cached score for {@link #replace}, or {@code null} when the date is not cached
+   */
+  public BigDecimal getStored(LocalDate date) {
+    return (BigDecimal) entries.get(date);
+  }
+  
+  /**
+   * Replaces the cached score of a date only if it is still the value returned by {@link #getStored}.
+   */
+  public boolean replace(LocalDate date, BigDecimal stored, BigDecimal score) {
+    if (!entries.replace(date, stored, score)) {
+      return false;
+    }
+    index(date, score);
+    return true;
+  }
+  
+  public void evict(LocalDate date) {
+    cache.evict(date);
+  }
+  
+  /**
+   * Visits every cached score, e.g. to write a checkpoint.
+   */
+  public void forEachStored(BiConsumer<LocalDate, BigDecimal> action) {
+    entries.forEach((date, score) -> action.accept((LocalDate) date, (BigDecimal) score));
+  }
+  
+  /**
+   * Caches a score restored from a checkpoint, unless the date has been cached in the meantime.
+   *
+   * @return true when the score was cached
+   */
+  public boolean restore(LocalDate date, BigDecimal score) {
+    if (cache.putIfAbsent(date, score) != null) {
+      return false;
+    }
+    index(date, score);
+    return true;
+  }
+  
+  /**
+   * Sum of the cached scores of a range, see {@link DailyScoreIndex#sum}.
+   */
+  public DailyScoreIndex.RangeSum sum(LocalDate startDate, LocalDate endDate) {
+    return dailyScoreIndex.sum(startDate, endDate);
+  }
+  
+  private void index(LocalDate date, BigDecimal score) {
+    dailyScoreIndex.record(date, score);
+    // The entry may have been evicted (and removed from the index) before it was recorded
+    var cached = cache.get(date);
+    if (cached == null || !Objects.equals(cached.get(), score)) {
+      dailyScoreIndex.remove(date);
+    }
   }
 }
@@ -0,0 +1,26 @@
+package com.shishir.ticketmetrics.cache.store;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts committed rating writes. Values computed outside of a cache's per-key load are only kept
+ * when no write committed while they were computed, as they may miss the new ratings.
+ * A cache checkpoint is only written when no write committed or updated the caches while it was taken.
+ */
+@Component
+public class RatingWriteVersion {
+  private final AtomicLong version = new AtomicLong();
+  
+  public long current() {
+    return version.get();
+  }
+  
+  /**
+   * Called after a write committed and before caches are updated.
+   */
+  public void advance() {
+    version.incrementAndGet();
+  }
+}
@@ -0,0 +1,198 @@
+package com.shishir.ticketmetrics.cache.store;
+
+import com.shishir.ticketmetrics.concurrency.JdbcPermits;
+import org.springframework.cache.Cache;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Loads cache misses at most once per key at a time.
+ *
+ * <p>
+ * Misses go through {@link Cache#get(Object, Callable)}, which Caffeine runs under the key's lock: concurrent
+ * misses of the same key wait for the first load and share its value instead of running the same query.
+ * Every running load also registers its keys in an in-flight map, which {@link #getAll} uses to load several
+ * missing keys with one loader call while still loading each key only once: keys another call is loading
+ * already, one by one or in bulk, are waited for instead of being loaded again.
+ * Per cache, misses and loads are counted; a miss that did not run a load was coalesced into another one.
+ * Stores that load several missing keys at once outside of {@link #getAll} report them with {@link #recordBulkLoad}.
+ * </p>
+ */
+@Component
+public class SingleFlightLoader {
+  private final ConcurrentMap<String, Counters> countersByCache = new ConcurrentHashMap<>();
+  private final ConcurrentMap<InFlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+  private final JdbcPermits jdbcPermits;
+  
+  public SingleFlightLoader(JdbcPermits jdbcPermits) {
+    this.jdbcPermits = jdbcPermits;
+  }
+  
+  /**
+   * @return the cached value, loaded by {@code loader} if no other call is loading it already
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(Cache cache, Object key, Callable<T> loader) {
+    var cached = cache.get(key);
+    if (cached != null) {
+      return (T) cached.get();
+    }
+    
+    var counters = counters(cache.getName());
+    counters.misses.increment();
+    var inFlightKey = new InFlightKey(cache.getName(), key);
+    var future = new CompletableFuture<Object>();
+    var running = inFlight.putIfAbsent(inFlightKey, future);
+    if (running != null) {
+      counters.coalescedLoads.increment();
+      return (T) await(running);
+    }
+    
+    var loaded = new boolean[1];
+    // Taken before Caffeine's key lock: a virtual thread waiting for a permit inside it would pin its carrier
+    jdbcPermits.acquire();
+    try {
+      var value = cache.get(key, () -> {
+        loaded[0] = true;
+        counters.loads.increment();
+        return loader.call();
+      });
+      if (!loaded[0]) {
+        counters.coalescedLoads.increment();
+      }
+      future.complete(value);
+      return value;
+    } catch (RuntimeException e) {
+      // Surface the loader's own exception as @Cacheable did
+      var failure = e instanceof Cache.ValueRetrievalException && e.getCause() instanceof RuntimeException cause ? cause : e;
+      future.completeExceptionally(failure);
+      throw failure;
+    } finally {
+      inFlight.remove(inFlightKey, future);
+      jdbcPermits.release();
+    }
+  }
+  
+  /**
+   * Loads missing keys with one call to {@code loader}, once per key: keys that another call is loading already
+   * are waited for, and only the remaining keys are passed to {@code loader}.
+   *
+   * @param keys   keys that were not cached
+   * @param loader keys of this call → values, which it has to cache itself; absent keys stand for null
+   * @return key → value of every key, null values included
+   */
+  @SuppressWarnings("unchecked")
+  public <K, V> Map<K, V> getAll(Cache cache, SortedSet<K> keys, Function<SortedSet<K>, Map<K, V>> loader) {
+    var counters = counters(cache.getName());
+    counters.misses.add(keys.size());
+    var claimed = new HashMap<K, CompletableFuture<Object>>();
+    var awaited = new HashMap<K, CompletableFuture<Object>>();
+    for (var key : keys) {
+      var future = new CompletableFuture<Object>();
+      var running = inFlight.putIfAbsent(new InFlightKey(cache.getName(), key), future);
+      if (running == null) {
+        claimed.put(key, future);
+      } else {
+        awaited.put(key, running);
+      }
+    }
+    
+    var values = new HashMap<K, V>();
+    try {
+      // Loads that finished between the caller's lookup and the claim above have cached their keys already
+      var keysToLoad = new TreeSet<K>(keys.comparator());
+      for (var key : claimed.keySet()) {
+        var cached = cache.get(key);
+        if (cached == null) {
+          keysToLoad.add(key);
+        } else {
+          values.put(key, (V) cached.get());
+        }
+      }
+      if (!keysToLoad.isEmpty()) {
+        counters.loads.increment();
+        var loaded = loader.apply(keysToLoad);
+        keysToLoad.forEach(key -> values.put(key, loaded.get(key)));
+      }
+    } catch (RuntimeException e) {
+      claimed.forEach((key, future) -> {
+        inFlight.remove(new InFlightKey(cache.getName(), key), future);
+        future.completeExceptionally(e);
+      });
+      throw e;
+    }
+    claimed.forEach((key, future) -> {
+      inFlight.remove(new InFlightKey(cache.getName(), key), future);
+      future.complete(values.get(key));
+    });
+    
+    // Waited for only after this call's own keys are loaded, so two calls waiting for each other's keys cannot block
+    counters.coalescedLoads.add(awaited.size());
+    awaited.forEach((key, future) -> values.put(key, (V) await(future)));
+    return values;
+  }
+  
+  /**
+   * Counts a load of several missing keys with one loader call.
+   */
+  public void recordBulkLoad(String cacheName, int missingKeys) {
+    var counters = counters(cacheName);
+    counters.misses.add(missingKeys);
+    counters.loads.increment();
+  }
+  
+  public LoadStats stats(String cacheName) {
+    var counters = counters(cacheName);
+    return new LoadStats(counters.misses.sum(), counters.loads.sum(), counters.coalescedLoads.sum());
+  }
+  
+  private Counters counters(String cacheName) {
+    return countersByCache.computeIfAbsent(cacheName, name -> new Counters());
+  }
+  
+  private static Object await(CompletableFuture<Object> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+  
+  /**
+   * A key being loaded, per cache.
+   */
+  private record InFlightKey(String cacheName, Object key) {
+  }
+  
+  private static final class Counters {
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+  }
+  
+  /**
+   * @param misses         number of calls that found no cached value
+   * @param loads          number of loader calls, a bulk load counts once
+   * @param coalescedLoads number of misses that got the value of another call's load instead of running their own
+   */
+  public record LoadStats(
+      long misses,
+      long loads,
+      long coalescedLoads
+  ) {
+  }
+}
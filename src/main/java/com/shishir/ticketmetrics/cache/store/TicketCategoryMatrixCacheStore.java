@@ -2,13 +2,85 @@ package com.shishir.ticketmetrics.cache.store;
 
 import com.shishir.ticketmetrics.cache.fn.TicketCategoryMatrixCalculator;
 import com.shishir.ticketmetrics.model.TicketXCategoryScores;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+import java.util.function.BiConsumer;
+
 @Component
 public class TicketCategoryMatrixCacheStore {
-  @Cacheable(value = "ticketXCategoryScoresByTicketId", key = "#ticketId")
+  public static final String CACHE_NAME = "ticketXCategoryScoresByTicketId";
+  
+  private final Cache cache;
+  private final Map<Object, Object> entries;
+  private final RatingWriteVersion writeVersion;
+  private final SingleFlightLoader singleFlightLoader;
+  
+  @SuppressWarnings("unchecked")
+  public TicketCategoryMatrixCacheStore(CacheManager cacheManager, RatingWriteVersion writeVersion, SingleFlightLoader singleFlightLoader) {
+    this.cache = cacheManager.getCache(CACHE_NAME);
+    this.entries = ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache()).asMap();
+    this.writeVersion = writeVersion;
+    this.singleFlightLoader = singleFlightLoader;
+  }
+  
   public TicketXCategoryScores getOrCalculate(Integer ticketId, TicketCategoryMatrixCalculator calculator) {
-    return calculator.calculate(ticketId);
+    return singleFlightLoader.get(cache, ticketId, () -> calculator.calculate(ticketId));
+  }
+  
+  public boolean isCached(Integer ticketId) {
+    return cache.get(ticketId) != null;
+  }
+  
+  /**
+   * @return the {@link RatingWriteVersion} to pass to {@link #put}, taken before the ratings of the tickets are read
+   */
+  public long writeVersion() {
+    return writeVersion.current();
+  }
+  
+  /**
+   * Caches a bulk-loaded value, unless a rating write committed while it was computed.
+   *
+   * @param loadedAtVersion {@link #writeVersion()} taken before the ratings were read
+   */
+  public void put(Integer ticketId, TicketXCategoryScores scores, long loadedAtVersion) {
+    cache.put(ticketId, scores);
+    if (writeVersion.current() != loadedAtVersion) {
+      cache.evict(ticketId);
+    }
+  }
+  
+  /**
+   * Counts tickets loaded in bulk and written with {@link #put}, like the misses loaded by {@link #getOrCalculate}.
+   */
+  public void recordBulkLoad(int tickets) {
+    singleFlightLoader.recordBulkLoad(CACHE_NAME, tickets);
+  }
+  
+  public void evict(Integer ticketId) {
+    cache.evict(ticketId);
+  }
+  
+  /**
+   * Visits every cached row, e.g. to write a checkpoint. Tickets cached without a row are skipped.
+   */
+  public void forEachStored(BiConsumer<Integer, TicketXCategoryScores> action) {
+    entries.forEach((ticketId, stored) -> {
+      if (stored instanceof TicketXCategoryScores scores) {
+        action.accept((Integer) ticketId, scores);
+      }
+    });
+  }
+  
+  /**
+   * Caches scores restored from a checkpoint, unless the ticket has been cached in the meantime.
+   *
+   * @return true when the scores were cached
+   */
+  public boolean restore(Integer ticketId, TicketXCategoryScores scores) {
+    return cache.putIfAbsent(ticketId, scores) == null;
   }
 }
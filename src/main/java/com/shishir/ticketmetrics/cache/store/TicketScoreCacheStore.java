@@ -1,16 +1,95 @@
 package com.shishir.ticketmetrics.cache.store;
 
 import com.shishir.ticketmetrics.cache.fn.TicketScoreCalculator;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
 
 @Component
 public class TicketScoreCacheStore {
+  public static final String CACHE_NAME = "ticketScoreByTicketId";
+  
+  private final Cache cache;
+  private final com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache;
+  private final Map<Object, Object> entries;
+  private final RatingWriteVersion writeVersion;
+  private final SingleFlightLoader singleFlightLoader;
+  
+  @SuppressWarnings("unchecked")
+  public TicketScoreCacheStore(CacheManager cacheManager, RatingWriteVersion writeVersion, SingleFlightLoader singleFlightLoader) {
+    this.cache = cacheManager.getCache(CACHE_NAME);
+    this.nativeCache = (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache();
+    this.entries = nativeCache.asMap();
+    this.writeVersion = writeVersion;
+    this.singleFlightLoader = singleFlightLoader;
+  }
   
-  @Cacheable(value = "ticketScoreByTicketId", key = "#ticketId")
   public BigDecimal getOrCalculate(Integer ticketId, TicketScoreCalculator calculator) {
-    return calculator.calculate(ticketId);
+    return singleFlightLoader.get(cache, ticketId, () -> calculator.calculate(ticketId));
+  }
+  
+  /**
+   * @return ticketId → score of the cached tickets among the given ones, looked up in one pass
+   */
+  public Map<Integer, BigDecimal> getAllPresent(Collection<Integer> ticketIds) {
+    var scores = new HashMap<Integer, BigDecimal>();
+    nativeCache.getAllPresent(ticketIds).forEach((ticketId, score) -> scores.put((Integer) ticketId, (BigDecimal) score));
+    return scores;
+  }
+  
+  public boolean isCached(Integer ticketId) {
+    return cache.get(ticketId) != null;
+  }
+  
+  /**
+   * @return the {@link RatingWriteVersion} to pass to {@link #put}, taken before the ratings of the tickets are read
+   */
+  public long writeVersion() {
+    return writeVersion.current();
+  }
+  
+  /**
+   * Caches a bulk-loaded value, unless a rating write committed while it was computed.
+   *
+   * @param loadedAtVersion {@link #writeVersion()} taken before the ratings were read
+   */
+  public void put(Integer ticketId, BigDecimal score, long loadedAtVersion) {
+    cache.put(ticketId, score);
+    if (writeVersion.current() != loadedAtVersion) {
+      cache.evict(ticketId);
+    }
+  }
+  
+  /**
+   * Counts tickets loaded in bulk and written with {@link #put}, like the misses loaded by {@link #getOrCalculate}.
+   */
+  public void recordBulkLoad(int tickets) {
+    singleFlightLoader.recordBulkLoad(CACHE_NAME, tickets);
+  }
+  
+  public void evict(Integer ticketId) {
+    cache.evict(ticketId);
+  }
+  
+  /**
+   * Visits every cached score, e.g. to write a checkpoint.
+   */
+  public void forEachStored(BiConsumer<Integer, BigDecimal> action) {
+    entries.forEach((ticketId, score) -> action.accept((Integer) ticketId, (BigDecimal) score));
+  }
+  
+  /**
+   * Caches a score restored from a checkpoint, unless the ticket has been cached in the meantime.
+   *
+   * @return true when the score was cached
+   */
+  public boolean restore(Integer ticketId, BigDecimal score) {
+    return cache.putIfAbsent(ticketId, score) == null;
   }
 }
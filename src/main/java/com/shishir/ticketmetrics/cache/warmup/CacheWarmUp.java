@@ -0,0 +1,161 @@
+package com.shishir.ticketmetrics.cache.warmup;
+
+import com.shishir.ticketmetrics.generated.grpc.TicketMetricsServiceGrpc;
+import com.shishir.ticketmetrics.model.TimelineGranularity;
+import com.shishir.ticketmetrics.persistence.dao.RatingDao;
+import com.shishir.ticketmetrics.persistence.dao.RatingStatsDao;
+import com.shishir.ticketmetrics.service.GetCategoryTimelineScoreService;
+import com.shishir.ticketmetrics.service.OverallScoreService;
+import com.shishir.ticketmetrics.service.TicketCategoryMatrixService;
+import com.shishir.ticketmetrics.service.TicketScoreService;
+import io.grpc.health.v1.HealthCheckResponse.ServingStatus;
+import io.grpc.protobuf.services.HealthStatusManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Preloads the caches when the application is ready, so the first requests after a deploy do not run on cold caches.
+ *
+ * <p>
+ * The last {@code days} days up to the latest day with ratings are loaded into the per-day caches in chunks of
+ * {@code chunk-days}, each chunk with one range query, and the most recently created rated tickets of that period
+ * into the ticket caches. At most {@code parallelism} chunks are loaded at the same time.
+ * </p>
+ * <p>
+ * The gRPC health status of the server and of {@code TicketMetricsService} is NOT_SERVING from startup until
+ * the warm-up has finished, so a readiness probe on gRPC health routes traffic to warm instances only.
+ * A failed warm-up is logged and reported as SERVING, the remaining entries are then loaded on demand.
+ * </p>
+ */
+@Component
+public class CacheWarmUp {
+  private static final Logger LOG = LoggerFactory.getLogger(CacheWarmUp.class);
+  
+  private static final List<String> HEALTH_SERVICE_NAMES = List.of(
+      HealthStatusManager.SERVICE_NAME_ALL_SERVICES,
+      TicketMetricsServiceGrpc.SERVICE_NAME
+  );
+  
+  private final CacheWarmUpProperties properties;
+  private final RatingStatsDao ratingStatsDao;
+  private final OverallScoreService overallScoreService;
+  private final GetCategoryTimelineScoreService getCategoryTimelineScoreService;
+  private final TicketScoreService ticketScoreService;
+  private final TicketCategoryMatrixService ticketCategoryMatrixService;
+  private final Optional<HealthStatusManager> healthStatusManager;
+  
+  private final AtomicInteger completedTasks = new AtomicInteger();
+  
+  public CacheWarmUp(
+      CacheWarmUpProperties properties,
+      RatingStatsDao ratingStatsDao,
+      OverallScoreService overallScoreService,
+      GetCategoryTimelineScoreService getCategoryTimelineScoreService,
+      TicketScoreService ticketScoreService,
+      TicketCategoryMatrixService ticketCategoryMatrixService,
+      Optional<HealthStatusManager> healthStatusManager
+  ) {
+    this.properties = properties;
+    this.ratingStatsDao = ratingStatsDao;
+    this.overallScoreService = overallScoreService;
+    this.getCategoryTimelineScoreService = getCategoryTimelineScoreService;
+    this.ticketScoreService = ticketScoreService;
+    this.ticketCategoryMatrixService = ticketCategoryMatrixService;
+    this.healthStatusManager = healthStatusManager;
+    if (properties.enabled()) {
+      // Created before the gRPC server starts, so it never reports SERVING with cold caches
+      setHealthStatus(ServingStatus.NOT_SERVING);
+    }
+  }
+  
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    if (properties.enabled()) {
+      warmUp();
+    }
+  }
+  
+  /**
+   * Starts the warm-up in the background.
+   *
+   * @return completes when the warm-up has finished and the health status is SERVING again, also after a failure
+   */
+  public CompletableFuture<Void> warmUp() {
+    setHealthStatus(ServingStatus.NOT_SERVING);
+    completedTasks.set(0);
+    var startedAt = System.nanoTime();
+    var executor = Executors.newFixedThreadPool(properties.parallelism(), Thread.ofPlatform().name("cache-warm-up-", 0).daemon().factory());
+    return CompletableFuture.supplyAsync(this::plan, executor)
+        .thenCompose(tasks -> {
+          LOG.info("Warming up caches: tasks={}, parallelism={}", tasks.size(), properties.parallelism());
+          return CompletableFuture.allOf(tasks.stream()
+              .map(task -> CompletableFuture.runAsync(() -> run(task, tasks.size()), executor))
+              .toArray(CompletableFuture[]::new));
+        })
+        .whenComplete((ignored, failure) -> {
+          executor.shutdown();
+          if (failure != null) {
+            LOG.warn("Cache warm-up failed after {} tasks, remaining entries are loaded on demand", completedTasks.get(), failure);
+          } else {
+            LOG.info("Warmed up caches: tasks={}, tookMs={}", completedTasks.get(), (System.nanoTime() - startedAt) / 1_000_000);
+          }
+          setHealthStatus(ServingStatus.SERVING);
+        });
+  }
+  
+  private List<Runnable> plan() {
+    var tasks = new ArrayList<Runnable>();
+    var latestDate = ratingStatsDao.fetchLatestRatingDate();
+    if (latestDate == null || properties.days() <= 0) {
+      LOG.info("Nothing to warm up: latestRatingDate={}, days={}", latestDate, properties.days());
+      return tasks;
+    }
+    
+    var startDate = latestDate.minusDays(properties.days() - 1);
+    for (var chunkStart = startDate; !chunkStart.isAfter(latestDate); chunkStart = chunkStart.plusDays(properties.chunkDays())) {
+      var firstDay = chunkStart;
+      var lastDay = min(chunkStart.plusDays(properties.chunkDays() - 1), latestDate);
+      tasks.add(() -> {
+        overallScoreService.getOverallScore(firstDay, lastDay);
+        getCategoryTimelineScoreService.getCategoryTimelineScores(firstDay, lastDay, TimelineGranularity.DAY, 0);
+      });
+    }
+    
+    // Rated tickets are ordered by creation time, the most recent ones are last
+    var ratedTickets = ticketCategoryMatrixService.getRatedTickets(startDate, latestDate);
+    var recentTickets = ratedTickets.subList(Math.max(0, ratedTickets.size() - properties.tickets()), ratedTickets.size());
+    for (int i = 0; i < recentTickets.size(); i += RatingDao.TICKET_ID_CHUNK_SIZE) {
+      var ticketIds = List.copyOf(recentTickets.subList(i, Math.min(i + RatingDao.TICKET_ID_CHUNK_SIZE, recentTickets.size())));
+      tasks.add(() -> {
+        ticketScoreService.loadTicketScores(ticketIds);
+        ticketCategoryMatrixService.getTicketCategoryScores(ticketIds);
+      });
+    }
+    LOG.debug("Planned warm-up: startDate={}, endDate={}, tickets={}", startDate, latestDate, recentTickets.size());
+    return tasks;
+  }
+  
+  private void run(Runnable task, int totalTasks) {
+    task.run();
+    LOG.info("Cache warm-up progress: {}/{} tasks", completedTasks.incrementAndGet(), totalTasks);
+  }
+  
+  private void setHealthStatus(ServingStatus status) {
+    healthStatusManager.ifPresent(manager -> HEALTH_SERVICE_NAMES.forEach(name -> manager.setStatus(name, status)));
+  }
+  
+  private static LocalDate min(LocalDate a, LocalDate b) {
+    return a.isBefore(b) ? a : b;
+  }
+}
@@ -0,0 +1,21 @@
+package com.shishir.ticketmetrics.cache.warmup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled     preload the caches at startup and report NOT_SERVING on gRPC health until done
+ * @param days        number of days, ending on the latest day with ratings, loaded into the per-day caches
+ * @param tickets     number of most recently created rated tickets loaded into the ticket caches
+ * @param chunkDays   days loaded by one warm-up task
+ * @param parallelism number of warm-up tasks running at the same time
+ */
+@ConfigurationProperties(prefix = "ticket-metrics.warm-up")
+public record CacheWarmUpProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("90") int days,
+    @DefaultValue("1000") int tickets,
+    @DefaultValue("7") int chunkDays,
+    @DefaultValue("4") int parallelism
+) {
+}
@@ -0,0 +1,72 @@
+package com.shishir.ticketmetrics.calculator;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Category weights of one load from the database, together with their {@link FixedPointScoreCalculator.Weights}
+ * form, so the dense table is built once per load and not once per scored day or ticket.
+ * Scores are calculated with {@link FixedPointScoreCalculator}, falling back to {@link ScoreCalculator}
+ * for weights or ratings it cannot represent.
+ *
+ * @param weightMap  categoryId → weight
+ * @param fixedPoint dense weights, empty if they do not fit {@link FixedPointScoreCalculator}
+ */
+public record CategoryWeights(
+    Map<Integer, BigDecimal> weightMap,
+    Optional<FixedPointScoreCalculator.Weights> fixedPoint
+) {
+  private static final BigDecimal MAX_RATING = BigDecimal.valueOf(5);
+
+  public static CategoryWeights of(Map<Integer, BigDecimal> weightMap) {
+    return new CategoryWeights(weightMap, FixedPointScoreCalculator.Weights.of(weightMap));
+  }
+
+  public BigDecimal weight(int categoryId) {
+    return weightMap.get(categoryId);
+  }
+
+  public boolean contains(int categoryId) {
+    return weightMap.containsKey(categoryId);
+  }
+
+  /**
+   * Score of one category from its rating totals, same as {@code ScoreCalculator.calculateScore(Map.of(categoryId, ratingAverage), weightMap)}.
+   *
+   * @param ratingSum     sum of whole-number ratings
+   * @param ratingCount   number of ratings
+   * @param ratingAverage {@code ratingSum / ratingCount}, only used by the fallback
+   */
+  public BigDecimal calculateCategoryScore(int categoryId, long ratingSum, long ratingCount, BigDecimal ratingAverage) {
+    return fixedPoint.isPresent()
+        ? FixedPointScoreCalculator.calculateCategoryScore(categoryId, ratingSum, ratingCount, fixedPoint.get())
+        : ScoreCalculator.calculateScore(Map.of(categoryId, ratingAverage), weightMap);
+  }
+
+  /**
+   * Weighted score of all ratings of a ticket, same as {@code ScoreCalculator.calculateScore(ratingMap, weightMap)}.
+   *
+   * @param ratingMap categoryId → rating
+   */
+  public BigDecimal calculateScore(Map<Integer, BigDecimal> ratingMap) {
+    if (fixedPoint.isEmpty()) {
+      return ScoreCalculator.calculateScore(ratingMap, weightMap);
+    }
+    var weights = fixedPoint.get();
+    var ratingSums = new long[weights.size()];
+    var ratingCounts = new long[weights.size()];
+    for (var entry : ratingMap.entrySet()) {
+      var categoryId = entry.getKey();
+      var rating = entry.getValue();
+      // Categories outside the table, fractional and invalid ratings are left to ScoreCalculator, including its validation
+      if (categoryId < 0 || categoryId >= ratingSums.length || rating == null
+          || rating.signum() < 0 || rating.compareTo(MAX_RATING) > 0 || rating.stripTrailingZeros().scale() > 0) {
+        return ScoreCalculator.calculateScore(ratingMap, weightMap);
+      }
+      ratingSums[categoryId] = rating.longValueExact();
+      ratingCounts[categoryId] = 1;
+    }
+    return FixedPointScoreCalculator.toScore(FixedPointScoreCalculator.calculateScoreCents(ratingSums, ratingCounts, weights));
+  }
+}
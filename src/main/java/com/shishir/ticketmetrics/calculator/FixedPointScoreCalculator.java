@@ -0,0 +1,181 @@
+package com.shishir.ticketmetrics.calculator;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Primitive fast path of {@link ScoreCalculator} working on scaled {@code long} values.
+ *
+ * <p>
+ * Ratings are given as sum and count per category (so both single ratings and daily averages
+ * are covered), weights as a dense {@link Weights} table indexed by category id. The arithmetic
+ * reproduces the rounding of {@link ScoreCalculator#calculateScore} exactly:
+ * <pre>
+ *   normalizedMicros = roundHalfEven(ratingSum / ratingCount / 5 * 10^6)
+ *   scoreCents       = roundHalfUp(sum(normalizedMicros * scaledWeight) / (sum(scaledWeight) * 100))
+ * </pre>
+ * where {@code scaledWeight = weight * 10^scale} for a scale shared by all weights, which cancels out.
+ * </p>
+ * <p>
+ * {@link Weights#of(Map)} only accepts weights for which none of the products can overflow,
+ * callers fall back to {@link ScoreCalculator} when it returns empty.
+ */
+public final class FixedPointScoreCalculator {
+  /**
+   * Returned by the cents methods when no rated category has a weight, {@link ScoreCalculator} returns 0 then.
+   */
+  public static final long NO_SCORE = Long.MIN_VALUE;
+  
+  private static final long MAX_RATING = 5L;
+  private static final long MICROS_PER_RATING_POINT = 1_000_000L / MAX_RATING;
+  private static final int MAX_WEIGHT_SCALE = 9;
+  private static final int MAX_CATEGORY_ID = 1 << 16;
+  // Keeps sum(normalizedMicros * scaledWeight) <= 10^6 * 10^12 well inside a long
+  private static final long MAX_TOTAL_SCALED_WEIGHT = 1_000_000_000_000L;
+  
+  private FixedPointScoreCalculator() {
+  }
+  
+  /**
+   * Weighted score of all rated categories.
+   * Equivalent to {@link ScoreCalculator#calculateScore} with {@code categoryId → ratingSums[id] / ratingCounts[id]}
+   * for every id with {@code ratingCounts[id] > 0}.
+   *
+   * @param ratingSums   sum of ratings, indexed by category id
+   * @param ratingCounts number of ratings, indexed by category id; 0 means not rated
+   * @param weights      category weights
+   * @return score in hundredths of a percent, or {@link #NO_SCORE}
+   */
+  public static long calculateScoreCents(long[] ratingSums, long[] ratingCounts, Weights weights) {
+    long weightedSum = 0;
+    long totalWeight = 0;
+    for (int categoryId = 0; categoryId < ratingCounts.length; categoryId++) {
+      var ratingCount = ratingCounts[categoryId];
+      if (ratingCount == 0) {
+        continue;
+      }
+      var normalizedMicros = normalizedMicros(categoryId, ratingSums[categoryId], ratingCount);
+      if (!weights.contains(categoryId)) {
+        continue;
+      }
+      var weight = weights.scaledWeights[categoryId];
+      weightedSum += normalizedMicros * weight;
+      totalWeight += weight;
+    }
+    return totalWeight == 0 ? NO_SCORE : divideHalfUp(weightedSum, totalWeight * 100);
+  }
+  
+  /**
+   * Score of one category on its own, which is what the services compute per category.
+   * Equivalent to {@code ScoreCalculator.calculateScore(Map.of(categoryId, ratingSum / ratingCount), weights)}.
+   *
+   * @return score in hundredths of a percent, or {@link #NO_SCORE}
+   */
+  public static long calculateCategoryScoreCents(int categoryId, long ratingSum, long ratingCount, Weights weights) {
+    var normalizedMicros = normalizedMicros(categoryId, ratingSum, ratingCount);
+    if (!weights.contains(categoryId) || weights.scaledWeights[categoryId] == 0) {
+      return NO_SCORE;
+    }
+    // The weight cancels out: (n * w) / (w * 100) == n / 100
+    return divideHalfUp(normalizedMicros, 100);
+  }
+  
+  /**
+   * {@link BigDecimal} form of {@link #calculateCategoryScoreCents}, with the same value and scale
+   * as {@link ScoreCalculator#calculateScore}.
+   */
+  public static BigDecimal calculateCategoryScore(int categoryId, long ratingSum, long ratingCount, Weights weights) {
+    return toScore(calculateCategoryScoreCents(categoryId, ratingSum, ratingCount, weights));
+  }
+  
+  /**
+   * @return score as returned by {@link ScoreCalculator#calculateScore}: scale 2, or {@link BigDecimal#ZERO} for {@link #NO_SCORE}
+   */
+  public static BigDecimal toScore(long scoreCents) {
+    return scoreCents == NO_SCORE ? BigDecimal.ZERO : BigDecimal.valueOf(scoreCents, 2);
+  }
+  
+  private static long normalizedMicros(int categoryId, long ratingSum, long ratingCount) {
+    if (ratingCount <= 0 || ratingSum < 0 || ratingSum > Math.multiplyExact(ratingCount, MAX_RATING)) {
+      throw new IllegalArgumentException(
+          "Rating=%d/%d is out bounds for categoryId=%d. Bounds 0 to %d.".formatted(ratingSum, ratingCount, categoryId, MAX_RATING)
+      );
+    }
+    // ratingSum / ratingCount / 5 at 6 decimals, rounded like BigDecimal.divide(5, 6, HALF_EVEN)
+    var numerator = Math.multiplyExact(ratingSum, MICROS_PER_RATING_POINT);
+    var quotient = numerator / ratingCount;
+    var remainder = numerator % ratingCount;
+    var twiceRemainder = remainder * 2;
+    if (twiceRemainder > ratingCount || (twiceRemainder == ratingCount && (quotient & 1) == 1)) {
+      quotient++;
+    }
+    return quotient;
+  }
+  
+  private static long divideHalfUp(long dividend, long divisor) {
+    var quotient = dividend / divisor;
+    var remainder = Math.abs(dividend % divisor);
+    if (remainder >= Math.abs(divisor) - remainder) {
+      quotient += Long.signum(dividend) * Long.signum(divisor);
+    }
+    return quotient;
+  }
+  
+  /**
+   * Category weights as {@code long} values at a common decimal scale, indexed by category id.
+   */
+  public static final class Weights {
+    private final long[] scaledWeights;
+    private final boolean[] present;
+    
+    private Weights(long[] scaledWeights, boolean[] present) {
+      this.scaledWeights = scaledWeights;
+      this.present = present;
+    }
+    
+    /**
+     * @param categoryWeights categoryId → weight
+     * @return dense weights, or empty if they cannot be represented without risking overflow
+     */
+    public static Optional<Weights> of(Map<Integer, BigDecimal> categoryWeights) {
+      var scale = 0;
+      var maxCategoryId = -1;
+      for (var entry : categoryWeights.entrySet()) {
+        if (entry.getKey() == null || entry.getKey() < 0 || entry.getKey() > MAX_CATEGORY_ID || entry.getValue() == null) {
+          return Optional.empty();
+        }
+        scale = Math.max(scale, entry.getValue().stripTrailingZeros().scale());
+        maxCategoryId = Math.max(maxCategoryId, entry.getKey());
+      }
+      if (scale > MAX_WEIGHT_SCALE) {
+        return Optional.empty();
+      }
+      
+      var scaledWeights = new long[maxCategoryId + 1];
+      var present = new boolean[maxCategoryId + 1];
+      var totalScaledWeight = BigDecimal.ZERO;
+      for (var entry : categoryWeights.entrySet()) {
+        var scaledWeight = entry.getValue().movePointRight(scale);
+        totalScaledWeight = totalScaledWeight.add(scaledWeight.abs());
+        if (totalScaledWeight.compareTo(BigDecimal.valueOf(MAX_TOTAL_SCALED_WEIGHT)) > 0) {
+          return Optional.empty();
+        }
+        scaledWeights[entry.getKey()] = scaledWeight.longValueExact();
+        present[entry.getKey()] = true;
+      }
+      return Optional.of(new Weights(scaledWeights, present));
+    }
+    
+    public boolean contains(int categoryId) {
+      return categoryId >= 0 && categoryId < present.length && present[categoryId];
+    }
+    
+    /**
+     * @return size of dense arrays indexed by category id that cover every weighted category
+     */
+    public int size() {
+      return present.length;
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package com.shishir.ticketmetrics.concurrency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Loads and scores the uncached days and tickets of one request in parallel.
+ *
+ * <p>
+ * The items are split into contiguous chunks, at most {@link ComputePoolProperties#effectiveMaxRequestParallelism()}
+ * of them, which a fork-join task runs on a dedicated, bounded pool. Results come back in chunk order, so callers
+ * merge them the same way as a sequential load.
+ * </p>
+ * <p>
+ * A caller holding a {@link JdbcPermits} permit, e.g. while loading a single cache entry, runs its chunk inline:
+ * its tasks would need further permits and could wait for each other. Tasks of the pool do the same, so nested
+ * loads do not exceed the per-request cap.
+ * </p>
+ */
+@Component
+public class ComputePool implements DisposableBean {
+  private static final Logger LOG = LoggerFactory.getLogger(ComputePool.class);
+  
+  private final ComputePoolProperties properties;
+  private final JdbcPermits jdbcPermits;
+  private final ForkJoinPool pool;
+  
+  public ComputePool(ComputePoolProperties properties, JdbcPermits jdbcPermits) {
+    this.properties = properties;
+    this.jdbcPermits = jdbcPermits;
+    this.pool = new ForkJoinPool(properties.effectiveParallelism(), pool -> {
+      var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+      thread.setName("compute-" + thread.getPoolIndex());
+      return thread;
+    }, null, false);
+  }
+  
+  public ComputePoolProperties properties() {
+    return properties;
+  }
+  
+  /**
+   * Applies {@code task} to contiguous chunks of the items, in parallel when there is more than one chunk.
+   *
+   * @param items        items in the order their results should be merged
+   * @param minChunkSize smallest number of items given to one task
+   * @return one result per chunk, in item order
+   */
+  public <T, R> List<R> map(List<T> items, int minChunkSize, Function<List<T>, R> task) {
+    var chunkCount = Math.min(properties.effectiveMaxRequestParallelism(), items.size() / Math.max(1, minChunkSize));
+    if (chunkCount <= 1 || jdbcPermits.heldByCurrentThread() || isPoolThread()) {
+      return List.of(task.apply(items));
+    }
+    
+    var chunks = new ArrayList<List<T>>(chunkCount);
+    for (int i = 0; i < chunkCount; i++) {
+      chunks.add(items.subList(i * items.size() / chunkCount, (i + 1) * items.size() / chunkCount));
+    }
+    LOG.debug("Splitting {} items into {} tasks", items.size(), chunkCount);
+    try {
+      return pool.invoke(new ChunkTask<>(chunks, task));
+    } catch (RuntimeException e) {
+      // A task failing on another thread is rethrown as a copy of its exception, caused by the original
+      if (e.getCause() instanceof RuntimeException cause && cause.getClass() == e.getClass()) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+  
+  private boolean isPoolThread() {
+    return Thread.currentThread() instanceof ForkJoinWorkerThread worker && worker.getPool() == pool;
+  }
+  
+  @Override
+  public void destroy() {
+    pool.shutdown();
+  }
+  
+  /**
+   * Forks the second half of its chunks and runs the first half itself, down to single chunks.
+   */
+  private static final class ChunkTask<T, R> extends RecursiveTask<List<R>> {
+    private final List<List<T>> chunks;
+    private final Function<List<T>, R> task;
+    
+    private ChunkTask(List<List<T>> chunks, Function<List<T>, R> task) {
+      this.chunks = chunks;
+      this.task = task;
+    }
+    
+    @Override
+    protected List<R> compute() {
+      if (chunks.size() == 1) {
+        return List.of(task.apply(chunks.getFirst()));
+      }
+      var middle = chunks.size() / 2;
+      var second = new ChunkTask<>(chunks.subList(middle, chunks.size()), task);
+      second.fork();
+      var results = new ArrayList<>(new ChunkTask<>(chunks.subList(0, middle), task).compute());
+      results.addAll(second.join());
+      return results;
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package com.shishir.ticketmetrics.concurrency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param parallelism           threads loading and scoring uncached days and tickets, 0 for one per available processor
+ * @param maxRequestParallelism tasks one request splits its uncached days or tickets into, 0 for half the parallelism.
+ *                              Keeps a single long range from occupying every thread of the pool
+ * @param minDaysPerTask        smallest number of days loaded by one task
+ * @param minTicketsPerTask     smallest number of tickets loaded by one task
+ */
+@ConfigurationProperties(prefix = "ticket-metrics.compute-pool")
+public record ComputePoolProperties(
+    @DefaultValue("0") int parallelism,
+    @DefaultValue("0") int maxRequestParallelism,
+    @DefaultValue("14") int minDaysPerTask,
+    @DefaultValue("500") int minTicketsPerTask
+) {
+  public int effectiveParallelism() {
+    return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+  }
+
+  public int effectiveMaxRequestParallelism() {
+    return maxRequestParallelism > 0 ? maxRequestParallelism : Math.max(1, effectiveParallelism() / 2);
+  }
+}
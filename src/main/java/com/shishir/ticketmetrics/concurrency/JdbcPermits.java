@@ -0,0 +1,65 @@
+package com.shishir.ticketmetrics.concurrency;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bounds the number of threads using a SQLite connection at the same time when handlers run on virtual threads.
+ *
+ * <p>
+ * sqlite-jdbc runs every statement in native code, which pins the virtual thread to its carrier. Without a bound,
+ * a burst of requests pins every carrier in JDBC calls and no other virtual thread runs until one returns.
+ * With fewer permits than carriers, the remaining carriers keep serving cached requests and scoring.
+ * </p>
+ * <p>
+ * Permits are held per thread: a thread that already holds one, e.g. while loading a cache entry, takes no second
+ * one for the connections it opens meanwhile. Without virtual threads every call passes through.
+ * </p>
+ */
+@Component
+public class JdbcPermits {
+  private final Semaphore semaphore;
+  private final ThreadLocal<int[]> holdCount = ThreadLocal.withInitial(() -> new int[1]);
+  
+  public JdbcPermits(VirtualThreadProperties properties) {
+    this.semaphore = properties.enabled() ? new Semaphore(properties.effectiveJdbcPermits(), true) : null;
+  }
+  
+  /**
+   * @return permits that never block, for components used without virtual threads
+   */
+  public static JdbcPermits unbounded() {
+    return new JdbcPermits(new VirtualThreadProperties(false, 0));
+  }
+  
+  /**
+   * Takes a permit unless the current thread holds one, waiting for it if necessary.
+   * Every call must be followed by {@link #release()} on the same thread.
+   */
+  public void acquire() {
+    if (semaphore != null && holdCount.get()[0]++ == 0) {
+      semaphore.acquireUninterruptibly();
+    }
+  }
+  
+  public void release() {
+    if (semaphore != null && --holdCount.get()[0] == 0) {
+      semaphore.release();
+    }
+  }
+  
+  /**
+   * @return true if the current thread holds a permit, never while unbounded
+   */
+  public boolean heldByCurrentThread() {
+    return semaphore != null && holdCount.get()[0] > 0;
+  }
+  
+  /**
+   * @return permits not held by any thread, or -1 when unbounded
+   */
+  public int availablePermits() {
+    return semaphore != null ? semaphore.availablePermits() : -1;
+  }
+}
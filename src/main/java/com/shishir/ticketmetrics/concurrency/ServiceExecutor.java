@@ -0,0 +1,52 @@
+package com.shishir.ticketmetrics.concurrency;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the asynchronous service variants, e.g. {@code OverallScoreService#getOverallScoreAsync}.
+ * Their work blocks on SQLite and cache loads, so with virtual threads enabled every task gets its own virtual thread,
+ * otherwise the tasks share a fixed pool of platform threads.
+ *
+ * <p>
+ * The pool's queue is bounded: once {@code queue-capacity} tasks are waiting, {@link #execute} throws a
+ * {@link RejectedExecutionException}, which the gRPC layer reports as {@code RESOURCE_EXHAUSTED} instead of
+ * letting the backlog, and the latency of every queued call, grow without limit.
+ * </p>
+ */
+@Component
+public class ServiceExecutor implements Executor, DisposableBean {
+  private final ExecutorService executorService;
+  
+  public ServiceExecutor(VirtualThreadProperties virtualThreadProperties, ServiceExecutorProperties properties) {
+    this.executorService = virtualThreadProperties.enabled()
+        ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("service-", 0).factory())
+        : new ThreadPoolExecutor(
+            properties.effectivePoolSize(),
+            properties.effectivePoolSize(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.queueCapacity()),
+            Thread.ofPlatform().name("service-", 0).daemon().factory(),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+  }
+  
+  @Override
+  public void execute(Runnable command) {
+    executorService.execute(command);
+  }
+  
+  @Override
+  public void destroy() {
+    executorService.shutdown();
+  }
+}
@@ -0,0 +1,20 @@
+package com.shishir.ticketmetrics.concurrency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param poolSize      platform threads running asynchronous service calls, 0 for two per available processor.
+ *                      Not used with virtual threads, which start one thread per call
+ * @param queueCapacity calls waiting for a platform thread, further calls are rejected with {@code RESOURCE_EXHAUSTED}.
+ *                      Not used with virtual threads
+ */
+@ConfigurationProperties(prefix = "ticket-metrics.service-executor")
+public record ServiceExecutorProperties(
+    @DefaultValue("0") int poolSize,
+    @DefaultValue("1000") int queueCapacity
+) {
+  public int effectivePoolSize() {
+    return poolSize > 0 ? poolSize : 2 * Runtime.getRuntime().availableProcessors();
+  }
+}
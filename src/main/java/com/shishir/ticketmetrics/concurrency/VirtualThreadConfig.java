@@ -0,0 +1,31 @@
+package com.shishir.ticketmetrics.concurrency;
+
+import io.grpc.ServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.grpc.server.ServerBuilderCustomizer;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Runs gRPC calls on a virtual thread each when {@code ticket-metrics.virtual-threads.enabled} is set. Handlers block in
+ * MyBatis and cache loads; on virtual threads a blocked call no longer holds a platform thread of the gRPC executor.
+ * SQLite access stays bounded by {@link JdbcPermits}.
+ */
+@Configuration
+public class VirtualThreadConfig {
+  private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadConfig.class);
+  
+  @Bean
+  public <T extends ServerBuilder<T>> ServerBuilderCustomizer<T> virtualThreadServerExecutor(VirtualThreadProperties properties) {
+    return serverBuilder -> {
+      if (properties.enabled()) {
+        LOG.info("Running gRPC calls on virtual threads: jdbcPermits={}", properties.effectiveJdbcPermits());
+        // Nothing to shut down: virtual threads are not pooled, the server waits for running calls itself
+        serverBuilder.executor(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("grpc-call-", 0).factory()));
+      }
+    };
+  }
+}
@@ -0,0 +1,18 @@
+package com.shishir.ticketmetrics.concurrency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled     run gRPC handlers, and the blocking DAO calls and cache loads inside them, on virtual threads
+ * @param jdbcPermits threads using a SQLite connection at the same time while enabled, 0 for half the available processors
+ */
+@ConfigurationProperties(prefix = "ticket-metrics.virtual-threads")
+public record VirtualThreadProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("0") int jdbcPermits
+) {
+  public int effectiveJdbcPermits() {
+    return jdbcPermits > 0 ? jdbcPermits : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+  }
+}
@@ -0,0 +1,27 @@
+package com.shishir.ticketmetrics.grpc;
+
+import com.shishir.ticketmetrics.generated.grpc.SlowQueriesRequest;
+import com.shishir.ticketmetrics.generated.grpc.SlowQueriesResponse;
+import com.shishir.ticketmetrics.generated.grpc.TicketMetricsAdminServiceGrpc;
+import com.shishir.ticketmetrics.grpc.support.GrpcRequestHandler;
+import io.grpc.stub.StreamObserver;
+import org.springframework.grpc.server.service.GrpcService;
+
+import static com.shishir.ticketmetrics.grpc.support.GrpcCalls.handleGrpcCall;
+
+/**
+ * Operational calls, kept apart from {@link TicketMetricsGrpcService} so they can be restricted separately.
+ */
+@GrpcService
+public class TicketMetricsAdminGrpcService extends TicketMetricsAdminServiceGrpc.TicketMetricsAdminServiceImplBase {
+  private final GrpcRequestHandler handler;
+  
+  public TicketMetricsAdminGrpcService(GrpcRequestHandler handler) {
+    this.handler = handler;
+  }
+  
+  @Override
+  public void getSlowQueries(SlowQueriesRequest request, StreamObserver<SlowQueriesResponse> responseObserver) {
+    handleGrpcCall(request, handler::handle, responseObserver);
+  }
+}
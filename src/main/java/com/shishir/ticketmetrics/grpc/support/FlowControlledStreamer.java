@@ -0,0 +1,102 @@
+package com.shishir.ticketmetrics.grpc.support;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+
+/**
+ * Sends the messages of a lazily computed {@link Iterator} to a server stream, only while the
+ * transport is ready for more.
+ *
+ * <p>
+ * The next message is computed only when {@link ServerCallStreamObserver#isReady()} is true, otherwise
+ * sending pauses until gRPC invokes the on-ready handler. A slow client therefore stops the server from
+ * computing further messages, and at most about one message plus the transport buffer is held in memory.
+ * </p>
+ */
+public class FlowControlledStreamer<T> implements Runnable {
+  private static final Logger LOG = LoggerFactory.getLogger(FlowControlledStreamer.class);
+  
+  private final Iterator<T> messages;
+  private final ServerCallStreamObserver<T> responseObserver;
+  private boolean draining;
+  private boolean readyWhileDraining;
+  private boolean done;
+  
+  private FlowControlledStreamer(Iterator<T> messages, ServerCallStreamObserver<T> responseObserver) {
+    this.messages = messages;
+    this.responseObserver = responseObserver;
+  }
+  
+  /**
+   * Registers the handlers and sends as much as the transport accepts right away.
+   * Must be called from the service method, before it returns.
+   */
+  public static <T> void stream(Iterator<T> messages, ServerCallStreamObserver<T> responseObserver) {
+    var streamer = new FlowControlledStreamer<>(messages, responseObserver);
+    responseObserver.setOnCancelHandler(() -> LOG.debug("Stream cancelled by client"));
+    responseObserver.setOnReadyHandler(streamer);
+    streamer.run();
+  }
+  
+  @Override
+  public void run() {
+    // The on-ready handler and the initial call may race. Only one caller drains, a signal that
+    // arrives meanwhile makes it drain once more, so readiness changes are never lost.
+    synchronized (this) {
+      if (done) {
+        return;
+      }
+      if (draining) {
+        readyWhileDraining = true;
+        return;
+      }
+      draining = true;
+    }
+    while (true) {
+      drain();
+      synchronized (this) {
+        if (!readyWhileDraining || done) {
+          draining = false;
+          return;
+        }
+        readyWhileDraining = false;
+      }
+    }
+  }
+  
+  private void drain() {
+    try {
+      while (responseObserver.isReady() && !responseObserver.isCancelled() && messages.hasNext()) {
+        responseObserver.onNext(messages.next());
+      }
+      if (responseObserver.isCancelled()) {
+        markDone();
+      } else if (!messages.hasNext() && markDone()) {
+        responseObserver.onCompleted();
+      }
+    } catch (StatusRuntimeException e) {
+      LOG.error("Error encountered.", e);
+      if (markDone()) {
+        responseObserver.onError(e);
+      }
+    } catch (Exception e) {
+      LOG.error("Error encountered.", e);
+      if (markDone()) {
+        responseObserver.onError(Status.INTERNAL.withDescription("Internal error").withCause(e).asRuntimeException());
+      }
+    }
+  }
+  
+  private synchronized boolean markDone() {
+    if (done) {
+      return false;
+    }
+    done = true;
+    return true;
+  }
+}
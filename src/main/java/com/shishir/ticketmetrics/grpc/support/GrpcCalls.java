@@ -0,0 +1,74 @@
+package com.shishir.ticketmetrics.grpc.support;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Completes unary gRPC calls from a handler method and maps its exceptions to a {@link Status}, shared by the gRPC services.
+ */
+public final class GrpcCalls {
+  private static final Logger LOG = LoggerFactory.getLogger(GrpcCalls.class);
+  
+  private GrpcCalls() {
+  }
+  
+  public static <REQ, RESP> void handleGrpcCall(REQ request, Function<REQ, RESP> handlerFn, StreamObserver<RESP> responseObserver) {
+    try {
+      RESP response = handlerFn.apply(request);
+      responseObserver.onNext(response);
+      responseObserver.onCompleted();
+    } catch (Exception e) {
+      responseObserver.onError(toStatusException(e));
+    }
+  }
+  
+  /**
+   * Completes the call when the handler's future does, on the thread finishing it, so the gRPC thread is not
+   * blocked meanwhile. Validation errors thrown before the future exists are reported the same way.
+   * A cancelled call cancels the future, so its remaining stages are skipped; work shared with identical
+   * requests through the response cache keeps running for them.
+   */
+  public static <REQ, RESP> void handleAsyncGrpcCall(REQ request, Function<REQ, CompletableFuture<RESP>> handlerFn, StreamObserver<RESP> responseObserver) {
+    var serverCallObserver = (ServerCallStreamObserver<RESP>) responseObserver;
+    CompletableFuture<RESP> response;
+    try {
+      response = handlerFn.apply(request);
+    } catch (Exception e) {
+      responseObserver.onError(toStatusException(e));
+      return;
+    }
+    serverCallObserver.setOnCancelHandler(() -> response.cancel(false));
+    response.whenComplete((result, error) -> {
+      if (serverCallObserver.isCancelled() || error instanceof CancellationException) {
+        LOG.debug("Call cancelled before its response was ready");
+      } else if (error != null) {
+        responseObserver.onError(toStatusException(error instanceof CompletionException ? error.getCause() : error));
+      } else {
+        responseObserver.onNext(result);
+        responseObserver.onCompleted();
+      }
+    });
+  }
+  
+  public static StatusRuntimeException toStatusException(Throwable e) {
+    if (e instanceof RejectedExecutionException) {
+      LOG.warn("Rejected call, the service executor queue is full");
+      return Status.RESOURCE_EXHAUSTED.withDescription("Server busy, retry later").withCause(e).asRuntimeException();
+    }
+    LOG.error("Error encountered.", e);
+    if (e instanceof StatusRuntimeException statusException) {
+      return statusException;
+    }
+    return Status.INTERNAL.withDescription("Internal error").withCause(e).asRuntimeException();
+  }
+}
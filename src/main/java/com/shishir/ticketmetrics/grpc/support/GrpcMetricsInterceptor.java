@@ -0,0 +1,67 @@
+package com.shishir.ticketmetrics.grpc.support;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.grpc.server.GlobalServerInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Times every gRPC call per method and status code, from the start of the call until it is closed or cancelled.
+ * The timer counts per status code double as status counters; timers are published as histograms for latency quantiles.
+ */
+@Component
+@GlobalServerInterceptor
+public class GrpcMetricsInterceptor implements ServerInterceptor {
+  public static final String TIMER_NAME = "ticketmetrics.grpc.server.calls";
+  
+  private final MeterRegistry meterRegistry;
+  
+  public GrpcMetricsInterceptor(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+  
+  @Override
+  public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+    var method = call.getMethodDescriptor();
+    var sample = Timer.start(meterRegistry);
+    var recorded = new AtomicBoolean();
+    
+    var listener = next.startCall(new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+      @Override
+      public void close(Status status, Metadata trailers) {
+        record(sample, recorded, method.getServiceName(), method.getBareMethodName(), status.getCode());
+        super.close(status, trailers);
+      }
+    }, headers);
+    return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+      @Override
+      public void onCancel() {
+        record(sample, recorded, method.getServiceName(), method.getBareMethodName(), Status.Code.CANCELLED);
+        super.onCancel();
+      }
+    };
+  }
+  
+  // A call is either closed or cancelled by the client, whichever comes first is recorded
+  private void record(Timer.Sample sample, AtomicBoolean recorded, String service, String method, Status.Code code) {
+    if (!recorded.compareAndSet(false, true)) {
+      return;
+    }
+    sample.stop(Timer.builder(TIMER_NAME)
+        .description("gRPC server calls")
+        .tag("service", String.valueOf(service))
+        .tag("method", String.valueOf(method))
+        .tag("status", code.name())
+        .publishPercentileHistogram()
+        .register(meterRegistry));
+  }
+}
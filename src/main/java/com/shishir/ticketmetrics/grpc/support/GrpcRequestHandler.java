@@ -2,29 +2,48 @@ package com.shishir.ticketmetrics.grpc.support;
 
 import com.shishir.ticketmetrics.generated.grpc.*;
 import com.shishir.ticketmetrics.service.GetCategoryTimelineScoreService;
+import com.shishir.ticketmetrics.model.TimelineGranularity;
+import com.shishir.ticketmetrics.persistence.dto.RatedTicket;
+import com.shishir.ticketmetrics.persistence.model.NewRating;
+import com.shishir.ticketmetrics.persistence.slowquery.SlowQueryLog;
 import com.shishir.ticketmetrics.service.OverallScoreService;
+import com.shishir.ticketmetrics.service.RatingIngestionService;
 import com.shishir.ticketmetrics.service.TicketCategoryMatrixService;
 import com.shishir.ticketmetrics.service.TicketScoreService;
 import org.springframework.stereotype.Component;
 
-import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 public class GrpcRequestHandler {
   private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_DATE_TIME;
+  private static final int MAX_BATCH_TICKET_IDS = 10_000;
+  private static final int MAX_MATRIX_PAGE_SIZE = 10_000;
   
   private final TicketScoreService ticketScoreService;
   private final OverallScoreService overallScoreService;
   private final GetCategoryTimelineScoreService getCategoryTimelineScoreService;
   private final TicketCategoryMatrixService ticketCategoryMatrixService;
+  private final RatingIngestionService ratingIngestionService;
+  private final MatrixStreamProperties matrixStreamProperties;
+  private final SlowQueryLog slowQueryLog;
+  private final ResponseCache responseCache;
   
-  public GrpcRequestHandler(TicketScoreService ticketScoreService, OverallScoreService overallScoreService, GetCategoryTimelineScoreService getCategoryTimelineScoreService, TicketCategoryMatrixService ticketCategoryMatrixService) {
+  public GrpcRequestHandler(TicketScoreService ticketScoreService, OverallScoreService overallScoreService, GetCategoryTimelineScoreService getCategoryTimelineScoreService, TicketCategoryMatrixService ticketCategoryMatrixService, RatingIngestionService ratingIngestionService, MatrixStreamProperties matrixStreamProperties, SlowQueryLog slowQueryLog, ResponseCache responseCache) {
     this.ticketScoreService = ticketScoreService;
     this.overallScoreService = overallScoreService;
     this.getCategoryTimelineScoreService = getCategoryTimelineScoreService;
     this.ticketCategoryMatrixService = ticketCategoryMatrixService;
+    this.ratingIngestionService = ratingIngestionService;
+    this.matrixStreamProperties = matrixStreamProperties;
+    this.slowQueryLog = slowQueryLog;
+    this.responseCache = responseCache;
   }
   
   // --- Request & Response handers ---
@@ -37,84 +56,128 @@ public class GrpcRequestHandler {
     var score = ticketScoreService.getTicketScore(request.getTicketId());
     
     // Build response
-    return GetTicketScoreResponse.newBuilder()
-        .setScore(score.setScale(0, RoundingMode.HALF_EVEN).doubleValue())
-        .build();
+    return GrpcResponseMapper.toGetTicketScoreResponse(score);
   }
   
-  public CategoryTimelineResponse handle(CategoryTimelineRequest request) {
+  public BatchGetTicketScoresResponse handle(BatchGetTicketScoresRequest request) {
+    // Validate
+    validateBatchGetTicketScoresRequest(request);
+    var ticketIds = request.getTicketIdsList().stream().distinct().toList();
+    
+    // Process
+    var scores = ticketScoreService.getTicketScores(ticketIds);
+    
+    // Build response
+    return GrpcResponseMapper.toBatchGetTicketScoresResponse(scores);
+  }
+  
+  public CompletableFuture<CategoryTimelineResponse> handle(CategoryTimelineRequest request) {
     // Validate
     validateCategoryTimelineRequest(request);
     var startDate = GrpcValidationUtils.parseIsoDateTime(request.getStartDate(), "start_date");
     var endDate = GrpcValidationUtils.parseIsoDateTime(request.getEndDate(), "end_date");
     GrpcValidationUtils.validateDateOrder(startDate, endDate);
     
-    // Process
-    var scoresSummary = getCategoryTimelineScoreService.getCategoryTimelineScores(startDate.toLocalDate(), endDate.toLocalDate());
+    var granularity = toTimelineGranularity(request.getGranularity(), startDate.toLocalDate(), endDate.toLocalDate())
+        .coarsenTo(startDate.toLocalDate(), endDate.toLocalDate(), request.getMaxPoints());
+    var compact = isCompact(request.getFormat());
     
-    // Build response
-    var responseBuilder = CategoryTimelineResponse.newBuilder();
-    scoresSummary.forEach(aScoreSummary -> {
-      var categoryAggregateScore = CategoryAggregateScore.newBuilder();
-      categoryAggregateScore.setCategoryId(aScoreSummary.categoryId());
-      categoryAggregateScore.setTotalRatings(aScoreSummary.ratingsCount().intValue());
-      categoryAggregateScore.setAverageScore(aScoreSummary.averageScore().setScale(0, RoundingMode.HALF_EVEN).doubleValue());
-      aScoreSummary.timeline().forEach(timeline ->
-          categoryAggregateScore.addTimeline(CategoryScoreTimelineEntry.newBuilder()
-              .setDate(timeline.date().toString())
-              .setScore(timeline.score().setScale(0, RoundingMode.HALF_EVEN).doubleValue())
-              .build()
-          )
-      );
-      
-      responseBuilder.addScores(categoryAggregateScore.build());
-    });
-    return responseBuilder.build();
+    // Process and build response, shared with identical requests
+    var key = ResponseKey.of("GetCategoryTimelineScores", startDate.toLocalDate(), endDate.toLocalDate())
+        .withGranularity(granularity)
+        .withCompact(compact);
+    return responseCache.get(key, () -> getCategoryTimelineScoreService.getCategoryTimelineScoresAsync(startDate.toLocalDate(), endDate.toLocalDate(), granularity, 0)
+        .thenApply(scoresSummary -> compact
+            ? GrpcResponseMapper.toCompactCategoryTimelineResponse(scoresSummary, granularity, startDate.toLocalDate(), endDate.toLocalDate())
+            : GrpcResponseMapper.toCategoryTimelineResponse(scoresSummary)));
   }
   
-  public TicketCategoryMatrixResponse handle(TicketCategoryMatrixRequest request) {
+  public CompletableFuture<TicketCategoryMatrixResponse> handle(TicketCategoryMatrixRequest request) {
     // Validate
     validateGetTicketCategoryScoresRequest(request);
     var startDate = GrpcValidationUtils.parseIsoDateTime(request.getStartDate(), "start_date");
     var endDate = GrpcValidationUtils.parseIsoDateTime(request.getEndDate(), "end_date");
     GrpcValidationUtils.validateDateOrder(startDate, endDate);
+    var compact = isCompact(request.getFormat());
+    var after = MatrixPageToken.decode(request.getPageToken());
+    if (after != null && request.getPageSize() == 0) {
+      throw GrpcValidationUtils.statusInvalid("page_token requires page_size");
+    }
     
-    // Process
-    var scoreMatrix = ticketCategoryMatrixService.getTicketCategoryScores(startDate.toLocalDate(), endDate.toLocalDate());
-    
-    // Build response
-    var responseBuilder = TicketCategoryMatrixResponse.newBuilder();
-    
-    scoreMatrix.forEach(row -> {
-      var ticketScoreBuilder = TicketCategoryScore.newBuilder();
-      ticketScoreBuilder.setTicketId(row.ticketId());
-      row.categoryScoreByTickets().forEach(categoryScore -> {
-        double score = categoryScore.score().setScale(0, RoundingMode.HALF_EVEN).doubleValue();
-        ticketScoreBuilder.putCategoryScores(categoryScore.categoryId(), score);
-      });
-      responseBuilder.addTicketScores(ticketScoreBuilder.build());
-    });
+    // Process and build response, shared with identical requests
+    var key = ResponseKey.of("GetTicketCategoryMatrix", startDate.toLocalDate(), endDate.toLocalDate())
+        .withCompact(compact)
+        .withPage(request.getPageSize(), after);
+    if (request.getPageSize() == 0) {
+      return responseCache.get(key, () -> ticketCategoryMatrixService.getTicketCategoryScoresAsync(startDate.toLocalDate(), endDate.toLocalDate())
+          .thenApply(scoreMatrix -> compact
+              ? GrpcResponseMapper.toCompactTicketCategoryMatrixResponse(scoreMatrix)
+              : GrpcResponseMapper.toTicketCategoryMatrixResponse(scoreMatrix)));
+    }
+    return responseCache.get(key, () -> ticketCategoryMatrixService.getTicketCategoryScoresPageAsync(startDate.toLocalDate(), endDate.toLocalDate(), after, request.getPageSize())
+        .thenApply(page -> GrpcResponseMapper.withNextPageToken(compact
+            ? GrpcResponseMapper.toCompactTicketCategoryMatrixResponse(page.rows())
+            : GrpcResponseMapper.toTicketCategoryMatrixResponse(page.rows()), page.next())));
+  }
+  
+  /**
+   * Validates the request and returns the matrix as lazily computed chunks. The tickets of each chunk are
+   * read with the keyset of {@link TicketCategoryMatrixService#getRatedTicketsPage}, starting after the last
+   * ticket of the previous chunk, and scored when the stream asks for it, so memory does not grow with the range.
+   */
+  public Iterator<TicketCategoryMatrixChunk> handleStream(TicketCategoryMatrixRequest request) {
+    // Validate
+    validateGetTicketCategoryScoresRequest(request);
+    var startDate = GrpcValidationUtils.parseIsoDateTime(request.getStartDate(), "start_date");
+    var endDate = GrpcValidationUtils.parseIsoDateTime(request.getEndDate(), "end_date");
+    GrpcValidationUtils.validateDateOrder(startDate, endDate);
+    var compact = isCompact(request.getFormat());
     
-    return responseBuilder.build();
+    // Process and build response chunk by chunk
+    var chunkSize = matrixStreamProperties.chunkSize();
+    return new Iterator<>() {
+      // Last ticket of the previous chunk and the tickets of the next one, read ahead by hasNext()
+      private RatedTicket after;
+      private List<RatedTicket> nextTickets;
+      private boolean lastChunkRead;
+      
+      @Override
+      public boolean hasNext() {
+        if (nextTickets == null && !lastChunkRead) {
+          nextTickets = ticketCategoryMatrixService.getRatedTicketsPage(startDate.toLocalDate(), endDate.toLocalDate(), after, chunkSize);
+          lastChunkRead = nextTickets.size() < chunkSize;
+        }
+        return nextTickets != null && !nextTickets.isEmpty();
+      }
+      
+      @Override
+      public TicketCategoryMatrixChunk next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        var chunk = nextTickets;
+        nextTickets = null;
+        after = chunk.getLast();
+        var rows = ticketCategoryMatrixService.getTicketCategoryScores(chunk.stream().map(RatedTicket::ticketId).toList());
+        return compact ? GrpcResponseMapper.toCompactTicketCategoryMatrixChunk(rows) : GrpcResponseMapper.toTicketCategoryMatrixChunk(rows);
+      }
+    };
   }
   
-  public OverallQualityScoreResponse handle(OverallQualityScoreRequest request) {
+  public CompletableFuture<OverallQualityScoreResponse> handle(OverallQualityScoreRequest request) {
     // Validate
     validateOverallQualityScoreRequest(request);
     var startDate = GrpcValidationUtils.parseIsoDateTime(request.getStartDate(), "start_date");
     var endDate = GrpcValidationUtils.parseIsoDateTime(request.getEndDate(), "end_date");
     GrpcValidationUtils.validateDateOrder(startDate, endDate);
     
-    // Process
-    var overallScore = overallScoreService.getOverallScore(startDate.toLocalDate(), endDate.toLocalDate());
-    
-    // Build response
-    return OverallQualityScoreResponse.newBuilder()
-        .setScore(overallScore.setScale(0, RoundingMode.HALF_EVEN).doubleValue())
-        .build();
+    // Process and build response, shared with identical requests
+    var key = ResponseKey.of("GetOverallQualityScore", startDate.toLocalDate(), endDate.toLocalDate());
+    return responseCache.get(key, () -> overallScoreService.getOverallScoreAsync(startDate.toLocalDate(), endDate.toLocalDate())
+        .thenApply(GrpcResponseMapper::toOverallQualityScoreResponse));
   }
   
-  public PeriodScoreComparisonResponse handle(PeriodScoreComparisonRequest request) {
+  public CompletableFuture<PeriodScoreComparisonResponse> handle(PeriodScoreComparisonRequest request) {
     // Validate
     validatePeriodScoreComparisonRequest(request);
     var currentStartDate = GrpcValidationUtils.parseIsoDateTime(request.getCurrentStartDate(), "current_start_date");
@@ -124,17 +187,54 @@ public class GrpcRequestHandler {
     GrpcValidationUtils.validateDateOrder(currentStartDate, currentEndDate);
     GrpcValidationUtils.validateDateOrder(previousStartDate, previousEndDate);
     
+    // Process, both periods in parallel
+    var currentScore = overallScoreService.getOverallScoreAsync(currentStartDate.toLocalDate(), currentEndDate.toLocalDate());
+    var previousScore = overallScoreService.getOverallScoreAsync(previousStartDate.toLocalDate(), previousEndDate.toLocalDate());
+    
+    // Build response
+    return currentScore.thenCombine(previousScore, GrpcResponseMapper::toPeriodScoreComparisonResponse);
+  }
+  
+  public RecordRatingsResponse handle(RecordRatingsRequest request) {
+    // Validate
+    validateRecordRatingsRequest(request);
+    var ratings = request.getRatingsList().stream()
+        .map(rating -> NewRating.of(
+            rating.getTicketId(),
+            rating.getRatingCategoryId(),
+            rating.getRating(),
+            rating.getReviewerId(),
+            rating.getRevieweeId(),
+            GrpcValidationUtils.parseIsoDateTime(rating.getCreatedAt(), "created_at")
+        ))
+        .toList();
+    
     // Process
-    var currentScore = overallScoreService.getOverallScore(currentStartDate.toLocalDate(), currentEndDate.toLocalDate());
-    var previousScore = overallScoreService.getOverallScore(previousStartDate.toLocalDate(), previousEndDate.toLocalDate());
-    var change = currentScore.subtract(previousScore).setScale(2, RoundingMode.HALF_UP);
+    int recordedCount;
+    try {
+      recordedCount = ratingIngestionService.recordRatings(ratings);
+    } catch (IllegalArgumentException e) {
+      throw GrpcValidationUtils.statusInvalid("%s", e.getMessage());
+    }
     
     // Build response
-    return PeriodScoreComparisonResponse.newBuilder()
-        .setCurrentPeriodScore(currentScore.setScale(0, RoundingMode.HALF_EVEN).doubleValue())
-        .setPreviousPeriodScore(previousScore.setScale(0, RoundingMode.HALF_EVEN).doubleValue())
-        .setScoreChange(change.setScale(0, RoundingMode.HALF_EVEN).doubleValue())
-        .build();
+    return GrpcResponseMapper.toRecordRatingsResponse(recordedCount);
+  }
+  
+  public SlowQueriesResponse handle(SlowQueriesRequest request) {
+    // Validate
+    if (request.getLimit() < 0) {
+      throw GrpcValidationUtils.statusInvalid("limit must not be negative but was %d", request.getLimit());
+    }
+    
+    // Process
+    var slowQueries = slowQueryLog.recent().stream()
+        .filter(slowQuery -> !request.getFullScansOnly() || slowQuery.fullScan())
+        .limit(request.getLimit() == 0 ? Long.MAX_VALUE : request.getLimit())
+        .toList();
+    
+    // Build response
+    return GrpcResponseMapper.toSlowQueriesResponse(slowQueries);
   }
   
   // --- Helpers ---
@@ -143,6 +243,16 @@ public class GrpcRequestHandler {
     GrpcValidationUtils.validatePositive(request.getTicketId(), "ticket_id");
   }
   
+  private void validateBatchGetTicketScoresRequest(BatchGetTicketScoresRequest request) {
+    if (request.getTicketIdsCount() == 0) {
+      throw GrpcValidationUtils.statusInvalid("ticket_ids must not be empty");
+    }
+    if (request.getTicketIdsCount() > MAX_BATCH_TICKET_IDS) {
+      throw GrpcValidationUtils.statusInvalid("ticket_ids must not contain more than %d ids but had %d", MAX_BATCH_TICKET_IDS, request.getTicketIdsCount());
+    }
+    request.getTicketIdsList().forEach(ticketId -> GrpcValidationUtils.validatePositive(ticketId, "ticket_ids"));
+  }
+  
   private String fromLocalDateTimetoString(LocalDateTime date) {
     return date.format(FORMATTER);
   }
@@ -150,11 +260,38 @@ public class GrpcRequestHandler {
   private void validateCategoryTimelineRequest(CategoryTimelineRequest request) {
     GrpcValidationUtils.validateNotBlank(request.getStartDate(), "start_date");
     GrpcValidationUtils.validateNotBlank(request.getEndDate(), "end_date");
+    if (request.getMaxPoints() < 0) {
+      throw GrpcValidationUtils.statusInvalid("max_points must not be negative but was %d", request.getMaxPoints());
+    }
+  }
+  
+  private TimelineGranularity toTimelineGranularity(com.shishir.ticketmetrics.generated.grpc.TimelineGranularity granularity, LocalDate startDate, LocalDate endDate) {
+    return switch (granularity) {
+      case TIMELINE_GRANULARITY_UNSPECIFIED -> TimelineGranularity.defaultFor(startDate, endDate);
+      case TIMELINE_GRANULARITY_DAY -> TimelineGranularity.DAY;
+      case TIMELINE_GRANULARITY_WEEK -> TimelineGranularity.WEEK;
+      case TIMELINE_GRANULARITY_MONTH -> TimelineGranularity.MONTH;
+      case UNRECOGNIZED -> throw GrpcValidationUtils.statusInvalid("granularity must be DAY, WEEK or MONTH");
+    };
+  }
+  
+  private static boolean isCompact(ResponseFormat format) {
+    return switch (format) {
+      case RESPONSE_FORMAT_UNSPECIFIED, RESPONSE_FORMAT_ROWS -> false;
+      case RESPONSE_FORMAT_COMPACT -> true;
+      case UNRECOGNIZED -> throw GrpcValidationUtils.statusInvalid("format must be ROWS or COMPACT");
+    };
   }
   
   private void validateGetTicketCategoryScoresRequest(TicketCategoryMatrixRequest request) {
     GrpcValidationUtils.validateNotBlank(request.getStartDate(), "start_date");
     GrpcValidationUtils.validateNotBlank(request.getEndDate(), "end_date");
+    if (request.getPageSize() < 0) {
+      throw GrpcValidationUtils.statusInvalid("page_size must not be negative but was %d", request.getPageSize());
+    }
+    if (request.getPageSize() > MAX_MATRIX_PAGE_SIZE) {
+      throw GrpcValidationUtils.statusInvalid("page_size must not be greater than %d but was %d", MAX_MATRIX_PAGE_SIZE, request.getPageSize());
+    }
   }
   
   private void validateOverallQualityScoreRequest(OverallQualityScoreRequest request) {
@@ -162,6 +299,22 @@ public class GrpcRequestHandler {
     GrpcValidationUtils.validateNotBlank(request.getEndDate(), "end_date");
   }
   
+  private void validateRecordRatingsRequest(RecordRatingsRequest request) {
+    if (request.getRatingsCount() == 0) {
+      throw GrpcValidationUtils.statusInvalid("ratings must not be empty");
+    }
+    for (var rating : request.getRatingsList()) {
+      GrpcValidationUtils.validatePositive(rating.getTicketId(), "ticket_id");
+      GrpcValidationUtils.validatePositive(rating.getRatingCategoryId(), "rating_category_id");
+      GrpcValidationUtils.validatePositive(rating.getReviewerId(), "reviewer_id");
+      GrpcValidationUtils.validatePositive(rating.getRevieweeId(), "reviewee_id");
+      GrpcValidationUtils.validateNotBlank(rating.getCreatedAt(), "created_at");
+      if (rating.getRating() < 0 || rating.getRating() > 5) {
+        throw GrpcValidationUtils.statusInvalid("rating must be between 0 and 5 but was %d", rating.getRating());
+      }
+    }
+  }
+  
   private void validatePeriodScoreComparisonRequest(PeriodScoreComparisonRequest request) {
     GrpcValidationUtils.validateNotBlank(request.getCurrentStartDate(), "current_start_date");
     GrpcValidationUtils.validateNotBlank(request.getCurrentEndDate(), "current_end_date");
@@ -0,0 +1,210 @@
+package com.shishir.ticketmetrics.grpc.support;
+
+import com.google.protobuf.Timestamp;
+import com.shishir.ticketmetrics.generated.grpc.*;
+import com.shishir.ticketmetrics.model.CategoryScoreByTicket;
+import com.shishir.ticketmetrics.model.CategoryScoreSummary;
+import com.shishir.ticketmetrics.model.TicketXCategoryScores;
+import com.shishir.ticketmetrics.model.TimelineGranularity;
+import com.shishir.ticketmetrics.persistence.dto.RatedTicket;
+import com.shishir.ticketmetrics.persistence.slowquery.SlowQuery;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Builds protobuf responses from service results. Scores are sent rounded to whole percentages.
+ * Compact responses list categories and the scores within a ticket by category id, so equal results always
+ * serialize to the same bytes.
+ */
+public class GrpcResponseMapper {
+  
+  public static GetTicketScoreResponse toGetTicketScoreResponse(BigDecimal score) {
+    return GetTicketScoreResponse.newBuilder()
+        .setScore(toWireScore(score))
+        .build();
+  }
+  
+  public static BatchGetTicketScoresResponse toBatchGetTicketScoresResponse(Map<Integer, BigDecimal> scores) {
+    var responseBuilder = BatchGetTicketScoresResponse.newBuilder();
+    scores.forEach((ticketId, score) -> responseBuilder.addScores(TicketScore.newBuilder()
+        .setTicketId(ticketId)
+        .setScore(toWireScore(score))));
+    return responseBuilder.build();
+  }
+  
+  public static CategoryTimelineResponse toCategoryTimelineResponse(List<CategoryScoreSummary> scoresSummary) {
+    var responseBuilder = CategoryTimelineResponse.newBuilder();
+    scoresSummary.forEach(aScoreSummary -> {
+      var categoryAggregateScore = CategoryAggregateScore.newBuilder();
+      categoryAggregateScore.setCategoryId(aScoreSummary.categoryId());
+      categoryAggregateScore.setTotalRatings(aScoreSummary.ratingsCount().intValue());
+      categoryAggregateScore.setAverageScore(toWireScore(aScoreSummary.averageScore()));
+      aScoreSummary.timeline().forEach(timeline ->
+          categoryAggregateScore.addTimeline(CategoryScoreTimelineEntry.newBuilder()
+              .setDate(timeline.date().toString())
+              .setScore(toWireScore(timeline.score()))
+              .build()
+          )
+      );
+      
+      responseBuilder.addScores(categoryAggregateScore.build());
+    });
+    return responseBuilder.build();
+  }
+  
+  /**
+   * @param granularity granularity of the timeline points
+   * @param startDate   first day of the requested range, its period is the first point of every series
+   * @param endDate     last day of the requested range, its period is the last point of every series
+   */
+  public static CategoryTimelineResponse toCompactCategoryTimelineResponse(List<CategoryScoreSummary> scoresSummary, TimelineGranularity granularity,
+                                                                          LocalDate startDate, LocalDate endDate) {
+    var periodCount = (int) granularity.periodCount(startDate, endDate);
+    var compact = CompactCategoryTimeline.newBuilder()
+        .setStartEpochDay(granularity.periodStart(startDate).toEpochDay())
+        .setStep(toWireGranularity(granularity));
+    scoresSummary.stream()
+        .sorted(Comparator.comparing(CategoryScoreSummary::categoryId))
+        .forEach(aScoreSummary -> {
+          var scores = new double[periodCount];
+          Arrays.fill(scores, Double.NaN);
+          aScoreSummary.timeline().forEach(timeline ->
+              scores[(int) granularity.periodCount(startDate, timeline.date()) - 1] = toWireScore(timeline.score())
+          );
+          var series = CompactCategorySeries.newBuilder()
+              .setCategoryId(aScoreSummary.categoryId())
+              .setTotalRatings(aScoreSummary.ratingsCount().intValue())
+              .setAverageScore(toWireScore(aScoreSummary.averageScore()));
+          for (var score : scores) {
+            series.addScores(score);
+          }
+          compact.addCategories(series);
+        });
+    return CategoryTimelineResponse.newBuilder()
+        .setCompact(compact)
+        .build();
+  }
+  
+  public static TicketCategoryMatrixResponse toTicketCategoryMatrixResponse(List<TicketXCategoryScores> scoreMatrix) {
+    var responseBuilder = TicketCategoryMatrixResponse.newBuilder();
+    scoreMatrix.forEach(row -> responseBuilder.addTicketScores(toTicketCategoryScore(row)));
+    return responseBuilder.build();
+  }
+  
+  /**
+   * @param next last ticket of the page when another page follows, null on the last page
+   */
+  public static TicketCategoryMatrixResponse withNextPageToken(TicketCategoryMatrixResponse page, RatedTicket next) {
+    return page.toBuilder()
+        .setNextPageToken(MatrixPageToken.encode(next))
+        .build();
+  }
+  
+  public static TicketCategoryMatrixChunk toTicketCategoryMatrixChunk(List<TicketXCategoryScores> scoreMatrixRows) {
+    var chunkBuilder = TicketCategoryMatrixChunk.newBuilder();
+    scoreMatrixRows.forEach(row -> chunkBuilder.addTicketScores(toTicketCategoryScore(row)));
+    return chunkBuilder.build();
+  }
+  
+  public static TicketCategoryMatrixResponse toCompactTicketCategoryMatrixResponse(List<TicketXCategoryScores> scoreMatrix) {
+    return TicketCategoryMatrixResponse.newBuilder()
+        .setCompact(toCompactTicketCategoryMatrix(scoreMatrix))
+        .build();
+  }
+  
+  public static TicketCategoryMatrixChunk toCompactTicketCategoryMatrixChunk(List<TicketXCategoryScores> scoreMatrixRows) {
+    return TicketCategoryMatrixChunk.newBuilder()
+        .setCompact(toCompactTicketCategoryMatrix(scoreMatrixRows))
+        .build();
+  }
+  
+  public static OverallQualityScoreResponse toOverallQualityScoreResponse(BigDecimal overallScore) {
+    return OverallQualityScoreResponse.newBuilder()
+        .setScore(toWireScore(overallScore))
+        .build();
+  }
+  
+  public static PeriodScoreComparisonResponse toPeriodScoreComparisonResponse(BigDecimal currentScore, BigDecimal previousScore) {
+    var change = currentScore.subtract(previousScore).setScale(2, RoundingMode.HALF_UP);
+    return PeriodScoreComparisonResponse.newBuilder()
+        .setCurrentPeriodScore(toWireScore(currentScore))
+        .setPreviousPeriodScore(toWireScore(previousScore))
+        .setScoreChange(toWireScore(change))
+        .build();
+  }
+  
+  public static RecordRatingsResponse toRecordRatingsResponse(int recordedCount) {
+    return RecordRatingsResponse.newBuilder()
+        .setRecordedCount(recordedCount)
+        .build();
+  }
+  
+  public static SlowQueriesResponse toSlowQueriesResponse(List<SlowQuery> slowQueries) {
+    var responseBuilder = SlowQueriesResponse.newBuilder();
+    slowQueries.forEach(slowQuery -> responseBuilder.addQueries(com.shishir.ticketmetrics.generated.grpc.SlowQuery.newBuilder()
+        .setStatement(slowQuery.statement())
+        .setSql(slowQuery.sql())
+        .addAllParameters(slowQuery.parameters())
+        .setElapsedMs(slowQuery.elapsed().toNanos() / 1_000_000.0)
+        .setExecutedAt(Timestamp.newBuilder()
+            .setSeconds(slowQuery.executedAt().getEpochSecond())
+            .setNanos(slowQuery.executedAt().getNano()))
+        .addAllQueryPlan(slowQuery.queryPlan())
+        .setFullScan(slowQuery.fullScan())
+    ));
+    return responseBuilder.build();
+  }
+  
+  private static TicketCategoryScore toTicketCategoryScore(TicketXCategoryScores row) {
+    var ticketScoreBuilder = TicketCategoryScore.newBuilder();
+    ticketScoreBuilder.setTicketId(row.ticketId());
+    row.categoryScoreByTickets().forEach(categoryScore ->
+        ticketScoreBuilder.putCategoryScores(categoryScore.categoryId(), toWireScore(categoryScore.score()))
+    );
+    return ticketScoreBuilder.build();
+  }
+  
+  /**
+   * Rows in compressed sparse row form, with a header of the categories rated on any of the tickets.
+   */
+  private static CompactTicketCategoryMatrix toCompactTicketCategoryMatrix(List<TicketXCategoryScores> scoreMatrixRows) {
+    var categoryIds = new TreeSet<Integer>();
+    scoreMatrixRows.forEach(row -> row.categoryScoreByTickets().forEach(categoryScore -> categoryIds.add(categoryScore.categoryId())));
+    var header = List.copyOf(categoryIds);
+    
+    var matrixBuilder = CompactTicketCategoryMatrix.newBuilder()
+        .addAllCategoryIds(header)
+        .addRowOffsets(0);
+    var offset = 0;
+    for (var row : scoreMatrixRows) {
+      matrixBuilder.addTicketIds(row.ticketId());
+      for (var categoryScore : row.categoryScoreByTickets().stream().sorted(Comparator.comparing(CategoryScoreByTicket::categoryId)).toList()) {
+        matrixBuilder.addCategoryIndexes(Collections.binarySearch(header, categoryScore.categoryId()));
+        matrixBuilder.addScores(toWireScore(categoryScore.score()));
+        offset++;
+      }
+      matrixBuilder.addRowOffsets(offset);
+    }
+    return matrixBuilder.build();
+  }
+  
+  private static com.shishir.ticketmetrics.generated.grpc.TimelineGranularity toWireGranularity(TimelineGranularity granularity) {
+    return switch (granularity) {
+      case DAY -> com.shishir.ticketmetrics.generated.grpc.TimelineGranularity.TIMELINE_GRANULARITY_DAY;
+      case WEEK -> com.shishir.ticketmetrics.generated.grpc.TimelineGranularity.TIMELINE_GRANULARITY_WEEK;
+      case MONTH -> com.shishir.ticketmetrics.generated.grpc.TimelineGranularity.TIMELINE_GRANULARITY_MONTH;
+    };
+  }
+  
+  private static double toWireScore(BigDecimal score) {
+    return score.setScale(0, RoundingMode.HALF_EVEN).doubleValue();
+  }
+}
@@ -0,0 +1,48 @@
+package com.shishir.ticketmetrics.grpc.support;
+
+import com.shishir.ticketmetrics.persistence.dto.RatedTicket;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes the keyset of a {@code GetTicketCategoryMatrix} page, the creation time and id of the last ticket
+ * of the previous page, as an opaque URL-safe token.
+ */
+public final class MatrixPageToken {
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+  
+  private MatrixPageToken() {
+  }
+  
+  /**
+   * @param next last ticket of a page, null on the last page
+   * @return the token of the following page, empty on the last page
+   */
+  public static String encode(RatedTicket next) {
+    if (next == null) {
+      return "";
+    }
+    var keyset = next.createdEpochSecond() + ":" + next.ticketId();
+    return ENCODER.encodeToString(keyset.getBytes(StandardCharsets.US_ASCII));
+  }
+  
+  /**
+   * @param token a token returned by {@link #encode(RatedTicket)}, or empty for the first page
+   * @return last ticket of the previous page, null for the first page
+   * @throws io.grpc.StatusRuntimeException INVALID_ARGUMENT if the token was not issued by {@link #encode(RatedTicket)}
+   */
+  public static RatedTicket decode(String token) {
+    if (token.isEmpty()) {
+      return null;
+    }
+    try {
+      var keyset = new String(DECODER.decode(token), StandardCharsets.US_ASCII);
+      var separator = keyset.indexOf(':');
+      return RatedTicket.of(Integer.parseInt(keyset.substring(separator + 1)), Long.parseLong(keyset.substring(0, separator)));
+    } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+      throw GrpcValidationUtils.statusInvalid("page_token is invalid");
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package com.shishir.ticketmetrics.grpc.support;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param chunkSize number of tickets scored and sent per {@code StreamTicketCategoryMatrix} message
+ */
+@ConfigurationProperties(prefix = "ticket-metrics.matrix-stream")
+public record MatrixStreamProperties(
+    @DefaultValue("500") int chunkSize
+) {
+}
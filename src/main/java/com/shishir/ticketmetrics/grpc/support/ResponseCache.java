@@ -0,0 +1,69 @@
+package com.shishir.ticketmetrics.grpc.support;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.protobuf.Message;
+import com.shishir.ticketmetrics.cache.store.RatingWriteVersion;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Shares finished protobuf responses between identical requests, e.g. of dashboards opened by many reviewers at once.
+ *
+ * <p>
+ * Requests are looked up by their {@link ResponseKey}. The first request of a key computes the response; identical
+ * requests arriving meanwhile wait for the same computation, and those arriving within
+ * {@link ResponseCacheProperties#timeToLive()} afterwards get the finished message. Failed computations are not kept.
+ * </p>
+ * <p>
+ * Keys include the {@link RatingWriteVersion}, so responses computed before {@code RecordRatings} committed are not
+ * served afterwards. Ratings written to SQLite directly show up once the entry expires.
+ * </p>
+ */
+@Component
+public class ResponseCache {
+  public static final String CACHE_NAME = "grpcResponses";
+  
+  private final AsyncCache<Object, Object> cache;
+  private final RatingWriteVersion ratingWriteVersion;
+  
+  public ResponseCache(CacheManager cacheManager, ResponseCacheProperties properties, RatingWriteVersion ratingWriteVersion) {
+    this.cache = properties.enabled() ? ((CaffeineCache) cacheManager.getCache(CACHE_NAME)).getAsyncCache() : null;
+    this.ratingWriteVersion = ratingWriteVersion;
+  }
+  
+  /**
+   * @return the builder of the cache registered as {@link #CACHE_NAME}, sized by the serialized size of the responses
+   */
+  public static Caffeine<Object, Object> caffeine(ResponseCacheProperties properties) {
+    return Caffeine.newBuilder()
+        .expireAfterWrite(properties.timeToLive())
+        .maximumWeight(properties.maxSize().toBytes())
+        .weigher((key, response) -> ((Message) response).getSerializedSize())
+        .recordStats();
+  }
+  
+  /**
+   * @param compute computes the response, called unless an identical request is being or has recently been answered
+   * @return the shared response
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends Message> CompletableFuture<T> get(ResponseKey key, Supplier<CompletableFuture<T>> compute) {
+    if (cache == null) {
+      return compute.get();
+    }
+    var response = cache.get(new VersionedKey(key, ratingWriteVersion.current()), (versionedKey, executor) -> (CompletableFuture<Object>) (CompletableFuture<?>) compute.get());
+    // A copy, so callers cannot complete the future shared with the other requests
+    return (CompletableFuture<T>) (CompletableFuture<?>) response.copy();
+  }
+  
+  private record VersionedKey(
+      ResponseKey key,
+      long ratingWriteVersion
+  ) {
+  }
+}
@@ -0,0 +1,20 @@
+package com.shishir.ticketmetrics.grpc.support;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * @param enabled    share the responses of identical timeline, matrix and overall score requests
+ * @param timeToLive how long a finished response is served to identical requests
+ * @param maxSize    serialized size of all cached responses, least recently used ones are evicted beyond it
+ */
+@ConfigurationProperties(prefix = "ticket-metrics.response-cache")
+public record ResponseCacheProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("5s") Duration timeToLive,
+    @DefaultValue("32MB") DataSize maxSize
+) {
+}
@@ -0,0 +1,45 @@
+package com.shishir.ticketmetrics.grpc.support;
+
+import com.shishir.ticketmetrics.model.TimelineGranularity;
+import com.shishir.ticketmetrics.persistence.dto.RatedTicket;
+
+import java.time.LocalDate;
+
+/**
+ * Canonical form of a request whose response is shared through the {@link ResponseCache}: the RPC, the dates the
+ * request covers and whatever else selects its result. Requests differing only in the time of day of their
+ * date-times, in a granularity resolving to the same one, or in the encoding of the same page token get the same key.
+ *
+ * @param rpc         RPC name
+ * @param startDate   first day (inclusive)
+ * @param endDate     last day (inclusive)
+ * @param compact     whether the response uses the compact columnar format
+ * @param granularity effective timeline granularity, null for other RPCs
+ * @param pageSize    matrix rows per page, 0 for the whole matrix
+ * @param after       last row of the previous matrix page, null for the first page
+ */
+public record ResponseKey(
+    String rpc,
+    LocalDate startDate,
+    LocalDate endDate,
+    boolean compact,
+    TimelineGranularity granularity,
+    int pageSize,
+    RatedTicket after
+) {
+  public static ResponseKey of(String rpc, LocalDate startDate, LocalDate endDate) {
+    return new ResponseKey(rpc, startDate, endDate, false, null, 0, null);
+  }
+
+  public ResponseKey withCompact(boolean compact) {
+    return new ResponseKey(rpc, startDate, endDate, compact, granularity, pageSize, after);
+  }
+
+  public ResponseKey withGranularity(TimelineGranularity granularity) {
+    return new ResponseKey(rpc, startDate, endDate, compact, granularity, pageSize, after);
+  }
+
+  public ResponseKey withPage(int pageSize, RatedTicket after) {
+    return new ResponseKey(rpc, startDate, endDate, compact, granularity, pageSize, after);
+  }
+}
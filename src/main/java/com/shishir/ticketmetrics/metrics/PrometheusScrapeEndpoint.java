@@ -0,0 +1,85 @@
+package com.shishir.ticketmetrics.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves the Prometheus registry on a plain HTTP port next to the gRPC server.
+ *
+ * <p>
+ * The application has no web server for the actuator endpoints, and adding one would also change how the gRPC
+ * server is hosted, so the scrape endpoint uses the JDK HTTP server. It is not started when no Prometheus
+ * registry exists, e.g. in tests where metrics export is disabled.
+ * </p>
+ */
+@Component
+public class PrometheusScrapeEndpoint implements SmartLifecycle {
+  private static final Logger LOG = LoggerFactory.getLogger(PrometheusScrapeEndpoint.class);
+  private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+  
+  private final PrometheusScrapeProperties properties;
+  private final ObjectProvider<PrometheusMeterRegistry> prometheusMeterRegistry;
+  
+  private volatile HttpServer server;
+  
+  public PrometheusScrapeEndpoint(PrometheusScrapeProperties properties, ObjectProvider<PrometheusMeterRegistry> prometheusMeterRegistry) {
+    this.properties = properties;
+    this.prometheusMeterRegistry = prometheusMeterRegistry;
+  }
+  
+  @Override
+  public void start() {
+    var registry = prometheusMeterRegistry.getIfAvailable();
+    if (!properties.enabled() || registry == null) {
+      LOG.info("Prometheus scrape endpoint disabled: enabled={}, registry={}", properties.enabled(), registry != null);
+      return;
+    }
+    try {
+      var httpServer = HttpServer.create(new InetSocketAddress(properties.port()), 0);
+      httpServer.createContext(properties.path(), exchange -> scrape(exchange, registry));
+      httpServer.start();
+      server = httpServer;
+      LOG.info("Prometheus scrape endpoint started: port={}, path={}", httpServer.getAddress().getPort(), properties.path());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot start Prometheus scrape endpoint on port " + properties.port(), e);
+    }
+  }
+  
+  private static void scrape(HttpExchange exchange, PrometheusMeterRegistry registry) throws IOException {
+    try (exchange) {
+      if (!"GET".equals(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      var body = registry.scrape().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+    }
+  }
+  
+  @Override
+  public void stop() {
+    var httpServer = server;
+    if (httpServer != null) {
+      httpServer.stop(0);
+      server = null;
+    }
+  }
+  
+  @Override
+  public boolean isRunning() {
+    return server != null;
+  }
+}
@@ -0,0 +1,17 @@
+package com.shishir.ticketmetrics.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled serve the Prometheus scrape endpoint
+ * @param port    HTTP port of the endpoint, 0 for a random port
+ * @param path    path of the endpoint
+ */
+@ConfigurationProperties(prefix = "ticket-metrics.metrics.prometheus")
+public record PrometheusScrapeProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("9464") int port,
+    @DefaultValue("/metrics") String path
+) {
+}
@@ -0,0 +1,61 @@
+package com.shishir.ticketmetrics.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Mergeable totals of one category over a timeline period.
+ *
+ * <p>
+ * {@code score} is calculated from the merged rating sum and count, so a week's score weighs every rating equally.
+ * {@code ratedDays} and {@code dailyScoreSum} keep the average of the daily scores derivable from any number
+ * of rollups, which is how a category's average score over a range is defined.
+ * </p>
+ */
+public record CategoryScoreRollup(
+    Integer categoryId,
+    LocalDate periodStart,
+    Long ratingCount,
+    BigDecimal ratingSum,
+    Long ratedDays,
+    BigDecimal dailyScoreSum,
+    BigDecimal score
+) {
+  public static CategoryScoreRollup of(
+      Integer categoryId,
+      LocalDate periodStart,
+      Long ratingCount,
+      BigDecimal ratingSum,
+      Long ratedDays,
+      BigDecimal dailyScoreSum,
+      BigDecimal score
+  ) {
+    return new CategoryScoreRollup(categoryId, periodStart, ratingCount, ratingSum, ratedDays, dailyScoreSum, score);
+  }
+
+  /**
+   * @return the rollup of a single day, dated on the start of the period it is merged into
+   */
+  public static CategoryScoreRollup ofDay(LocalDate periodStart, CategoryScoreStatsByRatingDate dayScore) {
+    return of(dayScore.categoryId(), periodStart, dayScore.ratingCount(), dayScore.ratingSum(), 1L, dayScore.scoreAverage(), dayScore.scoreAverage());
+  }
+
+  /**
+   * Adds the totals of another rollup of the same category and period. The score has to be recalculated afterwards.
+   */
+  public CategoryScoreRollup plus(CategoryScoreRollup other) {
+    return of(
+        categoryId,
+        periodStart,
+        ratingCount + other.ratingCount,
+        ratingSum.add(other.ratingSum),
+        ratedDays + other.ratedDays,
+        dailyScoreSum.add(other.dailyScoreSum),
+        null
+    );
+  }
+
+  public CategoryScoreRollup withScore(BigDecimal score) {
+    return of(categoryId, periodStart, ratingCount, ratingSum, ratedDays, dailyScoreSum, score);
+  }
+}
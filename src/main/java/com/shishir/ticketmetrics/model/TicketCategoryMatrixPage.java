@@ -0,0 +1,22 @@
+package com.shishir.ticketmetrics.model;
+
+import com.shishir.ticketmetrics.persistence.dto.RatedTicket;
+
+import java.util.List;
+
+/**
+ * One page of the ticket/category matrix.
+ *
+ * <p>
+ * {@code next} is the last ticket of the page when another page follows, the next page starts after it.
+ * It is null on the last page.
+ * </p>
+ */
+public record TicketCategoryMatrixPage(
+    List<TicketXCategoryScores> rows,
+    RatedTicket next
+) {
+  public static TicketCategoryMatrixPage of(List<TicketXCategoryScores> rows, RatedTicket next) {
+    return new TicketCategoryMatrixPage(rows, next);
+  }
+}
@@ -0,0 +1,65 @@
+package com.shishir.ticketmetrics.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Period length of the points of a category timeline, from finest to coarsest.
+ * Weeks start on Monday, months on their first day.
+ */
+public enum TimelineGranularity {
+  DAY,
+  WEEK,
+  MONTH;
+  
+  /**
+   * Daily up to one month, weekly for longer ranges.
+   */
+  public static TimelineGranularity defaultFor(LocalDate startDate, LocalDate endDate) {
+    return startDate.plusMonths(1).isBefore(endDate) ? WEEK : DAY;
+  }
+  
+  public LocalDate periodStart(LocalDate date) {
+    return switch (this) {
+      case DAY -> date;
+      case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+      case MONTH -> date.withDayOfMonth(1);
+    };
+  }
+  
+  public LocalDate nextPeriodStart(LocalDate periodStart) {
+    return switch (this) {
+      case DAY -> periodStart.plusDays(1);
+      case WEEK -> periodStart.plusWeeks(1);
+      case MONTH -> periodStart.plusMonths(1);
+    };
+  }
+  
+  /**
+   * @return number of periods overlapping the range, including partially covered ones
+   */
+  public long periodCount(LocalDate startDate, LocalDate endDate) {
+    var unit = switch (this) {
+      case DAY -> ChronoUnit.DAYS;
+      case WEEK -> ChronoUnit.WEEKS;
+      case MONTH -> ChronoUnit.MONTHS;
+    };
+    return unit.between(periodStart(startDate), periodStart(endDate)) + 1;
+  }
+  
+  /**
+   * Returns the finest granularity, starting at this one, that splits the range into at most {@code maxPoints} periods.
+   * Ranges that need more than {@code maxPoints} months are returned monthly.
+   *
+   * @param maxPoints maximum number of periods, 0 for no limit
+   */
+  public TimelineGranularity coarsenTo(LocalDate startDate, LocalDate endDate, int maxPoints) {
+    var granularity = this;
+    while (maxPoints > 0 && granularity != MONTH && granularity.periodCount(startDate, endDate) > maxPoints) {
+      granularity = values()[granularity.ordinal() + 1];
+    }
+    return granularity;
+  }
+}
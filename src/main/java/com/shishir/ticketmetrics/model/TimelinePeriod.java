@@ -0,0 +1,34 @@
+package com.shishir.ticketmetrics.model;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+/**
+ * One week or month of a timeline, identified by its first day.
+ */
+public record TimelinePeriod(
+    TimelineGranularity granularity,
+    LocalDate start
+) implements Comparable<TimelinePeriod> {
+  private static final Comparator<TimelinePeriod> ORDER = Comparator.comparing(TimelinePeriod::start)
+      .thenComparing(TimelinePeriod::granularity);
+
+  /**
+   * @return the period of the given granularity containing the date
+   */
+  public static TimelinePeriod of(TimelineGranularity granularity, LocalDate date) {
+    return new TimelinePeriod(granularity, granularity.periodStart(date));
+  }
+
+  /**
+   * @return last day of the period (inclusive)
+   */
+  public LocalDate end() {
+    return granularity.nextPeriodStart(start).minusDays(1);
+  }
+
+  @Override
+  public int compareTo(TimelinePeriod other) {
+    return ORDER.compare(this, other);
+  }
+}
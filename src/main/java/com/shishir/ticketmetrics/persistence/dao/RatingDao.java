@@ -1,9 +1,9 @@
 package com.shishir.ticketmetrics.persistence.dao;
 
 import com.shishir.ticketmetrics.model.RatingWithCategory;
-import com.shishir.ticketmetrics.persistence.model.Rating;
+import com.shishir.ticketmetrics.persistence.datasource.ReadOnlyMapper;
+import com.shishir.ticketmetrics.persistence.dto.RatedTicket;
 import com.shishir.ticketmetrics.persistence.model.RatingCategory;
-import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.springframework.cache.annotation.Cacheable;
@@ -15,14 +15,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-@Mapper
+@ReadOnlyMapper
 public interface RatingDao {
-  @Select("""
-          SELECT *
-          FROM ratings
-          WHERE ticket_id = #{ticketId}
-      """)
-  List<Rating> fetchRatingsByTicketId(@Param("ticketId") Integer ticketId);
+  /**
+   * Maximum number of ticket ids bound into one {@code IN (...)} list, well below SQLite's host parameter limit.
+   * Used by every mapper that takes a ticket id list, see {@link RatingStatsDao#fetchRatingMapsByTicketIds(List)}.
+   */
+  int TICKET_ID_CHUNK_SIZE = 500;
   
   @Select("""
           SELECT id,
@@ -30,17 +29,66 @@ public interface RatingDao {
                  weight
           FROM rating_categories
       """)
-  @Cacheable("ratingCategories")
+  @Cacheable(value = "ratingCategories", sync = true)
   List<RatingCategory> fetchRatingCategories();
   
+  /**
+   * Fetches ids of tickets created within the date range that have at least one rating.
+   * Written as a semi-join on a half-open range of creation epoch seconds so both
+   * {@code idx_tickets_created_epoch_second_id} and {@code idx_ratings_ticket_id} are used.
+   *
+   * @param startDate first ticket creation date (inclusive)
+   * @param endDate   last ticket creation date (inclusive)
+   * @return ticket ids ordered by creation time in epoch seconds, then id, like {@link #fetchRatedTicketsPage}
+   */
   @Select("""
-      SELECT DISTINCT t.id
+      SELECT t.id
       FROM tickets t
-          JOIN ratings r ON t.id = r.ticket_id
-      WHERE DATE(t.created_at) BETWEEN #{startDate} AND #{endDate}
+      WHERE CAST(strftime('%s', t.created_at) AS INTEGER) >= CAST(strftime('%s', #{startDate}) AS INTEGER)
+        AND CAST(strftime('%s', t.created_at) AS INTEGER) < CAST(strftime('%s', #{endDate}, '+1 day') AS INTEGER)
+        AND EXISTS (SELECT 1 FROM ratings r WHERE r.ticket_id = t.id)
+      ORDER BY CAST(strftime('%s', t.created_at) AS INTEGER), t.id
       """)
   List<Integer> fetchRatedTickets(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
   
+  /**
+   * Fetches one page of {@link #fetchRatedTickets}, in the same order, starting after the given ticket.
+   * Range, keyset and order all use the key of {@code idx_tickets_created_epoch_second_id}, creation time in
+   * epoch seconds and then id, which the page token holds. Later pages pass the creation date of the last
+   * ticket as {@code startDate}, so the index range starts there and is read in order until {@code limit}
+   * rated tickets are found; the keyset only filters tickets of that first date. Ordering by the {@code created_at} text
+   * instead would disagree with the keyset for fractional seconds and skip or repeat tickets at page boundaries.
+   *
+   * @param startDate               first ticket creation date (inclusive), the date of the previous page's last ticket on later pages
+   * @param endDate                 last ticket creation date (inclusive)
+   * @param afterCreatedEpochSecond creation time of the previous page's last ticket, null for the first page
+   * @param afterTicketId           id of the previous page's last ticket, null for the first page
+   * @param limit                   maximum number of tickets
+   * @return rated tickets ordered by creation time
+   */
+  @Select("""
+      <script>
+      SELECT t.id AS ticket_id,
+             CAST(strftime('%s', t.created_at) AS INTEGER) AS created_epoch_second
+      FROM tickets t
+      WHERE CAST(strftime('%s', t.created_at) AS INTEGER) >= CAST(strftime('%s', #{startDate}) AS INTEGER)
+        AND CAST(strftime('%s', t.created_at) AS INTEGER) &lt; CAST(strftime('%s', #{endDate}, '+1 day') AS INTEGER)
+        <if test="afterTicketId != null">
+          AND (CAST(strftime('%s', t.created_at) AS INTEGER), t.id) > (#{afterCreatedEpochSecond}, #{afterTicketId})
+        </if>
+        AND EXISTS (SELECT 1 FROM ratings r WHERE r.ticket_id = t.id)
+      ORDER BY created_epoch_second, t.id
+      LIMIT #{limit}
+      </script>
+      """)
+  List<RatedTicket> fetchRatedTicketsPage(
+      @Param("startDate") LocalDate startDate,
+      @Param("endDate") LocalDate endDate,
+      @Param("afterCreatedEpochSecond") Long afterCreatedEpochSecond,
+      @Param("afterTicketId") Integer afterTicketId,
+      @Param("limit") int limit
+  );
+  
   @Select("""
           SELECT r.rating_category_id AS category_id,
                  r.rating,
@@ -53,11 +101,22 @@ public interface RatingDao {
       @Param("end") LocalDateTime endDate
   );
   
+  /**
+   * Highest rating id, used to detect whether new ratings were written.
+   *
+   * @return {@code MAX(ratings.id)}, or null when there are no ratings
+   */
+  @Select("""
+          SELECT MAX(id)
+          FROM ratings
+      """)
+  Long fetchRatingsHighWaterMark();
+  
   /**
    * Returns categoryId -> weight map.
    * This is cached because weights change rarely.
    */
-  @Cacheable("categoryWeightMapById")
+  @Cacheable(value = "categoryWeightMapById", sync = true)
   default Map<Integer, BigDecimal> getCategoryWeightMap() {
     return fetchRatingCategories()
         .stream()
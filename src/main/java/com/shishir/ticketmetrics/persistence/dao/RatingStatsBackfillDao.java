@@ -0,0 +1,40 @@
+package com.shishir.ticketmetrics.persistence.dao;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * Rebuilds {@code daily_category_stats} and {@code ticket_category_stats} from {@code ratings},
+ * with the same statements as the backfill in {@code V3__add_rating_stats_tables.sql}.
+ * Callers own the transaction.
+ */
+@Mapper
+public interface RatingStatsBackfillDao {
+  @Delete("""
+          DELETE FROM daily_category_stats
+      """)
+  int deleteDailyCategoryStats();
+  
+  @Insert("""
+          INSERT INTO daily_category_stats (day, category_id, rating_count, rating_sum)
+          SELECT DATE(created_at), rating_category_id, COUNT(*), SUM(rating)
+          FROM ratings
+          WHERE DATE(created_at) IS NOT NULL
+          GROUP BY DATE(created_at), rating_category_id
+      """)
+  int insertDailyCategoryStats();
+  
+  @Delete("""
+          DELETE FROM ticket_category_stats
+      """)
+  int deleteTicketCategoryStats();
+  
+  @Insert("""
+          INSERT INTO ticket_category_stats (ticket_id, category_id, rating_count, rating_sum)
+          SELECT ticket_id, rating_category_id, COUNT(*), SUM(rating)
+          FROM ratings
+          GROUP BY ticket_id, rating_category_id
+      """)
+  int insertTicketCategoryStats();
+}
@@ -1,32 +1,129 @@
 package com.shishir.ticketmetrics.persistence.dao;
 
+import com.shishir.ticketmetrics.persistence.datasource.ReadOnlyMapper;
 import com.shishir.ticketmetrics.persistence.dto.CategoryRatingStatsByRatingDate;
-import org.apache.ibatis.annotations.Mapper;
+import com.shishir.ticketmetrics.persistence.dto.TicketCategoryRatingStats;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
-@Mapper
+/**
+ * Reads the rating totals kept in {@code daily_category_stats} and {@code ticket_category_stats}
+ * by the triggers on {@code ratings}, so every lookup is a primary key search instead of an aggregation.
+ */
+@ReadOnlyMapper
 public interface RatingStatsDao {
+  /**
+   * Latest day with ratings, the anchor of the startup cache warm-up.
+   *
+   * @return {@code MAX(day)}, or null when there are no ratings
+   */
+  @Select("""
+          SELECT MAX(day)
+          FROM daily_category_stats
+      """)
+  LocalDate fetchLatestRatingDate();
+  
   /**
    * Fetches aggregated rating statistics for each category on a specific rating date.
    *
-   * @param date the date to group ratings by (`ratings.created_at`)
+   * @param date the rating date (`DATE(ratings.created_at)`)
    * @return list of aggregated stats per category
    */
   @Select("""
           SELECT
-            rating_category_id AS categoryId,
-            DATE(created_at) AS ratingDate,
-            COUNT(*) AS ratingCount,
-            SUM(rating) AS ratingSum,
-            AVG(rating) AS averageRating
-          FROM ratings
-          WHERE DATE(created_at) = #{date}
-          GROUP BY rating_category_id
-          ORDER BY rating_category_id
+            category_id AS categoryId,
+            day AS ratingDate,
+            rating_count AS ratingCount,
+            rating_sum AS ratingSum,
+            CAST(rating_sum AS REAL) / rating_count AS averageRating
+          FROM daily_category_stats
+          WHERE day = #{date}
+          ORDER BY category_id
       """)
   List<CategoryRatingStatsByRatingDate> fetchCategoryStatsByRatingDate(@Param("date") LocalDate date);
+  
+  /**
+   * Fetches aggregated rating statistics for each category and rating date within a date range.
+   * Days without ratings are absent from the result.
+   *
+   * @param startDate first rating date (inclusive)
+   * @param endDate   last rating date (inclusive)
+   * @return list of aggregated stats per rating date and category, ordered by date and category
+   */
+  @Select("""
+          SELECT
+            category_id AS categoryId,
+            day AS ratingDate,
+            rating_count AS ratingCount,
+            rating_sum AS ratingSum,
+            CAST(rating_sum AS REAL) / rating_count AS averageRating
+          FROM daily_category_stats
+          WHERE day BETWEEN #{startDate} AND #{endDate}
+          ORDER BY day, category_id
+      """)
+  List<CategoryRatingStatsByRatingDate> fetchCategoryStatsByRatingDateRange(
+      @Param("startDate") LocalDate startDate,
+      @Param("endDate") LocalDate endDate
+  );
+  
+  /**
+   * Fetches the rating totals per category of several tickets with one statement.
+   * Callers should keep the list at most {@link RatingDao#TICKET_ID_CHUNK_SIZE} ids long,
+   * see {@link #fetchRatingMapsByTicketIds(List)}.
+   *
+   * @param ticketIds non-empty list of ticket ids
+   * @return totals per ticket and category, without tickets that have no ratings
+   */
+  @Select("""
+          <script>
+          SELECT
+            ticket_id AS ticketId,
+            category_id AS categoryId,
+            rating_count AS ratingCount,
+            rating_sum AS ratingSum
+          FROM ticket_category_stats
+          WHERE ticket_id IN
+            <foreach item="ticketId" collection="ticketIds" open="(" separator="," close=")">#{ticketId}</foreach>
+          </script>
+      """)
+  List<TicketCategoryRatingStats> fetchTicketCategoryStatsByTicketIds(@Param("ticketIds") List<Integer> ticketIds);
+  
+  /**
+   * Returns categoryId -> rating of one ticket.
+   *
+   * @return empty map if the ticket has no ratings
+   */
+  default Map<Integer, BigDecimal> fetchRatingMapByTicketId(Integer ticketId) {
+    return fetchRatingMapsByTicketIds(List.of(ticketId)).getOrDefault(ticketId, Map.of());
+  }
+  
+  /**
+   * Returns ticketId -> (categoryId -> rating) for the given tickets, loaded in chunks of
+   * {@link RatingDao#TICKET_ID_CHUNK_SIZE} ids, so N tickets cost N / chunk size statements instead of N.
+   * Tickets without ratings are absent from the result.
+   *
+   * @throws IllegalStateException if a ticket was rated more than once in a category
+   */
+  default Map<Integer, Map<Integer, BigDecimal>> fetchRatingMapsByTicketIds(List<Integer> ticketIds) {
+    var ratingMaps = new HashMap<Integer, Map<Integer, BigDecimal>>();
+    for (int from = 0; from < ticketIds.size(); from += RatingDao.TICKET_ID_CHUNK_SIZE) {
+      var chunk = ticketIds.subList(from, Math.min(from + RatingDao.TICKET_ID_CHUNK_SIZE, ticketIds.size()));
+      fetchTicketCategoryStatsByTicketIds(chunk).forEach(stats -> {
+        if (stats.ratingCount() != 1) {
+          throw new IllegalStateException(
+              "Duplicate rating for ticketId=%d and categoryId=%d".formatted(stats.ticketId(), stats.categoryId())
+          );
+        }
+        ratingMaps.computeIfAbsent(stats.ticketId(), ticketId -> new HashMap<>())
+            .put(stats.categoryId(), stats.ratingSum());
+      });
+    }
+    return ratingMaps;
+  }
 }
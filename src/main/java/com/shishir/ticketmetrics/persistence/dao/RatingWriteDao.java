@@ -0,0 +1,52 @@
+package com.shishir.ticketmetrics.persistence.dao;
+
+import com.shishir.ticketmetrics.persistence.model.NewRating;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * Write side of the {@code ratings} table. Callers own the transaction.
+ */
+@Mapper
+public interface RatingWriteDao {
+  /**
+   * Maximum number of ratings bound into one multi-row {@code INSERT}, 6 parameters each.
+   */
+  int INSERT_CHUNK_SIZE = 500;
+  
+  /**
+   * Inserts several ratings with one statement.
+   * Callers should keep the list at most {@link #INSERT_CHUNK_SIZE} ratings long.
+   *
+   * @param ratings non-empty list of ratings
+   * @return number of inserted rows
+   */
+  @Insert("""
+          <script>
+          INSERT INTO ratings (rating, ticket_id, rating_category_id, reviewer_id, reviewee_id, created_at)
+          VALUES
+            <foreach item="rating" collection="ratings" separator=",">
+              (#{rating.rating}, #{rating.ticketId}, #{rating.ratingCategoryId}, #{rating.reviewerId}, #{rating.revieweeId}, #{rating.createdAt})
+            </foreach>
+          </script>
+      """)
+  int insertRatings(@Param("ratings") List<NewRating> ratings);
+  
+  /**
+   * @param ticketIds non-empty list of at most {@link RatingDao#TICKET_ID_CHUNK_SIZE} ticket ids
+   * @return the given ticket ids that exist
+   */
+  @Select("""
+          <script>
+          SELECT id
+          FROM tickets
+          WHERE id IN
+            <foreach item="ticketId" collection="ticketIds" open="(" separator="," close=")">#{ticketId}</foreach>
+          </script>
+      """)
+  List<Integer> fetchExistingTicketIds(@Param("ticketIds") List<Integer> ticketIds);
+}
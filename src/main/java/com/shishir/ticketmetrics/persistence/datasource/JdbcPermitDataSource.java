@@ -0,0 +1,71 @@
+package com.shishir.ticketmetrics.persistence.datasource;
+
+import com.shishir.ticketmetrics.concurrency.JdbcPermits;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Takes a {@link JdbcPermits} permit for every connection handed out, returned when the connection is closed.
+ * A transaction keeps its permit until it ends, since it keeps its connection.
+ */
+public class JdbcPermitDataSource extends DelegatingDataSource implements AutoCloseable {
+  private final JdbcPermits jdbcPermits;
+  
+  public JdbcPermitDataSource(DataSource dataSource, JdbcPermits jdbcPermits) {
+    super(dataSource);
+    this.jdbcPermits = jdbcPermits;
+  }
+  
+  @Override
+  public Connection getConnection() throws SQLException {
+    jdbcPermits.acquire();
+    try {
+      return releasingOnClose(super.getConnection());
+    } catch (SQLException | RuntimeException e) {
+      jdbcPermits.release();
+      throw e;
+    }
+  }
+  
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    jdbcPermits.acquire();
+    try {
+      return releasingOnClose(super.getConnection(username, password));
+    } catch (SQLException | RuntimeException e) {
+      jdbcPermits.release();
+      throw e;
+    }
+  }
+  
+  /**
+   * Closes the pool, called by Spring on shutdown.
+   */
+  @Override
+  public void close() throws Exception {
+    if (getTargetDataSource() instanceof AutoCloseable pool) {
+      pool.close();
+    }
+  }
+  
+  private Connection releasingOnClose(Connection connection) {
+    var released = new AtomicBoolean();
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+      try {
+        return method.invoke(connection, args);
+      } catch (InvocationTargetException e) {
+        throw e.getTargetException();
+      } finally {
+        if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+          jdbcPermits.release();
+        }
+      }
+    });
+  }
+}
@@ -0,0 +1,13 @@
+package com.shishir.ticketmetrics.persistence.datasource;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a MyBatis mapper that only reads. Used instead of {@link org.apache.ibatis.annotations.Mapper},
+ * such mappers are bound to the read-only connection pool, see {@link SqliteDataSourceConfig}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadOnlyMapper {
+}
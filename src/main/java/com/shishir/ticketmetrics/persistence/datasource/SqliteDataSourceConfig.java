@@ -0,0 +1,124 @@
+package com.shishir.ticketmetrics.persistence.datasource;
+
+import com.shishir.ticketmetrics.concurrency.JdbcPermits;
+import com.shishir.ticketmetrics.persistence.dao.RatingDao;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionFactoryBean;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.mybatis.spring.annotation.MapperScan;
+import org.mybatis.spring.boot.autoconfigure.MybatisProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Opens the SQLite database in WAL mode with two connection pools: one writer connection, and read-only
+ * connections sized to the core count. In WAL mode readers see the last commit and neither block the writer
+ * nor each other, so concurrent requests only queue on the writer.
+ *
+ * <p>
+ * Mappers annotated with {@link ReadOnlyMapper} run on the readers, {@link Mapper} mappers on the writer.
+ * The writer is the primary data source, so transactions, Flyway and {@code @Sql} test scripts use it.
+ * Both pools hand out connections through {@link JdbcPermitDataSource}, which bounds SQLite access on virtual threads.
+ * </p>
+ */
+@Configuration
+@MapperScan(basePackageClasses = RatingDao.class, annotationClass = Mapper.class, sqlSessionTemplateRef = "writerSqlSessionTemplate")
+@MapperScan(basePackageClasses = RatingDao.class, annotationClass = ReadOnlyMapper.class, sqlSessionTemplateRef = "readerSqlSessionTemplate")
+public class SqliteDataSourceConfig {
+  private static final Logger LOG = LoggerFactory.getLogger(SqliteDataSourceConfig.class);
+  
+  /**
+   * Created, and so switched to WAL, before the readers: a read-only connection cannot change the journal mode.
+   */
+  @Bean
+  @Primary
+  public DataSource writerDataSource(DataSourceProperties dataSourceProperties, SqliteProperties properties, JdbcPermits jdbcPermits) {
+    var config = sqliteConfig(properties);
+    config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+    // Still durable across application crashes, only the last commits may be lost on power failure
+    config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+    return new JdbcPermitDataSource(pool("sqlite-writer", dataSourceProperties.determineUrl(), config, 1), jdbcPermits);
+  }
+  
+  @Bean
+  public DataSource readerDataSource(DataSourceProperties dataSourceProperties, SqliteProperties properties, JdbcPermits jdbcPermits,
+                                     @Qualifier("writerDataSource") DataSource writerDataSource) {
+    var config = sqliteConfig(properties);
+    config.setReadOnly(true);
+    var poolSize = properties.effectiveReaderPoolSize();
+    LOG.info("Opening SQLite in WAL mode: readers={}, mmapSize={}, cacheSize={}", poolSize, properties.mmapSize(), properties.cacheSize());
+    return new JdbcPermitDataSource(pool("sqlite-reader", dataSourceProperties.determineUrl(), config, poolSize), jdbcPermits);
+  }
+  
+  @Bean
+  @Primary
+  public SqlSessionFactory writerSqlSessionFactory(@Qualifier("writerDataSource") DataSource dataSource, MybatisProperties mybatisProperties,
+                                                   List<Interceptor> interceptors) throws Exception {
+    return sqlSessionFactory(dataSource, mybatisProperties, interceptors);
+  }
+  
+  @Bean
+  public SqlSessionFactory readerSqlSessionFactory(@Qualifier("readerDataSource") DataSource dataSource, MybatisProperties mybatisProperties,
+                                                   List<Interceptor> interceptors) throws Exception {
+    return sqlSessionFactory(dataSource, mybatisProperties, interceptors);
+  }
+  
+  @Bean
+  @Primary
+  public SqlSessionTemplate writerSqlSessionTemplate(@Qualifier("writerSqlSessionFactory") SqlSessionFactory sqlSessionFactory) {
+    return new SqlSessionTemplate(sqlSessionFactory);
+  }
+  
+  @Bean
+  public SqlSessionTemplate readerSqlSessionTemplate(@Qualifier("readerSqlSessionFactory") SqlSessionFactory sqlSessionFactory) {
+    return new SqlSessionTemplate(sqlSessionFactory);
+  }
+  
+  private static SQLiteConfig sqliteConfig(SqliteProperties properties) {
+    var config = new SQLiteConfig();
+    config.setBusyTimeout((int) properties.busyTimeout().toMillis());
+    // Negative cache_size is in KiB rather than pages
+    config.setCacheSize((int) -properties.cacheSize().toKilobytes());
+    config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, String.valueOf(properties.mmapSize().toBytes()));
+    return config;
+  }
+  
+  private static HikariDataSource pool(String name, String url, SQLiteConfig config, int size) {
+    var dataSource = new SQLiteDataSource(config);
+    dataSource.setUrl(url);
+    var poolConfig = new HikariConfig();
+    poolConfig.setPoolName(name);
+    poolConfig.setDataSource(dataSource);
+    poolConfig.setMaximumPoolSize(size);
+    poolConfig.setMinimumIdle(size);
+    return new HikariDataSource(poolConfig);
+  }
+  
+  // What MybatisAutoConfiguration does for its single factory, limited to the settings this application uses
+  private static SqlSessionFactory sqlSessionFactory(DataSource dataSource, MybatisProperties mybatisProperties,
+                                                     List<Interceptor> interceptors) throws Exception {
+    var configuration = new org.apache.ibatis.session.Configuration();
+    if (mybatisProperties.getConfiguration() != null) {
+      mybatisProperties.getConfiguration().applyTo(configuration);
+    }
+    var factoryBean = new SqlSessionFactoryBean();
+    factoryBean.setDataSource(dataSource);
+    factoryBean.setConfiguration(configuration);
+    factoryBean.setPlugins(interceptors.toArray(Interceptor[]::new));
+    return factoryBean.getObject();
+  }
+}
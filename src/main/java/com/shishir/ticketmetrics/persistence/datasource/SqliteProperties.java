@@ -0,0 +1,25 @@
+package com.shishir.ticketmetrics.persistence.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * @param readerPoolSize read-only connections, 0 for one per available processor
+ * @param mmapSize       {@code PRAGMA mmap_size}, bytes of the database file each connection reads through a memory map
+ * @param cacheSize      {@code PRAGMA cache_size}, page cache of each connection
+ * @param busyTimeout    {@code PRAGMA busy_timeout}, how long a connection waits for a lock before failing
+ */
+@ConfigurationProperties(prefix = "ticket-metrics.sqlite")
+public record SqliteProperties(
+    @DefaultValue("0") int readerPoolSize,
+    @DefaultValue("256MB") DataSize mmapSize,
+    @DefaultValue("16MB") DataSize cacheSize,
+    @DefaultValue("5s") Duration busyTimeout
+) {
+  public int effectiveReaderPoolSize() {
+    return readerPoolSize > 0 ? readerPoolSize : Runtime.getRuntime().availableProcessors();
+  }
+}
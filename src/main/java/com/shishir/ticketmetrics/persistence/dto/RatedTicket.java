@@ -0,0 +1,13 @@
+package com.shishir.ticketmetrics.persistence.dto;
+
+/**
+ * A rated ticket with its creation time, the keyset of a matrix page.
+ */
+public record RatedTicket(
+    Integer ticketId,
+    Long createdEpochSecond
+) {
+  public static RatedTicket of(Integer ticketId, Long createdEpochSecond) {
+    return new RatedTicket(ticketId, createdEpochSecond);
+  }
+}
@@ -0,0 +1,12 @@
+package com.shishir.ticketmetrics.persistence.dto;
+
+import java.math.BigDecimal;
+
+public record TicketCategoryRatingStats(
+    Integer ticketId,
+    Integer categoryId,
+    Long ratingCount,
+    BigDecimal ratingSum
+) {
+
+}
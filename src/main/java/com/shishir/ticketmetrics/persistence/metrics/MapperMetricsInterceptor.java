@@ -0,0 +1,55 @@
+package com.shishir.ticketmetrics.persistence.metrics;
+
+import com.shishir.ticketmetrics.persistence.support.MapperStatementIds;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every mapper statement, tagged with the mapper and method name (e.g. {@code RatingStatsDao.fetchCategoryStatsByRatingDate})
+ * and whether it failed. Registered with MyBatis as a plugin of both session factories, see {@code SqliteDataSourceConfig}.
+ */
+@Component
+@Intercepts({
+    @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+    @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+    @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
+})
+public class MapperMetricsInterceptor implements Interceptor {
+  public static final String TIMER_NAME = "ticketmetrics.mapper.statements";
+  
+  private final MeterRegistry meterRegistry;
+  
+  public MapperMetricsInterceptor(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+  
+  @Override
+  public Object intercept(Invocation invocation) throws Throwable {
+    var statement = (MappedStatement) invocation.getArgs()[0];
+    var sample = Timer.start(meterRegistry);
+    var outcome = "error";
+    try {
+      var result = invocation.proceed();
+      outcome = "success";
+      return result;
+    } finally {
+      sample.stop(Timer.builder(TIMER_NAME)
+          .description("MyBatis mapper statement executions")
+          .tag("statement", MapperStatementIds.shortId(statement.getId()))
+          .tag("outcome", outcome)
+          .publishPercentileHistogram()
+          .register(meterRegistry));
+    }
+  }
+}
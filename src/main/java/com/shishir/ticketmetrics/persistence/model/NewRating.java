@@ -0,0 +1,31 @@
+package com.shishir.ticketmetrics.persistence.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Rating to be inserted, {@code createdAt} is kept in the {@code yyyy-MM-dd HH:mm:ss} form stored in {@code ratings.created_at}.
+ */
+public record NewRating(
+    Integer ticketId,
+    Integer ratingCategoryId,
+    Integer rating,
+    Integer reviewerId,
+    Integer revieweeId,
+    String createdAt
+) {
+  private static final DateTimeFormatter CREATED_AT_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+  public static NewRating of(Integer ticketId, Integer ratingCategoryId, Integer rating, Integer reviewerId, Integer revieweeId, LocalDateTime createdAt) {
+    return new NewRating(ticketId, ratingCategoryId, rating, reviewerId, revieweeId, createdAt.format(CREATED_AT_FORMATTER));
+  }
+
+  public LocalDateTime createdAtDateTime() {
+    return LocalDateTime.parse(createdAt, CREATED_AT_FORMATTER);
+  }
+
+  public BigDecimal ratingValue() {
+    return BigDecimal.valueOf(rating);
+  }
+}
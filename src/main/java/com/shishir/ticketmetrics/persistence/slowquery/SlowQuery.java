@@ -0,0 +1,33 @@
+package com.shishir.ticketmetrics.persistence.slowquery;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A mapper statement that exceeded the slow query threshold.
+ *
+ * @param statement  mapper and method, e.g. {@code RatingStatsDao.fetchCategoryStatsByRatingDateRange}
+ * @param sql        executed SQL with {@code ?} placeholders
+ * @param parameters bound parameters as {@code name=value}, in placeholder order
+ * @param queryPlan  {@code EXPLAIN QUERY PLAN} details, or the reason it could not be captured
+ */
+public record SlowQuery(
+    String statement,
+    String sql,
+    List<String> parameters,
+    Duration elapsed,
+    Instant executedAt,
+    List<String> queryPlan
+) {
+  public static SlowQuery of(String statement, String sql, List<String> parameters, Duration elapsed, Instant executedAt, List<String> queryPlan) {
+    return new SlowQuery(statement, sql, parameters, elapsed, executedAt, queryPlan);
+  }
+
+  /**
+   * @return true when the plan reads a whole table or index instead of searching it
+   */
+  public boolean fullScan() {
+    return queryPlan.stream().anyMatch(detail -> detail.startsWith("SCAN "));
+  }
+}
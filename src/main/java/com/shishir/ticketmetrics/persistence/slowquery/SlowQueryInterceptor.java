@@ -0,0 +1,127 @@
+package com.shishir.ticketmetrics.persistence.slowquery;
+
+import com.shishir.ticketmetrics.persistence.support.MapperStatementIds;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records mapper statements slower than the configured threshold in the {@link SlowQueryLog}, together with
+ * their bound parameters and {@code EXPLAIN QUERY PLAN}.
+ *
+ * <p>
+ * The plan is captured right after the statement, on the same connection and with the same parameters,
+ * so it is the plan SQLite chose for this execution. Fast statements cost one {@link System#nanoTime()} pair.
+ * </p>
+ */
+@Component
+@Intercepts({
+    @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+    @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+    @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
+})
+public class SlowQueryInterceptor implements Interceptor {
+  private static final Logger LOG = LoggerFactory.getLogger(SlowQueryInterceptor.class);
+  
+  private final SlowQueryProperties properties;
+  private final SlowQueryLog slowQueryLog;
+  
+  public SlowQueryInterceptor(SlowQueryProperties properties, SlowQueryLog slowQueryLog) {
+    this.properties = properties;
+    this.slowQueryLog = slowQueryLog;
+  }
+  
+  @Override
+  public Object intercept(Invocation invocation) throws Throwable {
+    if (!properties.enabled()) {
+      return invocation.proceed();
+    }
+    var startedAt = System.nanoTime();
+    var result = invocation.proceed();
+    var elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+    if (elapsed.compareTo(properties.threshold()) > 0) {
+      record(invocation, elapsed);
+    }
+    return result;
+  }
+  
+  private void record(Invocation invocation, Duration elapsed) {
+    var args = invocation.getArgs();
+    var statement = (MappedStatement) args[0];
+    var parameterObject = args[1];
+    var boundSql = args.length == 6 ? (BoundSql) args[5] : statement.getBoundSql(parameterObject);
+    var slowQuery = SlowQuery.of(
+        MapperStatementIds.shortId(statement.getId()),
+        boundSql.getSql().strip(),
+        parameters(statement, boundSql, parameterObject),
+        elapsed,
+        Instant.now(),
+        explain((Executor) invocation.getTarget(), statement, boundSql, parameterObject)
+    );
+    slowQueryLog.record(slowQuery);
+    LOG.warn("Slow statement: statement={}, elapsedMs={}, parameters={}, queryPlan={}",
+        slowQuery.statement(), elapsed.toMillis(), slowQuery.parameters(), slowQuery.queryPlan());
+  }
+  
+  private static List<String> explain(Executor executor, MappedStatement statement, BoundSql boundSql, Object parameterObject) {
+    try (var preparedStatement = executor.getTransaction().getConnection().prepareStatement("EXPLAIN QUERY PLAN " + boundSql.getSql())) {
+      // Binds the parameters the way MyBatis did for the statement itself
+      new DefaultParameterHandler(statement, parameterObject, boundSql).setParameters(preparedStatement);
+      var details = new ArrayList<String>();
+      try (var resultSet = preparedStatement.executeQuery()) {
+        while (resultSet.next()) {
+          details.add(resultSet.getString("detail"));
+        }
+      }
+      return details;
+    } catch (SQLException | RuntimeException e) {
+      LOG.debug("Cannot capture query plan of {}", statement.getId(), e);
+      return List.of("Query plan unavailable: " + e.getMessage());
+    }
+  }
+  
+  private List<String> parameters(MappedStatement statement, BoundSql boundSql, Object parameterObject) {
+    var mappings = boundSql.getParameterMappings();
+    var parameters = new ArrayList<String>();
+    for (int i = 0; i < mappings.size() && i < properties.maxParameters(); i++) {
+      var property = mappings.get(i).getProperty();
+      parameters.add(property + "=" + parameterValue(statement, boundSql, parameterObject, property));
+    }
+    if (mappings.size() > properties.maxParameters()) {
+      parameters.add("... %d more".formatted(mappings.size() - properties.maxParameters()));
+    }
+    return parameters;
+  }
+  
+  // Same lookup order as DefaultParameterHandler
+  private static Object parameterValue(MappedStatement statement, BoundSql boundSql, Object parameterObject, String property) {
+    if (boundSql.hasAdditionalParameter(property)) {
+      return boundSql.getAdditionalParameter(property);
+    }
+    if (parameterObject == null) {
+      return null;
+    }
+    var configuration = statement.getConfiguration();
+    if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+      return parameterObject;
+    }
+    return configuration.newMetaObject(parameterObject).getValue(property);
+  }
+}
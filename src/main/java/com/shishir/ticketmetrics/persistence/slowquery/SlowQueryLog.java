@@ -0,0 +1,41 @@
+package com.shishir.ticketmetrics.persistence.slowquery;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded in-memory log of the most recent slow statements; when full, the oldest entry is dropped.
+ */
+@Component
+public class SlowQueryLog {
+  private final int capacity;
+  private final ArrayDeque<SlowQuery> entries;
+  
+  public SlowQueryLog(SlowQueryProperties properties) {
+    this.capacity = Math.max(1, properties.capacity());
+    this.entries = new ArrayDeque<>(capacity);
+  }
+  
+  public synchronized void record(SlowQuery slowQuery) {
+    if (entries.size() == capacity) {
+      entries.removeFirst();
+    }
+    entries.addLast(slowQuery);
+  }
+  
+  /**
+   * @return recorded statements, most recent first
+   */
+  public synchronized List<SlowQuery> recent() {
+    var recent = new ArrayList<SlowQuery>(entries.size());
+    entries.descendingIterator().forEachRemaining(recent::add);
+    return recent;
+  }
+  
+  public synchronized void clear() {
+    entries.clear();
+  }
+}
@@ -0,0 +1,21 @@
+package com.shishir.ticketmetrics.persistence.slowquery;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled       time mapper statements and capture the query plan of slow ones
+ * @param threshold     statements taking longer are recorded
+ * @param capacity      number of recorded statements kept, the oldest are dropped first
+ * @param maxParameters number of bound parameters recorded per statement, e.g. of a bulk insert
+ */
+@ConfigurationProperties(prefix = "ticket-metrics.slow-query")
+public record SlowQueryProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("100ms") Duration threshold,
+    @DefaultValue("100") int capacity,
+    @DefaultValue("20") int maxParameters
+) {
+}
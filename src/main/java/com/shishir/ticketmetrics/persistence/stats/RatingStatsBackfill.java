@@ -0,0 +1,73 @@
+package com.shishir.ticketmetrics.persistence.stats;
+
+import com.shishir.ticketmetrics.cache.store.RatingWriteVersion;
+import com.shishir.ticketmetrics.persistence.dao.RatingStatsBackfillDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+
+/**
+ * Rebuilds the rating stats tables from {@code ratings} when the application is started with
+ * {@code --backfill-rating-stats}.
+ *
+ * <p>
+ * The tables are filled by their migration and kept current by triggers, so this is only needed once
+ * after ratings were changed with the triggers missing, e.g. when a database copy predating them was restored.
+ * Cached scores may have been computed from the old totals and are cleared afterwards.
+ * </p>
+ */
+@Component
+public class RatingStatsBackfill implements ApplicationRunner {
+  public static final String OPTION = "backfill-rating-stats";
+  
+  private static final Logger LOG = LoggerFactory.getLogger(RatingStatsBackfill.class);
+  
+  private final RatingStatsBackfillDao ratingStatsBackfillDao;
+  private final TransactionTemplate transactionTemplate;
+  private final CacheManager cacheManager;
+  private final RatingWriteVersion ratingWriteVersion;
+  
+  public RatingStatsBackfill(
+      RatingStatsBackfillDao ratingStatsBackfillDao,
+      TransactionTemplate transactionTemplate,
+      CacheManager cacheManager,
+      RatingWriteVersion ratingWriteVersion
+  ) {
+    this.ratingStatsBackfillDao = ratingStatsBackfillDao;
+    this.transactionTemplate = transactionTemplate;
+    this.cacheManager = cacheManager;
+    this.ratingWriteVersion = ratingWriteVersion;
+  }
+  
+  @Override
+  public void run(ApplicationArguments args) {
+    if (args.containsOption(OPTION)) {
+      backfill();
+    }
+  }
+  
+  public void backfill() {
+    LOG.info("Rebuilding rating stats tables");
+    transactionTemplate.executeWithoutResult(status -> {
+      ratingStatsBackfillDao.deleteDailyCategoryStats();
+      var days = ratingStatsBackfillDao.insertDailyCategoryStats();
+      ratingStatsBackfillDao.deleteTicketCategoryStats();
+      var tickets = ratingStatsBackfillDao.insertTicketCategoryStats();
+      LOG.info("Rebuilt rating stats: dailyCategoryRows={}, ticketCategoryRows={}", days, tickets);
+    });
+    
+    // Loads still running on the old totals must not be cached either
+    ratingWriteVersion.advance();
+    cacheManager.getCacheNames().stream()
+        .map(cacheManager::getCache)
+        .filter(Objects::nonNull)
+        .forEach(Cache::clear);
+  }
+}
@@ -0,0 +1,19 @@
+package com.shishir.ticketmetrics.persistence.support;
+
+/**
+ * Names of MyBatis mapped statements as used in metrics and logs.
+ */
+public final class MapperStatementIds {
+  private MapperStatementIds() {
+  }
+  
+  /**
+   * Strips the package of a statement id, e.g.
+   * {@code com.shishir.ticketmetrics.persistence.dao.RatingDao.fetchRatingCategories} → {@code RatingDao.fetchRatingCategories}.
+   */
+  public static String shortId(String id) {
+    var methodSeparator = id.lastIndexOf('.');
+    var mapperSeparator = methodSeparator > 0 ? id.lastIndexOf('.', methodSeparator - 1) : -1;
+    return id.substring(mapperSeparator + 1);
+  }
+}
@@ -2,21 +2,29 @@ package com.shishir.ticketmetrics.service;
 
 import com.shishir.ticketmetrics.cache.fn.CategoryScoreByRatingDateCalculator;
 import com.shishir.ticketmetrics.cache.store.CategoryScoreByRatingDateCacheStore;
-import com.shishir.ticketmetrics.calculator.ScoreCalculator;
+import com.shishir.ticketmetrics.cache.store.CategoryScoreRollupCacheStore;
+import com.shishir.ticketmetrics.calculator.CategoryWeights;
+import com.shishir.ticketmetrics.concurrency.ComputePool;
+import com.shishir.ticketmetrics.concurrency.ServiceExecutor;
+import com.shishir.ticketmetrics.model.CategoryScoreRollup;
 import com.shishir.ticketmetrics.model.CategoryScoreStatsByRatingDate;
 import com.shishir.ticketmetrics.model.CategoryScoreSummary;
+import com.shishir.ticketmetrics.model.TimelineGranularity;
+import com.shishir.ticketmetrics.model.TimelinePeriod;
 import com.shishir.ticketmetrics.persistence.dao.RatingDao;
 import com.shishir.ticketmetrics.persistence.dao.RatingStatsDao;
+import com.shishir.ticketmetrics.persistence.dto.CategoryRatingStatsByRatingDate;
+import com.shishir.ticketmetrics.service.support.DateRangeLoadPlanner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.temporal.TemporalAdjusters;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,108 +32,198 @@ public class GetCategoryTimelineScoreService implements CategoryScoreByRatingDat
   public static final Logger LOG = LoggerFactory.getLogger(GetCategoryTimelineScoreService.class);
   
   private final CategoryScoreByRatingDateCacheStore cacheStore;
+  private final CategoryScoreRollupCacheStore rollupCacheStore;
   private final RatingStatsDao ratingStatsDao;
   private final RatingDao ratingDao;
+  private final DateRangeLoadPlanner dateRangeLoadPlanner;
+  private final ServiceExecutor serviceExecutor;
+  private final ComputePool computePool;
   
-  public GetCategoryTimelineScoreService(CategoryScoreByRatingDateCacheStore cacheStore, RatingStatsDao ratingStatsDao, RatingDao ratingDao) {
+  public GetCategoryTimelineScoreService(CategoryScoreByRatingDateCacheStore cacheStore, CategoryScoreRollupCacheStore rollupCacheStore, RatingStatsDao ratingStatsDao, RatingDao ratingDao, DateRangeLoadPlanner dateRangeLoadPlanner, ServiceExecutor serviceExecutor, ComputePool computePool) {
     this.cacheStore = cacheStore;
+    this.rollupCacheStore = rollupCacheStore;
     this.ratingStatsDao = ratingStatsDao;
     this.ratingDao = ratingDao;
+    this.dateRangeLoadPlanner = dateRangeLoadPlanner;
+    this.serviceExecutor = serviceExecutor;
+    this.computePool = computePool;
   }
   
+  /**
+   * Category timeline with the default granularity, see {@link TimelineGranularity#defaultFor}.
+   */
   public List<CategoryScoreSummary> getCategoryTimelineScores(LocalDate startDate, LocalDate endDate) {
-    var categoryScoresByDate = getScoresInRange(startDate, endDate);
-    LOG.debug("categoryScoresByDate={}", categoryScoresByDate);
-    
-    if (isMoreThanMonth(startDate, endDate)) {
-      return groupByWeek(categoryScoresByDate);
-    } else {
-      return categoryScoresByDate;
-    }
+    return getCategoryTimelineScores(startDate, endDate, TimelineGranularity.defaultFor(startDate, endDate), 0);
   }
   
-  private boolean isMoreThanMonth(LocalDate startDate, LocalDate endDate) {
-    boolean moreThanMonth = startDate.plusMonths(1).isBefore(endDate);
+  /**
+   * Category timeline with one point per day, week or month that has ratings.
+   *
+   * <p>
+   * Weeks and months fully inside the range are read from the rollup cache, so a monthly timeline costs one value
+   * per month. Periods cut by the range boundaries are merged from the daily values of the covered days.
+   * Points are dated on the period start, which may lie before {@code startDate}.
+   * </p>
+   *
+   * @param maxPoints coarsens the granularity until the range has at most this many periods, 0 for no limit
+   */
+  public List<CategoryScoreSummary> getCategoryTimelineScores(LocalDate startDate, LocalDate endDate, TimelineGranularity granularity, int maxPoints) {
+    var effectiveGranularity = granularity.coarsenTo(startDate, endDate, maxPoints);
+    LOG.debug("Timeline startDate={}, endDate={}, granularity={}, maxPoints={}, effectiveGranularity={}",
+        startDate, endDate, granularity, maxPoints, effectiveGranularity);
     
-    LOG.debug("Difference in startDate={} and endDate={} is moreThanMonth={}", startDate, endDate, moreThanMonth);
-    return moreThanMonth;
+    var rollupsByPeriod = effectiveGranularity == TimelineGranularity.DAY
+        ? getDailyRollups(startDate, endDate)
+        : getPeriodRollups(startDate, endDate, effectiveGranularity);
+    return summarize(rollupsByPeriod.values());
   }
   
-  public List<CategoryScoreSummary> groupByWeek(List<CategoryScoreSummary> categoryScoreSummaries) {
-    LOG.debug("Begin merging category score summary");
-    var categoryScoreSummaryWithWeeklyTimeline = new ArrayList<CategoryScoreSummary>();
-    
-    for (CategoryScoreSummary css : categoryScoreSummaries) {
-      // Step 1: Group timeline per week
-      var mapTimelinePerWeek = css.timeline().stream()
-          .collect(Collectors.groupingBy(
-              it -> it.date().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)),
-              Collectors.toList()
-          ));
-      
-      // Step 2: Calculate score average of the week
-      // and create new timeline in new Category summary.
-      var scoreSum = BigDecimal.ZERO;
-      var count = 0L;
-      var timelinePerWeek = new ArrayList<CategoryScoreSummary.Timeline>();
-      for (var weekEntry : mapTimelinePerWeek.entrySet()) {
-        var weekStartDate = weekEntry.getKey();
-        var listOfDaysToMerge = weekEntry.getValue();
-        for (var value : listOfDaysToMerge) {
-          count += 1;
-          scoreSum = scoreSum.add(value.score());
-        }
-        var scoreAverage = scoreSum.divide(BigDecimal.valueOf(count), 6, RoundingMode.HALF_EVEN);
-        timelinePerWeek.add(CategoryScoreSummary.Timeline.of(weekStartDate, scoreAverage));
+  /**
+   * {@link #getCategoryTimelineScores(LocalDate, LocalDate, TimelineGranularity, int)} on the {@link ServiceExecutor}.
+   */
+  public CompletableFuture<List<CategoryScoreSummary>> getCategoryTimelineScoresAsync(LocalDate startDate, LocalDate endDate, TimelineGranularity granularity, int maxPoints) {
+    return CompletableFuture.supplyAsync(() -> getCategoryTimelineScores(startDate, endDate, granularity, maxPoints), serviceExecutor);
+  }
+  
+  private Map<LocalDate, List<CategoryScoreRollup>> getDailyRollups(LocalDate startDate, LocalDate endDate) {
+    var rollupsByDate = new TreeMap<LocalDate, List<CategoryScoreRollup>>();
+    getScoresInRange(startDate, endDate).forEach((date, categoryScores) -> {
+      if (categoryScores != null) {
+        rollupsByDate.put(date, categoryScores.stream().map(dayScore -> CategoryScoreRollup.ofDay(date, dayScore)).toList());
+      }
+    });
+    return rollupsByDate;
+  }
+  
+  private Map<LocalDate, List<CategoryScoreRollup>> getPeriodRollups(LocalDate startDate, LocalDate endDate, TimelineGranularity granularity) {
+    var rollupsByPeriod = new TreeMap<LocalDate, List<CategoryScoreRollup>>();
+    var fullPeriods = new ArrayList<TimelinePeriod>();
+    var weights = CategoryWeights.of(ratingDao.getCategoryWeightMap());
+    for (var periodStart = granularity.periodStart(startDate); !periodStart.isAfter(endDate); periodStart = granularity.nextPeriodStart(periodStart)) {
+      var period = new TimelinePeriod(granularity, periodStart);
+      if (!period.start().isBefore(startDate) && !period.end().isAfter(endDate)) {
+        fullPeriods.add(period);
+      } else {
+        var firstDay = period.start().isBefore(startDate) ? startDate : period.start();
+        var lastDay = period.end().isAfter(endDate) ? endDate : period.end();
+        rollupsByPeriod.put(periodStart, rollUp(periodStart, getScoresInRange(firstDay, lastDay).values(), weights));
       }
-      
-      categoryScoreSummaryWithWeeklyTimeline.add(CategoryScoreSummary.of(
-          css.categoryId(),
-          css.ratingsCount(),
-          css.averageScore(),
-          timelinePerWeek
-      ));
     }
-    LOG.debug("Finished merging category score per week");
-    return categoryScoreSummaryWithWeeklyTimeline;
+    
+    rollupCacheStore.getAll(fullPeriods, this::calculateMissingPeriods)
+        .forEach((period, rollups) -> rollupsByPeriod.put(period.start(), rollups));
+    LOG.debug("Loaded rollups of {} full and {} partial periods", fullPeriods.size(), rollupsByPeriod.size() - fullPeriods.size());
+    return rollupsByPeriod;
+  }
+  
+  /**
+   * Bulk loader of the uncached periods: one range query over the days of all of them, or of each chunk of them on the
+   * {@link ComputePool} for longer ranges.
+   */
+  private Map<TimelinePeriod, List<CategoryScoreRollup>> calculateMissingPeriods(SortedSet<TimelinePeriod> missingPeriods) {
+    var periods = List.copyOf(missingPeriods);
+    var daysPerPeriod = (int) ChronoUnit.DAYS.between(periods.getFirst().start(), periods.getFirst().end()) + 1;
+    var minPeriodsPerTask = Math.max(1, computePool.properties().minDaysPerTask() / daysPerPeriod);
+    var rollups = new HashMap<TimelinePeriod, List<CategoryScoreRollup>>();
+    computePool.map(periods, minPeriodsPerTask, this::calculatePeriods).forEach(rollups::putAll);
+    return rollups;
+  }
+  
+  private Map<TimelinePeriod, List<CategoryScoreRollup>> calculatePeriods(List<TimelinePeriod> periods) {
+    var categoryScoresByDate = new TreeMap<>(calculateRange(periods.getFirst().start(), periods.getLast().end()));
+    var weights = CategoryWeights.of(ratingDao.getCategoryWeightMap());
+    var rollups = new HashMap<TimelinePeriod, List<CategoryScoreRollup>>();
+    periods.forEach(period -> rollups.put(
+        period,
+        rollUp(period.start(), categoryScoresByDate.subMap(period.start(), true, period.end(), true).values(), weights)
+    ));
+    return rollups;
   }
   
-  private List<CategoryScoreSummary> getScoresInRange(LocalDate startDate, LocalDate endDate) {
-    var categoryScoreStatsMap = startDate.datesUntil(endDate.plusDays(1))
-        .map(date -> cacheStore.getOrCalculate(date, this::calculate))
+  /**
+   * Merges daily category scores into one rollup per category, scored from the merged rating sums and counts.
+   *
+   * @param categoryScoresOfDays category scores per day, null for days without ratings
+   * @param weights              category weights of the current load
+   * @return rollups ordered by category, empty if no day has ratings
+   */
+  private List<CategoryScoreRollup> rollUp(LocalDate periodStart, Collection<List<CategoryScoreStatsByRatingDate>> categoryScoresOfDays, CategoryWeights weights) {
+    var totals = new TreeMap<Integer, CategoryScoreRollup>();
+    categoryScoresOfDays.stream()
         .filter(Objects::nonNull)
         .flatMap(Collection::stream)
-        .collect(Collectors.groupingBy(CategoryScoreStatsByRatingDate::categoryId, Collectors.toList()));
+        .forEach(dayScore -> totals.merge(dayScore.categoryId(), CategoryScoreRollup.ofDay(periodStart, dayScore), CategoryScoreRollup::plus));
+    if (totals.isEmpty()) {
+      return List.of();
+    }
     
-    var categoryScoreSummaries = categoryScoreStatsMap.entrySet().stream()
+    var mergedStats = totals.values().stream()
+        .map(total -> new CategoryRatingStatsByRatingDate(
+            total.categoryId(),
+            periodStart,
+            total.ratingCount(),
+            total.ratingSum(),
+            BigDecimal.valueOf(total.ratingSum().doubleValue() / total.ratingCount())
+        ))
+        .toList();
+    var scores = calculate(periodStart, mergedStats, weights);
+    return scores.stream()
+        .map(score -> totals.get(score.categoryId()).withScore(score.scoreAverage()))
+        .toList();
+  }
+  
+  /**
+   * Builds one summary per category, ordered by category id. The average score is the average of the daily scores.
+   */
+  private List<CategoryScoreSummary> summarize(Collection<List<CategoryScoreRollup>> rollupsOfPeriods) {
+    var rollupsByCategory = rollupsOfPeriods.stream()
+        .flatMap(Collection::stream)
+        .collect(Collectors.groupingBy(CategoryScoreRollup::categoryId, TreeMap::new, Collectors.toList()));
+    
+    return rollupsByCategory.entrySet().stream()
         .map(e -> {
-          var categoryId = e.getKey();
           var ratingsCount = 0L;
-          var scoreSum = BigDecimal.ZERO;
-          var count = 0L;
+          var ratedDays = 0L;
+          var dailyScoreSum = BigDecimal.ZERO;
           var timeline = new ArrayList<CategoryScoreSummary.Timeline>();
-          
-          // Step 4: Compute average of scores per category
-          for (var categoryScoreStats : e.getValue()) {
-            count += 1;
-            ratingsCount += categoryScoreStats.ratingCount();
-            scoreSum = scoreSum.add(categoryScoreStats.scoreAverage());
-            timeline.add(CategoryScoreSummary.Timeline.of(categoryScoreStats.ratingDate(), categoryScoreStats.scoreAverage()));
+          for (var rollup : e.getValue()) {
+            ratingsCount += rollup.ratingCount();
+            ratedDays += rollup.ratedDays();
+            dailyScoreSum = dailyScoreSum.add(rollup.dailyScoreSum());
+            timeline.add(CategoryScoreSummary.Timeline.of(rollup.periodStart(), rollup.score()));
           }
-          var scoreAverage = count > 0 ? scoreSum.divide(BigDecimal.valueOf(count), 6, RoundingMode.HALF_EVEN) : BigDecimal.ZERO;
+          var scoreAverage = ratedDays > 0 ? dailyScoreSum.divide(BigDecimal.valueOf(ratedDays), 6, RoundingMode.HALF_EVEN) : BigDecimal.ZERO;
           
-          var categoryScoreSummary = CategoryScoreSummary.of(
-              categoryId,
-              ratingsCount,
-              scoreAverage,
-              timeline
-          );
+          var categoryScoreSummary = CategoryScoreSummary.of(e.getKey(), ratingsCount, scoreAverage, timeline);
           LOG.debug("Created categoryScoreSummary={}", categoryScoreSummary);
           return categoryScoreSummary;
         })
         .toList();
-    
-    return categoryScoreSummaries;
+  }
+  
+  /**
+   * @return date → category scores of every day in the range, null for days without ratings
+   */
+  private Map<LocalDate, List<CategoryScoreStatsByRatingDate>> getScoresInRange(LocalDate startDate, LocalDate endDate) {
+    var dates = startDate.datesUntil(endDate.plusDays(1)).toList();
+    return cacheStore.getAll(dates, this::calculateMissing);
+  }
+  
+  /**
+   * Bulk loader of the uncached days: one range query when the planner decides it pays off, otherwise one query per day.
+   * Long ranges are split into chunks of days loaded in parallel on the {@link ComputePool}, one range query each.
+   */
+  private Map<LocalDate, List<CategoryScoreStatsByRatingDate>> calculateMissing(SortedSet<LocalDate> missingDates) {
+    var plan = dateRangeLoadPlanner.plan(missingDates);
+    if (plan.rangeScan()) {
+      var categoryScoresByDate = new TreeMap<LocalDate, List<CategoryScoreStatsByRatingDate>>();
+      computePool.map(plan.missingDates(), computePool.properties().minDaysPerTask(), dates -> calculateRange(dates.getFirst(), dates.getLast()))
+          .forEach(categoryScoresByDate::putAll);
+      return categoryScoresByDate;
+    }
+    var categoryScoresByDate = new TreeMap<LocalDate, List<CategoryScoreStatsByRatingDate>>();
+    missingDates.forEach(date -> categoryScoresByDate.put(date, calculate(date)));
+    return categoryScoresByDate;
   }
   
   @Override
@@ -144,13 +242,44 @@ public class GetCategoryTimelineScoreService implements CategoryScoreByRatingDat
     var weightMap = ratingDao.getCategoryWeightMap();
     LOG.debug("Loaded {} category weights", weightMap);
     
+    return calculate(date, categoryStats, CategoryWeights.of(weightMap));
+  }
+  
+  /**
+   * Calculates category scores for every day in the range with a single aggregate query.
+   *
+   * @param startDate first day (inclusive)
+   * @param endDate   last day (inclusive)
+   * @return date → category scores, with {@code null} for days without ratings
+   */
+  public Map<LocalDate, List<CategoryScoreStatsByRatingDate>> calculateRange(LocalDate startDate, LocalDate endDate) {
+    LOG.debug("Starting category score range calculation: startDate={}, endDate={}", startDate, endDate);
+    
+    var categoryStatsByDate = ratingStatsDao.fetchCategoryStatsByRatingDateRange(startDate, endDate)
+        .stream()
+        .collect(Collectors.groupingBy(CategoryRatingStatsByRatingDate::ratingDate));
+    LOG.info("Fetched category rating stats for {} days: startDate={}, endDate={}", categoryStatsByDate.size(), startDate, endDate);
+    
+    var weights = CategoryWeights.of(categoryStatsByDate.isEmpty() ? Map.of() : ratingDao.getCategoryWeightMap());
+    var categoryScoresByDate = new TreeMap<LocalDate, List<CategoryScoreStatsByRatingDate>>();
+    startDate.datesUntil(endDate.plusDays(1)).forEach(date -> {
+      var categoryStats = categoryStatsByDate.get(date);
+      categoryScoresByDate.put(date, categoryStats == null ? null : calculate(date, categoryStats, weights));
+    });
+    return categoryScoresByDate;
+  }
+  
+  /**
+   * Category scores of a day from its complete category stats, also used to derive updated scores after ratings are recorded.
+   */
+  List<CategoryScoreStatsByRatingDate> calculate(LocalDate date, List<CategoryRatingStatsByRatingDate> categoryStats, CategoryWeights weights) {
     // Step 3: Calculate individual scores per category
     var categoryScores = categoryStats.stream()
         .map(stats -> {
               var categoryId = stats.categoryId();
               var ratingAverage = stats.ratingAverage();
-              var weight = weightMap.get(categoryId);
-              var score = ScoreCalculator.calculateScore(Map.of(categoryId, ratingAverage), weightMap);
+              var weight = weights.weight(categoryId);
+              var score = weights.calculateCategoryScore(categoryId, stats.ratingSum().longValueExact(), stats.ratingCount(), ratingAverage);
               var categoryScore = CategoryScoreStatsByRatingDate.of(
                   categoryId,
                   date,
@@ -1,10 +1,14 @@
 package com.shishir.ticketmetrics.service;
 
 import com.shishir.ticketmetrics.cache.store.OverallDailyScoreCacheStore;
-import com.shishir.ticketmetrics.calculator.ScoreCalculator;
+import com.shishir.ticketmetrics.calculator.CategoryWeights;
 import com.shishir.ticketmetrics.cache.fn.OverallDailyScoreCalculator;
+import com.shishir.ticketmetrics.concurrency.ComputePool;
+import com.shishir.ticketmetrics.concurrency.ServiceExecutor;
 import com.shishir.ticketmetrics.persistence.dao.RatingDao;
 import com.shishir.ticketmetrics.persistence.dao.RatingStatsDao;
+import com.shishir.ticketmetrics.persistence.dto.CategoryRatingStatsByRatingDate;
+import com.shishir.ticketmetrics.service.support.DateRangeLoadPlanner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -12,8 +16,12 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,27 +30,67 @@ public class OverallScoreService implements OverallDailyScoreCalculator {
   private final OverallDailyScoreCacheStore cacheStore;
   private final RatingDao ratingDao;
   private final RatingStatsDao ratingStatsDao;
+  private final DateRangeLoadPlanner dateRangeLoadPlanner;
+  private final ServiceExecutor serviceExecutor;
+  private final ComputePool computePool;
   
-  public OverallScoreService(OverallDailyScoreCacheStore cacheStore, RatingDao ratingDao, RatingStatsDao ratingStatsDao) {
+  public OverallScoreService(OverallDailyScoreCacheStore cacheStore, RatingDao ratingDao, RatingStatsDao ratingStatsDao, DateRangeLoadPlanner dateRangeLoadPlanner, ServiceExecutor serviceExecutor, ComputePool computePool) {
     this.cacheStore = cacheStore;
     this.ratingDao = ratingDao;
     this.ratingStatsDao = ratingStatsDao;
+    this.dateRangeLoadPlanner = dateRangeLoadPlanner;
+    this.serviceExecutor = serviceExecutor;
+    this.computePool = computePool;
   }
   
+  /**
+   * Averages the daily overall scores of a range, days without ratings count as 0.
+   * Answered from the prefix-sum index of the daily score cache when every day is cached,
+   * otherwise the missing days are loaded (and indexed) first.
+   */
   public BigDecimal getOverallScore(LocalDate startDate, LocalDate endDate) {
     LOG.debug("Calculating overall score: startDate={}, endDate={}", startDate, endDate);
-    var scores = getScoresInRange(startDate, endDate);
-    var count = scores.size();
-    var sum = scores.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    var count = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+    var rangeSum = cacheStore.sum(startDate, endDate);
+    BigDecimal sum;
+    if (rangeSum.covers(startDate, endDate)) {
+      // Every day is cached: O(log n) from the prefix-sum index
+      sum = rangeSum.scoreSum();
+    } else {
+      sum = getScoresInRange(startDate, endDate).stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
     var avg = count > 0 ? sum.divide(BigDecimal.valueOf(count), 6, RoundingMode.HALF_EVEN) : BigDecimal.ZERO;
     LOG.debug("Calculated overall score: sum={}, count={}, avg={}, startDate={}, endDate={}", sum, count, avg, startDate, endDate);
     return avg;
   }
   
+  /**
+   * {@link #getOverallScore} on the {@link ServiceExecutor}, so several ranges can be scored at the same time.
+   */
+  public CompletableFuture<BigDecimal> getOverallScoreAsync(LocalDate startDate, LocalDate endDate) {
+    return CompletableFuture.supplyAsync(() -> getOverallScore(startDate, endDate), serviceExecutor);
+  }
+  
   private List<BigDecimal> getScoresInRange(LocalDate startDate, LocalDate endDate) {
-    return startDate.datesUntil(endDate.plusDays(1))
-        .map(date -> cacheStore.getOrCalculate(date, this::calculate))
-        .toList();
+    var dates = startDate.datesUntil(endDate.plusDays(1)).toList();
+    return List.copyOf(cacheStore.getAll(dates, this::calculateMissing).values());
+  }
+  
+  /**
+   * Bulk loader of the uncached days: one range query when the planner decides it pays off, otherwise one query per day.
+   * Long ranges are split into chunks of days loaded in parallel on the {@link ComputePool}, one range query each.
+   */
+  private Map<LocalDate, BigDecimal> calculateMissing(SortedSet<LocalDate> missingDates) {
+    var plan = dateRangeLoadPlanner.plan(missingDates);
+    if (plan.rangeScan()) {
+      var scores = new TreeMap<LocalDate, BigDecimal>();
+      computePool.map(plan.missingDates(), computePool.properties().minDaysPerTask(), dates -> calculateRange(dates.getFirst(), dates.getLast()))
+          .forEach(scores::putAll);
+      return scores;
+    }
+    var scores = new TreeMap<LocalDate, BigDecimal>();
+    missingDates.forEach(date -> scores.put(date, calculate(date)));
+    return scores;
   }
   
   @Override
@@ -61,14 +109,45 @@ public class OverallScoreService implements OverallDailyScoreCalculator {
     var weightMap = ratingDao.getCategoryWeightMap();
     LOG.debug("Loaded {} category weights", weightMap);
     
+    return calculate(date, categoryStats, CategoryWeights.of(weightMap));
+  }
+  
+  /**
+   * Calculates daily overall scores for every day in the range with a single aggregate query.
+   *
+   * @param startDate first day (inclusive)
+   * @param endDate   last day (inclusive)
+   * @return date → overall score, with {@link BigDecimal#ZERO} for days without ratings
+   */
+  public Map<LocalDate, BigDecimal> calculateRange(LocalDate startDate, LocalDate endDate) {
+    LOG.debug("Starting overall score range calculation: startDate={}, endDate={}", startDate, endDate);
+    
+    var categoryStatsByDate = ratingStatsDao.fetchCategoryStatsByRatingDateRange(startDate, endDate)
+        .stream()
+        .collect(Collectors.groupingBy(CategoryRatingStatsByRatingDate::ratingDate));
+    LOG.info("Fetched category rating stats for {} days: startDate={}, endDate={}", categoryStatsByDate.size(), startDate, endDate);
+    
+    var weights = CategoryWeights.of(categoryStatsByDate.isEmpty() ? Map.of() : ratingDao.getCategoryWeightMap());
+    var scores = new TreeMap<LocalDate, BigDecimal>();
+    startDate.datesUntil(endDate.plusDays(1)).forEach(date -> {
+      var categoryStats = categoryStatsByDate.get(date);
+      scores.put(date, categoryStats == null ? BigDecimal.ZERO : calculate(date, categoryStats, weights));
+    });
+    return scores;
+  }
+  
+  /**
+   * Overall score of a day from its complete category stats, also used to derive updated scores after ratings are recorded.
+   */
+  BigDecimal calculate(LocalDate date, List<CategoryRatingStatsByRatingDate> categoryStats, CategoryWeights weights) {
     // Step 3: Calculate individual scores per category
     var scores = categoryStats.stream()
         .map(stats -> {
               var categoryId = stats.categoryId();
               var ratingAverage = stats.ratingAverage();
-              var weight = weightMap.get(categoryId);
+              var weight = weights.weight(categoryId);
               
-              var score = ScoreCalculator.calculateScore(Map.of(categoryId, ratingAverage), weightMap);
+              var score = weights.calculateCategoryScore(categoryId, stats.ratingSum().longValueExact(), stats.ratingCount(), ratingAverage);
               
               LOG.debug("categoryId={}, ratingAverage={}, weight={}, score={}", categoryId, ratingAverage, weight, score);
               return score;
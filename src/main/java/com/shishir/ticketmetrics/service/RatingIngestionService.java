@@ -0,0 +1,221 @@
+package com.shishir.ticketmetrics.service;
+
+import com.shishir.ticketmetrics.cache.store.CategoryScoreByRatingDateCacheStore;
+import com.shishir.ticketmetrics.cache.store.CategoryScoreRollupCacheStore;
+import com.shishir.ticketmetrics.cache.store.OverallDailyScoreCacheStore;
+import com.shishir.ticketmetrics.cache.store.RatingWriteVersion;
+import com.shishir.ticketmetrics.cache.store.TicketCategoryMatrixCacheStore;
+import com.shishir.ticketmetrics.cache.store.TicketScoreCacheStore;
+import com.shishir.ticketmetrics.calculator.CategoryWeights;
+import com.shishir.ticketmetrics.model.CategoryScoreStatsByRatingDate;
+import com.shishir.ticketmetrics.persistence.dao.RatingDao;
+import com.shishir.ticketmetrics.persistence.dao.RatingWriteDao;
+import com.shishir.ticketmetrics.persistence.dto.CategoryRatingStatsByRatingDate;
+import com.shishir.ticketmetrics.persistence.model.NewRating;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Records ratings and brings the score caches up to date without recomputing them.
+ *
+ * <p>
+ * The ratings are inserted in one transaction. Afterwards the cached category stats of each affected date
+ * are merged with the counts and sums of the new ratings, and the date's overall score is derived from
+ * the merged stats. Per-ticket scores are not mergeable (they hold one rating per category), so the
+ * affected tickets are evicted, and so are the week and month rollups of the affected dates.
+ * </p>
+ * <p>
+ * Cached values are captured before the transaction and replaced only if unchanged afterwards. An entry that
+ * changed, was loading or could not be derived is evicted instead, so it is reloaded from committed data.
+ * </p>
+ */
+@Service
+public class RatingIngestionService {
+  private static final Logger LOG = LoggerFactory.getLogger(RatingIngestionService.class);
+  
+  private final RatingWriteDao ratingWriteDao;
+  private final RatingDao ratingDao;
+  private final TransactionTemplate transactionTemplate;
+  private final RatingWriteVersion ratingWriteVersion;
+  private final CategoryScoreByRatingDateCacheStore categoryScoreCacheStore;
+  private final CategoryScoreRollupCacheStore categoryScoreRollupCacheStore;
+  private final OverallDailyScoreCacheStore overallDailyScoreCacheStore;
+  private final TicketScoreCacheStore ticketScoreCacheStore;
+  private final TicketCategoryMatrixCacheStore ticketCategoryMatrixCacheStore;
+  private final GetCategoryTimelineScoreService getCategoryTimelineScoreService;
+  private final OverallScoreService overallScoreService;
+  
+  public RatingIngestionService(
+      RatingWriteDao ratingWriteDao,
+      RatingDao ratingDao,
+      TransactionTemplate transactionTemplate,
+      RatingWriteVersion ratingWriteVersion,
+      CategoryScoreByRatingDateCacheStore categoryScoreCacheStore,
+      CategoryScoreRollupCacheStore categoryScoreRollupCacheStore,
+      OverallDailyScoreCacheStore overallDailyScoreCacheStore,
+      TicketScoreCacheStore ticketScoreCacheStore,
+      TicketCategoryMatrixCacheStore ticketCategoryMatrixCacheStore,
+      GetCategoryTimelineScoreService getCategoryTimelineScoreService,
+      OverallScoreService overallScoreService
+  ) {
+    this.ratingWriteDao = ratingWriteDao;
+    this.ratingDao = ratingDao;
+    this.transactionTemplate = transactionTemplate;
+    this.ratingWriteVersion = ratingWriteVersion;
+    this.categoryScoreCacheStore = categoryScoreCacheStore;
+    this.categoryScoreRollupCacheStore = categoryScoreRollupCacheStore;
+    this.overallDailyScoreCacheStore = overallDailyScoreCacheStore;
+    this.ticketScoreCacheStore = ticketScoreCacheStore;
+    this.ticketCategoryMatrixCacheStore = ticketCategoryMatrixCacheStore;
+    this.getCategoryTimelineScoreService = getCategoryTimelineScoreService;
+    this.overallScoreService = overallScoreService;
+  }
+  
+  /**
+   * Inserts the ratings in one transaction and updates the affected cache entries.
+   *
+   * @param ratings non-empty list of ratings
+   * @return number of recorded ratings
+   * @throws IllegalArgumentException if a rating refers to an unknown ticket or rating category
+   */
+  public int recordRatings(List<NewRating> ratings) {
+    LOG.debug("Recording {} ratings", ratings.size());
+    var weights = CategoryWeights.of(ratingDao.getCategoryWeightMap());
+    validateReferences(ratings, weights);
+    
+    var addedStatsByDate = toCategoryStatsByDate(ratings);
+    
+    // Capture the cached values before the ratings become visible
+    var storedCategoryScores = new HashMap<LocalDate, Object>();
+    var storedOverallScores = new HashMap<LocalDate, BigDecimal>();
+    addedStatsByDate.keySet().forEach(date -> {
+      storedCategoryScores.put(date, categoryScoreCacheStore.getStored(date));
+      storedOverallScores.put(date, overallDailyScoreCacheStore.getStored(date));
+    });
+    
+    var recorded = transactionTemplate.execute(status -> {
+      var inserted = 0;
+      for (int i = 0; i < ratings.size(); i += RatingWriteDao.INSERT_CHUNK_SIZE) {
+        inserted += ratingWriteDao.insertRatings(ratings.subList(i, Math.min(i + RatingWriteDao.INSERT_CHUNK_SIZE, ratings.size())));
+      }
+      return inserted;
+    });
+    ratingWriteVersion.advance();
+    LOG.info("Recorded {} ratings on {} days", recorded, addedStatsByDate.size());
+    
+    addedStatsByDate.forEach((date, addedStats) -> {
+      updateDate(date, addedStats, storedCategoryScores.get(date), storedOverallScores.get(date), weights);
+      categoryScoreRollupCacheStore.evict(date);
+    });
+    ratings.stream()
+        .map(NewRating::ticketId)
+        .distinct()
+        .forEach(ticketId -> {
+          ticketScoreCacheStore.evict(ticketId);
+          ticketCategoryMatrixCacheStore.evict(ticketId);
+        });
+    // Once more after the caches are updated, so a cache checkpoint taken meanwhile is discarded
+    ratingWriteVersion.advance();
+    return Objects.requireNonNullElse(recorded, 0);
+  }
+  
+  private void updateDate(LocalDate date, List<CategoryRatingStatsByRatingDate> addedStats, Object storedCategoryScores,
+                          BigDecimal storedOverallScore, CategoryWeights weights) {
+    if (storedCategoryScores == null) {
+      // Not cached, or being loaded: the eviction waits for a running load
+      categoryScoreCacheStore.evict(date);
+      overallDailyScoreCacheStore.evict(date);
+      return;
+    }
+    
+    var mergedStats = merge(date, CategoryScoreByRatingDateCacheStore.scoresOf(storedCategoryScores), addedStats);
+    var categoryScores = getCategoryTimelineScoreService.calculate(date, mergedStats, weights);
+    if (!categoryScoreCacheStore.replace(date, storedCategoryScores, categoryScores)) {
+      LOG.debug("Category scores changed concurrently, evicting date={}", date);
+      categoryScoreCacheStore.evict(date);
+      overallDailyScoreCacheStore.evict(date);
+      return;
+    }
+    
+    var overallScore = overallScoreService.calculate(date, mergedStats, weights);
+    if (storedOverallScore == null || !overallDailyScoreCacheStore.replace(date, storedOverallScore, overallScore)) {
+      overallDailyScoreCacheStore.evict(date);
+    }
+    LOG.debug("Merged ratings into cached scores: date={}, overallScore={}", date, overallScore);
+  }
+  
+  /**
+   * Adds the counts and sums of new ratings to the cached stats of a day, ordered by category like the stats queries.
+   */
+  private static List<CategoryRatingStatsByRatingDate> merge(LocalDate date, List<CategoryScoreStatsByRatingDate> cached,
+                                                            List<CategoryRatingStatsByRatingDate> added) {
+    var mergedByCategory = new TreeMap<Integer, CategoryRatingStatsByRatingDate>();
+    cached.forEach(stats -> mergedByCategory.put(stats.categoryId(), new CategoryRatingStatsByRatingDate(
+        stats.categoryId(), date, stats.ratingCount(), stats.ratingSum(), stats.ratingAverage())));
+    added.forEach(stats -> mergedByCategory.merge(stats.categoryId(), stats, (previous, addition) -> categoryStats(
+        previous.categoryId(),
+        date,
+        previous.ratingCount() + addition.ratingCount(),
+        previous.ratingSum().add(addition.ratingSum())
+    )));
+    return List.copyOf(mergedByCategory.values());
+  }
+  
+  private static Map<LocalDate, List<CategoryRatingStatsByRatingDate>> toCategoryStatsByDate(List<NewRating> ratings) {
+    var statsByDate = new TreeMap<LocalDate, List<CategoryRatingStatsByRatingDate>>();
+    ratings.stream()
+        .collect(Collectors.groupingBy(
+            rating -> rating.createdAtDateTime().toLocalDate(),
+            Collectors.groupingBy(NewRating::ratingCategoryId, TreeMap::new, Collectors.toList())
+        ))
+        .forEach((date, ratingsByCategory) -> statsByDate.put(date, ratingsByCategory.entrySet().stream()
+            .map(e -> categoryStats(
+                e.getKey(),
+                date,
+                e.getValue().size(),
+                e.getValue().stream().map(NewRating::ratingValue).reduce(BigDecimal.ZERO, BigDecimal::add)
+            ))
+            .toList()));
+    return statsByDate;
+  }
+  
+  // Same representation as the stats queries: SUM as an integer, AVG as a double
+  private static CategoryRatingStatsByRatingDate categoryStats(Integer categoryId, LocalDate date, long ratingCount, BigDecimal ratingSum) {
+    return new CategoryRatingStatsByRatingDate(
+        categoryId,
+        date,
+        ratingCount,
+        ratingSum,
+        BigDecimal.valueOf(ratingSum.doubleValue() / ratingCount)
+    );
+  }
+  
+  private void validateReferences(List<NewRating> ratings, CategoryWeights weights) {
+    ratings.stream()
+        .map(NewRating::ratingCategoryId)
+        .filter(categoryId -> !weights.contains(categoryId))
+        .findFirst()
+        .ifPresent(categoryId -> {
+          throw new IllegalArgumentException("Unknown rating category id=%d".formatted(categoryId));
+        });
+    
+    var ticketIds = ratings.stream().map(NewRating::ticketId).distinct().toList();
+    var existingTicketIds = new HashSet<Integer>();
+    for (int i = 0; i < ticketIds.size(); i += RatingDao.TICKET_ID_CHUNK_SIZE) {
+      existingTicketIds.addAll(ratingWriteDao.fetchExistingTicketIds(ticketIds.subList(i, Math.min(i + RatingDao.TICKET_ID_CHUNK_SIZE, ticketIds.size()))));
+    }
+    ticketIds.stream()
+        .filter(ticketId -> !existingTicketIds.contains(ticketId))
+        .findFirst()
+        .ifPresent(ticketId -> {
+          throw new IllegalArgumentException("Unknown ticket id=%d".formatted(ticketId));
+        });
+  }
+}
@@ -2,11 +2,15 @@ package com.shishir.ticketmetrics.service;
 
 import com.shishir.ticketmetrics.cache.fn.TicketCategoryMatrixCalculator;
 import com.shishir.ticketmetrics.cache.store.TicketCategoryMatrixCacheStore;
-import com.shishir.ticketmetrics.calculator.ScoreCalculator;
+import com.shishir.ticketmetrics.calculator.CategoryWeights;
+import com.shishir.ticketmetrics.concurrency.ComputePool;
+import com.shishir.ticketmetrics.concurrency.ServiceExecutor;
 import com.shishir.ticketmetrics.model.CategoryScoreByTicket;
+import com.shishir.ticketmetrics.model.TicketCategoryMatrixPage;
 import com.shishir.ticketmetrics.model.TicketXCategoryScores;
 import com.shishir.ticketmetrics.persistence.dao.RatingDao;
-import com.shishir.ticketmetrics.persistence.model.Rating;
+import com.shishir.ticketmetrics.persistence.dao.RatingStatsDao;
+import com.shishir.ticketmetrics.persistence.dto.RatedTicket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -14,54 +18,173 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class TicketCategoryMatrixService implements TicketCategoryMatrixCalculator {
   private static final Logger LOG = LoggerFactory.getLogger(TicketCategoryMatrixService.class);
+  private static final long SECONDS_PER_DAY = 86_400L;
   private final RatingDao ratingDao;
+  private final RatingStatsDao ratingStatsDao;
   private final TicketCategoryMatrixCacheStore cacheStore;
+  private final ServiceExecutor serviceExecutor;
+  private final ComputePool computePool;
   
-  public TicketCategoryMatrixService(RatingDao ratingDao, TicketCategoryMatrixCacheStore cacheStore) {
+  public TicketCategoryMatrixService(RatingDao ratingDao, RatingStatsDao ratingStatsDao, TicketCategoryMatrixCacheStore cacheStore, ServiceExecutor serviceExecutor, ComputePool computePool) {
     this.ratingDao = ratingDao;
+    this.ratingStatsDao = ratingStatsDao;
     this.cacheStore = cacheStore;
+    this.serviceExecutor = serviceExecutor;
+    this.computePool = computePool;
   }
   
   public List<TicketXCategoryScores> getTicketCategoryScores(LocalDate start, LocalDate end) {
+    var ticketXCategoryScores = getTicketCategoryScores(getRatedTickets(start, end));
+    LOG.debug("Calculated {} score of tickets between {} and {}", ticketXCategoryScores.size(), start, end);
+    return ticketXCategoryScores;
+  }
+  
+  /**
+   * {@link #getTicketCategoryScores(LocalDate, LocalDate)} on the {@link ServiceExecutor}.
+   */
+  public CompletableFuture<List<TicketXCategoryScores>> getTicketCategoryScoresAsync(LocalDate start, LocalDate end) {
+    return CompletableFuture.supplyAsync(() -> getTicketCategoryScores(start, end), serviceExecutor);
+  }
+  
+  /**
+   * Scores one page of the rated tickets created between start and end (inclusive), in the order of
+   * {@link #getTicketCategoryScores(LocalDate, LocalDate)}. Only the tickets of the page are read and scored,
+   * so a page costs the same regardless of its position in the range.
+   *
+   * @param after    last ticket of the previous page, null for the first page
+   * @param pageSize maximum number of rows, positive
+   * @return the rows of the page and the ticket the next page starts after
+   */
+  public TicketCategoryMatrixPage getTicketCategoryScoresPage(LocalDate start, LocalDate end, RatedTicket after, int pageSize) {
+    // One ticket more than the page tells whether another page follows
+    var tickets = getRatedTicketsPage(start, end, after, pageSize + 1);
+    var hasNext = tickets.size() > pageSize;
+    var pageTickets = hasNext ? tickets.subList(0, pageSize) : tickets;
+    var rows = getTicketCategoryScores(pageTickets.stream().map(RatedTicket::ticketId).toList());
+    LOG.debug("Calculated {} score of tickets between {} and {} after {}", rows.size(), start, end, after);
+    return TicketCategoryMatrixPage.of(rows, hasNext ? pageTickets.getLast() : null);
+  }
+  
+  /**
+   * {@link #getTicketCategoryScoresPage(LocalDate, LocalDate, RatedTicket, int)} on the {@link ServiceExecutor}.
+   */
+  public CompletableFuture<TicketCategoryMatrixPage> getTicketCategoryScoresPageAsync(LocalDate start, LocalDate end, RatedTicket after, int pageSize) {
+    return CompletableFuture.supplyAsync(() -> getTicketCategoryScoresPage(start, end, after, pageSize), serviceExecutor);
+  }
+  
+  /**
+   * @return ids of rated tickets created between start and end (inclusive), ordered by creation time
+   */
+  public List<Integer> getRatedTickets(LocalDate start, LocalDate end) {
     var tickets = ratingDao.fetchRatedTickets(start, end);
     LOG.debug("Found {} rated tickets between {} and {}", tickets.size(), start, end);
-    var ticketXCategoryScores = tickets.stream()
-        .map(ticketId -> cacheStore.getOrCalculate(ticketId, this::calculate))
+    return tickets;
+  }
+  
+  /**
+   * Keyset page of {@link #getRatedTickets(LocalDate, LocalDate)}, read from the index where the previous page ended.
+   *
+   * @param after last ticket of the previous page, null for the first page
+   * @param limit maximum number of tickets
+   * @return rated tickets created between start and end (inclusive) after {@code after}, ordered by creation time
+   */
+  public List<RatedTicket> getRatedTicketsPage(LocalDate start, LocalDate end, RatedTicket after, int limit) {
+    if (after == null) {
+      return ratingDao.fetchRatedTicketsPage(start, end, null, null, limit);
+    }
+    // Earlier dates are before the keyset, so the index range starts at the date of the last ticket
+    var afterDate = LocalDate.ofEpochDay(Math.floorDiv(after.createdEpochSecond(), SECONDS_PER_DAY));
+    var from = afterDate.isAfter(start) ? afterDate : start;
+    return ratingDao.fetchRatedTicketsPage(from, end, after.createdEpochSecond(), after.ticketId(), limit);
+  }
+  
+  /**
+   * Scores the given tickets, in the given order. Used directly to score a large range chunk by chunk.
+   *
+   * @param tickets ticket ids
+   * @return score rows of the tickets that have ratings
+   */
+  public List<TicketXCategoryScores> getTicketCategoryScores(List<Integer> tickets) {
+    var loaded = loadUncached(tickets);
+    return tickets.stream()
+        .map(ticketId -> loaded.containsKey(ticketId) ? loaded.get(ticketId) : cacheStore.getOrCalculate(ticketId, this::calculate))
         .filter(Objects::nonNull)
         .toList();
-    LOG.debug("Calculated {} score of tickets between {} and {}", ticketXCategoryScores.size(), start, end);
-    return ticketXCategoryScores;
+  }
+  
+  /**
+   * Loads the ratings of all uncached tickets in bulk and fills their cache entries.
+   * The calculated rows are returned as well, since the cache may already have evicted
+   * some of them when more tickets are loaded than it can hold.
+   * Many uncached tickets are split into chunks loaded in parallel on the {@link ComputePool}.
+   *
+   * @return ticketId → calculated row (null for tickets without ratings)
+   */
+  private Map<Integer, TicketXCategoryScores> loadUncached(List<Integer> tickets) {
+    var uncachedTickets = tickets.stream()
+        .filter(ticketId -> !cacheStore.isCached(ticketId))
+        .toList();
+    var loaded = new HashMap<Integer, TicketXCategoryScores>();
+    if (uncachedTickets.isEmpty()) {
+      return loaded;
+    }
+    
+    cacheStore.recordBulkLoad(uncachedTickets.size());
+    computePool.map(uncachedTickets, computePool.properties().minTicketsPerTask(), this::load).forEach(loaded::putAll);
+    return loaded;
+  }
+  
+  private Map<Integer, TicketXCategoryScores> load(List<Integer> uncachedTickets) {
+    var loaded = new HashMap<Integer, TicketXCategoryScores>();
+    var loadedAtVersion = cacheStore.writeVersion();
+    var ratingMaps = ratingStatsDao.fetchRatingMapsByTicketIds(uncachedTickets);
+    LOG.debug("Loaded ratings of {} uncached tickets", ratingMaps.size());
+    
+    var weights = CategoryWeights.of(ratingDao.getCategoryWeightMap());
+    uncachedTickets.forEach(ticketId -> {
+      var ticketXCategoryScores = calculate(ticketId, ratingMaps.getOrDefault(ticketId, Map.of()), weights);
+      cacheStore.put(ticketId, ticketXCategoryScores, loadedAtVersion);
+      loaded.put(ticketId, ticketXCategoryScores);
+    });
+    return loaded;
   }
   
   @Override
   public TicketXCategoryScores calculate(Integer ticketId) {
     LOG.debug("Starting ticket x category score calculation for ticketId={}", ticketId);
     var ratingMap = getRatingMap(ticketId);
-    var weightMap = ratingDao.getCategoryWeightMap();
-    
+    return calculate(ticketId, ratingMap, CategoryWeights.of(ratingDao.getCategoryWeightMap()));
+  }
+  
+  private TicketXCategoryScores calculate(
+      Integer ticketId,
+      Map<Integer, BigDecimal> ratingMap,
+      CategoryWeights weights
+  ) {
     if (ratingMap.isEmpty()) {
       LOG.debug("No ratings found for ticketId={}", ticketId);
       return null;
     } else {
       var ticketXCategoryScores = TicketXCategoryScores.of(
           ticketId,
-          weightMap                             // iterate over each category
+          weights.weightMap()                   // iterate over each category
               .keySet()
               .stream()
               .filter(ratingMap::containsKey)   // check if ticket has rating for that category
               .map(categoryId -> {      // calculate score
-                var score = ScoreCalculator.calculateScore(
-                    Map.of(categoryId, ratingMap.get(categoryId)),
-                    weightMap
-                ).setScale(6, RoundingMode.HALF_EVEN);
+                var rating = ratingMap.get(categoryId);
+                // Ratings are whole numbers: a single rating is a rating sum over a count of 1
+                var score = weights.calculateCategoryScore(categoryId, rating.longValueExact(), 1, rating)
+                    .setScale(6, RoundingMode.HALF_EVEN);
                 return CategoryScoreByTicket.of(categoryId, score);
               })
               .toList()
@@ -73,9 +196,6 @@ public class TicketCategoryMatrixService implements TicketCategoryMatrixCalculat
   
   private Map<Integer, BigDecimal> getRatingMap(Integer ticketId) {
     LOG.debug("Fetching ratings: ticketId={}", ticketId);
-    return ratingDao
-        .fetchRatingsByTicketId(ticketId)
-        .stream()
-        .collect(Collectors.toMap(Rating::ratingCategoryId, Rating::rating));
+    return ratingStatsDao.fetchRatingMapByTicketId(ticketId);
   }
 }
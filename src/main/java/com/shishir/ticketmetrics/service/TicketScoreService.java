@@ -2,17 +2,20 @@ package com.shishir.ticketmetrics.service;
 
 import com.shishir.ticketmetrics.cache.fn.TicketScoreCalculator;
 import com.shishir.ticketmetrics.cache.store.TicketScoreCacheStore;
-import com.shishir.ticketmetrics.calculator.ScoreCalculator;
+import com.shishir.ticketmetrics.calculator.CategoryWeights;
+import com.shishir.ticketmetrics.concurrency.ComputePool;
 import com.shishir.ticketmetrics.persistence.dao.RatingDao;
-import com.shishir.ticketmetrics.persistence.model.Rating;
+import com.shishir.ticketmetrics.persistence.dao.RatingStatsDao;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 public class TicketScoreService implements TicketScoreCalculator {
@@ -21,10 +24,14 @@ public class TicketScoreService implements TicketScoreCalculator {
   
   private final TicketScoreCacheStore cacheStore;
   private final RatingDao ratingDao;
+  private final RatingStatsDao ratingStatsDao;
+  private final ComputePool computePool;
   
-  public TicketScoreService(TicketScoreCacheStore cacheStore, RatingDao ratingDao) {
+  public TicketScoreService(TicketScoreCacheStore cacheStore, RatingDao ratingDao, RatingStatsDao ratingStatsDao, ComputePool computePool) {
     this.cacheStore = cacheStore;
     this.ratingDao = ratingDao;
+    this.ratingStatsDao = ratingStatsDao;
+    this.computePool = computePool;
   }
   
   /**
@@ -37,13 +44,77 @@ public class TicketScoreService implements TicketScoreCalculator {
     return cacheStore.getOrCalculate(ticketId, this::calculate);
   }
   
+  /**
+   * Scores of several tickets: cached ones from the cache, all others loaded in bulk and cached,
+   * with one {@code IN} query per chunk of {@link RatingDao#TICKET_ID_CHUNK_SIZE} tickets.
+   *
+   * @param ticketIds distinct ticket ids
+   * @return ticketId → score in the order of {@code ticketIds}, 0 for tickets without ratings
+   */
+  public Map<Integer, BigDecimal> getTicketScores(List<Integer> ticketIds) {
+    var cached = cacheStore.getAllPresent(ticketIds);
+    var uncachedTickets = ticketIds.stream()
+        .filter(ticketId -> !cached.containsKey(ticketId))
+        .toList();
+    var loaded = uncachedTickets.isEmpty() ? Map.<Integer, BigDecimal>of() : load(uncachedTickets);
+    LOG.debug("Scored {} tickets, {} from cache", ticketIds.size(), cached.size());
+    
+    var scores = new LinkedHashMap<Integer, BigDecimal>();
+    ticketIds.forEach(ticketId -> scores.put(ticketId, cached.containsKey(ticketId) ? cached.get(ticketId) : loaded.get(ticketId)));
+    return scores;
+  }
+  
+  /**
+   * Loads the ratings of all uncached tickets in bulk and fills their cache entries, e.g. to warm up the cache.
+   *
+   * @param ticketIds ticket ids
+   * @return number of tickets that were not cached before
+   */
+  public int loadTicketScores(List<Integer> ticketIds) {
+    var uncachedTickets = ticketIds.stream()
+        .filter(ticketId -> !cacheStore.isCached(ticketId))
+        .toList();
+    if (uncachedTickets.isEmpty()) {
+      return 0;
+    }
+    
+    load(uncachedTickets);
+    return uncachedTickets.size();
+  }
+  
+  /**
+   * Scores and caches the given uncached tickets, in parallel chunks on the {@link ComputePool} when there are many.
+   * The scores are returned as well, since the cache may already have evicted some of them.
+   */
+  private Map<Integer, BigDecimal> load(List<Integer> uncachedTickets) {
+    cacheStore.recordBulkLoad(uncachedTickets.size());
+    var scores = new HashMap<Integer, BigDecimal>();
+    computePool.map(uncachedTickets, computePool.properties().minTicketsPerTask(), this::loadChunk).forEach(scores::putAll);
+    LOG.debug("Loaded scores of {} uncached tickets", uncachedTickets.size());
+    return scores;
+  }
+  
+  private Map<Integer, BigDecimal> loadChunk(List<Integer> uncachedTickets) {
+    var loadedAtVersion = cacheStore.writeVersion();
+    var ratingMaps = ratingStatsDao.fetchRatingMapsByTicketIds(uncachedTickets);
+    var weights = CategoryWeights.of(ratingDao.getCategoryWeightMap());
+    var scores = new HashMap<Integer, BigDecimal>();
+    uncachedTickets.forEach(ticketId -> {
+      var score = calculate(ticketId, ratingMaps.getOrDefault(ticketId, Map.of()), weights);
+      cacheStore.put(ticketId, score, loadedAtVersion);
+      scores.put(ticketId, score);
+    });
+    return scores;
+  }
+  
   @Override
   public BigDecimal calculate(Integer ticketId) {
     LOG.debug("Calculating score: ticketId={}", ticketId);
-    
-    var ratingMap = getRatingMap(ticketId);
-    var weightMap = ratingDao.getCategoryWeightMap();
-    var score = ScoreCalculator.calculateScore(ratingMap, weightMap)
+    return calculate(ticketId, getRatingMap(ticketId), CategoryWeights.of(ratingDao.getCategoryWeightMap()));
+  }
+  
+  private BigDecimal calculate(Integer ticketId, Map<Integer, BigDecimal> ratingMap, CategoryWeights weights) {
+    var score = weights.calculateScore(ratingMap)
         .setScale(6, RoundingMode.HALF_EVEN);
     
     LOG.debug("Calculated score={}, ticketId={}", score, ticketId);
@@ -52,9 +123,6 @@ public class TicketScoreService implements TicketScoreCalculator {
   
   private Map<Integer, BigDecimal> getRatingMap(Integer ticketId) {
     LOG.debug("Fetching ratings: ticketId={}", ticketId);
-    return ratingDao
-        .fetchRatingsByTicketId(ticketId)
-        .stream()
-        .collect(Collectors.toMap(Rating::ratingCategoryId, Rating::rating));
+    return ratingStatsDao.fetchRatingMapByTicketId(ticketId);
   }
 }
@@ -0,0 +1,62 @@
+package com.shishir.ticketmetrics.service.support;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.function.Predicate;
+
+/**
+ * Decides how the uncached days of a date range are loaded.
+ *
+ * <p>
+ * When only a few days are missing they are loaded one by one through the per-day cache.
+ * Otherwise all missing days are loaded with a single aggregate query spanning the first
+ * to the last missing day, which replaces one SQL statement per day with one in total.
+ */
+@Component
+public class DateRangeLoadPlanner {
+  private static final Logger LOG = LoggerFactory.getLogger(DateRangeLoadPlanner.class);
+  
+  private final RangeScanProperties properties;
+  
+  public DateRangeLoadPlanner(RangeScanProperties properties) {
+    this.properties = properties;
+  }
+  
+  public Plan plan(List<LocalDate> dates, Predicate<LocalDate> isCached) {
+    var missingDates = dates.stream()
+        .filter(isCached.negate())
+        .toList();
+    var rangeScan = !missingDates.isEmpty() && missingDates.size() >= properties.minMissingDays();
+    LOG.debug("Planned dates={}, missingDates={}, rangeScan={}", dates.size(), missingDates.size(), rangeScan);
+    return new Plan(missingDates, rangeScan);
+  }
+  
+  /**
+   * Plans the load of dates already known to be uncached, as handed to a store's bulk loader.
+   */
+  public Plan plan(SortedSet<LocalDate> missingDates) {
+    return plan(List.copyOf(missingDates), date -> false);
+  }
+  
+  /**
+   * @param missingDates uncached dates, in ascending order
+   * @param rangeScan    true when missing dates should be loaded with one range query
+   */
+  public record Plan(
+      List<LocalDate> missingDates,
+      boolean rangeScan
+  ) {
+    public LocalDate firstMissingDate() {
+      return missingDates.getFirst();
+    }
+    
+    public LocalDate lastMissingDate() {
+      return missingDates.getLast();
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package com.shishir.ticketmetrics.service.support;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param minMissingDays smallest number of uncached days that is loaded with one range query
+ *                       instead of one query per day
+ */
+@ConfigurationProperties(prefix = "ticket-metrics.range-scan")
+public record RangeScanProperties(
+    @DefaultValue("2") int minMissingDays
+) {
+}
@@ -0,0 +1,8 @@
+-- Covers the rating date aggregations (RatingStatsDao) without touching the table
+CREATE INDEX IF NOT EXISTS idx_ratings_created_at_category_rating ON ratings (created_at, rating_category_id, rating);
+
+-- Per-ticket rating lookups and the rated tickets semi-join
+CREATE INDEX IF NOT EXISTS idx_ratings_ticket_id ON ratings (ticket_id);
+
+-- Ticket creation date range for the ticket category matrix
+CREATE INDEX IF NOT EXISTS idx_tickets_created_at ON tickets (created_at);
@@ -0,0 +1,108 @@
+-- Every statement is followed by an end marker comment, tests run this script with that marker as separator
+-- because trigger bodies contain semicolons
+
+-- Per day and category rating totals, read by RatingStatsDao instead of aggregating ratings
+CREATE TABLE daily_category_stats (
+    day text NOT NULL,
+    category_id integer NOT NULL,
+    rating_count integer NOT NULL,
+    rating_sum integer NOT NULL,
+    PRIMARY KEY (day, category_id)
+) WITHOUT ROWID;
+-- end statement
+
+-- Per ticket and category rating totals, read by RatingStatsDao instead of the ticket's ratings
+CREATE TABLE ticket_category_stats (
+    ticket_id integer NOT NULL,
+    category_id integer NOT NULL,
+    rating_count integer NOT NULL,
+    rating_sum integer NOT NULL,
+    PRIMARY KEY (ticket_id, category_id)
+) WITHOUT ROWID;
+-- end statement
+
+-- Backfill from existing ratings, RatingStatsBackfill repeats this for databases changed without the triggers
+INSERT INTO daily_category_stats (day, category_id, rating_count, rating_sum)
+SELECT DATE(created_at), rating_category_id, COUNT(*), SUM(rating)
+FROM ratings
+WHERE DATE(created_at) IS NOT NULL
+GROUP BY DATE(created_at), rating_category_id;
+-- end statement
+
+INSERT INTO ticket_category_stats (ticket_id, category_id, rating_count, rating_sum)
+SELECT ticket_id, rating_category_id, COUNT(*), SUM(rating)
+FROM ratings
+GROUP BY ticket_id, rating_category_id;
+-- end statement
+
+-- Keep both tables current on every write to ratings, ratings without a parsable created_at have no day
+CREATE TRIGGER ratings_stats_after_insert AFTER INSERT ON ratings
+BEGIN
+    INSERT INTO daily_category_stats (day, category_id, rating_count, rating_sum)
+    SELECT DATE(NEW.created_at), NEW.rating_category_id, 1, NEW.rating
+    WHERE DATE(NEW.created_at) IS NOT NULL
+    ON CONFLICT (day, category_id) DO UPDATE
+        SET rating_count = rating_count + 1,
+            rating_sum = rating_sum + excluded.rating_sum;
+
+    INSERT INTO ticket_category_stats (ticket_id, category_id, rating_count, rating_sum)
+    VALUES (NEW.ticket_id, NEW.rating_category_id, 1, NEW.rating)
+    ON CONFLICT (ticket_id, category_id) DO UPDATE
+        SET rating_count = rating_count + 1,
+            rating_sum = rating_sum + excluded.rating_sum;
+END;
+-- end statement
+
+CREATE TRIGGER ratings_stats_after_delete AFTER DELETE ON ratings
+BEGIN
+    UPDATE daily_category_stats
+    SET rating_count = rating_count - 1,
+        rating_sum = rating_sum - OLD.rating
+    WHERE day = DATE(OLD.created_at) AND category_id = OLD.rating_category_id;
+
+    DELETE FROM daily_category_stats
+    WHERE day = DATE(OLD.created_at) AND category_id = OLD.rating_category_id AND rating_count = 0;
+
+    UPDATE ticket_category_stats
+    SET rating_count = rating_count - 1,
+        rating_sum = rating_sum - OLD.rating
+    WHERE ticket_id = OLD.ticket_id AND category_id = OLD.rating_category_id;
+
+    DELETE FROM ticket_category_stats
+    WHERE ticket_id = OLD.ticket_id AND category_id = OLD.rating_category_id AND rating_count = 0;
+END;
+-- end statement
+
+-- An update moves the rating out of its old totals and into its new ones
+CREATE TRIGGER ratings_stats_after_update AFTER UPDATE OF rating, ticket_id, rating_category_id, created_at ON ratings
+BEGIN
+    UPDATE daily_category_stats
+    SET rating_count = rating_count - 1,
+        rating_sum = rating_sum - OLD.rating
+    WHERE day = DATE(OLD.created_at) AND category_id = OLD.rating_category_id;
+
+    DELETE FROM daily_category_stats
+    WHERE day = DATE(OLD.created_at) AND category_id = OLD.rating_category_id AND rating_count = 0;
+
+    UPDATE ticket_category_stats
+    SET rating_count = rating_count - 1,
+        rating_sum = rating_sum - OLD.rating
+    WHERE ticket_id = OLD.ticket_id AND category_id = OLD.rating_category_id;
+
+    DELETE FROM ticket_category_stats
+    WHERE ticket_id = OLD.ticket_id AND category_id = OLD.rating_category_id AND rating_count = 0;
+
+    INSERT INTO daily_category_stats (day, category_id, rating_count, rating_sum)
+    SELECT DATE(NEW.created_at), NEW.rating_category_id, 1, NEW.rating
+    WHERE DATE(NEW.created_at) IS NOT NULL
+    ON CONFLICT (day, category_id) DO UPDATE
+        SET rating_count = rating_count + 1,
+            rating_sum = rating_sum + excluded.rating_sum;
+
+    INSERT INTO ticket_category_stats (ticket_id, category_id, rating_count, rating_sum)
+    VALUES (NEW.ticket_id, NEW.rating_category_id, 1, NEW.rating)
+    ON CONFLICT (ticket_id, category_id) DO UPDATE
+        SET rating_count = rating_count + 1,
+            rating_sum = rating_sum + excluded.rating_sum;
+END;
+-- end statement
@@ -0,0 +1,3 @@
+-- Rated ticket range, keyset and order of the ticket category matrix, by creation time in epoch seconds.
+-- The text order of created_at differs from it for fractional seconds and other timestamp formats.
+CREATE INDEX IF NOT EXISTS idx_tickets_created_epoch_second_id ON tickets (CAST(strftime('%s', created_at) AS INTEGER), id);
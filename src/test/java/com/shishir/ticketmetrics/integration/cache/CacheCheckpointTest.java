@@ -0,0 +1,132 @@
+package com.shishir.ticketmetrics.integration.cache;
+
+import com.shishir.ticketmetrics.cache.checkpoint.CacheCheckpoint;
+import com.shishir.ticketmetrics.cache.store.CategoryScoreRollupCacheStore;
+import com.shishir.ticketmetrics.cache.store.OverallDailyScoreCacheStore;
+import com.shishir.ticketmetrics.model.TimelineGranularity;
+import com.shishir.ticketmetrics.model.TimelinePeriod;
+import com.shishir.ticketmetrics.persistence.model.NewRating;
+import com.shishir.ticketmetrics.service.GetCategoryTimelineScoreService;
+import com.shishir.ticketmetrics.service.OverallScoreService;
+import com.shishir.ticketmetrics.service.RatingIngestionService;
+import com.shishir.ticketmetrics.service.TicketCategoryMatrixService;
+import com.shishir.ticketmetrics.service.TicketScoreService;
+import com.shishir.ticketmetrics.testsupport.annotation.IntegrationTest;
+import com.shishir.ticketmetrics.testsupport.annotation.RatingStatsSchema;
+import com.shishir.ticketmetrics.testsupport.utl.CacheTestUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "ticket-metrics.cache-checkpoint.file=" + CacheCheckpointTest.FILE)
+@IntegrationTest
+@Sql(scripts = {"/sql/schema.sql", "/sql/test_data_get_overall_quality_score.sql"},
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@RatingStatsSchema
+public class CacheCheckpointTest {
+  static final String FILE = "build/tmp/cache-checkpoint-test.bin";
+  
+  private static final LocalDate DAY_1 = LocalDate.parse("2025-07-01");
+  private static final LocalDate DAY_3 = LocalDate.parse("2025-07-03");
+  
+  @Autowired
+  private CacheCheckpoint cacheCheckpoint;
+  
+  @Autowired
+  private CacheManager cacheManager;
+  
+  @Autowired
+  private OverallScoreService overallScoreService;
+  
+  @Autowired
+  private GetCategoryTimelineScoreService getCategoryTimelineScoreService;
+  
+  @Autowired
+  private TicketScoreService ticketScoreService;
+  
+  @Autowired
+  private TicketCategoryMatrixService ticketCategoryMatrixService;
+  
+  @Autowired
+  private RatingIngestionService ratingIngestionService;
+  
+  @Autowired
+  private OverallDailyScoreCacheStore overallDailyScoreCacheStore;
+  
+  @AfterEach
+  void cleanup() throws IOException {
+    CacheTestUtil.clearCache(cacheManager);
+    Files.deleteIfExists(Path.of(FILE));
+  }
+  
+  @Test
+  void restoresCachedScoresOfUnchangedRatings() throws IOException {
+    var overallScore = overallScoreService.getOverallScore(DAY_1, DAY_3);
+    var timeline = getCategoryTimelineScoreService.getCategoryTimelineScores(DAY_1, DAY_3);
+    var ticketScore = ticketScoreService.getTicketScore(202);
+    var ticketCategoryScores = ticketCategoryMatrixService.getTicketCategoryScores(DAY_1, DAY_3);
+    
+    assertThat(cacheCheckpoint.checkpoint()).isTrue();
+    CacheTestUtil.clearCache(cacheManager);
+    
+    // 3 days in both date caches, 1 ticket score and 3 ticket rows
+    assertThat(cacheCheckpoint.restore()).isEqualTo(10);
+    assertThat(cacheManager.getCache("categoryScoreByRatingDate").get(DAY_3)).isNotNull();
+    assertThat(overallDailyScoreCacheStore.sum(DAY_1, DAY_3).covers(DAY_1, DAY_3)).isTrue();
+    assertThat(overallScoreService.getOverallScore(DAY_1, DAY_3)).isEqualTo(overallScore);
+    assertThat(getCategoryTimelineScoreService.getCategoryTimelineScores(DAY_1, DAY_3)).isEqualTo(timeline);
+    assertThat(ticketScoreService.getTicketScore(202)).isEqualTo(ticketScore);
+    assertThat(ticketCategoryMatrixService.getTicketCategoryScores(DAY_1, DAY_3)).isEqualTo(ticketCategoryScores);
+  }
+  
+  @Test
+  void restoresCachedRollups() throws IOException {
+    var julyStart = LocalDate.parse("2025-07-01");
+    var julyEnd = LocalDate.parse("2025-07-31");
+    var timeline = getCategoryTimelineScoreService.getCategoryTimelineScores(julyStart, julyEnd, TimelineGranularity.MONTH, 0);
+    
+    assertThat(cacheCheckpoint.checkpoint()).isTrue();
+    CacheTestUtil.clearCache(cacheManager);
+    
+    assertThat(cacheCheckpoint.restore()).isPositive();
+    assertThat(cacheManager.getCache(CategoryScoreRollupCacheStore.CACHE_NAME).get(TimelinePeriod.of(TimelineGranularity.MONTH, julyStart))).isNotNull();
+    assertThat(getCategoryTimelineScoreService.getCategoryTimelineScores(julyStart, julyEnd, TimelineGranularity.MONTH, 0)).isEqualTo(timeline);
+  }
+  
+  @Test
+  void keepsEntriesCachedBeforeRestore() throws IOException {
+    overallScoreService.getOverallScore(DAY_1, DAY_3);
+    cacheCheckpoint.checkpoint();
+    
+    assertThat(cacheCheckpoint.restore()).isZero();
+  }
+  
+  @Test
+  void ignoresCheckpointOfOutdatedRatings() throws IOException {
+    overallScoreService.getOverallScore(DAY_1, DAY_3);
+    cacheCheckpoint.checkpoint();
+    
+    ratingIngestionService.recordRatings(List.of(NewRating.of(203, 4, 0, 1, 2, LocalDateTime.parse("2025-07-03T12:00:00"))));
+    CacheTestUtil.clearCache(cacheManager);
+    
+    assertThat(cacheCheckpoint.restore()).isZero();
+    assertThat(cacheManager.getCache(OverallDailyScoreCacheStore.CACHE_NAME).get(DAY_1)).isNull();
+  }
+  
+  @Test
+  void ignoresMissingCheckpoint() {
+    assertThat(cacheCheckpoint.restore()).isZero();
+  }
+}
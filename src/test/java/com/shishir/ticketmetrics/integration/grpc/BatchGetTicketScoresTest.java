@@ -0,0 +1,117 @@
+package com.shishir.ticketmetrics.integration.grpc;
+
+import com.shishir.ticketmetrics.cache.store.SingleFlightLoader;
+import com.shishir.ticketmetrics.cache.store.TicketScoreCacheStore;
+import com.shishir.ticketmetrics.generated.grpc.TicketMetricsServiceGrpc;
+import com.shishir.ticketmetrics.generated.grpc.TicketScore;
+import com.shishir.ticketmetrics.testsupport.annotation.IntegrationTest;
+import com.shishir.ticketmetrics.testsupport.annotation.RatingStatsSchema;
+import com.shishir.ticketmetrics.testsupport.utl.CacheTestUtil;
+import com.shishir.ticketmetrics.testsupport.utl.GrpcTestUtil;
+import io.grpc.ManagedChannel;
+import io.grpc.StatusRuntimeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.grpc.test.LocalGrpcPort;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@IntegrationTest
+@Sql(scripts = {"/sql/schema.sql", "/sql/test_data_get_ticket_score.sql"},
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@RatingStatsSchema
+class BatchGetTicketScoresTest {
+  
+  @LocalGrpcPort
+  int port;
+  
+  @Autowired
+  private CacheManager cacheManager;
+  
+  @Autowired
+  private SingleFlightLoader singleFlightLoader;
+  
+  private ManagedChannel channel;
+  private TicketMetricsServiceGrpc.TicketMetricsServiceBlockingStub grpcStub;
+  
+  @BeforeEach
+  void setup() {
+    channel = GrpcTestUtil.buildManagedChannel(port);
+    grpcStub = GrpcTestUtil.buildServiceStub(channel);
+  }
+  
+  @AfterEach
+  void shutdown() {
+    channel.shutdownNow();
+    CacheTestUtil.clearCache(cacheManager);
+  }
+  
+  @Test
+  void shouldFail_whenEmptyRequest() {
+    var request = GrpcTestUtil.buildBatchGetTicketScoresRequest(List.of());
+    
+    assertThatThrownBy(() -> grpcStub.batchGetTicketScores(request))
+        .isInstanceOf(StatusRuntimeException.class)
+        .hasMessageContaining("INVALID_ARGUMENT: ticket_ids must not be empty");
+  }
+  
+  @Test
+  void shouldFail_whenTicketIdInvalid() {
+    var request = GrpcTestUtil.buildBatchGetTicketScoresRequest(List.of(201, 0));
+    
+    assertThatThrownBy(() -> grpcStub.batchGetTicketScores(request))
+        .isInstanceOf(StatusRuntimeException.class)
+        .hasMessageContaining("INVALID_ARGUMENT: ticket_ids must be a positive number");
+  }
+  
+  @Test
+  void shouldFail_whenTooManyTicketIds() {
+    var request = GrpcTestUtil.buildBatchGetTicketScoresRequest(Collections.nCopies(10_001, 201));
+    
+    assertThatThrownBy(() -> grpcStub.batchGetTicketScores(request))
+        .isInstanceOf(StatusRuntimeException.class)
+        .hasMessageContaining("INVALID_ARGUMENT: ticket_ids must not contain more than 10000 ids but had 10001");
+  }
+  
+  @Test
+  void canGetTicketScoresInRequestOrder() {
+    var request = GrpcTestUtil.buildBatchGetTicketScoresRequest(List.of(203, 201, 999, 203, 202));
+    
+    var response = grpcStub.batchGetTicketScores(request);
+    
+    assertThat(response.getScoresList())
+        .extracting(TicketScore::getTicketId, TicketScore::getScore)
+        .containsExactly(
+            tuple(203, 93d),
+            tuple(201, 89d),
+            tuple(999, 0d),
+            tuple(202, 48d)
+        );
+  }
+  
+  @Test
+  void loadsMissesOnceAndServesHitsFromCache() {
+    var before = singleFlightLoader.stats(TicketScoreCacheStore.CACHE_NAME);
+    grpcStub.getTicketScore(GrpcTestUtil.buildGetTicketScoreRequest(201));
+    
+    var response = grpcStub.batchGetTicketScores(GrpcTestUtil.buildBatchGetTicketScoresRequest(List.of(201, 202, 203)));
+    grpcStub.batchGetTicketScores(GrpcTestUtil.buildBatchGetTicketScoresRequest(List.of(201, 202, 203)));
+    
+    assertThat(response.getScoresCount()).isEqualTo(3);
+    var after = singleFlightLoader.stats(TicketScoreCacheStore.CACHE_NAME);
+    // One load for GetTicketScore, one bulk load of the two misses
+    assertThat(after.loads() - before.loads()).isEqualTo(2);
+    assertThat(after.misses() - before.misses()).isEqualTo(3);
+  }
+}
@@ -3,6 +3,7 @@ package com.shishir.ticketmetrics.integration.grpc;
 
 import com.shishir.ticketmetrics.generated.grpc.TicketMetricsServiceGrpc;
 import com.shishir.ticketmetrics.testsupport.annotation.IntegrationTest;
+import com.shishir.ticketmetrics.testsupport.annotation.RatingStatsSchema;
 import com.shishir.ticketmetrics.testsupport.utl.CacheTestUtil;
 import com.shishir.ticketmetrics.testsupport.utl.GrpcTestUtil;
 import io.grpc.ManagedChannel;
@@ -29,6 +30,7 @@ import static org.junit.jupiter.params.provider.Arguments.arguments;
 @IntegrationTest
 @Sql(scripts = {"/sql/schema.sql", "/sql/test_data_compare_period_scores.sql"},
     executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@RatingStatsSchema
 class ComparePeriodScoresTest {
   
   @LocalGrpcPort
@@ -1,7 +1,11 @@
 package com.shishir.ticketmetrics.integration.grpc;
 
+import com.shishir.ticketmetrics.generated.grpc.CategoryTimelineResponse;
 import com.shishir.ticketmetrics.generated.grpc.TicketMetricsServiceGrpc;
+import com.shishir.ticketmetrics.generated.grpc.TimelineGranularity;
 import com.shishir.ticketmetrics.testsupport.annotation.IntegrationTest;
+import com.shishir.ticketmetrics.testsupport.annotation.RatingStatsSchema;
+import com.shishir.ticketmetrics.testsupport.utl.CacheTestUtil;
 import com.shishir.ticketmetrics.testsupport.utl.GrpcTestUtil;
 import io.grpc.ManagedChannel;
 import io.grpc.StatusRuntimeException;
@@ -11,12 +15,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.grpc.test.LocalGrpcPort;
 import org.springframework.test.context.jdbc.Sql;
 
 import java.util.List;
-import java.util.Objects;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -27,10 +32,14 @@ import static org.junit.jupiter.params.provider.Arguments.arguments;
 @IntegrationTest
 @Sql(scripts = {"/sql/schema.sql", "/sql/test_data_category_timeline.sql"},
     executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@RatingStatsSchema
 public class GetCategoryTimelineScoresTest {
   @LocalGrpcPort
   int port;
   
+  @Autowired
+  private CacheManager cacheManager;
+  
   private ManagedChannel channel;
   private TicketMetricsServiceGrpc.TicketMetricsServiceBlockingStub grpcStub;
   
@@ -43,6 +52,7 @@ public class GetCategoryTimelineScoresTest {
   @AfterEach
   void shutdown() {
     channel.shutdownNow();
+    CacheTestUtil.clearCache(cacheManager);
   }
   
   @Test
@@ -79,6 +89,15 @@ public class GetCategoryTimelineScoresTest {
         .hasMessageContaining("INVALID_ARGUMENT: End date must not be before startDate date");
   }
   
+  @Test
+  void shouldFail_whenNegativeMaxPoints() {
+    var request = GrpcTestUtil.buildGetCategoryTimelineScoresRequest("2025-07-01T00:00:00", "2025-07-04T00:00:00", TimelineGranularity.TIMELINE_GRANULARITY_DAY, -1);
+    
+    assertThatThrownBy(() -> grpcStub.getCategoryTimelineScores(request))
+        .isInstanceOf(StatusRuntimeException.class)
+        .hasMessageContaining("INVALID_ARGUMENT: max_points must not be negative but was -1");
+  }
+  
   @ParameterizedTest
   @MethodSource("categoryTimelineCasesTestData")
   void canGetCategoryTimelineScores(
@@ -89,7 +108,27 @@ public class GetCategoryTimelineScoresTest {
     
     var response = grpcStub.getCategoryTimelineScores(request);
     
+    assertScores(response, expectedScores);
+  }
+  
+  @ParameterizedTest
+  @MethodSource("categoryTimelineGranularityCasesTestData")
+  void canGetCategoryTimelineScoresWithGranularity(
+      String startDate,
+      String endDate,
+      TimelineGranularity granularity,
+      int maxPoints,
+      List<Expected> expectedScores) {
+    var request = GrpcTestUtil.buildGetCategoryTimelineScoresRequest(startDate, endDate, granularity, maxPoints);
+    
+    var response = grpcStub.getCategoryTimelineScores(request);
     
+    assertScores(response, expectedScores);
+    // Served from the cached rollups the second time
+    assertScores(grpcStub.getCategoryTimelineScores(request), expectedScores);
+  }
+  
+  private static void assertScores(CategoryTimelineResponse response, List<Expected> expectedScores) {
     // Transform response for comparison with expected output
     var actualScores = response.getScoresList().stream()
         .map(actualScore -> Expected.of(
@@ -102,27 +141,8 @@ public class GetCategoryTimelineScoresTest {
         ))
         .toList();
     
-    var categoryIds = actualScores.stream().map(it -> it.categoryId).toList();
-    
-    for (var categoryId : categoryIds) {
-      var actualScore = actualScores.stream().filter(it -> Objects.equals(it.categoryId, categoryId)).findFirst().get();
-      var expectedScore = expectedScores.stream().filter(it -> Objects.equals(it.categoryId, categoryId)).findFirst().get();
-      
-      assertThat(actualScore)
-          .satisfies(it -> {
-            assertThat(it.categoryId).isEqualTo(expectedScore.categoryId);
-            assertThat(it.averageScore).isEqualTo(expectedScore.averageScore);
-            assertThat(it.totalRatings).isEqualTo(expectedScore.totalRatings);
-            
-            // Check timelines
-            var actualTimeline = it.timeline;
-            var expectedTimeline = expectedScore.timeline;
-            
-            assertThat(actualTimeline)
-                .as("Category id = " + it.categoryId)
-                .containsExactlyInAnyOrderElementsOf(expectedTimeline);
-          });
-    }
+    // Categories are ordered by id and timelines by date
+    assertThat(actualScores).containsExactlyElementsOf(expectedScores);
   }
   
   static Stream<Arguments> categoryTimelineCasesTestData() {
@@ -149,21 +169,21 @@ public class GetCategoryTimelineScoresTest {
                 Expected.of(1, 7, 92d,
                     List.of(
                         ExpectedTimeline.of("2025-06-30", 90.0),
+                        ExpectedTimeline.of("2025-07-21", 100.0),
                         ExpectedTimeline.of("2025-07-28", 90.0),
-                        ExpectedTimeline.of("2025-08-11", 92.0),
-                        ExpectedTimeline.of("2025-09-08", 90.0),
-                        ExpectedTimeline.of("2025-07-21", 92.0)
+                        ExpectedTimeline.of("2025-08-11", 100.0),
+                        ExpectedTimeline.of("2025-09-08", 80.0)
                     )
                 ),
                 Expected.of(2, 7, 66d,
                     List.of(
+                        ExpectedTimeline.of("2025-06-30", 60.0),
                         ExpectedTimeline.of("2025-07-14", 80.0),
-                        ExpectedTimeline.of("2025-06-30", 70.0),
-                        ExpectedTimeline.of("2025-07-28", 67.0),
-                        ExpectedTimeline.of("2025-08-11", 65.0),
-                        ExpectedTimeline.of("2025-09-08", 64.0),
-                        ExpectedTimeline.of("2025-07-21", 63.0),
-                        ExpectedTimeline.of("2025-08-04", 66.0)
+                        ExpectedTimeline.of("2025-07-21", 60.0),
+                        ExpectedTimeline.of("2025-07-28", 60.0),
+                        ExpectedTimeline.of("2025-08-04", 80.0),
+                        ExpectedTimeline.of("2025-08-11", 60.0),
+                        ExpectedTimeline.of("2025-09-08", 60.0)
                     )
                 ),
                 Expected.of(3, 2, 40d,
@@ -177,6 +197,81 @@ public class GetCategoryTimelineScoresTest {
     );  // weekly
   }
   
+  static Stream<Arguments> categoryTimelineGranularityCasesTestData() {
+    var monthly = List.of(
+        Expected.of(1, 7, 92d,
+            List.of(
+                ExpectedTimeline.of("2025-07-01", 93.0),
+                ExpectedTimeline.of("2025-08-01", 93.0),
+                ExpectedTimeline.of("2025-09-01", 80.0)
+            )
+        ),
+        Expected.of(2, 7, 66d,
+            List.of(
+                ExpectedTimeline.of("2025-07-01", 67.0),
+                ExpectedTimeline.of("2025-08-01", 67.0),
+                ExpectedTimeline.of("2025-09-01", 60.0)
+            )
+        ),
+        Expected.of(3, 2, 40d,
+            List.of(
+                ExpectedTimeline.of("2025-07-01", 40.0),
+                ExpectedTimeline.of("2025-08-01", 40.0)
+            )
+        )
+    );
+    return Stream.of(
+        arguments(
+            "2025-07-01T00:00:00", "2025-09-30T23:59:59", TimelineGranularity.TIMELINE_GRANULARITY_MONTH, 0,
+            monthly
+        ),
+        // 92 days and 14 weeks exceed the limit, 3 months do not
+        arguments(
+            "2025-07-01T00:00:00", "2025-09-30T23:59:59", TimelineGranularity.TIMELINE_GRANULARITY_DAY, 5,
+            monthly
+        ),
+        // July is cut by the range start and merged from its remaining days
+        arguments(
+            "2025-07-02T00:00:00", "2025-08-31T23:59:59", TimelineGranularity.TIMELINE_GRANULARITY_MONTH, 0,
+            List.of(
+                Expected.of(1, 5, 98d,
+                    List.of(
+                        ExpectedTimeline.of("2025-07-01", 100.0),
+                        ExpectedTimeline.of("2025-08-01", 93.0)
+                    )
+                ),
+                Expected.of(2, 6, 67d,
+                    List.of(
+                        ExpectedTimeline.of("2025-07-01", 67.0),
+                        ExpectedTimeline.of("2025-08-01", 67.0)
+                    )
+                ),
+                Expected.of(3, 2, 40d,
+                    List.of(
+                        ExpectedTimeline.of("2025-07-01", 40.0),
+                        ExpectedTimeline.of("2025-08-01", 40.0)
+                    )
+                )
+            )
+        ),
+        arguments(
+            "2025-07-01T00:00:00", "2025-07-03T23:59:59", TimelineGranularity.TIMELINE_GRANULARITY_WEEK, 0,
+            List.of(
+                Expected.of(1, 2, 90d,
+                    List.of(
+                        ExpectedTimeline.of("2025-06-30", 90.0)
+                    )
+                ),
+                Expected.of(2, 1, 60d,
+                    List.of(
+                        ExpectedTimeline.of("2025-06-30", 60.0)
+                    )
+                )
+            )
+        )
+    );
+  }
+  
   record Expected(
       Integer categoryId,
       Integer totalRatings,
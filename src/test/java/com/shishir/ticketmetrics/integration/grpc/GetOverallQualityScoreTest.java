@@ -2,6 +2,7 @@ package com.shishir.ticketmetrics.integration.grpc;
 
 import com.shishir.ticketmetrics.generated.grpc.TicketMetricsServiceGrpc;
 import com.shishir.ticketmetrics.testsupport.annotation.IntegrationTest;
+import com.shishir.ticketmetrics.testsupport.annotation.RatingStatsSchema;
 import com.shishir.ticketmetrics.testsupport.utl.CacheTestUtil;
 import com.shishir.ticketmetrics.testsupport.utl.GrpcTestUtil;
 import io.grpc.ManagedChannel;
@@ -28,6 +29,7 @@ import static org.junit.jupiter.params.provider.Arguments.arguments;
 @IntegrationTest
 @Sql(scripts = {"/sql/schema.sql", "/sql/test_data_get_overall_quality_score.sql"},
     executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@RatingStatsSchema
 public class GetOverallQualityScoreTest {
   @LocalGrpcPort
   int port;
@@ -0,0 +1,110 @@
+package com.shishir.ticketmetrics.integration.grpc;
+
+import com.shishir.ticketmetrics.generated.grpc.SlowQueriesRequest;
+import com.shishir.ticketmetrics.generated.grpc.SlowQuery;
+import com.shishir.ticketmetrics.generated.grpc.TicketMetricsAdminServiceGrpc;
+import com.shishir.ticketmetrics.generated.grpc.TicketMetricsServiceGrpc;
+import com.shishir.ticketmetrics.persistence.slowquery.SlowQueryLog;
+import com.shishir.ticketmetrics.testsupport.annotation.IntegrationTest;
+import com.shishir.ticketmetrics.testsupport.annotation.RatingStatsSchema;
+import com.shishir.ticketmetrics.testsupport.utl.CacheTestUtil;
+import com.shishir.ticketmetrics.testsupport.utl.GrpcTestUtil;
+import io.grpc.ManagedChannel;
+import io.grpc.StatusRuntimeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.grpc.test.LocalGrpcPort;
+import org.springframework.test.context.jdbc.Sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Every statement counts as slow with a zero threshold.
+ */
+@SpringBootTest(properties = "ticket-metrics.slow-query.threshold=0ms")
+@IntegrationTest
+@Sql(scripts = {"/sql/schema.sql", "/sql/test_data_get_overall_quality_score.sql"},
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@RatingStatsSchema
+public class GetSlowQueriesTest {
+  @LocalGrpcPort
+  int port;
+  
+  @Autowired
+  private CacheManager cacheManager;
+  
+  @Autowired
+  private SlowQueryLog slowQueryLog;
+  
+  private ManagedChannel channel;
+  private TicketMetricsServiceGrpc.TicketMetricsServiceBlockingStub grpcStub;
+  private TicketMetricsAdminServiceGrpc.TicketMetricsAdminServiceBlockingStub adminStub;
+  
+  @BeforeEach
+  void setup() {
+    channel = GrpcTestUtil.buildManagedChannel(port);
+    grpcStub = GrpcTestUtil.buildServiceStub(channel);
+    adminStub = GrpcTestUtil.buildAdminStub(channel);
+    CacheTestUtil.clearCache(cacheManager);
+    slowQueryLog.clear();
+  }
+  
+  @AfterEach
+  void shutdown() {
+    channel.shutdownNow();
+    CacheTestUtil.clearCache(cacheManager);
+  }
+  
+  @Test
+  void capturesQueryPlanAndParameters() {
+    grpcStub.getOverallQualityScore(GrpcTestUtil.buildOverallQualityScoreRequest("2025-07-01T00:00:00", "2025-07-03T00:00:00"));
+    
+    var response = adminStub.getSlowQueries(SlowQueriesRequest.getDefaultInstance());
+    
+    var rangeQuery = response.getQueriesList().stream()
+        .filter(query -> query.getStatement().equals("RatingStatsDao.fetchCategoryStatsByRatingDateRange"))
+        .findFirst()
+        .orElseThrow();
+    assertThat(rangeQuery.getSql()).contains("FROM daily_category_stats");
+    assertThat(rangeQuery.getParametersList()).containsExactly("startDate=2025-07-01", "endDate=2025-07-03");
+    assertThat(rangeQuery.getQueryPlanList()).isNotEmpty().allMatch(detail -> detail.startsWith("SEARCH ") || detail.startsWith("USE "));
+    assertThat(rangeQuery.getFullScan()).isFalse();
+    assertThat(rangeQuery.getElapsedMs()).isPositive();
+  }
+  
+  @Test
+  void returnsMostRecentFirstUpToLimit() {
+    grpcStub.getOverallQualityScore(GrpcTestUtil.buildOverallQualityScoreRequest("2025-07-01T00:00:00", "2025-07-03T00:00:00"));
+    grpcStub.getTicketScore(GrpcTestUtil.buildGetTicketScoreRequest(1));
+    var all = adminStub.getSlowQueries(SlowQueriesRequest.getDefaultInstance()).getQueriesList();
+    
+    var limited = adminStub.getSlowQueries(SlowQueriesRequest.newBuilder().setLimit(1).build()).getQueriesList();
+    
+    assertThat(all).hasSizeGreaterThan(1);
+    assertThat(limited).containsExactly(all.get(0));
+    assertThat(all).extracting(query -> query.getExecutedAt().getSeconds()).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+  }
+  
+  @Test
+  void filtersFullScans() {
+    grpcStub.getOverallQualityScore(GrpcTestUtil.buildOverallQualityScoreRequest("2025-07-01T00:00:00", "2025-07-03T00:00:00"));
+    
+    var fullScans = adminStub.getSlowQueries(SlowQueriesRequest.newBuilder().setFullScansOnly(true).build()).getQueriesList();
+    
+    // The category weights are read from the whole (small) rating_categories table
+    assertThat(fullScans).extracting(SlowQuery::getStatement).containsExactly("RatingDao.fetchRatingCategories");
+    assertThat(fullScans).allMatch(SlowQuery::getFullScan);
+  }
+  
+  @Test
+  void shouldFail_whenLimitNegative() {
+    assertThatThrownBy(() -> adminStub.getSlowQueries(SlowQueriesRequest.newBuilder().setLimit(-1).build()))
+        .isInstanceOf(StatusRuntimeException.class)
+        .hasMessageContaining("INVALID_ARGUMENT: limit must not be negative");
+  }
+}
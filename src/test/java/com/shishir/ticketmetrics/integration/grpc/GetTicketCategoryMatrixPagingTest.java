@@ -0,0 +1,87 @@
+package com.shishir.ticketmetrics.integration.grpc;
+
+import com.shishir.ticketmetrics.generated.grpc.TicketCategoryScore;
+import com.shishir.ticketmetrics.generated.grpc.TicketMetricsServiceGrpc;
+import com.shishir.ticketmetrics.testsupport.annotation.IntegrationTest;
+import com.shishir.ticketmetrics.testsupport.annotation.RatingStatsSchema;
+import com.shishir.ticketmetrics.testsupport.utl.CacheTestUtil;
+import com.shishir.ticketmetrics.testsupport.utl.GrpcTestUtil;
+import io.grpc.ManagedChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.grpc.test.LocalGrpcPort;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pages of the matrix over tickets 2, 3 and 4 created in the same second, two of them with fractional seconds
+ * that sort differently as text.
+ */
+@SpringBootTest
+@IntegrationTest
+@Sql(scripts = {"/sql/schema.sql", "/sql/test_data_ticket_category_matrix_same_second.sql"},
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@RatingStatsSchema
+public class GetTicketCategoryMatrixPagingTest {
+  private static final String START_DATE = "2025-07-01T00:00:00";
+  private static final String END_DATE = "2025-07-03T00:00:00";
+  
+  @LocalGrpcPort
+  int port;
+  
+  @Autowired
+  CacheManager cacheManager;
+  
+  private ManagedChannel channel;
+  private TicketMetricsServiceGrpc.TicketMetricsServiceBlockingStub grpcStub;
+  
+  @BeforeEach
+  void setup() {
+    CacheTestUtil.clearCache(cacheManager);
+    channel = GrpcTestUtil.buildManagedChannel(port);
+    grpcStub = GrpcTestUtil.buildServiceStub(channel);
+  }
+  
+  @AfterEach
+  void shutdown() {
+    channel.shutdownNow();
+  }
+  
+  @Test
+  void pageBoundaryWithinTheSameSecondKeepsTheRemainingTickets() {
+    var first = grpcStub.getTicketCategoryMatrix(GrpcTestUtil.buildTicketCategoryMatrixRequest(START_DATE, END_DATE, 2, ""));
+    assertThat(first.getTicketScoresList()).extracting(TicketCategoryScore::getTicketId).containsExactly(1, 2);
+    assertThat(first.getNextPageToken()).isNotEmpty();
+    
+    var second = grpcStub.getTicketCategoryMatrix(GrpcTestUtil.buildTicketCategoryMatrixRequest(START_DATE, END_DATE, 2, first.getNextPageToken()));
+    assertThat(second.getTicketScoresList()).extracting(TicketCategoryScore::getTicketId).containsExactly(3, 4);
+    assertThat(second.getNextPageToken()).isNotEmpty();
+  }
+  
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2, 3, 4})
+  void pagesHaveEveryTicketOnce(int pageSize) {
+    var matrix = grpcStub.getTicketCategoryMatrix(GrpcTestUtil.buildTicketCategoryMatrixRequest(START_DATE, END_DATE));
+    assertThat(matrix.getTicketScoresList()).extracting(TicketCategoryScore::getTicketId).containsExactly(1, 2, 3, 4, 5);
+    
+    var rows = new ArrayList<TicketCategoryScore>();
+    var pageToken = "";
+    do {
+      var page = grpcStub.getTicketCategoryMatrix(GrpcTestUtil.buildTicketCategoryMatrixRequest(START_DATE, END_DATE, pageSize, pageToken));
+      assertThat(page.getTicketScoresCount()).isLessThanOrEqualTo(pageSize);
+      rows.addAll(page.getTicketScoresList());
+      pageToken = page.getNextPageToken();
+    } while (!pageToken.isEmpty());
+    
+    assertThat(rows).containsExactlyElementsOf(matrix.getTicketScoresList());
+  }
+}
@@ -1,8 +1,10 @@
 package com.shishir.ticketmetrics.integration.grpc;
 
+import com.shishir.ticketmetrics.generated.grpc.ResponseFormat;
 import com.shishir.ticketmetrics.generated.grpc.TicketCategoryScore;
 import com.shishir.ticketmetrics.generated.grpc.TicketMetricsServiceGrpc;
 import com.shishir.ticketmetrics.testsupport.annotation.IntegrationTest;
+import com.shishir.ticketmetrics.testsupport.annotation.RatingStatsSchema;
 import com.shishir.ticketmetrics.testsupport.utl.GrpcTestUtil;
 import io.grpc.ManagedChannel;
 import io.grpc.StatusRuntimeException;
@@ -16,6 +18,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.grpc.test.LocalGrpcPort;
 import org.springframework.test.context.jdbc.Sql;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -29,6 +33,7 @@ import static org.junit.jupiter.params.provider.Arguments.arguments;
 @IntegrationTest
 @Sql(scripts = {"/sql/schema.sql", "/sql/test_data_get_ticket_category_matrix.sql"},
     executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@RatingStatsSchema
 public class GetTicketCategoryMatrixTest {
   
   @LocalGrpcPort
@@ -121,6 +126,70 @@ public class GetTicketCategoryMatrixTest {
     }
   }
   
+  @Test
+  void compactFormatHasTheScoresOfTheRowsFormat() {
+    var rows = grpcStub.getTicketCategoryMatrix(GrpcTestUtil.buildTicketCategoryMatrixRequest("2025-07-01T00:00:00", "2025-07-04T00:00:00"));
+    var response = grpcStub.getTicketCategoryMatrix(GrpcTestUtil.buildTicketCategoryMatrixRequest("2025-07-01T00:00:00", "2025-07-04T00:00:00", ResponseFormat.RESPONSE_FORMAT_COMPACT));
+    
+    assertThat(response.getTicketScoresList()).isEmpty();
+    var compact = response.getCompact();
+    assertThat(compact.getCategoryIdsList()).containsExactly(1, 2, 3, 4);
+    assertThat(compact.getRowOffsetsList()).containsExactly(0, 2, 4, 5, 6);
+    for (int row = 0; row < compact.getTicketIdsCount(); row++) {
+      var categoryScores = new HashMap<Integer, Double>();
+      for (int i = compact.getRowOffsets(row); i < compact.getRowOffsets(row + 1); i++) {
+        categoryScores.put(compact.getCategoryIds(compact.getCategoryIndexes(i)), compact.getScores(i));
+      }
+      assertThat(compact.getTicketIds(row)).isEqualTo(rows.getTicketScores(row).getTicketId());
+      assertThat(categoryScores).isEqualTo(rows.getTicketScores(row).getCategoryScoresMap());
+    }
+  }
+  
+  @Test
+  void pagesHaveTheRowsOfTheWholeMatrix() {
+    var matrix = grpcStub.getTicketCategoryMatrix(GrpcTestUtil.buildTicketCategoryMatrixRequest("2025-07-01T00:00:00", "2025-07-04T00:00:00"));
+    assertThat(matrix.getNextPageToken()).isEmpty();
+    
+    var rows = new ArrayList<TicketCategoryScore>();
+    var pages = 0;
+    var pageToken = "";
+    do {
+      var page = grpcStub.getTicketCategoryMatrix(GrpcTestUtil.buildTicketCategoryMatrixRequest("2025-07-01T00:00:00", "2025-07-04T00:00:00", 3, pageToken));
+      rows.addAll(page.getTicketScoresList());
+      pageToken = page.getNextPageToken();
+      pages++;
+    } while (!pageToken.isEmpty());
+    
+    assertThat(pages).isEqualTo(2);
+    assertThat(rows).containsExactlyElementsOf(matrix.getTicketScoresList());
+  }
+  
+  @Test
+  void lastFullPageHasNoNextPageToken() {
+    var response = grpcStub.getTicketCategoryMatrix(GrpcTestUtil.buildTicketCategoryMatrixRequest("2025-07-01T00:00:00", "2025-07-04T00:00:00", 4, ""));
+    
+    assertThat(response.getTicketScoresList()).extracting(TicketCategoryScore::getTicketId).containsExactly(1, 2, 3, 4);
+    assertThat(response.getNextPageToken()).isEmpty();
+  }
+  
+  @Test
+  void shouldFail_whenNegativePageSize() {
+    var request = GrpcTestUtil.buildTicketCategoryMatrixRequest("2025-07-01T00:00:00", "2025-07-04T00:00:00", -1, "");
+    
+    assertThatThrownBy(() -> grpcStub.getTicketCategoryMatrix(request))
+        .isInstanceOf(StatusRuntimeException.class)
+        .hasMessageContaining("INVALID_ARGUMENT: page_size must not be negative but was -1");
+  }
+  
+  @Test
+  void shouldFail_whenInvalidPageToken() {
+    var request = GrpcTestUtil.buildTicketCategoryMatrixRequest("2025-07-01T00:00:00", "2025-07-04T00:00:00", 2, "not-a-token");
+    
+    assertThatThrownBy(() -> grpcStub.getTicketCategoryMatrix(request))
+        .isInstanceOf(StatusRuntimeException.class)
+        .hasMessageContaining("INVALID_ARGUMENT: page_token is invalid");
+  }
+  
   static Stream<Arguments> getTicketCategoryMatrixTestData() {
     return Stream.of(
         // Ticket 1,2,3
@@ -0,0 +1,154 @@
+package com.shishir.ticketmetrics.integration.grpc;
+
+import com.shishir.ticketmetrics.generated.grpc.RecordRatingsRequest;
+import com.shishir.ticketmetrics.generated.grpc.TicketMetricsServiceGrpc;
+import com.shishir.ticketmetrics.testsupport.annotation.IntegrationTest;
+import com.shishir.ticketmetrics.testsupport.annotation.RatingStatsSchema;
+import com.shishir.ticketmetrics.testsupport.utl.CacheTestUtil;
+import com.shishir.ticketmetrics.testsupport.utl.GrpcTestUtil;
+import io.grpc.ManagedChannel;
+import io.grpc.StatusRuntimeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.grpc.test.LocalGrpcPort;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@IntegrationTest
+@Sql(scripts = {"/sql/schema.sql", "/sql/test_data_get_overall_quality_score.sql"},
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@RatingStatsSchema
+public class RecordRatingsTest {
+  private static final LocalDate DAY_1 = LocalDate.parse("2025-07-01");
+  private static final LocalDate DAY_2 = LocalDate.parse("2025-07-02");
+  
+  @LocalGrpcPort
+  int port;
+  
+  @Autowired
+  private CacheManager cacheManager;
+  
+  private ManagedChannel channel;
+  private TicketMetricsServiceGrpc.TicketMetricsServiceBlockingStub grpcStub;
+  
+  @BeforeEach
+  void setup() {
+    channel = GrpcTestUtil.buildManagedChannel(port);
+    grpcStub = GrpcTestUtil.buildServiceStub(channel);
+  }
+  
+  @AfterEach
+  void shutdown() {
+    channel.shutdownNow();
+    CacheTestUtil.clearCache(cacheManager);
+  }
+  
+  @Test
+  void shouldFail_whenEmptyRequest() {
+    assertThatThrownBy(() -> grpcStub.recordRatings(RecordRatingsRequest.getDefaultInstance()))
+        .isInstanceOf(StatusRuntimeException.class)
+        .hasMessageContaining("INVALID_ARGUMENT: ratings must not be empty");
+  }
+  
+  @Test
+  void shouldFail_whenRatingOutOfBounds() {
+    var request = GrpcTestUtil.buildRecordRatingsRequest(GrpcTestUtil.buildRatingInput(203, 4, 6, "2025-07-02T12:00:00"));
+    
+    assertThatThrownBy(() -> grpcStub.recordRatings(request))
+        .isInstanceOf(StatusRuntimeException.class)
+        .hasMessageContaining("INVALID_ARGUMENT: rating must be between 0 and 5 but was 6");
+  }
+  
+  @Test
+  void shouldFail_whenInvalidCreatedAt() {
+    var request = GrpcTestUtil.buildRecordRatingsRequest(GrpcTestUtil.buildRatingInput(203, 4, 1, "yesterday"));
+    
+    assertThatThrownBy(() -> grpcStub.recordRatings(request))
+        .isInstanceOf(StatusRuntimeException.class)
+        .hasMessageContaining("INVALID_ARGUMENT: created_at must be in ISO date-time format but was yesterday");
+  }
+  
+  @Test
+  void shouldFail_whenUnknownTicket() {
+    var request = GrpcTestUtil.buildRecordRatingsRequest(
+        GrpcTestUtil.buildRatingInput(203, 4, 1, "2025-07-02T12:00:00"),
+        GrpcTestUtil.buildRatingInput(999, 4, 1, "2025-07-02T12:00:00")
+    );
+    
+    assertThatThrownBy(() -> grpcStub.recordRatings(request))
+        .isInstanceOf(StatusRuntimeException.class)
+        .hasMessageContaining("INVALID_ARGUMENT: Unknown ticket id=999");
+    // Nothing was recorded
+    assertThat(overallScore("2025-07-02T00:00:00", "2025-07-02T00:00:00")).isEqualTo(90d);
+  }
+  
+  @Test
+  void shouldFail_whenUnknownCategory() {
+    var request = GrpcTestUtil.buildRecordRatingsRequest(GrpcTestUtil.buildRatingInput(203, 99, 1, "2025-07-02T12:00:00"));
+    
+    assertThatThrownBy(() -> grpcStub.recordRatings(request))
+        .isInstanceOf(StatusRuntimeException.class)
+        .hasMessageContaining("INVALID_ARGUMENT: Unknown rating category id=99");
+  }
+  
+  @Test
+  void mergesRecordedRatingsIntoCachedScores() {
+    var timelineRequest = GrpcTestUtil.buildGetCategoryTimelineScoresRequest("2025-07-01T00:00:00", "2025-07-02T00:00:00");
+    grpcStub.getCategoryTimelineScores(timelineRequest);
+    assertThat(overallScore("2025-07-01T00:00:00", "2025-07-02T00:00:00")).isEqualTo(80d);
+    
+    var response = grpcStub.recordRatings(GrpcTestUtil.buildRecordRatingsRequest(
+        GrpcTestUtil.buildRatingInput(202, 1, 0, "2025-07-01T12:00:00"),
+        GrpcTestUtil.buildRatingInput(203, 4, 0, "2025-07-02T12:00:00")
+    ));
+    
+    assertThat(response.getRecordedCount()).isEqualTo(2);
+    // Updated in place rather than evicted
+    assertThat(cacheManager.getCache("overallDailyScoreByDate").get(DAY_1)).isNotNull();
+    assertThat(cacheManager.getCache("overallDailyScoreByDate").get(DAY_2)).isNotNull();
+    assertThat(cacheManager.getCache("categoryScoreByRatingDate").get(DAY_2)).isNotNull();
+    
+    // Day 2: categories 1 (80), 2 and 3 (100) and the new 4 (0)
+    assertThat(overallScore("2025-07-02T00:00:00", "2025-07-02T00:00:00")).isEqualTo(60d);
+    var mergedOverallScore = overallScore("2025-07-01T00:00:00", "2025-07-02T00:00:00");
+    var mergedTimeline = grpcStub.getCategoryTimelineScores(timelineRequest);
+    
+    CacheTestUtil.clearCache(cacheManager);
+    assertThat(overallScore("2025-07-01T00:00:00", "2025-07-02T00:00:00")).isEqualTo(mergedOverallScore);
+    assertThat(grpcStub.getCategoryTimelineScores(timelineRequest)).isEqualTo(mergedTimeline);
+  }
+  
+  @Test
+  void evictsScoresOfRecordedTickets() {
+    var before = grpcStub.getTicketScore(GrpcTestUtil.buildGetTicketScoreRequest(202)).getScore();
+    
+    grpcStub.recordRatings(GrpcTestUtil.buildRecordRatingsRequest(GrpcTestUtil.buildRatingInput(202, 1, 0, "2025-07-01T12:00:00")));
+    
+    var after = grpcStub.getTicketScore(GrpcTestUtil.buildGetTicketScoreRequest(202)).getScore();
+    assertThat(after).isNotEqualTo(before);
+    CacheTestUtil.clearCache(cacheManager);
+    assertThat(grpcStub.getTicketScore(GrpcTestUtil.buildGetTicketScoreRequest(202)).getScore()).isEqualTo(after);
+  }
+  
+  @Test
+  void recordsRatingsOnDaysWithoutRatings() {
+    assertThat(overallScore("2025-07-03T00:00:00", "2025-07-03T00:00:00")).isEqualTo(0d);
+    
+    grpcStub.recordRatings(GrpcTestUtil.buildRecordRatingsRequest(GrpcTestUtil.buildRatingInput(203, 4, 5, "2025-07-03T08:00:00")));
+    
+    assertThat(overallScore("2025-07-03T00:00:00", "2025-07-03T00:00:00")).isEqualTo(100d);
+  }
+  
+  private double overallScore(String startDate, String endDate) {
+    return grpcStub.getOverallQualityScore(GrpcTestUtil.buildOverallQualityScoreRequest(startDate, endDate)).getScore();
+  }
+}
@@ -0,0 +1,100 @@
+package com.shishir.ticketmetrics.integration.grpc;
+
+import com.shishir.ticketmetrics.generated.grpc.TicketCategoryMatrixChunk;
+import com.shishir.ticketmetrics.generated.grpc.TicketCategoryScore;
+import com.shishir.ticketmetrics.generated.grpc.TicketMetricsServiceGrpc;
+import com.shishir.ticketmetrics.testsupport.annotation.IntegrationTest;
+import com.shishir.ticketmetrics.testsupport.annotation.RatingStatsSchema;
+import com.shishir.ticketmetrics.testsupport.utl.CacheTestUtil;
+import com.shishir.ticketmetrics.testsupport.utl.GrpcTestUtil;
+import io.grpc.ManagedChannel;
+import io.grpc.StatusRuntimeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.grpc.test.LocalGrpcPort;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "ticket-metrics.matrix-stream.chunk-size=2")
+@IntegrationTest
+@Sql(scripts = {"/sql/schema.sql", "/sql/test_data_get_ticket_category_matrix.sql"},
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@RatingStatsSchema
+public class StreamTicketCategoryMatrixTest {
+  
+  @LocalGrpcPort
+  int port;
+  
+  @Autowired
+  CacheManager cacheManager;
+  
+  private ManagedChannel channel;
+  private TicketMetricsServiceGrpc.TicketMetricsServiceBlockingStub grpcStub;
+  
+  @BeforeEach
+  void setup() {
+    CacheTestUtil.clearCache(cacheManager);
+    channel = GrpcTestUtil.buildManagedChannel(port);
+    grpcStub = GrpcTestUtil.buildServiceStub(channel);
+  }
+  
+  @AfterEach
+  void shutdown() {
+    channel.shutdownNow();
+  }
+  
+  @Test
+  void shouldFail_whenInvalidDateOrder() {
+    var request = GrpcTestUtil.buildTicketCategoryMatrixRequest("2025-07-04T00:00:00", "2025-06-04T00:00:00");
+    
+    assertThatThrownBy(() -> grpcStub.streamTicketCategoryMatrix(request).hasNext())
+        .isInstanceOf(StatusRuntimeException.class)
+        .hasMessageContaining("INVALID_ARGUMENT: End date must not be before startDate date");
+  }
+  
+  @Test
+  void streamsSameRowsAsUnaryCallInChunks() {
+    var request = GrpcTestUtil.buildTicketCategoryMatrixRequest("2025-07-01T00:00:00", "2025-07-04T00:00:00");
+    
+    var chunks = new ArrayList<TicketCategoryMatrixChunk>();
+    grpcStub.streamTicketCategoryMatrix(request).forEachRemaining(chunks::add);
+    
+    // Tickets 1 to 4 with a chunk size of 2
+    assertThat(chunks).hasSize(2);
+    assertThat(chunks).allSatisfy(chunk -> assertThat(chunk.getTicketScoresCount()).isEqualTo(2));
+    
+    var streamedRows = chunks.stream()
+        .flatMap(chunk -> chunk.getTicketScoresList().stream())
+        .toList();
+    var unaryRows = grpcStub.getTicketCategoryMatrix(request).getTicketScoresList();
+    assertThat(streamedRows).containsExactlyElementsOf(unaryRows);
+    assertThat(streamedRows).extracting(TicketCategoryScore::getTicketId).containsExactly(1, 2, 3, 4);
+  }
+  
+  @Test
+  void lastChunkHasTheRemainingTickets() {
+    var request = GrpcTestUtil.buildTicketCategoryMatrixRequest("2025-07-02T00:00:00", "2025-07-04T00:00:00");
+    
+    var chunks = new ArrayList<TicketCategoryMatrixChunk>();
+    grpcStub.streamTicketCategoryMatrix(request).forEachRemaining(chunks::add);
+    
+    // Tickets 2 to 4 with a chunk size of 2, the second chunk starts after ticket 3
+    assertThat(chunks).extracting(TicketCategoryMatrixChunk::getTicketScoresCount).containsExactly(2, 1);
+    assertThat(chunks.getLast().getTicketScoresList()).extracting(TicketCategoryScore::getTicketId).containsExactly(4);
+  }
+  
+  @Test
+  void completesWithoutMessages_whenNoTicketsInRange() {
+    var request = GrpcTestUtil.buildTicketCategoryMatrixRequest("2024-01-01T00:00:00", "2024-01-31T00:00:00");
+    
+    assertThat(grpcStub.streamTicketCategoryMatrix(request).hasNext()).isFalse();
+  }
+}
@@ -0,0 +1,113 @@
+package com.shishir.ticketmetrics.integration.grpc;
+
+import com.shishir.ticketmetrics.concurrency.JdbcPermits;
+import com.shishir.ticketmetrics.generated.grpc.TicketMetricsServiceGrpc;
+import com.shishir.ticketmetrics.testsupport.annotation.IntegrationTest;
+import com.shishir.ticketmetrics.testsupport.annotation.RatingStatsSchema;
+import com.shishir.ticketmetrics.testsupport.utl.CacheTestUtil;
+import com.shishir.ticketmetrics.testsupport.utl.GrpcTestUtil;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.grpc.server.GlobalServerInterceptor;
+import org.springframework.grpc.test.LocalGrpcPort;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.ArrayList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+    "ticket-metrics.virtual-threads.enabled=true",
+    "ticket-metrics.virtual-threads.jdbc-permits=2"
+})
+@IntegrationTest
+@Sql(scripts = {"/sql/schema.sql", "/sql/test_data_get_ticket_score.sql"},
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@RatingStatsSchema
+public class VirtualThreadsTest {
+  private static final int CALLS = 64;
+  private static final Queue<Boolean> HANDLER_THREADS_VIRTUAL = new ConcurrentLinkedQueue<>();
+  
+  @LocalGrpcPort
+  int port;
+  
+  @Autowired
+  private CacheManager cacheManager;
+  
+  @Autowired
+  private JdbcPermits jdbcPermits;
+  
+  private ManagedChannel channel;
+  private TicketMetricsServiceGrpc.TicketMetricsServiceBlockingStub grpcStub;
+  
+  @BeforeEach
+  void setup() {
+    channel = GrpcTestUtil.buildManagedChannel(port);
+    grpcStub = GrpcTestUtil.buildServiceStub(channel);
+    CacheTestUtil.clearCache(cacheManager);
+    HANDLER_THREADS_VIRTUAL.clear();
+  }
+  
+  @AfterEach
+  void shutdown() {
+    channel.shutdownNow();
+    CacheTestUtil.clearCache(cacheManager);
+  }
+  
+  @Test
+  void runsConcurrentCallsOnVirtualThreadsWithBoundedJdbcAccess() throws Exception {
+    var scores = new ArrayList<Future<Double>>();
+    try (var clients = Executors.newFixedThreadPool(16)) {
+      for (int i = 0; i < CALLS; i++) {
+        var ticketId = 201 + i % 3;
+        scores.add(clients.submit(() -> grpcStub.getTicketScore(GrpcTestUtil.buildGetTicketScoreRequest(ticketId)).getScore()));
+      }
+      for (var score : scores) {
+        assertThat(score.get(10, TimeUnit.SECONDS)).isBetween(0.0, 100.0);
+      }
+    }
+    
+    assertThat(HANDLER_THREADS_VIRTUAL).hasSize(CALLS).containsOnly(true);
+    // Every permit is returned once the calls are done
+    assertThat(jdbcPermits.availablePermits()).isEqualTo(2);
+  }
+  
+  @TestConfiguration
+  static class HandlerThreadRecorder {
+    @Bean
+    @GlobalServerInterceptor
+    ServerInterceptor handlerThreadRecorder() {
+      return new ServerInterceptor() {
+        @Override
+        public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                     ServerCallHandler<ReqT, RespT> next) {
+          return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(next.startCall(call, headers)) {
+            // Unary handlers run when the client half-closes
+            @Override
+            public void onHalfClose() {
+              HANDLER_THREADS_VIRTUAL.add(Thread.currentThread().isVirtual());
+              super.onHalfClose();
+            }
+          };
+        }
+      };
+    }
+  }
+}
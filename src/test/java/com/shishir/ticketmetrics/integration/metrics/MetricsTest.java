@@ -0,0 +1,115 @@
+package com.shishir.ticketmetrics.integration.metrics;
+
+import com.shishir.ticketmetrics.cache.store.OverallDailyScoreCacheStore;
+import com.shishir.ticketmetrics.generated.grpc.OverallQualityScoreRequest;
+import com.shishir.ticketmetrics.generated.grpc.TicketMetricsServiceGrpc;
+import com.shishir.ticketmetrics.grpc.support.GrpcMetricsInterceptor;
+import com.shishir.ticketmetrics.persistence.metrics.MapperMetricsInterceptor;
+import com.shishir.ticketmetrics.testsupport.annotation.IntegrationTest;
+import com.shishir.ticketmetrics.testsupport.annotation.RatingStatsSchema;
+import com.shishir.ticketmetrics.testsupport.utl.CacheTestUtil;
+import com.shishir.ticketmetrics.testsupport.utl.GrpcTestUtil;
+import io.grpc.ManagedChannel;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.grpc.test.LocalGrpcPort;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@IntegrationTest
+@Sql(scripts = {"/sql/schema.sql", "/sql/test_data_get_overall_quality_score.sql"},
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@RatingStatsSchema
+public class MetricsTest {
+  @LocalGrpcPort
+  int port;
+  
+  @Autowired
+  private CacheManager cacheManager;
+  
+  @Autowired
+  private MeterRegistry meterRegistry;
+  
+  private ManagedChannel channel;
+  private TicketMetricsServiceGrpc.TicketMetricsServiceBlockingStub grpcStub;
+  
+  @BeforeEach
+  void setup() {
+    channel = GrpcTestUtil.buildManagedChannel(port);
+    grpcStub = GrpcTestUtil.buildServiceStub(channel);
+    CacheTestUtil.clearCache(cacheManager);
+  }
+  
+  @AfterEach
+  void shutdown() {
+    channel.shutdownNow();
+    CacheTestUtil.clearCache(cacheManager);
+  }
+  
+  @Test
+  void timesGrpcCallsPerMethodAndStatus() {
+    var okBefore = grpcCalls("OK");
+    var invalidBefore = grpcCalls("INVALID_ARGUMENT");
+    
+    grpcStub.getOverallQualityScore(GrpcTestUtil.buildOverallQualityScoreRequest("2025-07-01T00:00:00", "2025-07-03T00:00:00"));
+    assertThatThrownBy(() -> grpcStub.getOverallQualityScore(OverallQualityScoreRequest.getDefaultInstance()))
+        .isInstanceOf(StatusRuntimeException.class);
+    
+    assertThat(grpcCalls("OK")).isEqualTo(okBefore + 1);
+    assertThat(grpcCalls("INVALID_ARGUMENT")).isEqualTo(invalidBefore + 1);
+  }
+  
+  @Test
+  void timesMapperStatementsAndCountsComputedDays() {
+    var rangeQueriesBefore = timerCount(MapperMetricsInterceptor.TIMER_NAME, "statement", "RatingStatsDao.fetchCategoryStatsByRatingDateRange");
+    var computedBefore = computedDays();
+    
+    grpcStub.getOverallQualityScore(GrpcTestUtil.buildOverallQualityScoreRequest("2025-07-01T00:00:00", "2025-07-03T00:00:00"));
+    // Answered from the cache
+    grpcStub.getOverallQualityScore(GrpcTestUtil.buildOverallQualityScoreRequest("2025-07-01T00:00:00", "2025-07-03T00:00:00"));
+    
+    assertThat(timerCount(MapperMetricsInterceptor.TIMER_NAME, "statement", "RatingStatsDao.fetchCategoryStatsByRatingDateRange"))
+        .isEqualTo(rangeQueriesBefore + 1);
+    assertThat(computedDays()).isEqualTo(computedBefore + 3);
+  }
+  
+  @Test
+  void bindsCaffeineStatisticsOfStoreCaches() {
+    grpcStub.getOverallQualityScore(GrpcTestUtil.buildOverallQualityScoreRequest("2025-07-01T00:00:00", "2025-07-03T00:00:00"));
+    
+    assertThat(meterRegistry.find("cache.gets").tag("cache", OverallDailyScoreCacheStore.CACHE_NAME).meters()).isNotEmpty();
+  }
+  
+  private long grpcCalls(String status) {
+    return Optional.ofNullable(meterRegistry.find(GrpcMetricsInterceptor.TIMER_NAME)
+            .tags("method", "GetOverallQualityScore", "status", status)
+            .timer())
+        .map(Timer::count)
+        .orElse(0L);
+  }
+  
+  private long timerCount(String name, String tagKey, String tagValue) {
+    return Optional.ofNullable(meterRegistry.find(name).tag(tagKey, tagValue).timer())
+        .map(Timer::count)
+        .orElse(0L);
+  }
+  
+  private double computedDays() {
+    return meterRegistry.get("ticketmetrics.cache.computed")
+        .tag("cache", OverallDailyScoreCacheStore.CACHE_NAME)
+        .functionCounter()
+        .count();
+  }
+}
@@ -0,0 +1,128 @@
+package com.shishir.ticketmetrics.integration.persistence;
+
+import com.shishir.ticketmetrics.persistence.model.NewRating;
+import com.shishir.ticketmetrics.testsupport.annotation.IntegrationTest;
+import com.shishir.ticketmetrics.testsupport.annotation.RatingStatsSchema;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.type.TypeHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@code EXPLAIN QUERY PLAN} for every MyBatis mapper statement against the migrated schema
+ * and fails when a statement scans a whole table or index instead of searching it.
+ */
+@SpringBootTest
+@IntegrationTest
+@Sql(scripts = {"/sql/schema.sql", "/db/migration/V2__add_read_indexes.sql", "/db/migration/V4__add_ticket_creation_keyset_index.sql"},
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@RatingStatsSchema
+public class MapperQueryPlanTest {
+  
+  // Statements that read a whole table by design
+  private static final Set<String> FULL_SCAN_ALLOWED = Set.of(
+      "com.shishir.ticketmetrics.persistence.dao.RatingDao.fetchRatingCategories",
+      "com.shishir.ticketmetrics.persistence.dao.RatingStatsBackfillDao.insertDailyCategoryStats",
+      "com.shishir.ticketmetrics.persistence.dao.RatingStatsBackfillDao.insertTicketCategoryStats"
+  );
+  
+  // Sample values for every parameter name used by the mappers
+  private static final Map<String, Object> SAMPLE_PARAMETERS = Map.ofEntries(
+      Map.entry("date", LocalDate.parse("2025-07-01")),
+      Map.entry("startDate", LocalDate.parse("2025-07-01")),
+      Map.entry("endDate", LocalDate.parse("2025-07-31")),
+      Map.entry("start", LocalDateTime.parse("2025-07-01T00:00:00")),
+      Map.entry("end", LocalDateTime.parse("2025-07-31T23:59:59")),
+      Map.entry("ticketId", 1),
+      Map.entry("ticketIds", List.of(1, 2, 3)),
+      Map.entry("ratings", List.of(NewRating.of(1, 1, 5, 1, 2, LocalDateTime.parse("2025-07-01T09:00:00")))),
+      Map.entry("afterCreatedEpochSecond", 1_751_360_400L),
+      Map.entry("afterTicketId", 1),
+      Map.entry("limit", 100)
+  );
+  
+  // Writer and reader factories, each with its own mappers
+  @Autowired
+  List<SqlSessionFactory> sqlSessionFactories;
+  
+  @Autowired
+  DataSource dataSource;
+  
+  @Test
+  void mapperStatementsDoNotScanFullTables() throws SQLException {
+    var statements = mappedStatements();
+    assertThat(statements).extracting(MappedStatement::getId).containsAll(FULL_SCAN_ALLOWED);
+    
+    var fullScans = new TreeMap<String, List<String>>();
+    try (var connection = dataSource.getConnection()) {
+      for (var statement : statements) {
+        if (FULL_SCAN_ALLOWED.contains(statement.getId())) {
+          continue;
+        }
+        var scans = explain(connection, statement).stream()
+            .filter(detail -> detail.startsWith("SCAN "))
+            .toList();
+        if (!scans.isEmpty()) {
+          fullScans.put(statement.getId(), scans);
+        }
+      }
+    }
+    
+    assertThat(fullScans).isEmpty();
+  }
+  
+  private List<MappedStatement> mappedStatements() {
+    // Statements are registered under both their full and short ids, keep the full ones only
+    return sqlSessionFactories.stream()
+        .map(SqlSessionFactory::getConfiguration)
+        .flatMap(configuration -> configuration.getMappedStatementNames().stream()
+            .filter(name -> name.contains("."))
+            .map(configuration::getMappedStatement))
+        .sorted(Comparator.comparing(MappedStatement::getId))
+        .toList();
+  }
+  
+  @SuppressWarnings("unchecked")
+  private List<String> explain(Connection connection, MappedStatement statement) throws SQLException {
+    var boundSql = statement.getBoundSql(new HashMap<>(SAMPLE_PARAMETERS));
+    // Runs writes too, EXPLAIN QUERY PLAN does not execute the statement
+    try (var preparedStatement = connection.prepareStatement("EXPLAIN QUERY PLAN " + boundSql.getSql())) {
+      var mappings = boundSql.getParameterMappings();
+      for (int i = 0; i < mappings.size(); i++) {
+        var mapping = mappings.get(i);
+        var typeHandler = (TypeHandler<Object>) mapping.getTypeHandler();
+        typeHandler.setParameter(preparedStatement, i + 1, parameterValue(boundSql, mapping.getProperty()), mapping.getJdbcType());
+      }
+      
+      var details = new ArrayList<String>();
+      try (var resultSet = preparedStatement.executeQuery()) {
+        while (resultSet.next()) {
+          details.add(resultSet.getString("detail"));
+        }
+      }
+      return details;
+    }
+  }
+  
+  private static Object parameterValue(BoundSql boundSql, String property) {
+    // <foreach> items are exposed as additional parameters, e.g. __frch_ticketId_0
+    var value = boundSql.hasAdditionalParameter(property)
+        ? boundSql.getAdditionalParameter(property)
+        : SAMPLE_PARAMETERS.get(property);
+    assertThat(value).as("sample value for parameter '%s'", property).isNotNull();
+    return value;
+  }
+}
@@ -0,0 +1,158 @@
+package com.shishir.ticketmetrics.integration.persistence;
+
+import com.shishir.ticketmetrics.persistence.dao.RatingStatsDao;
+import com.shishir.ticketmetrics.persistence.dto.CategoryRatingStatsByRatingDate;
+import com.shishir.ticketmetrics.persistence.stats.RatingStatsBackfill;
+import com.shishir.ticketmetrics.testsupport.annotation.IntegrationTest;
+import com.shishir.ticketmetrics.testsupport.annotation.RatingStatsSchema;
+import org.assertj.core.api.recursive.comparison.RecursiveComparisonConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@IntegrationTest
+@Sql(scripts = {"/sql/schema.sql", "/sql/test_data_get_overall_quality_score.sql"},
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@RatingStatsSchema
+public class RatingStatsTablesTest {
+  private static final LocalDate DAY_1 = LocalDate.parse("2025-07-01");
+  
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+  
+  @Autowired
+  private RatingStatsDao ratingStatsDao;
+  
+  @Autowired
+  private RatingStatsBackfill ratingStatsBackfill;
+  
+  @Test
+  void backfillsExistingRatings() {
+    assertThat(dailyStats()).isNotEmpty().isEqualTo(dailyStatsOfRatings());
+    assertThat(ticketStats()).isNotEmpty().isEqualTo(ticketStatsOfRatings());
+  }
+  
+  @Test
+  void triggersFollowWritesToRatings() {
+    jdbcTemplate.update("""
+        INSERT INTO ratings (rating, ticket_id, rating_category_id, reviewer_id, reviewee_id, created_at) VALUES
+          (1, 201, 2, 1, 2, '2025-07-01 12:00:00'),
+          (3, 204, 1, 1, 2, '2025-07-05 12:00:00'),
+          (3, 204, 2, 1, 2, NULL)
+        """);
+    assertStatsMatchRatings();
+    
+    jdbcTemplate.update("UPDATE ratings SET rating = 0, created_at = '2025-07-02 08:00:00' WHERE ticket_id = 201");
+    assertStatsMatchRatings();
+    
+    jdbcTemplate.update("UPDATE ratings SET created_at = '2025-07-03 08:00:00' WHERE created_at IS NULL");
+    assertStatsMatchRatings();
+    
+    jdbcTemplate.update("DELETE FROM ratings WHERE ticket_id IN (202, 204)");
+    assertStatsMatchRatings();
+    
+    jdbcTemplate.update("DELETE FROM ratings");
+    assertThat(dailyStats()).isEmpty();
+    assertThat(ticketStats()).isEmpty();
+  }
+  
+  @Test
+  void backfillRebuildsStatsOfRatingsWrittenWithoutTriggers() {
+    jdbcTemplate.execute("DROP TRIGGER ratings_stats_after_insert");
+    jdbcTemplate.update("""
+        INSERT INTO ratings (rating, ticket_id, rating_category_id, reviewer_id, reviewee_id, created_at) VALUES
+          (1, 204, 2, 1, 2, '2025-07-01 12:00:00')
+        """);
+    assertThat(dailyStats()).isNotEqualTo(dailyStatsOfRatings());
+    
+    ratingStatsBackfill.backfill();
+    
+    assertStatsMatchRatings();
+  }
+  
+  @Test
+  void readsDailyStatsByPrimaryKey() {
+    assertThat(ratingStatsDao.fetchCategoryStatsByRatingDate(DAY_1))
+        .usingRecursiveFieldByFieldElementComparator(RecursiveComparisonConfiguration.builder()
+            .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+            .build())
+        .containsExactly(
+        new CategoryRatingStatsByRatingDate(1, DAY_1, 1L, BigDecimal.valueOf(5), BigDecimal.valueOf(5)),
+        new CategoryRatingStatsByRatingDate(2, DAY_1, 1L, BigDecimal.valueOf(3), BigDecimal.valueOf(3)),
+        new CategoryRatingStatsByRatingDate(3, DAY_1, 1L, BigDecimal.valueOf(4), BigDecimal.valueOf(4)),
+        new CategoryRatingStatsByRatingDate(4, DAY_1, 1L, BigDecimal.valueOf(2), BigDecimal.valueOf(2))
+    );
+    assertThat(ratingStatsDao.fetchCategoryStatsByRatingDateRange(DAY_1, DAY_1.plusDays(1)))
+        .hasSize(7)
+        .extracting(CategoryRatingStatsByRatingDate::ratingDate)
+        .isSorted();
+  }
+  
+  @Test
+  void readsRatingMapsOfTickets() {
+    assertThat(ratingStatsDao.fetchRatingMapsByTicketIds(List.of(201, 203, 999))).isEqualTo(Map.of(
+        201, Map.of(1, BigDecimal.valueOf(5), 3, BigDecimal.valueOf(4)),
+        203, Map.of(1, BigDecimal.valueOf(4), 2, BigDecimal.valueOf(5), 3, BigDecimal.valueOf(5))
+    ));
+    assertThat(ratingStatsDao.fetchRatingMapByTicketId(999)).isEmpty();
+    
+    jdbcTemplate.update("""
+        INSERT INTO ratings (rating, ticket_id, rating_category_id, reviewer_id, reviewee_id, created_at) VALUES
+          (1, 201, 1, 1, 2, '2025-07-01 12:00:00')
+        """);
+    assertThatThrownBy(() -> ratingStatsDao.fetchRatingMapByTicketId(201))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Duplicate rating for ticketId=201 and categoryId=1");
+  }
+  
+  private void assertStatsMatchRatings() {
+    assertThat(dailyStats()).isEqualTo(dailyStatsOfRatings());
+    assertThat(ticketStats()).isEqualTo(ticketStatsOfRatings());
+  }
+  
+  private List<Map<String, Object>> dailyStats() {
+    return jdbcTemplate.queryForList("""
+        SELECT day, category_id, rating_count, rating_sum
+        FROM daily_category_stats
+        ORDER BY day, category_id
+        """);
+  }
+  
+  private List<Map<String, Object>> dailyStatsOfRatings() {
+    return jdbcTemplate.queryForList("""
+        SELECT DATE(created_at) AS day, rating_category_id AS category_id, COUNT(*) AS rating_count, SUM(rating) AS rating_sum
+        FROM ratings
+        WHERE created_at IS NOT NULL
+        GROUP BY DATE(created_at), rating_category_id
+        ORDER BY day, category_id
+        """);
+  }
+  
+  private List<Map<String, Object>> ticketStats() {
+    return jdbcTemplate.queryForList("""
+        SELECT ticket_id, category_id, rating_count, rating_sum
+        FROM ticket_category_stats
+        ORDER BY ticket_id, category_id
+        """);
+  }
+  
+  private List<Map<String, Object>> ticketStatsOfRatings() {
+    return jdbcTemplate.queryForList("""
+        SELECT ticket_id, rating_category_id AS category_id, COUNT(*) AS rating_count, SUM(rating) AS rating_sum
+        FROM ratings
+        GROUP BY ticket_id, rating_category_id
+        ORDER BY ticket_id, category_id
+        """);
+  }
+}
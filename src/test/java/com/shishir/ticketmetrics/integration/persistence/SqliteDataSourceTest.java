@@ -0,0 +1,60 @@
+package com.shishir.ticketmetrics.integration.persistence;
+
+import com.shishir.ticketmetrics.testsupport.annotation.IntegrationTest;
+import com.shishir.ticketmetrics.testsupport.annotation.RatingStatsSchema;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@IntegrationTest
+@Sql(scripts = {"/sql/schema.sql", "/sql/test_data_get_overall_quality_score.sql"},
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@RatingStatsSchema
+public class SqliteDataSourceTest {
+  private static final String INSERT_RATING = """
+      INSERT INTO ratings (rating, ticket_id, rating_category_id, reviewer_id, reviewee_id, created_at)
+      VALUES (1, 201, 2, 1, 2, '2025-07-01 12:00:00')
+      """;
+  
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+  
+  @Autowired
+  @Qualifier("writerDataSource")
+  private DataSource writerDataSource;
+  
+  @Autowired
+  @Qualifier("readerDataSource")
+  private DataSource readerDataSource;
+  
+  @Test
+  void opensDatabaseInWalModeWithOneWriter() throws SQLException {
+    assertThat(jdbcTemplate.queryForObject("PRAGMA journal_mode", String.class)).isEqualToIgnoringCase("wal");
+    assertThat(jdbcTemplate.queryForObject("PRAGMA synchronous", Integer.class)).isEqualTo(1); // NORMAL
+    assertThat(writerDataSource.unwrap(HikariDataSource.class).getMaximumPoolSize()).isEqualTo(1);
+    assertThat(readerDataSource.unwrap(HikariDataSource.class).getMaximumPoolSize()).isEqualTo(Runtime.getRuntime().availableProcessors());
+  }
+  
+  @Test
+  void readersRejectWritesAndSeeCommittedOnes() {
+    var reader = new JdbcTemplate(readerDataSource);
+    var ratingsBefore = reader.queryForObject("SELECT COUNT(*) FROM ratings", Integer.class);
+    
+    assertThatThrownBy(() -> reader.update(INSERT_RATING)).isInstanceOf(DataAccessException.class);
+    jdbcTemplate.update(INSERT_RATING);
+    
+    assertThat(reader.queryForObject("SELECT COUNT(*) FROM ratings", Integer.class)).isEqualTo(ratingsBefore + 1);
+  }
+}
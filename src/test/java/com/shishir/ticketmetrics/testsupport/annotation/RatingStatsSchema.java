@@ -0,0 +1,20 @@
+package com.shishir.ticketmetrics.testsupport.annotation;
+
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+
+import java.lang.annotation.*;
+
+/**
+ * Creates the rating stats tables and their triggers with the V3 migration, since {@code /sql/schema.sql}
+ * recreates {@code ratings} without them. Runs after the {@code @Sql} scripts declared on the test class,
+ * so the migration backfills the test data and the triggers count ratings written by the test.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Sql(scripts = "/db/migration/V3__add_rating_stats_tables.sql",
+    config = @SqlConfig(separator = "-- end statement"),
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+public @interface RatingStatsSchema {
+}
@@ -4,6 +4,8 @@ import com.shishir.ticketmetrics.generated.grpc.*;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
 
+import java.util.List;
+
 public class GrpcTestUtil {
   public static ManagedChannel buildManagedChannel(String address, int port) {
     return ManagedChannelBuilder.forAddress(address, port)
@@ -19,12 +21,22 @@ public class GrpcTestUtil {
     return TicketMetricsServiceGrpc.newBlockingStub(channel);
   }
   
+  public static TicketMetricsAdminServiceGrpc.TicketMetricsAdminServiceBlockingStub buildAdminStub(ManagedChannel channel) {
+    return TicketMetricsAdminServiceGrpc.newBlockingStub(channel);
+  }
+  
   public static GetTicketScoreRequest buildGetTicketScoreRequest(int value) {
     return GetTicketScoreRequest.newBuilder()
         .setTicketId(value)
         .build();
   }
   
+  public static BatchGetTicketScoresRequest buildBatchGetTicketScoresRequest(List<Integer> ticketIds) {
+    return BatchGetTicketScoresRequest.newBuilder()
+        .addAllTicketIds(ticketIds)
+        .build();
+  }
+  
   public static CategoryTimelineRequest buildGetCategoryTimelineScoresRequest(String startDate, String endDate) {
     return CategoryTimelineRequest.newBuilder()
         .setStartDate(startDate)
@@ -32,6 +44,15 @@ public class GrpcTestUtil {
         .build();
   }
   
+  public static CategoryTimelineRequest buildGetCategoryTimelineScoresRequest(String startDate, String endDate, TimelineGranularity granularity, int maxPoints) {
+    return CategoryTimelineRequest.newBuilder()
+        .setStartDate(startDate)
+        .setEndDate(endDate)
+        .setGranularity(granularity)
+        .setMaxPoints(maxPoints)
+        .build();
+  }
+  
   public static OverallQualityScoreRequest buildOverallQualityScoreRequest(String startDate, String endDate) {
     return OverallQualityScoreRequest.newBuilder()
         .setStartDate(startDate)
@@ -59,4 +80,38 @@ public class GrpcTestUtil {
         .setEndDate(endDate)
         .build();
   }
+  
+  public static TicketCategoryMatrixRequest buildTicketCategoryMatrixRequest(String startDate, String endDate, ResponseFormat format) {
+    return TicketCategoryMatrixRequest.newBuilder()
+        .setStartDate(startDate)
+        .setEndDate(endDate)
+        .setFormat(format)
+        .build();
+  }
+  
+  public static TicketCategoryMatrixRequest buildTicketCategoryMatrixRequest(String startDate, String endDate, int pageSize, String pageToken) {
+    return TicketCategoryMatrixRequest.newBuilder()
+        .setStartDate(startDate)
+        .setEndDate(endDate)
+        .setPageSize(pageSize)
+        .setPageToken(pageToken)
+        .build();
+  }
+  
+  public static RatingInput buildRatingInput(int ticketId, int categoryId, int rating, String createdAt) {
+    return RatingInput.newBuilder()
+        .setTicketId(ticketId)
+        .setRatingCategoryId(categoryId)
+        .setRating(rating)
+        .setReviewerId(1)
+        .setRevieweeId(2)
+        .setCreatedAt(createdAt)
+        .build();
+  }
+  
+  public static RecordRatingsRequest buildRecordRatingsRequest(RatingInput... ratings) {
+    return RecordRatingsRequest.newBuilder()
+        .addAllRatings(List.of(ratings))
+        .build();
+  }
 }
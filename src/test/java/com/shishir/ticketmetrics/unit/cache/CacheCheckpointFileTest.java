@@ -0,0 +1,86 @@
+package com.shishir.ticketmetrics.unit.cache;
+
+import com.shishir.ticketmetrics.cache.checkpoint.CacheCheckpointFile;
+import com.shishir.ticketmetrics.model.CategoryScoreByTicket;
+import com.shishir.ticketmetrics.model.CategoryScoreRollup;
+import com.shishir.ticketmetrics.model.CategoryScoreStatsByRatingDate;
+import com.shishir.ticketmetrics.model.TicketXCategoryScores;
+import com.shishir.ticketmetrics.model.TimelineGranularity;
+import com.shishir.ticketmetrics.model.TimelinePeriod;
+import com.shishir.ticketmetrics.testsupport.annotation.UnitTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@UnitTest
+public class CacheCheckpointFileTest {
+  private static final LocalDate DAY_1 = LocalDate.parse("2025-07-01");
+  private static final LocalDate DAY_2 = LocalDate.parse("2025-07-02");
+  
+  @TempDir
+  Path directory;
+  
+  @Test
+  void readsWhatWasWritten() throws IOException {
+    var file = directory.resolve("checkpoint.bin");
+    var categoryScores = new HashMap<LocalDate, List<CategoryScoreStatsByRatingDate>>();
+    categoryScores.put(DAY_1, List.of(CategoryScoreStatsByRatingDate.of(
+        1, DAY_1, 3L, new BigDecimal("12"), new BigDecimal("4.0"), new BigDecimal("0.7"), new BigDecimal("80.000000"))));
+    // Day without ratings
+    categoryScores.put(DAY_2, null);
+    var contents = new CacheCheckpointFile.Contents(
+        42,
+        Map.of(DAY_1, new BigDecimal("81.123456"), DAY_2, BigDecimal.ZERO),
+        categoryScores,
+        Map.of(201, new BigDecimal("-0.000001")),
+        Map.of(202, TicketXCategoryScores.of(202, Arrays.asList(
+            CategoryScoreByTicket.of(1, new BigDecimal("123456789012345678901234567890.5")),
+            CategoryScoreByTicket.of(2, null)))),
+        Map.of(
+            TimelinePeriod.of(TimelineGranularity.WEEK, DAY_1), List.of(CategoryScoreRollup.of(
+                1, LocalDate.parse("2025-06-30"), 3L, new BigDecimal("12"), 1L, new BigDecimal("80.000000"), new BigDecimal("80.000000"))),
+            // Month without ratings
+            TimelinePeriod.of(TimelineGranularity.MONTH, LocalDate.parse("2025-08-01")), List.of()
+        )
+    );
+    
+    CacheCheckpointFile.write(file, contents);
+    
+    assertThat(CacheCheckpointFile.read(file)).isEqualTo(contents);
+    assertThat(directory.resolve("checkpoint.bin.tmp")).doesNotExist();
+  }
+  
+  @Test
+  void rejectsTruncatedFile() throws IOException {
+    var file = directory.resolve("checkpoint.bin");
+    CacheCheckpointFile.write(file, new CacheCheckpointFile.Contents(
+        1, Map.of(DAY_1, BigDecimal.ONE), Map.of(), Map.of(), Map.of(), Map.of()));
+    var bytes = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(bytes, bytes.length - 2));
+    
+    assertThatThrownBy(() -> CacheCheckpointFile.read(file))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("Corrupt cache checkpoint");
+  }
+  
+  @Test
+  void rejectsOtherFiles() throws IOException {
+    var file = Files.writeString(directory.resolve("checkpoint.bin"), "not a checkpoint");
+    
+    assertThatThrownBy(() -> CacheCheckpointFile.read(file))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("Not a cache checkpoint");
+  }
+}
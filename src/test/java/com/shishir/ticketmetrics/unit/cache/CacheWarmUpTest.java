@@ -0,0 +1,102 @@
+package com.shishir.ticketmetrics.unit.cache;
+
+import com.shishir.ticketmetrics.cache.warmup.CacheWarmUp;
+import com.shishir.ticketmetrics.cache.warmup.CacheWarmUpProperties;
+import com.shishir.ticketmetrics.generated.grpc.TicketMetricsServiceGrpc;
+import com.shishir.ticketmetrics.model.TimelineGranularity;
+import com.shishir.ticketmetrics.persistence.dao.RatingStatsDao;
+import com.shishir.ticketmetrics.service.GetCategoryTimelineScoreService;
+import com.shishir.ticketmetrics.service.OverallScoreService;
+import com.shishir.ticketmetrics.service.TicketCategoryMatrixService;
+import com.shishir.ticketmetrics.service.TicketScoreService;
+import com.shishir.ticketmetrics.testsupport.annotation.UnitTest;
+import io.grpc.health.v1.HealthCheckResponse.ServingStatus;
+import io.grpc.protobuf.services.HealthStatusManager;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@UnitTest
+public class CacheWarmUpTest {
+  private static final LocalDate LATEST_DATE = LocalDate.parse("2025-07-10");
+  
+  private final RatingStatsDao ratingStatsDao = mock(RatingStatsDao.class);
+  private final OverallScoreService overallScoreService = mock(OverallScoreService.class);
+  private final GetCategoryTimelineScoreService getCategoryTimelineScoreService = mock(GetCategoryTimelineScoreService.class);
+  private final TicketScoreService ticketScoreService = mock(TicketScoreService.class);
+  private final TicketCategoryMatrixService ticketCategoryMatrixService = mock(TicketCategoryMatrixService.class);
+  private final HealthStatusManager healthStatusManager = mock(HealthStatusManager.class);
+  
+  @Test
+  void loadsLatestDaysInChunksAndMostRecentTickets() {
+    when(ratingStatsDao.fetchLatestRatingDate()).thenReturn(LATEST_DATE);
+    when(ticketCategoryMatrixService.getRatedTickets(LocalDate.parse("2025-07-01"), LATEST_DATE)).thenReturn(List.of(201, 202, 203));
+    
+    cacheWarmUp(true).warmUp().join();
+    
+    verify(overallScoreService).getOverallScore(LocalDate.parse("2025-07-01"), LocalDate.parse("2025-07-07"));
+    verify(overallScoreService).getOverallScore(LocalDate.parse("2025-07-08"), LATEST_DATE);
+    verify(getCategoryTimelineScoreService).getCategoryTimelineScores(LocalDate.parse("2025-07-01"), LocalDate.parse("2025-07-07"), TimelineGranularity.DAY, 0);
+    verify(getCategoryTimelineScoreService).getCategoryTimelineScores(LocalDate.parse("2025-07-08"), LATEST_DATE, TimelineGranularity.DAY, 0);
+    verify(ticketScoreService).loadTicketScores(List.of(202, 203));
+    verify(ticketCategoryMatrixService).getTicketCategoryScores(List.of(202, 203));
+  }
+  
+  @Test
+  void reportsNotServingUntilWarmedUp() {
+    when(ratingStatsDao.fetchLatestRatingDate()).thenReturn(LATEST_DATE);
+    when(ticketCategoryMatrixService.getRatedTickets(any(), any())).thenReturn(List.of());
+    
+    var cacheWarmUp = cacheWarmUp(true);
+    verify(healthStatusManager).setStatus(HealthStatusManager.SERVICE_NAME_ALL_SERVICES, ServingStatus.NOT_SERVING);
+    verify(healthStatusManager).setStatus(TicketMetricsServiceGrpc.SERVICE_NAME, ServingStatus.NOT_SERVING);
+    verify(healthStatusManager, never()).setStatus(any(), eq(ServingStatus.SERVING));
+    
+    cacheWarmUp.warmUp().join();
+    
+    var inOrder = inOrder(overallScoreService, healthStatusManager);
+    inOrder.verify(overallScoreService).getOverallScore(LocalDate.parse("2025-07-08"), LATEST_DATE);
+    inOrder.verify(healthStatusManager).setStatus(HealthStatusManager.SERVICE_NAME_ALL_SERVICES, ServingStatus.SERVING);
+  }
+  
+  @Test
+  void reportsServingWhenWarmUpFails() {
+    when(ratingStatsDao.fetchLatestRatingDate()).thenThrow(new IllegalStateException("database is locked"));
+    
+    cacheWarmUp(true).warmUp().exceptionally(failure -> null).join();
+    
+    verify(healthStatusManager).setStatus(HealthStatusManager.SERVICE_NAME_ALL_SERVICES, ServingStatus.SERVING);
+    verify(healthStatusManager).setStatus(TicketMetricsServiceGrpc.SERVICE_NAME, ServingStatus.SERVING);
+    verifyNoInteractions(overallScoreService, ticketScoreService);
+  }
+  
+  @Test
+  void keepsHealthUntouchedWhenDisabled() {
+    cacheWarmUp(false).onApplicationReady();
+    
+    verifyNoInteractions(healthStatusManager, ratingStatsDao);
+  }
+  
+  private CacheWarmUp cacheWarmUp(boolean enabled) {
+    return new CacheWarmUp(
+        new CacheWarmUpProperties(enabled, 10, 2, 7, 2),
+        ratingStatsDao,
+        overallScoreService,
+        getCategoryTimelineScoreService,
+        ticketScoreService,
+        ticketCategoryMatrixService,
+        Optional.of(healthStatusManager)
+    );
+  }
+}
@@ -0,0 +1,104 @@
+package com.shishir.ticketmetrics.unit.cache;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.shishir.ticketmetrics.cache.index.DailyScoreIndex;
+import com.shishir.ticketmetrics.testsupport.annotation.UnitTest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@UnitTest
+public class DailyScoreIndexTest {
+  
+  private static final LocalDate DAY = LocalDate.parse("2025-07-01");
+  
+  @Test
+  void sumsRecordedDaysOfRange() {
+    var index = new DailyScoreIndex();
+    index.record(DAY, new BigDecimal("50.000000"));
+    index.record(DAY.plusDays(1), BigDecimal.ZERO);
+    index.record(DAY.plusDays(2), new BigDecimal("25.500000"));
+    
+    var sum = index.sum(DAY, DAY.plusDays(2));
+    
+    assertThat(sum).isEqualTo(new DailyScoreIndex.RangeSum(75_500_000, 3));
+    assertThat(sum.scoreSum()).isEqualByComparingTo("75.5");
+    assertThat(sum.covers(DAY, DAY.plusDays(2))).isTrue();
+    assertThat(index.sum(DAY, DAY.plusDays(3)).covers(DAY, DAY.plusDays(3))).isFalse();
+  }
+  
+  @Test
+  void replacesAndRemovesDays() {
+    var index = new DailyScoreIndex();
+    index.record(DAY, new BigDecimal("50.000000"));
+    index.record(DAY, new BigDecimal("10.000000"));
+    index.record(DAY.plusDays(1), new BigDecimal("20.000000"));
+    index.remove(DAY.plusDays(1));
+    
+    assertThat(index.sum(DAY, DAY.plusDays(1))).isEqualTo(new DailyScoreIndex.RangeSum(10_000_000, 1));
+  }
+  
+  @Test
+  void keepsRecordedDaysWhenGrowing() {
+    var index = new DailyScoreIndex();
+    index.record(DAY, new BigDecimal("1.000000"));
+    index.record(DAY.minusYears(5), new BigDecimal("2.000000"));
+    index.record(DAY.plusYears(5), new BigDecimal("3.000000"));
+    
+    assertThat(index.sum(DAY.minusYears(10), DAY.plusYears(10))).isEqualTo(new DailyScoreIndex.RangeSum(6_000_000, 3));
+    assertThat(index.sum(DAY, DAY)).isEqualTo(new DailyScoreIndex.RangeSum(1_000_000, 1));
+  }
+  
+  @Test
+  void doesNotIndexScoresFinerThanMicros() {
+    var index = new DailyScoreIndex();
+    index.record(DAY, new BigDecimal("1.000000"));
+    index.record(DAY, new BigDecimal("1.0000001"));
+    
+    assertThat(index.sum(DAY, DAY).loadedDays()).isZero();
+  }
+  
+  @Test
+  void removesOnEvictionButNotOnReplacement() {
+    var index = new DailyScoreIndex();
+    index.record(DAY, new BigDecimal("1.000000"));
+    index.record(DAY.plusDays(1), new BigDecimal("2.000000"));
+    
+    index.onRemoval(DAY, new BigDecimal("1.000000"), RemovalCause.REPLACED);
+    index.onRemoval(DAY.plusDays(1), new BigDecimal("2.000000"), RemovalCause.EXPIRED);
+    
+    assertThat(index.sum(DAY, DAY.plusDays(1))).isEqualTo(new DailyScoreIndex.RangeSum(1_000_000, 1));
+  }
+  
+  @Test
+  void matchesNaiveSumsForRandomUpdates() {
+    var random = new Random(42);
+    var index = new DailyScoreIndex();
+    var expected = new TreeMap<LocalDate, Long>();
+    
+    for (int i = 0; i < 5_000; i++) {
+      var date = DAY.plusDays(random.nextInt(4_000) - 2_000);
+      if (random.nextInt(4) == 0) {
+        index.remove(date);
+        expected.remove(date);
+      } else {
+        var micros = random.nextInt(5) == 0 ? 0L : random.nextLong(100_000_001L);
+        index.record(date, BigDecimal.valueOf(micros, 6));
+        expected.put(date, micros);
+      }
+      
+      var start = DAY.plusDays(random.nextInt(4_400) - 2_200);
+      var end = start.plusDays(random.nextInt(1_500));
+      var days = expected.subMap(start, true, end, true).values();
+      assertThat(index.sum(start, end)).isEqualTo(new DailyScoreIndex.RangeSum(
+          days.stream().mapToLong(Long::longValue).sum(),
+          days.size()
+      ));
+    }
+  }
+}
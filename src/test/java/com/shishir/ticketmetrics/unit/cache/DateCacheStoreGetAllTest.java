@@ -0,0 +1,161 @@
+package com.shishir.ticketmetrics.unit.cache;
+
+import com.shishir.ticketmetrics.cache.config.CacheConfig;
+import com.shishir.ticketmetrics.cache.config.ScoreCacheProperties;
+import com.shishir.ticketmetrics.cache.index.DailyScoreIndex;
+import com.shishir.ticketmetrics.cache.store.CategoryScoreByRatingDateCacheStore;
+import com.shishir.ticketmetrics.cache.store.OverallDailyScoreCacheStore;
+import com.shishir.ticketmetrics.cache.store.RatingWriteVersion;
+import com.shishir.ticketmetrics.cache.store.SingleFlightLoader;
+import com.shishir.ticketmetrics.concurrency.JdbcPermits;
+import com.shishir.ticketmetrics.grpc.support.ResponseCacheProperties;
+import com.shishir.ticketmetrics.model.CategoryScoreStatsByRatingDate;
+import com.shishir.ticketmetrics.testsupport.annotation.UnitTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@UnitTest
+public class DateCacheStoreGetAllTest {
+  private static final LocalDate START = LocalDate.parse("2025-07-01");
+  private static final List<LocalDate> DATES = START.datesUntil(START.plusDays(5)).toList();
+  
+  private final CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+  private final SingleFlightLoader singleFlightLoader = new SingleFlightLoader(JdbcPermits.unbounded());
+  private final DailyScoreIndex dailyScoreIndex = new DailyScoreIndex();
+  private final OverallDailyScoreCacheStore overallStore = new OverallDailyScoreCacheStore(cacheManager, dailyScoreIndex, new RatingWriteVersion(), singleFlightLoader);
+  private final CategoryScoreByRatingDateCacheStore categoryStore = new CategoryScoreByRatingDateCacheStore(cacheManager, new RatingWriteVersion(), singleFlightLoader);
+  private final List<SortedSet<LocalDate>> bulkLoads = new ArrayList<>();
+  
+  @Test
+  void loadsOnlyMissingDatesWithOneBulkLoad() {
+    overallStore.getAll(List.of(DATES.get(1), DATES.get(3)), this::loadScores);
+    bulkLoads.clear();
+    
+    var scores = overallStore.getAll(DATES, this::loadScores);
+    
+    assertThat(bulkLoads).containsExactly(new TreeSet<>(List.of(DATES.get(0), DATES.get(2), DATES.get(4))));
+    assertThat(scores).containsExactlyEntriesOf(loadScores(new TreeSet<>(DATES)));
+    assertThat(overallStore.getAll(DATES, this::loadScores)).isEqualTo(scores);
+    assertThat(bulkLoads).hasSize(1);
+    // Bulk-loaded days are indexed like single loads
+    assertThat(overallStore.sum(DATES.getFirst(), DATES.getLast()).covers(DATES.getFirst(), DATES.getLast())).isTrue();
+  }
+  
+  @Test
+  void indexesRangesLongerThanTheOtherCaches() {
+    var properties = new ScoreCacheProperties(Duration.ofMinutes(15), true, Duration.ofHours(24), 36_600);
+    var cacheConfig = new CacheConfig();
+    var index = new DailyScoreIndex();
+    var configuredCacheManager = cacheConfig.cacheManager(cacheConfig.caffeineConfig(properties), index, properties,
+        new ResponseCacheProperties(false, Duration.ofSeconds(5), DataSize.ofMegabytes(32)));
+    var store = new OverallDailyScoreCacheStore(configuredCacheManager, index, new RatingWriteVersion(), singleFlightLoader);
+    var dates = START.minusYears(5).datesUntil(START).toList();
+    
+    store.getAll(dates, this::loadScores);
+    
+    assertThat(dates).hasSizeGreaterThan(1000);
+    assertThat(store.sum(dates.getFirst(), dates.getLast()).covers(dates.getFirst(), dates.getLast())).isTrue();
+  }
+  
+  @Test
+  void loadsSingleMissingDateOncePerKey() {
+    overallStore.getAll(DATES.subList(0, 4), this::loadScores);
+    
+    var scores = overallStore.getAll(DATES, this::loadScores);
+    
+    assertThat(scores).hasSize(5);
+    assertThat(singleFlightLoader.stats(OverallDailyScoreCacheStore.CACHE_NAME))
+        .isEqualTo(new SingleFlightLoader.LoadStats(5, 2, 0));
+  }
+  
+  @Test
+  void loadsOverlappingRangesOncePerDate() throws Exception {
+    var firstLoadStarted = new CountDownLatch(1);
+    var secondLoadDone = new CountDownLatch(1);
+    var firstLoads = new ArrayList<SortedSet<LocalDate>>();
+    var secondLoads = new ArrayList<SortedSet<LocalDate>>();
+    
+    var executor = Executors.newFixedThreadPool(2);
+    try {
+      var first = executor.submit(() -> overallStore.getAll(DATES.subList(0, 4), missingDates -> {
+        firstLoads.add(missingDates);
+        firstLoadStarted.countDown();
+        // Still loading while the second call claims its dates
+        awaitQuietly(secondLoadDone);
+        return loadScores(missingDates);
+      }));
+      assertThat(firstLoadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+      var second = executor.submit(() -> overallStore.getAll(DATES.subList(2, 5), missingDates -> {
+        secondLoads.add(missingDates);
+        secondLoadDone.countDown();
+        return loadScores(missingDates);
+      }));
+      
+      assertThat(second.get(5, TimeUnit.SECONDS)).containsExactlyEntriesOf(loadScores(new TreeSet<>(DATES.subList(2, 5))));
+      assertThat(first.get(5, TimeUnit.SECONDS)).containsExactlyEntriesOf(loadScores(new TreeSet<>(DATES.subList(0, 4))));
+    } finally {
+      executor.shutdownNow();
+    }
+    
+    // The overlapping dates were loaded by the first call only, the second one waited for them
+    assertThat(firstLoads).containsExactly(new TreeSet<>(DATES.subList(0, 4)));
+    assertThat(secondLoads).containsExactly(new TreeSet<>(List.of(DATES.get(4))));
+    assertThat(singleFlightLoader.stats(OverallDailyScoreCacheStore.CACHE_NAME))
+        .isEqualTo(new SingleFlightLoader.LoadStats(7, 2, 2));
+  }
+  
+  @Test
+  void cachesDaysWithoutRatingsAsNull() {
+    var categoryScore = CategoryScoreStatsByRatingDate.of(1, START, 1L, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.valueOf(20));
+    var loads = new ArrayList<SortedSet<LocalDate>>();
+    
+    var scores = categoryStore.getAll(DATES, missingDates -> {
+      loads.add(missingDates);
+      var loaded = new HashMap<LocalDate, List<CategoryScoreStatsByRatingDate>>();
+      loaded.put(START, List.of(categoryScore));
+      return loaded;
+    });
+    var cachedScores = categoryStore.getAll(DATES, missingDates -> {
+      loads.add(missingDates);
+      return Map.of();
+    });
+    
+    assertThat(loads).hasSize(1);
+    assertThat(scores).containsEntry(START, List.of(categoryScore));
+    assertThat(scores).containsKeys(DATES.toArray(LocalDate[]::new));
+    assertThat(scores.get(DATES.getLast())).isNull();
+    assertThat(cachedScores).isEqualTo(scores);
+  }
+  
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+  
+  private synchronized Map<LocalDate, BigDecimal> loadScores(SortedSet<LocalDate> missingDates) {
+    bulkLoads.add(missingDates);
+    var scores = new TreeMap<LocalDate, BigDecimal>();
+    missingDates.forEach(date -> scores.put(date, BigDecimal.valueOf(date.getDayOfMonth() * 10L, 6)));
+    return scores;
+  }
+}
@@ -0,0 +1,44 @@
+package com.shishir.ticketmetrics.unit.cache;
+
+import com.shishir.ticketmetrics.cache.config.HistoricalDateExpiry;
+import com.shishir.ticketmetrics.model.TimelineGranularity;
+import com.shishir.ticketmetrics.model.TimelinePeriod;
+import com.shishir.ticketmetrics.testsupport.annotation.UnitTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@UnitTest
+public class HistoricalDateExpiryTest {
+  
+  private static final LocalDate TODAY = LocalDate.parse("2025-07-10");
+  private static final Duration TIME_TO_LIVE = Duration.ofMinutes(15);
+  private static final Duration HISTORICAL_TIME_TO_LIVE = Duration.ofHours(24);
+  
+  private final HistoricalDateExpiry expiry = new HistoricalDateExpiry(
+      TIME_TO_LIVE,
+      HISTORICAL_TIME_TO_LIVE,
+      Clock.fixed(Instant.parse("2025-07-10T12:00:00Z"), ZoneOffset.UTC)
+  );
+  
+  @Test
+  void pastDatesExpireAfterTheHistoricalTimeToLive() {
+    assertThat(expiry.expireAfterCreate(TODAY.minusDays(1), "score", 0)).isEqualTo(HISTORICAL_TIME_TO_LIVE.toNanos());
+    assertThat(expiry.expireAfterCreate(new TimelinePeriod(TimelineGranularity.WEEK, LocalDate.parse("2025-06-30")), "rollups", 0))
+        .isEqualTo(HISTORICAL_TIME_TO_LIVE.toNanos());
+  }
+  
+  @Test
+  void currentDatesAndOtherKeysExpireAfterTheTimeToLive() {
+    assertThat(expiry.expireAfterCreate(TODAY, "score", 0)).isEqualTo(TIME_TO_LIVE.toNanos());
+    assertThat(expiry.expireAfterCreate(new TimelinePeriod(TimelineGranularity.WEEK, LocalDate.parse("2025-07-07")), "rollups", 0))
+        .isEqualTo(TIME_TO_LIVE.toNanos());
+    assertThat(expiry.expireAfterCreate(201, "ticket", 0)).isEqualTo(TIME_TO_LIVE.toNanos());
+  }
+}
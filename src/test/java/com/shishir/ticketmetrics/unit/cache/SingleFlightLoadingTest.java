@@ -0,0 +1,168 @@
+package com.shishir.ticketmetrics.unit.cache;
+
+import com.shishir.ticketmetrics.cache.index.DailyScoreIndex;
+import com.shishir.ticketmetrics.cache.store.CategoryScoreByRatingDateCacheStore;
+import com.shishir.ticketmetrics.cache.store.CategoryScoreRollupCacheStore;
+import com.shishir.ticketmetrics.cache.store.OverallDailyScoreCacheStore;
+import com.shishir.ticketmetrics.cache.store.RatingWriteVersion;
+import com.shishir.ticketmetrics.cache.store.SingleFlightLoader;
+import com.shishir.ticketmetrics.cache.store.TicketCategoryMatrixCacheStore;
+import com.shishir.ticketmetrics.cache.store.TicketScoreCacheStore;
+import com.shishir.ticketmetrics.concurrency.ComputePool;
+import com.shishir.ticketmetrics.concurrency.ComputePoolProperties;
+import com.shishir.ticketmetrics.concurrency.JdbcPermits;
+import com.shishir.ticketmetrics.concurrency.ServiceExecutor;
+import com.shishir.ticketmetrics.concurrency.ServiceExecutorProperties;
+import com.shishir.ticketmetrics.concurrency.VirtualThreadProperties;
+import com.shishir.ticketmetrics.persistence.dao.RatingDao;
+import com.shishir.ticketmetrics.persistence.dao.RatingStatsDao;
+import com.shishir.ticketmetrics.persistence.dto.CategoryRatingStatsByRatingDate;
+import com.shishir.ticketmetrics.service.GetCategoryTimelineScoreService;
+import com.shishir.ticketmetrics.service.OverallScoreService;
+import com.shishir.ticketmetrics.service.TicketCategoryMatrixService;
+import com.shishir.ticketmetrics.service.TicketScoreService;
+import com.shishir.ticketmetrics.service.support.DateRangeLoadPlanner;
+import com.shishir.ticketmetrics.service.support.RangeScanProperties;
+import com.shishir.ticketmetrics.testsupport.annotation.UnitTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Concurrent misses of one key in every cache store must run the underlying query once.
+ * The mocked query blocks until every caller has missed the cache.
+ */
+@UnitTest
+public class SingleFlightLoadingTest {
+  private static final int CALLERS = 8;
+  private static final LocalDate DATE = LocalDate.parse("2025-07-01");
+  private static final int TICKET_ID = 201;
+  
+  private final CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+  private final SingleFlightLoader singleFlightLoader = new SingleFlightLoader(JdbcPermits.unbounded());
+  private final RatingDao ratingDao = mock(RatingDao.class);
+  private final RatingStatsDao ratingStatsDao = mock(RatingStatsDao.class);
+  private final DateRangeLoadPlanner dateRangeLoadPlanner = new DateRangeLoadPlanner(new RangeScanProperties(2));
+  private final ServiceExecutor serviceExecutor = new ServiceExecutor(new VirtualThreadProperties(false, 0), new ServiceExecutorProperties(1, 1000));
+  private final ComputePool computePool = new ComputePool(new ComputePoolProperties(2, 2, 14, 500), JdbcPermits.unbounded());
+  private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+  
+  @AfterEach
+  void shutdown() {
+    executor.shutdownNow();
+    serviceExecutor.destroy();
+    computePool.destroy();
+  }
+  
+  @Test
+  void loadsTicketScoreOnce() throws Exception {
+    var service = new TicketScoreService(new TicketScoreCacheStore(cacheManager, new RatingWriteVersion(), singleFlightLoader), ratingDao, ratingStatsDao, computePool);
+    when(ratingStatsDao.fetchRatingMapByTicketId(TICKET_ID)).thenAnswer(invocation -> blockUntilAllMissed("ticketScoreByTicketId", ratingMap()));
+    
+    var scores = callConcurrently(() -> service.getTicketScore(TICKET_ID));
+    
+    verify(ratingStatsDao, times(1)).fetchRatingMapByTicketId(TICKET_ID);
+    assertThat(scores).containsOnly(scores.get(0));
+    assertThat(singleFlightLoader.stats("ticketScoreByTicketId")).isEqualTo(new SingleFlightLoader.LoadStats(CALLERS, 1, CALLERS - 1));
+  }
+  
+  @Test
+  void loadsTicketCategoryScoresOnce() throws Exception {
+    var cacheStore = new TicketCategoryMatrixCacheStore(cacheManager, new RatingWriteVersion(), singleFlightLoader);
+    var service = new TicketCategoryMatrixService(ratingDao, ratingStatsDao, cacheStore, serviceExecutor, computePool);
+    when(ratingStatsDao.fetchRatingMapByTicketId(TICKET_ID)).thenAnswer(invocation -> blockUntilAllMissed("ticketXCategoryScoresByTicketId", ratingMap()));
+    
+    var rows = callConcurrently(() -> cacheStore.getOrCalculate(TICKET_ID, service));
+    
+    verify(ratingStatsDao, times(1)).fetchRatingMapByTicketId(TICKET_ID);
+    assertThat(rows).containsOnly(rows.get(0));
+    assertThat(singleFlightLoader.stats("ticketXCategoryScoresByTicketId")).isEqualTo(new SingleFlightLoader.LoadStats(CALLERS, 1, CALLERS - 1));
+  }
+  
+  @Test
+  void loadsOverallDailyScoreOnce() throws Exception {
+    var cacheStore = new OverallDailyScoreCacheStore(cacheManager, new DailyScoreIndex(), new RatingWriteVersion(), singleFlightLoader);
+    var service = new OverallScoreService(cacheStore, ratingDao, ratingStatsDao, dateRangeLoadPlanner, serviceExecutor, computePool);
+    when(ratingStatsDao.fetchCategoryStatsByRatingDate(DATE)).thenAnswer(invocation -> blockUntilAllMissed("overallDailyScoreByDate", categoryStats()));
+    
+    var scores = callConcurrently(() -> service.getOverallScore(DATE, DATE));
+    
+    verify(ratingStatsDao, times(1)).fetchCategoryStatsByRatingDate(any());
+    assertThat(scores).containsOnly(scores.get(0));
+    assertThat(singleFlightLoader.stats("overallDailyScoreByDate")).isEqualTo(new SingleFlightLoader.LoadStats(CALLERS, 1, CALLERS - 1));
+  }
+  
+  @Test
+  void loadsCategoryScoresOfDateOnce() throws Exception {
+    var cacheStore = new CategoryScoreByRatingDateCacheStore(cacheManager, new RatingWriteVersion(), singleFlightLoader);
+    var service = new GetCategoryTimelineScoreService(cacheStore, new CategoryScoreRollupCacheStore(cacheManager, new RatingWriteVersion(), singleFlightLoader), ratingStatsDao, ratingDao, dateRangeLoadPlanner, serviceExecutor, computePool);
+    when(ratingStatsDao.fetchCategoryStatsByRatingDate(DATE)).thenAnswer(invocation -> blockUntilAllMissed("categoryScoreByRatingDate", categoryStats()));
+    
+    var summaries = callConcurrently(() -> service.getCategoryTimelineScores(DATE, DATE));
+    
+    verify(ratingStatsDao, times(1)).fetchCategoryStatsByRatingDate(any());
+    assertThat(summaries).containsOnly(summaries.get(0));
+    assertThat(singleFlightLoader.stats("categoryScoreByRatingDate")).isEqualTo(new SingleFlightLoader.LoadStats(CALLERS, 1, CALLERS - 1));
+  }
+  
+  @Test
+  void rethrowsLoaderException() {
+    var cacheStore = new TicketScoreCacheStore(cacheManager, new RatingWriteVersion(), singleFlightLoader);
+    
+    assertThatThrownBy(() -> cacheStore.getOrCalculate(TICKET_ID, ticketId -> {
+          throw new IllegalStateException("Duplicate rating");
+        }))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Duplicate rating");
+  }
+  
+  private <T> List<T> callConcurrently(Supplier<T> call) throws Exception {
+    var futures = new ArrayList<Future<T>>();
+    for (int i = 0; i < CALLERS; i++) {
+      futures.add(executor.submit(call::get));
+    }
+    var results = new ArrayList<T>();
+    for (var future : futures) {
+      results.add(future.get(10, TimeUnit.SECONDS));
+    }
+    return results;
+  }
+  
+  private <T> T blockUntilAllMissed(String cacheName, T result) throws InterruptedException {
+    var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (singleFlightLoader.stats(cacheName).misses() < CALLERS && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    return result;
+  }
+  
+  private static Map<Integer, BigDecimal> ratingMap() {
+    return Map.of(1, BigDecimal.valueOf(4), 2, BigDecimal.valueOf(5));
+  }
+  
+  private static List<CategoryRatingStatsByRatingDate> categoryStats() {
+    return List.of(
+        new CategoryRatingStatsByRatingDate(1, DATE, 2L, BigDecimal.valueOf(9), BigDecimal.valueOf(4.5)),
+        new CategoryRatingStatsByRatingDate(2, DATE, 1L, BigDecimal.valueOf(3), BigDecimal.valueOf(3.0))
+    );
+  }
+}
@@ -0,0 +1,95 @@
+package com.shishir.ticketmetrics.unit.cache;
+
+import com.shishir.ticketmetrics.cache.store.RatingWriteVersion;
+import com.shishir.ticketmetrics.cache.store.SingleFlightLoader;
+import com.shishir.ticketmetrics.cache.store.TicketCategoryMatrixCacheStore;
+import com.shishir.ticketmetrics.cache.store.TicketScoreCacheStore;
+import com.shishir.ticketmetrics.concurrency.ComputePool;
+import com.shishir.ticketmetrics.concurrency.ComputePoolProperties;
+import com.shishir.ticketmetrics.concurrency.JdbcPermits;
+import com.shishir.ticketmetrics.concurrency.ServiceExecutor;
+import com.shishir.ticketmetrics.concurrency.ServiceExecutorProperties;
+import com.shishir.ticketmetrics.concurrency.VirtualThreadProperties;
+import com.shishir.ticketmetrics.persistence.dao.RatingDao;
+import com.shishir.ticketmetrics.persistence.dao.RatingStatsDao;
+import com.shishir.ticketmetrics.service.TicketCategoryMatrixService;
+import com.shishir.ticketmetrics.service.TicketScoreService;
+import com.shishir.ticketmetrics.testsupport.annotation.UnitTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A rating write committing while tickets are bulk loaded must not leave the scores read before it cached.
+ * The mocked rating read advances the write version like {@code RatingIngestionService} does after its commit.
+ */
+@UnitTest
+public class TicketBulkLoadWriteRaceTest {
+  private static final List<Integer> TICKET_IDS = List.of(201, 202);
+  
+  private final CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+  private final SingleFlightLoader singleFlightLoader = new SingleFlightLoader(JdbcPermits.unbounded());
+  private final RatingWriteVersion ratingWriteVersion = new RatingWriteVersion();
+  private final RatingDao ratingDao = mock(RatingDao.class);
+  private final RatingStatsDao ratingStatsDao = mock(RatingStatsDao.class);
+  private final ServiceExecutor serviceExecutor = new ServiceExecutor(new VirtualThreadProperties(false, 0), new ServiceExecutorProperties(1, 1000));
+  private final ComputePool computePool = new ComputePool(new ComputePoolProperties(2, 2, 14, 500), JdbcPermits.unbounded());
+  
+  @BeforeEach
+  void setup() {
+    when(ratingDao.getCategoryWeightMap()).thenReturn(Map.of(1, BigDecimal.ONE, 2, BigDecimal.valueOf(0.5)));
+    when(ratingStatsDao.fetchRatingMapsByTicketIds(anyList())).thenAnswer(invocation -> {
+      ratingWriteVersion.advance();
+      return Map.of(201, Map.of(1, BigDecimal.valueOf(4)), 202, Map.of(2, BigDecimal.valueOf(5)));
+    });
+  }
+  
+  @AfterEach
+  void shutdown() {
+    serviceExecutor.destroy();
+    computePool.destroy();
+  }
+  
+  @Test
+  void dropsTicketScoresLoadedDuringWrite() {
+    var cacheStore = new TicketScoreCacheStore(cacheManager, ratingWriteVersion, singleFlightLoader);
+    var service = new TicketScoreService(cacheStore, ratingDao, ratingStatsDao, computePool);
+    
+    var scores = service.getTicketScores(TICKET_IDS);
+    
+    assertThat(scores).containsOnlyKeys(TICKET_IDS);
+    assertThat(TICKET_IDS).noneMatch(cacheStore::isCached);
+  }
+  
+  @Test
+  void dropsTicketCategoryScoresLoadedDuringWrite() {
+    var cacheStore = new TicketCategoryMatrixCacheStore(cacheManager, ratingWriteVersion, singleFlightLoader);
+    var service = new TicketCategoryMatrixService(ratingDao, ratingStatsDao, cacheStore, serviceExecutor, computePool);
+    
+    var rows = service.getTicketCategoryScores(TICKET_IDS);
+    
+    assertThat(rows).hasSize(2);
+    assertThat(TICKET_IDS).noneMatch(cacheStore::isCached);
+  }
+  
+  @Test
+  void keepsTicketScoresLoadedWithoutWrite() {
+    when(ratingStatsDao.fetchRatingMapsByTicketIds(anyList())).thenReturn(Map.of(201, Map.of(1, BigDecimal.valueOf(4))));
+    var cacheStore = new TicketScoreCacheStore(cacheManager, ratingWriteVersion, singleFlightLoader);
+    var service = new TicketScoreService(cacheStore, ratingDao, ratingStatsDao, computePool);
+    
+    service.loadTicketScores(TICKET_IDS);
+    
+    assertThat(TICKET_IDS).allMatch(cacheStore::isCached);
+  }
+}
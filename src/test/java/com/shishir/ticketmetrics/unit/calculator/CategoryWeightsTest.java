@@ -0,0 +1,76 @@
+package com.shishir.ticketmetrics.unit.calculator;
+
+import com.shishir.ticketmetrics.calculator.CategoryWeights;
+import com.shishir.ticketmetrics.calculator.ScoreCalculator;
+import com.shishir.ticketmetrics.testsupport.annotation.UnitTest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@UnitTest
+public class CategoryWeightsTest {
+  
+  private static final int ITERATIONS = 20_000;
+  
+  @Test
+  void scoresTicketsLikeBigDecimalCalculator() {
+    // Fixed seed, so a failure is reproducible
+    var random = new Random(20250702L);
+    
+    for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+      var categories = 1 + random.nextInt(6);
+      var weightMap = new HashMap<Integer, BigDecimal>();
+      for (int categoryId = 1; categoryId <= categories; categoryId++) {
+        if (random.nextInt(5) > 0) {
+          weightMap.put(categoryId, BigDecimal.valueOf(random.nextInt(5_000), random.nextInt(4)));
+        }
+      }
+      var weights = CategoryWeights.of(weightMap);
+      assertThat(weights.fixedPoint()).isPresent();
+      
+      // Categories beyond the weighted ones fall back to ScoreCalculator
+      var ratingMap = new HashMap<Integer, BigDecimal>();
+      for (int categoryId = 0; categoryId < categories + 2; categoryId++) {
+        if (random.nextBoolean()) {
+          ratingMap.put(categoryId, BigDecimal.valueOf(random.nextInt(6)));
+        }
+      }
+      
+      assertThat(weights.calculateScore(ratingMap))
+          .as("ratings=%s, weights=%s", ratingMap, weightMap)
+          .isEqualTo(ScoreCalculator.calculateScore(ratingMap, weightMap));
+    }
+  }
+  
+  @Test
+  void fallsBackForFractionalRatings() {
+    var weights = CategoryWeights.of(Map.of(1, BigDecimal.valueOf(2), 2, BigDecimal.valueOf(1)));
+    var ratingMap = Map.of(1, new BigDecimal("4.5"), 2, BigDecimal.valueOf(3));
+    
+    assertThat(weights.calculateScore(ratingMap)).isEqualTo(ScoreCalculator.calculateScore(ratingMap, weights.weightMap()));
+  }
+  
+  @Test
+  void fallsBackWhenWeightsDoNotFitFixedPoint() {
+    var weightMap = Map.of(1, new BigDecimal("0.0000000001"));
+    var weights = CategoryWeights.of(weightMap);
+    
+    assertThat(weights.fixedPoint()).isEmpty();
+    assertThat(weights.calculateScore(Map.of(1, BigDecimal.valueOf(4)))).isEqualTo(new BigDecimal("80.00"));
+    assertThat(weights.calculateCategoryScore(1, 9, 2, new BigDecimal("4.5"))).isEqualTo(new BigDecimal("90.00"));
+  }
+  
+  @Test
+  void rejectsRatingsOutOfBounds() {
+    var weights = CategoryWeights.of(Map.of(1, BigDecimal.ONE));
+    
+    assertThatThrownBy(() -> weights.calculateScore(Map.of(1, BigDecimal.valueOf(6))))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
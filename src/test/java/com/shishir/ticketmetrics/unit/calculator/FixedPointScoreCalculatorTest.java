@@ -0,0 +1,107 @@
+package com.shishir.ticketmetrics.unit.calculator;
+
+import com.shishir.ticketmetrics.calculator.FixedPointScoreCalculator;
+import com.shishir.ticketmetrics.calculator.ScoreCalculator;
+import com.shishir.ticketmetrics.testsupport.annotation.UnitTest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@UnitTest
+public class FixedPointScoreCalculatorTest {
+  
+  private static final int ITERATIONS = 20_000;
+  
+  @Test
+  void matchesBigDecimalCalculatorForRandomInputs() {
+    // Fixed seed, so a failure is reproducible
+    var random = new Random(20250701L);
+    
+    for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+      var categories = 1 + random.nextInt(6);
+      var weightMap = new HashMap<Integer, BigDecimal>();
+      for (int categoryId = 1; categoryId <= categories; categoryId++) {
+        // Leave some categories without weight, and use weights with up to 3 decimals
+        if (random.nextInt(5) > 0) {
+          weightMap.put(categoryId, BigDecimal.valueOf(random.nextInt(5_000), random.nextInt(4)));
+        }
+      }
+      var weights = FixedPointScoreCalculator.Weights.of(weightMap).orElseThrow();
+      
+      // One extra category on each side that never has a weight
+      var ratingSums = new long[categories + 2];
+      var ratingCounts = new long[categories + 2];
+      var ratingMap = new HashMap<Integer, BigDecimal>();
+      for (int categoryId = 0; categoryId < categories + 2; categoryId++) {
+        if (random.nextBoolean()) {
+          continue;
+        }
+        // Mix single ratings, small counts (exact .5 ties) and large daily counts
+        var ratingCount = 1L + random.nextInt(random.nextBoolean() ? 3 : 100_000);
+        var ratingSum = Math.min(5 * ratingCount, Math.round(random.nextDouble() * 5 * ratingCount));
+        ratingSums[categoryId] = ratingSum;
+        ratingCounts[categoryId] = ratingCount;
+        // Same average representation the services get from SQLite
+        var ratingAverage = BigDecimal.valueOf((double) ratingSum / (double) ratingCount);
+        ratingMap.put(categoryId, ratingAverage);
+        
+        assertThat(FixedPointScoreCalculator.calculateCategoryScore(categoryId, ratingSum, ratingCount, weights))
+            .as("categoryId=%d, rating=%d/%d, weights=%s", categoryId, ratingSum, ratingCount, weightMap)
+            .isEqualTo(ScoreCalculator.calculateScore(Map.of(categoryId, ratingAverage), weightMap));
+      }
+      
+      var scoreCents = FixedPointScoreCalculator.calculateScoreCents(ratingSums, ratingCounts, weights);
+      assertThat(FixedPointScoreCalculator.toScore(scoreCents))
+          .as("ratings=%s, weights=%s", ratingMap, weightMap)
+          .isEqualTo(ScoreCalculator.calculateScore(ratingMap, weightMap));
+    }
+  }
+  
+  @Test
+  void calculatesWeightedScoreFromDenseArrays() {
+    var weights = FixedPointScoreCalculator.Weights.of(Map.of(
+        1, BigDecimal.valueOf(2),
+        2, BigDecimal.valueOf(3)
+    )).orElseThrow();
+    
+    // ((4/5)*100*2 + (5/5)*100*3) / 5 = 92.00
+    var scoreCents = FixedPointScoreCalculator.calculateScoreCents(new long[]{0, 4, 5}, new long[]{0, 1, 1}, weights);
+    
+    assertThat(scoreCents).isEqualTo(9200);
+    assertThat(FixedPointScoreCalculator.toScore(scoreCents)).isEqualTo(new BigDecimal("92.00"));
+  }
+  
+  @Test
+  void returnsNoScoreWhenNoRatedCategoryHasWeight() {
+    var weights = FixedPointScoreCalculator.Weights.of(Map.of(1, BigDecimal.ONE)).orElseThrow();
+    
+    var scoreCents = FixedPointScoreCalculator.calculateScoreCents(new long[]{0, 0, 5}, new long[]{0, 0, 1}, weights);
+    
+    assertThat(scoreCents).isEqualTo(FixedPointScoreCalculator.NO_SCORE);
+    assertThat(FixedPointScoreCalculator.toScore(scoreCents)).isEqualTo(BigDecimal.ZERO);
+    assertThat(FixedPointScoreCalculator.calculateCategoryScore(2, 5, 1, weights)).isEqualTo(BigDecimal.ZERO);
+  }
+  
+  @Test
+  void rejectsRatingsOutOfBounds() {
+    var weights = FixedPointScoreCalculator.Weights.of(Map.of(1, BigDecimal.ONE)).orElseThrow();
+    
+    assertThatThrownBy(() -> FixedPointScoreCalculator.calculateCategoryScoreCents(1, 11, 2, weights))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> FixedPointScoreCalculator.calculateCategoryScoreCents(1, -1, 1, weights))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+  
+  @Test
+  void rejectsWeightsThatCannotBeScaledSafely() {
+    assertThat(FixedPointScoreCalculator.Weights.of(Map.of(1, new BigDecimal("0.0000000001")))).isEmpty();
+    assertThat(FixedPointScoreCalculator.Weights.of(Map.of(1, new BigDecimal("10000000000000")))).isEmpty();
+    assertThat(FixedPointScoreCalculator.Weights.of(Map.of(-1, BigDecimal.ONE))).isEmpty();
+  }
+}
@@ -0,0 +1,77 @@
+package com.shishir.ticketmetrics.unit.concurrency;
+
+import com.shishir.ticketmetrics.concurrency.ComputePool;
+import com.shishir.ticketmetrics.concurrency.ComputePoolProperties;
+import com.shishir.ticketmetrics.concurrency.JdbcPermits;
+import com.shishir.ticketmetrics.concurrency.VirtualThreadProperties;
+import com.shishir.ticketmetrics.testsupport.annotation.UnitTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@UnitTest
+public class ComputePoolTest {
+  private static final List<Integer> ITEMS = IntStream.rangeClosed(1, 100).boxed().toList();
+  
+  private final JdbcPermits jdbcPermits = new JdbcPermits(new VirtualThreadProperties(true, 1));
+  private final ComputePool computePool = new ComputePool(new ComputePoolProperties(4, 3, 10, 500), jdbcPermits);
+  
+  @AfterEach
+  void shutdown() {
+    computePool.destroy();
+  }
+  
+  @Test
+  void splitsIntoAtMostMaxRequestParallelismChunksInItemOrder() {
+    var threads = ConcurrentHashMap.<String>newKeySet();
+    
+    var chunks = computePool.map(ITEMS, 10, chunk -> {
+      threads.add(Thread.currentThread().getName());
+      return chunk;
+    });
+    
+    assertThat(chunks).hasSize(3);
+    assertThat(chunks.stream().flatMap(List::stream).toList()).isEqualTo(ITEMS);
+    assertThat(threads).allMatch(name -> name.startsWith("compute-"));
+  }
+  
+  @Test
+  void keepsMinChunkSize() {
+    assertThat(computePool.map(ITEMS, 40, List::size)).containsExactly(50, 50);
+    assertThat(computePool.map(ITEMS, 60, List::size)).containsExactly(100);
+  }
+  
+  @Test
+  void runsInlineWhileHoldingJdbcPermit() {
+    var caller = Thread.currentThread();
+    Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    
+    jdbcPermits.acquire();
+    try {
+      computePool.map(ITEMS, 10, chunk -> threads.add(Thread.currentThread()));
+    } finally {
+      jdbcPermits.release();
+    }
+    
+    assertThat(threads).containsExactly(caller);
+  }
+  
+  @Test
+  void rethrowsTaskException() {
+    assertThatThrownBy(() -> computePool.map(ITEMS, 10, chunk -> {
+      if (chunk.contains(100)) {
+        throw new IllegalStateException("Duplicate rating");
+      }
+      return chunk;
+    }))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Duplicate rating");
+  }
+}
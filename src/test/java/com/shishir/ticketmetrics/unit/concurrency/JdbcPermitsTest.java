@@ -0,0 +1,77 @@
+package com.shishir.ticketmetrics.unit.concurrency;
+
+import com.shishir.ticketmetrics.concurrency.JdbcPermits;
+import com.shishir.ticketmetrics.concurrency.VirtualThreadProperties;
+import com.shishir.ticketmetrics.persistence.datasource.JdbcPermitDataSource;
+import com.shishir.ticketmetrics.testsupport.annotation.UnitTest;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@UnitTest
+public class JdbcPermitsTest {
+  private final JdbcPermits jdbcPermits = new JdbcPermits(new VirtualThreadProperties(true, 1));
+  
+  @Test
+  void blocksOtherThreadsUntilReleased() throws Exception {
+    jdbcPermits.acquire();
+    var other = CompletableFuture.runAsync(() -> {
+      jdbcPermits.acquire();
+      jdbcPermits.release();
+    });
+    
+    assertThatThrownBy(() -> other.get(100, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+    jdbcPermits.release();
+    other.get(5, TimeUnit.SECONDS);
+    assertThat(jdbcPermits.availablePermits()).isEqualTo(1);
+  }
+  
+  @Test
+  void holdsOnePermitPerThread() {
+    jdbcPermits.acquire();
+    jdbcPermits.acquire();
+    assertThat(jdbcPermits.availablePermits()).isZero();
+    
+    jdbcPermits.release();
+    assertThat(jdbcPermits.availablePermits()).isZero();
+    jdbcPermits.release();
+    assertThat(jdbcPermits.availablePermits()).isEqualTo(1);
+  }
+  
+  @Test
+  void passesThroughWithoutVirtualThreads() {
+    var unbounded = JdbcPermits.unbounded();
+    
+    unbounded.acquire();
+    unbounded.acquire();
+    
+    assertThat(unbounded.availablePermits()).isEqualTo(-1);
+  }
+  
+  @Test
+  void dataSourceReturnsPermitWhenConnectionCloses() throws Exception {
+    var connection = mock(Connection.class);
+    var pool = mock(DataSource.class);
+    when(pool.getConnection()).thenReturn(connection);
+    var dataSource = new JdbcPermitDataSource(pool, jdbcPermits);
+    
+    var handedOut = dataSource.getConnection();
+    assertThat(jdbcPermits.availablePermits()).isZero();
+    handedOut.close();
+    handedOut.close();
+    
+    verify(connection, times(2)).close();
+    assertThat(jdbcPermits.availablePermits()).isEqualTo(1);
+  }
+}
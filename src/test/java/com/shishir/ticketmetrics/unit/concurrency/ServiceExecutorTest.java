@@ -0,0 +1,48 @@
+package com.shishir.ticketmetrics.unit.concurrency;
+
+import com.shishir.ticketmetrics.concurrency.ServiceExecutor;
+import com.shishir.ticketmetrics.concurrency.ServiceExecutorProperties;
+import com.shishir.ticketmetrics.concurrency.VirtualThreadProperties;
+import com.shishir.ticketmetrics.testsupport.annotation.UnitTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@UnitTest
+public class ServiceExecutorTest {
+  private final ServiceExecutor serviceExecutor = new ServiceExecutor(new VirtualThreadProperties(false, 0), new ServiceExecutorProperties(1, 1));
+  
+  @AfterEach
+  void shutdown() {
+    serviceExecutor.destroy();
+  }
+  
+  @Test
+  void rejectsCallsBeyondQueueCapacity() throws Exception {
+    var release = new CountDownLatch(1);
+    var running = CompletableFuture.runAsync(() -> awaitQuietly(release), serviceExecutor);
+    var queued = CompletableFuture.supplyAsync(() -> "queued", serviceExecutor);
+    
+    assertThatThrownBy(() -> CompletableFuture.supplyAsync(() -> "rejected", serviceExecutor))
+        .isInstanceOf(RejectedExecutionException.class);
+    
+    release.countDown();
+    running.get(5, TimeUnit.SECONDS);
+    assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+  }
+  
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
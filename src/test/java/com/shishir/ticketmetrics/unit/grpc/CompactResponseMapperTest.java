@@ -0,0 +1,65 @@
+package com.shishir.ticketmetrics.unit.grpc;
+
+import com.shishir.ticketmetrics.generated.grpc.CompactCategorySeries;
+import com.shishir.ticketmetrics.grpc.support.GrpcResponseMapper;
+import com.shishir.ticketmetrics.model.CategoryScoreByTicket;
+import com.shishir.ticketmetrics.model.CategoryScoreSummary;
+import com.shishir.ticketmetrics.model.TicketXCategoryScores;
+import com.shishir.ticketmetrics.model.TimelineGranularity;
+import com.shishir.ticketmetrics.testsupport.annotation.UnitTest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@UnitTest
+public class CompactResponseMapperTest {
+  private static final LocalDate START = LocalDate.parse("2025-07-02");
+  private static final LocalDate END = LocalDate.parse("2025-07-20");
+  
+  @Test
+  void timelineHasOneScorePerWeekWithNaNForWeeksWithoutRatings() {
+    var summaries = List.of(
+        CategoryScoreSummary.of(2, 3L, new BigDecimal("50"), List.of(
+            CategoryScoreSummary.Timeline.of(LocalDate.parse("2025-07-14"), new BigDecimal("40.4"))
+        )),
+        CategoryScoreSummary.of(1, 5L, new BigDecimal("70"), List.of(
+            CategoryScoreSummary.Timeline.of(LocalDate.parse("2025-06-30"), new BigDecimal("60")),
+            CategoryScoreSummary.Timeline.of(LocalDate.parse("2025-07-14"), new BigDecimal("80"))
+        ))
+    );
+    
+    var compact = GrpcResponseMapper.toCompactCategoryTimelineResponse(summaries, TimelineGranularity.WEEK, START, END).getCompact();
+    
+    assertThat(compact.getStartEpochDay()).isEqualTo(LocalDate.parse("2025-06-30").toEpochDay());
+    assertThat(compact.getCategoriesList()).extracting(CompactCategorySeries::getCategoryId).containsExactly(1, 2);
+    assertThat(compact.getCategories(0).getScoresList()).containsExactly(60d, Double.NaN, 80d);
+    assertThat(compact.getCategories(1).getScoresList()).containsExactly(Double.NaN, Double.NaN, 40d);
+    assertThat(compact.getCategories(1).getTotalRatings()).isEqualTo(3);
+  }
+  
+  @Test
+  void serializesEqualMatricesToEqualBytes() {
+    var rows = List.of(
+        TicketXCategoryScores.of(7, List.of(CategoryScoreByTicket.of(3, new BigDecimal("40")), CategoryScoreByTicket.of(1, new BigDecimal("100")))),
+        TicketXCategoryScores.of(5, List.of(CategoryScoreByTicket.of(2, new BigDecimal("20"))))
+    );
+    var reorderedRows = List.of(
+        TicketXCategoryScores.of(7, List.of(CategoryScoreByTicket.of(1, new BigDecimal("100")), CategoryScoreByTicket.of(3, new BigDecimal("40")))),
+        TicketXCategoryScores.of(5, List.of(CategoryScoreByTicket.of(2, new BigDecimal("20"))))
+    );
+    
+    var response = GrpcResponseMapper.toCompactTicketCategoryMatrixResponse(rows);
+    
+    var compact = response.getCompact();
+    assertThat(compact.getCategoryIdsList()).containsExactly(1, 2, 3);
+    assertThat(compact.getTicketIdsList()).containsExactly(7, 5);
+    assertThat(compact.getRowOffsetsList()).containsExactly(0, 2, 3);
+    assertThat(compact.getCategoryIndexesList()).containsExactly(0, 2, 1);
+    assertThat(compact.getScoresList()).containsExactly(100d, 40d, 20d);
+    assertThat(GrpcResponseMapper.toCompactTicketCategoryMatrixResponse(reorderedRows).toByteArray()).isEqualTo(response.toByteArray());
+  }
+}
@@ -0,0 +1,74 @@
+package com.shishir.ticketmetrics.unit.grpc;
+
+import com.shishir.ticketmetrics.cache.store.RatingWriteVersion;
+import com.shishir.ticketmetrics.grpc.support.GrpcRequestHandler;
+import com.shishir.ticketmetrics.grpc.support.MatrixStreamProperties;
+import com.shishir.ticketmetrics.grpc.support.ResponseCache;
+import com.shishir.ticketmetrics.grpc.support.ResponseCacheProperties;
+import com.shishir.ticketmetrics.persistence.slowquery.SlowQueryLog;
+import com.shishir.ticketmetrics.service.GetCategoryTimelineScoreService;
+import com.shishir.ticketmetrics.service.OverallScoreService;
+import com.shishir.ticketmetrics.service.RatingIngestionService;
+import com.shishir.ticketmetrics.service.TicketCategoryMatrixService;
+import com.shishir.ticketmetrics.service.TicketScoreService;
+import com.shishir.ticketmetrics.testsupport.annotation.UnitTest;
+import com.shishir.ticketmetrics.testsupport.utl.GrpcTestUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Both periods of a comparison are requested before either is scored.
+ */
+@UnitTest
+public class ComparePeriodScoresFanOutTest {
+  private static final LocalDate CURRENT_START = LocalDate.parse("2025-07-08");
+  private static final LocalDate CURRENT_END = LocalDate.parse("2025-07-14");
+  private static final LocalDate PREVIOUS_START = LocalDate.parse("2025-07-01");
+  private static final LocalDate PREVIOUS_END = LocalDate.parse("2025-07-07");
+  
+  private final OverallScoreService overallScoreService = mock(OverallScoreService.class);
+  private final GrpcRequestHandler handler = new GrpcRequestHandler(
+      mock(TicketScoreService.class),
+      overallScoreService,
+      mock(GetCategoryTimelineScoreService.class),
+      mock(TicketCategoryMatrixService.class),
+      mock(RatingIngestionService.class),
+      new MatrixStreamProperties(500),
+      mock(SlowQueryLog.class),
+      new ResponseCache(new CaffeineCacheManager(), new ResponseCacheProperties(false, Duration.ofSeconds(5), DataSize.ofMegabytes(32)), new RatingWriteVersion())
+  );
+  
+  @Test
+  void scoresBothPeriodsConcurrently() {
+    var currentScore = new CompletableFuture<BigDecimal>();
+    var previousScore = new CompletableFuture<BigDecimal>();
+    when(overallScoreService.getOverallScoreAsync(CURRENT_START, CURRENT_END)).thenReturn(currentScore);
+    when(overallScoreService.getOverallScoreAsync(PREVIOUS_START, PREVIOUS_END)).thenReturn(previousScore);
+    
+    var response = handler.handle(GrpcTestUtil.buildComparePeriodScoresRequest(
+        "2025-07-08T00:00:00", "2025-07-14T00:00:00", "2025-07-01T00:00:00", "2025-07-07T00:00:00"));
+    
+    verify(overallScoreService).getOverallScoreAsync(CURRENT_START, CURRENT_END);
+    verify(overallScoreService).getOverallScoreAsync(PREVIOUS_START, PREVIOUS_END);
+    assertThat(response).isNotDone();
+    
+    previousScore.complete(new BigDecimal("60"));
+    assertThat(response).isNotDone();
+    currentScore.complete(new BigDecimal("75"));
+    
+    assertThat(response.join().getCurrentPeriodScore()).isEqualTo(75.0);
+    assertThat(response.join().getPreviousPeriodScore()).isEqualTo(60.0);
+    assertThat(response.join().getScoreChange()).isEqualTo(15.0);
+  }
+}
@@ -0,0 +1,174 @@
+package com.shishir.ticketmetrics.unit.grpc;
+
+import com.shishir.ticketmetrics.grpc.support.FlowControlledStreamer;
+import com.shishir.ticketmetrics.testsupport.annotation.UnitTest;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@UnitTest
+public class FlowControlledStreamerTest {
+  
+  @Test
+  void computesNothingWhileTransportIsNotReady() {
+    var messages = new CountingIterator(5);
+    var observer = new FakeObserver();
+    
+    FlowControlledStreamer.stream(messages, observer);
+    
+    assertThat(messages.computed).isZero();
+    assertThat(observer.sent).isEmpty();
+    assertThat(observer.completed).isFalse();
+  }
+  
+  @Test
+  void resumesOnReadyAndCompletes() {
+    var messages = new CountingIterator(5);
+    var observer = new FakeObserver();
+    observer.ready = true;
+    observer.readyBudget = 2;
+    
+    FlowControlledStreamer.stream(messages, observer);
+    assertThat(observer.sent).containsExactly(0, 1);
+    assertThat(messages.computed).isEqualTo(2);
+    
+    observer.readyBudget = 10;
+    observer.ready = true;
+    observer.onReadyHandler.run();
+    
+    assertThat(observer.sent).containsExactly(0, 1, 2, 3, 4);
+    assertThat(observer.completed).isTrue();
+  }
+  
+  @Test
+  void stopsWhenClientCancels() {
+    var messages = new CountingIterator(5);
+    var observer = new FakeObserver();
+    observer.ready = true;
+    observer.readyBudget = 1;
+    
+    FlowControlledStreamer.stream(messages, observer);
+    observer.cancelled = true;
+    observer.ready = true;
+    observer.onReadyHandler.run();
+    
+    assertThat(observer.sent).containsExactly(0);
+    assertThat(observer.completed).isFalse();
+    assertThat(observer.error).isNull();
+  }
+  
+  @Test
+  void reportsFailureAsInternalError() {
+    Iterator<Integer> messages = new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return true;
+      }
+      
+      @Override
+      public Integer next() {
+        throw new IllegalStateException("boom");
+      }
+    };
+    var observer = new FakeObserver();
+    observer.ready = true;
+    
+    FlowControlledStreamer.stream(messages, observer);
+    
+    assertThat(Status.fromThrowable(observer.error).getCode()).isEqualTo(Status.Code.INTERNAL);
+    assertThat(observer.completed).isFalse();
+  }
+  
+  private static class CountingIterator implements Iterator<Integer> {
+    private final Iterator<Integer> values;
+    private int computed;
+    
+    CountingIterator(int size) {
+      this.values = IntStream.range(0, size).boxed().iterator();
+    }
+    
+    @Override
+    public boolean hasNext() {
+      return values.hasNext();
+    }
+    
+    @Override
+    public Integer next() {
+      computed++;
+      return values.next();
+    }
+  }
+  
+  /**
+   * Transport that accepts {@code readyBudget} messages and then reports not ready.
+   */
+  private static class FakeObserver extends ServerCallStreamObserver<Integer> {
+    private final List<Integer> sent = new ArrayList<>();
+    private boolean ready;
+    private int readyBudget = Integer.MAX_VALUE;
+    private boolean cancelled;
+    private boolean completed;
+    private Throwable error;
+    private Runnable onReadyHandler;
+    
+    @Override
+    public boolean isReady() {
+      return ready;
+    }
+    
+    @Override
+    public void setOnReadyHandler(Runnable onReadyHandler) {
+      this.onReadyHandler = onReadyHandler;
+    }
+    
+    @Override
+    public boolean isCancelled() {
+      return cancelled;
+    }
+    
+    @Override
+    public void setOnCancelHandler(Runnable onCancelHandler) {
+    }
+    
+    @Override
+    public void setCompression(String compression) {
+    }
+    
+    @Override
+    public void disableAutoInboundFlowControl() {
+    }
+    
+    @Override
+    public void request(int count) {
+    }
+    
+    @Override
+    public void setMessageCompression(boolean enable) {
+    }
+    
+    @Override
+    public void onNext(Integer value) {
+      sent.add(value);
+      if (--readyBudget == 0) {
+        ready = false;
+      }
+    }
+    
+    @Override
+    public void onError(Throwable t) {
+      error = t;
+    }
+    
+    @Override
+    public void onCompleted() {
+      completed = true;
+    }
+  }
+}
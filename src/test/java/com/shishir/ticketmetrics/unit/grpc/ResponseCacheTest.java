@@ -0,0 +1,104 @@
+package com.shishir.ticketmetrics.unit.grpc;
+
+import com.shishir.ticketmetrics.cache.store.RatingWriteVersion;
+import com.shishir.ticketmetrics.generated.grpc.OverallQualityScoreResponse;
+import com.shishir.ticketmetrics.grpc.support.GrpcRequestHandler;
+import com.shishir.ticketmetrics.grpc.support.MatrixStreamProperties;
+import com.shishir.ticketmetrics.grpc.support.ResponseCache;
+import com.shishir.ticketmetrics.grpc.support.ResponseCacheProperties;
+import com.shishir.ticketmetrics.persistence.slowquery.SlowQueryLog;
+import com.shishir.ticketmetrics.service.GetCategoryTimelineScoreService;
+import com.shishir.ticketmetrics.service.OverallScoreService;
+import com.shishir.ticketmetrics.service.RatingIngestionService;
+import com.shishir.ticketmetrics.service.TicketCategoryMatrixService;
+import com.shishir.ticketmetrics.service.TicketScoreService;
+import com.shishir.ticketmetrics.testsupport.annotation.UnitTest;
+import com.shishir.ticketmetrics.testsupport.utl.GrpcTestUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Identical overall score requests share one computation and its finished response.
+ */
+@UnitTest
+public class ResponseCacheTest {
+  private static final LocalDate START = LocalDate.parse("2025-07-01");
+  private static final LocalDate END = LocalDate.parse("2025-07-07");
+  
+  private final OverallScoreService overallScoreService = mock(OverallScoreService.class);
+  private final RatingWriteVersion ratingWriteVersion = new RatingWriteVersion();
+  private final GrpcRequestHandler handler = new GrpcRequestHandler(
+      mock(TicketScoreService.class),
+      overallScoreService,
+      mock(GetCategoryTimelineScoreService.class),
+      mock(TicketCategoryMatrixService.class),
+      mock(RatingIngestionService.class),
+      new MatrixStreamProperties(500),
+      mock(SlowQueryLog.class),
+      responseCache()
+  );
+  
+  @Test
+  void sharesComputationOfConcurrentIdenticalRequests() {
+    var score = new CompletableFuture<BigDecimal>();
+    when(overallScoreService.getOverallScoreAsync(START, END)).thenReturn(score);
+    
+    var first = handler.handle(GrpcTestUtil.buildOverallQualityScoreRequest("2025-07-01T00:00:00", "2025-07-07T00:00:00"));
+    // Same days at other times of day
+    var second = handler.handle(GrpcTestUtil.buildOverallQualityScoreRequest("2025-07-01T08:30:00", "2025-07-07T23:59:59"));
+    assertThat(first).isNotDone();
+    assertThat(second).isNotDone();
+    
+    score.complete(new BigDecimal("75"));
+    
+    verify(overallScoreService, times(1)).getOverallScoreAsync(START, END);
+    assertThat(first.join()).isSameAs(second.join());
+    assertThat(first.join().getScore()).isEqualTo(75d);
+  }
+  
+  @Test
+  void servesFinishedResponseUntilRatingsAreRecorded() {
+    when(overallScoreService.getOverallScoreAsync(START, END))
+        .thenReturn(CompletableFuture.completedFuture(new BigDecimal("75")))
+        .thenReturn(CompletableFuture.completedFuture(new BigDecimal("80")));
+    var request = GrpcTestUtil.buildOverallQualityScoreRequest("2025-07-01T00:00:00", "2025-07-07T00:00:00");
+    
+    assertThat(handler.handle(request).join().getScore()).isEqualTo(75d);
+    assertThat(handler.handle(request).join().getScore()).isEqualTo(75d);
+    ratingWriteVersion.advance();
+    assertThat(handler.handle(request).join().getScore()).isEqualTo(80d);
+    
+    verify(overallScoreService, times(2)).getOverallScoreAsync(START, END);
+  }
+  
+  @Test
+  void doesNotKeepFailedResponses() {
+    when(overallScoreService.getOverallScoreAsync(START, END))
+        .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Duplicate rating")))
+        .thenReturn(CompletableFuture.completedFuture(new BigDecimal("75")));
+    var request = GrpcTestUtil.buildOverallQualityScoreRequest("2025-07-01T00:00:00", "2025-07-07T00:00:00");
+    
+    assertThat(handler.handle(request)).isCompletedExceptionally();
+    
+    assertThat(handler.handle(request).join()).isEqualTo(OverallQualityScoreResponse.newBuilder().setScore(75d).build());
+  }
+  
+  private ResponseCache responseCache() {
+    var properties = new ResponseCacheProperties(true, Duration.ofMinutes(1), DataSize.ofMegabytes(1));
+    var cacheManager = new CaffeineCacheManager();
+    cacheManager.registerCustomCache(ResponseCache.CACHE_NAME, ResponseCache.caffeine(properties).buildAsync());
+    return new ResponseCache(cacheManager, properties, ratingWriteVersion);
+  }
+}
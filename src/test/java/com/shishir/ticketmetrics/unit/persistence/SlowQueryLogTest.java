@@ -0,0 +1,38 @@
+package com.shishir.ticketmetrics.unit.persistence;
+
+import com.shishir.ticketmetrics.persistence.slowquery.SlowQuery;
+import com.shishir.ticketmetrics.persistence.slowquery.SlowQueryLog;
+import com.shishir.ticketmetrics.persistence.slowquery.SlowQueryProperties;
+import com.shishir.ticketmetrics.testsupport.annotation.UnitTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@UnitTest
+public class SlowQueryLogTest {
+  
+  @Test
+  void keepsMostRecentUpToCapacity() {
+    var slowQueryLog = new SlowQueryLog(new SlowQueryProperties(true, Duration.ofMillis(100), 2, 20));
+    
+    slowQueryLog.record(slowQuery("RatingDao.first", "SEARCH ratings USING INDEX idx_ratings_ticket_id (ticket_id=?)"));
+    slowQueryLog.record(slowQuery("RatingDao.second", "SCAN rating_categories"));
+    slowQueryLog.record(slowQuery("RatingDao.third", "SEARCH daily_category_stats USING PRIMARY KEY (day>? AND day<?)"));
+    
+    assertThat(slowQueryLog.recent()).extracting(SlowQuery::statement).containsExactly("RatingDao.third", "RatingDao.second");
+  }
+  
+  @Test
+  void detectsFullScans() {
+    assertThat(slowQuery("RatingDao.scan", "SCAN rating_categories").fullScan()).isTrue();
+    assertThat(slowQuery("RatingDao.search", "SEARCH ratings USING INDEX idx_ratings_ticket_id (ticket_id=?)").fullScan()).isFalse();
+  }
+  
+  private static SlowQuery slowQuery(String statement, String queryPlan) {
+    return SlowQuery.of(statement, "SELECT 1", List.of(), Duration.ofMillis(150), Instant.now(), List.of(queryPlan));
+  }
+}
@@ -0,0 +1,52 @@
+package com.shishir.ticketmetrics.unit.service;
+
+import com.shishir.ticketmetrics.service.support.DateRangeLoadPlanner;
+import com.shishir.ticketmetrics.service.support.RangeScanProperties;
+import com.shishir.ticketmetrics.testsupport.annotation.UnitTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@UnitTest
+public class DateRangeLoadPlannerTest {
+  
+  private static final LocalDate START = LocalDate.parse("2025-07-01");
+  private static final LocalDate END = LocalDate.parse("2025-07-05");
+  
+  private final DateRangeLoadPlanner planner = new DateRangeLoadPlanner(new RangeScanProperties(2));
+  
+  @Test
+  void usesRangeScanWhenEnoughDaysAreMissing() {
+    var cached = Set.of(LocalDate.parse("2025-07-02"), LocalDate.parse("2025-07-03"));
+    
+    var plan = planner.plan(START.datesUntil(END.plusDays(1)).toList(), cached::contains);
+    
+    assertThat(plan.rangeScan()).isTrue();
+    assertThat(plan.missingDates()).containsExactly(
+        LocalDate.parse("2025-07-01"),
+        LocalDate.parse("2025-07-04"),
+        LocalDate.parse("2025-07-05")
+    );
+    assertThat(plan.firstMissingDate()).isEqualTo(START);
+    assertThat(plan.lastMissingDate()).isEqualTo(END);
+  }
+  
+  @Test
+  void usesPerDayLoadsWhenFewDaysAreMissing() {
+    var plan = planner.plan(START.datesUntil(END.plusDays(1)).toList(), date -> !date.equals(END));
+    
+    assertThat(plan.rangeScan()).isFalse();
+    assertThat(plan.missingDates()).containsExactly(END);
+  }
+  
+  @Test
+  void skipsLoadingWhenEverythingIsCached() {
+    var plan = planner.plan(START.datesUntil(END.plusDays(1)).toList(), date -> true);
+    
+    assertThat(plan.rangeScan()).isFalse();
+    assertThat(plan.missingDates()).isEmpty();
+  }
+}
@@ -1,3 +1,5 @@
+DROP TABLE IF EXISTS daily_category_stats;
+DROP TABLE IF EXISTS ticket_category_stats;
 DROP TABLE IF EXISTS ratings;
 DROP TABLE IF EXISTS tickets;
 DROP TABLE IF EXISTS users;
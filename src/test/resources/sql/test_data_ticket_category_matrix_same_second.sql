@@ -0,0 +1,30 @@
+-- Clear old data
+DELETE FROM ratings;
+DELETE FROM tickets;
+DELETE FROM users;
+DELETE FROM rating_categories;
+
+-- Rating categories
+INSERT INTO rating_categories (id, name, weight) VALUES (1, 'Spelling', 1);
+INSERT INTO rating_categories (id, name, weight) VALUES (2, 'Grammar', 0.7);
+
+-- Tickets 2, 3 and 4 are created in the same second, inserted out of id order. Their fractional seconds
+-- sort them 4, 3, 2 as text, while pages are ordered by (epoch second, id): 2, 3, 4
+INSERT INTO tickets (id, subject, created_at) VALUES (1, 'Ticket 1', '2025-07-01 09:00:00');
+INSERT INTO tickets (id, subject, created_at) VALUES (4, 'Ticket 4', '2025-07-02 10:00:00');
+INSERT INTO tickets (id, subject, created_at) VALUES (2, 'Ticket 2', '2025-07-02 10:00:00.900');
+INSERT INTO tickets (id, subject, created_at) VALUES (3, 'Ticket 3', '2025-07-02 10:00:00.250');
+INSERT INTO tickets (id, subject, created_at) VALUES (5, 'Ticket 5', '2025-07-03 11:00:00');
+
+-- Users (reviewers and reviewees)
+INSERT INTO users (id, name) VALUES (1, 'Reviewer A');
+INSERT INTO users (id, name) VALUES (2, 'Reviewee A');
+
+-- Ratings on tickets
+INSERT INTO ratings (id, rating, ticket_id, rating_category_id, reviewer_id, reviewee_id, created_at) VALUES
+  (1, 4, 1, 1, 1, 2, '2025-07-01 10:00:00'),
+  (2, 5, 4, 1, 1, 2, '2025-07-02 11:00:00'),
+  (3, 3, 2, 2, 1, 2, '2025-07-02 11:00:00'),
+  (4, 2, 3, 1, 1, 2, '2025-07-02 11:00:00'),
+  (5, 1, 3, 2, 1, 2, '2025-07-02 11:05:00'),
+  (6, 4, 5, 2, 1, 2, '2025-07-03 12:00:00');